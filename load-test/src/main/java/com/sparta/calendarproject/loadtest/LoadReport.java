@@ -0,0 +1,163 @@
+package com.sparta.calendarproject.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 엔드포인트별 응답 시간 분포(HdrHistogram)와 실패 수를 모으고 결과를 출력 / 저장 / 비교하는 클래스
+// 응답 시간은 요청을 보내기로 한 시각부터 재므로, 서버가 밀려서 요청이 늦게 나간 시간도 포함된다 (coordinated omission 보정)
+final class LoadReport {
+
+    // 백분위 이름과 값
+    private static final Map<String, Double> PERCENTILES = Map.of("p50", 50.0, "p95", 95.0, "p99", 99.0, "p999", 99.9);
+
+    private static final String[] PERCENTILE_ORDER = {"p50", "p95", "p99", "p999"};
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> dropped = new EnumMap<>(Operation.class);
+
+    LoadReport() {
+        for (Operation operation : Operation.values()) {
+            // 1마이크로초 ~ 1분을 유효숫자 3자리로 기록
+            histograms.put(operation, new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3));
+            errors.put(operation, new AtomicLong());
+            dropped.put(operation, new AtomicLong());
+        }
+    }
+
+    // 성공한 요청의 응답 시간 기록 (나노초)
+    void record(Operation operation, long nanos) {
+        Histogram histogram = histograms.get(operation);
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), histogram.getHighestTrackableValue()));
+    }
+
+    // 실패한 요청 (2xx 가 아닌 응답이나 연결 오류)
+    void error(Operation operation) {
+        errors.get(operation).incrementAndGet();
+    }
+
+    // 동시 처리 중인 요청이 상한을 넘어서 보내지 못한 요청
+    void drop(Operation operation) {
+        dropped.get(operation).incrementAndGet();
+    }
+
+    // 엔드포인트별 요약 (밀리초), summary.json 과 비교에 사용
+    Map<String, Map<String, Object>> summarize(int seconds) {
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            long count = histogram.getTotalCount();
+            if (count == 0 && errors.get(operation).get() == 0) {
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", count);
+            row.put("errors", errors.get(operation).get());
+            row.put("dropped", dropped.get(operation).get());
+            row.put("throughput", (double) count / seconds);
+            for (String name : PERCENTILE_ORDER) {
+                row.put(name, histogram.getValueAtPercentile(PERCENTILES.get(name)) / 1000.0);
+            }
+            row.put("max", histogram.getMaxValue() / 1000.0);
+            summary.put(operation.label(), row);
+        }
+        return summary;
+    }
+
+    // 결과 표 출력
+    static void print(PrintStream out, Map<String, Map<String, Object>> summary) {
+        out.printf("%n%-8s %10s %8s %8s %10s %10s %10s %10s %10s %10s%n",
+                "endpoint", "count", "errors", "dropped", "req/s", "p50(ms)", "p95(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        summary.forEach((endpoint, row) -> out.printf("%-8s %10d %8d %8d %10.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                endpoint, row.get("count"), row.get("errors"), row.get("dropped"), row.get("throughput"),
+                row.get("p50"), row.get("p95"), row.get("p99"), row.get("p999"), row.get("max")));
+    }
+
+    // 엔드포인트별 HdrHistogram 백분위 분포(.hgrm, 밀리초) 와 summary.json 을 저장
+    // .hgrm 파일은 HdrHistogram plotter 로 이전 실행과 겹쳐서 그려볼 수 있다
+    void write(Path directory, Map<String, Object> config, Map<String, Map<String, Object>> summary) throws IOException {
+        Files.createDirectories(directory);
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(operation.label() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("config", config);
+        document.put("endpoints", summary);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve("summary.json").toFile(), document);
+    }
+
+    // 이전 실행(summary.json) 과 p99 / 처리량을 비교해서 출력하고, p99 가 허용 비율보다 나빠진 엔드포인트를 반환
+    static List<String> compare(PrintStream out, Path baselineFile, Map<String, Map<String, Object>> summary,
+                                double maxRegressionPercent) throws IOException {
+        JsonNode baseline = new ObjectMapper().readTree(baselineFile.toFile()).path("endpoints");
+        List<String> failures = new ArrayList<>();
+
+        out.printf("%n기준 실행과 비교 (%s)%n", baselineFile);
+        out.printf("%-8s %12s %12s %9s %12s %12s %9s%n",
+                "endpoint", "base p99", "p99", "change", "base req/s", "req/s", "change");
+        summary.forEach((endpoint, row) -> {
+            JsonNode base = baseline.path(endpoint);
+            if (base.isMissingNode()) {
+                return;
+            }
+            double baseP99 = base.path("p99").asDouble();
+            double p99 = (double) row.get("p99");
+            double baseThroughput = base.path("throughput").asDouble();
+            double throughput = (double) row.get("throughput");
+            double p99Change = change(baseP99, p99);
+            out.printf("%-8s %12.2f %12.2f %8.1f%% %12.1f %12.1f %8.1f%%%n",
+                    endpoint, baseP99, p99, p99Change, baseThroughput, throughput, change(baseThroughput, throughput));
+            if (p99Change > maxRegressionPercent) {
+                failures.add(String.format("%s p99 가 기준보다 %.1f%% 나빠졌습니다 (%.2fms → %.2fms, 허용 %.1f%%)",
+                        endpoint, p99Change, baseP99, p99, maxRegressionPercent));
+            }
+        });
+        return failures;
+    }
+
+    // 지연시간 예산 확인 (예: get.p99=20 → 단건 조회 p99 가 20ms 를 넘으면 실패, create.errors=0 → 생성 실패가 있으면 실패)
+    static List<String> checkBudgets(Map<String, Double> budgets, Map<String, Map<String, Object>> summary) {
+        List<String> failures = new ArrayList<>();
+        budgets.forEach((key, limit) -> {
+            String[] parts = key.split("\\.");
+            Map<String, Object> row = summary.get(parts[0]);
+            if (row == null || !row.containsKey(parts[1])) {
+                failures.add("예산 대상이 결과에 없습니다: " + key);
+                return;
+            }
+            // 백분위는 밀리초, errors / dropped 는 개수
+            double value = ((Number) row.get(parts[1])).doubleValue();
+            if (value > limit) {
+                failures.add(String.format("%s = %.2f 가 예산 %.2f 를 넘었습니다", key, value, limit));
+            }
+        });
+        return failures;
+    }
+
+    private static double change(double base, double value) {
+        return base == 0 ? 0 : (value - base) * 100 / base;
+    }
+}
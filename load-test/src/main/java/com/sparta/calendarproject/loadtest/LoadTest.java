@@ -0,0 +1,296 @@
+package com.sparta.calendarproject.loadtest;
+
+import com.sparta.calendarproject.CalendarProjectApplication;
+import com.sparta.calendarproject.dto.CalendarRequestDto;
+import com.sparta.calendarproject.model.CalendarModel;
+import com.sparta.calendarproject.repository.CalendarRepository;
+import com.sparta.calendarproject.service.CalendarPasswordService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// REST API(CalendarController) 전체를 대상으로 하는 부하 테스트
+// 1. 메모리 DB(H2, MySQL 모드) 로 애플리케이션을 띄우고 seed-rows 개의 일정을 넣는다
+// 2. 초당 rate 개의 요청을 포아송 도착(열린 모델) 으로 보낸다 (응답이 늦어져도 보내는 속도는 줄지 않음)
+//    요청 종류는 mix 비율로, 일정 ID 와 작성자는 Zipf 분포로 골라서 일부 일정 / 작성자에 요청이 몰리게 한다
+// 3. 엔드포인트별 처리량과 p50 / p95 / p99 / p999 를 출력하고 .hgrm / summary.json 으로 저장한다
+// 4. 기준 실행(--baseline) 보다 p99 가 허용 비율 이상 나빠지거나 예산(--budget) 을 넘으면 종료 코드 1 로 실패한다
+public final class LoadTest {
+
+    private static final String PASSWORD = "1234";
+
+    private static final Pattern CREATED_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final String baseUrl;
+
+    // 시작 전에 넣어둔 일정의 ID 와 작성자 (인기 순위 = 목록의 위치, 수정 요청 본문에 작성자도 필요)
+    private final List<CalendarModel> seeded;
+
+    // 실행 중에 생성한 일정 ID (삭제 요청은 여기서 꺼내서 인기 있는 일정이 사라지지 않게 함)
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+
+    private final Zipf idPopularity;
+    private final Zipf authorPopularity;
+
+    // mix 비율에 따라 요청 종류를 고르기 위한 누적 가중치
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private LoadTest(LoadTestOptions options, int port, List<CalendarModel> seeded) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = "http://localhost:" + port + "/api";
+        this.seeded = seeded;
+        this.idPopularity = new Zipf(seeded.size(), options.idSkew);
+        this.authorPopularity = new Zipf(options.authors, options.authorSkew);
+
+        this.operations = options.mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += options.mix.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        List<String> failures;
+
+        ConfigurableApplicationContext context = start(options);
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            List<CalendarModel> seeded = seed(context, options);
+            LoadTest loadTest = new LoadTest(options, port, seeded);
+
+            System.out.printf("워밍업 %d초 ...%n", options.warmupSeconds);
+            loadTest.run(options.warmupSeconds, new LoadReport());
+            System.out.printf("측정 %d초 (초당 %.0f 요청, mix %s)%n", options.durationSeconds, options.rate, options.mix);
+            LoadReport report = new LoadReport();
+            loadTest.run(options.durationSeconds, report);
+
+            failures = finish(options, report);
+        } finally {
+            context.close();
+        }
+
+        if (!failures.isEmpty()) {
+            System.out.println();
+            failures.forEach(failure -> System.out.println("실패: " + failure));
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    // 메모리 DB 로 애플리케이션을 띄움 (가상 스레드, 임의 포트)
+    private static ConfigurableApplicationContext start(LoadTestOptions options) {
+        return new SpringApplicationBuilder(CalendarProjectApplication.class)
+                .run("--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:load-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.threads.virtual.enabled=true",
+                        "--calendar.password.bcrypt-strength=" + options.bcryptStrength);
+    }
+
+    // seed-rows 개의 일정을 리포지토리로 직접 넣음 (요약 통계도 함께 채워짐)
+    // 작성자는 Zipf 분포로 골라서 작성자별 일정 수도 치우치게 한다
+    private static List<CalendarModel> seed(ConfigurableApplicationContext context, LoadTestOptions options) {
+        CalendarRepository repository = context.getBean(CalendarRepository.class);
+        String password = context.getBean(CalendarPasswordService.class).hash(PASSWORD);
+        Zipf authors = new Zipf(options.authors, options.authorSkew);
+        SplittableRandom random = new SplittableRandom(options.seed);
+
+        List<CalendarModel> seeded = new ArrayList<>(options.seedRows);
+        List<CalendarModel> chunk = new ArrayList<>();
+        for (int i = 0; i < options.seedRows; i++) {
+            CalendarRequestDto requestDto = new CalendarRequestDto();
+            requestDto.setAuthor(author(authors.sample(random)));
+            requestDto.setTodolist("부하 테스트 일정 " + i);
+            CalendarModel model = CalendarModel.from(requestDto);
+            model.setPassword(password);
+            chunk.add(model);
+            if (chunk.size() == 1000 || i == options.seedRows - 1) {
+                repository.createCalendars(chunk, 500);
+                seeded.addAll(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+        return seeded;
+    }
+
+    // seconds 초 동안 포아송 도착으로 요청을 보내고 결과를 report 에 기록
+    // 요청마다 가상 스레드 하나를 쓰고, 동시에 처리 중인 요청이 max-in-flight 를 넘으면 보내지 않고 dropped 로 센다
+    private void run(int seconds, LoadReport report) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(options.seed);
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        double meanGapNanos = 1_000_000_000.0 / options.rate;
+
+        long next = System.nanoTime();
+        long end = next + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (next < end) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long intended = next;
+                Operation operation = pickOperation(random);
+                if (inFlight.tryAcquire()) {
+                    requests.submit(() -> {
+                        try {
+                            execute(operation, intended, report);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } else {
+                    report.drop(operation);
+                }
+                // 다음 요청까지의 간격 (지수 분포 → 포아송 도착)
+                next += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+            }
+        }
+    }
+
+    // 요청 하나를 보내고 보내기로 한 시각(intended) 부터 응답까지의 시간을 기록
+    private void execute(Operation operation, long intended, LoadReport report) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest request;
+        Long deleteId = null;
+        switch (operation) {
+            case CREATE -> request = json(URI.create(baseUrl + "/calendar"), "POST",
+                    body(author(authorPopularity.sample(random)), "새 일정 " + random.nextInt()));
+            case LIST -> request = HttpRequest.newBuilder(URI.create(baseUrl + "/lists?limit=20&author="
+                    + URLEncoder.encode(author(authorPopularity.sample(random)), StandardCharsets.UTF_8))).build();
+            case GET -> request = HttpRequest.newBuilder(URI.create(baseUrl + "/lists/" + popular(random).getId())).build();
+            case UPDATE -> {
+                // PUT 은 일정 전체를 바꾸므로 작성자도 함께 보냄
+                CalendarModel target = popular(random);
+                request = json(URI.create(baseUrl + "/" + target.getId()), "PUT",
+                        body(target.getAuthor(), "수정 " + random.nextInt()));
+            }
+            case DELETE -> {
+                deleteId = createdIds.poll();
+                if (deleteId == null) {
+                    // 아직 지울 일정이 없으면 건너뜀 (인기 있는 시드 일정은 지우지 않음)
+                    return;
+                }
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + deleteId + "?password=" + PASSWORD))
+                        .DELETE().build();
+            }
+            default -> throw new IllegalStateException(operation.name());
+        }
+
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                report.error(operation);
+                return;
+            }
+            report.record(operation, System.nanoTime() - intended);
+            if (operation == Operation.CREATE) {
+                Matcher matcher = CREATED_ID.matcher(response.body());
+                if (matcher.find()) {
+                    createdIds.add(Long.parseLong(matcher.group(1)));
+                }
+            }
+        } catch (Exception e) {
+            report.error(operation);
+        }
+    }
+
+    // 결과를 출력 / 저장하고 기준 실행 비교와 예산 확인에서 나온 실패 목록을 반환
+    private static List<String> finish(LoadTestOptions options, LoadReport report) throws Exception {
+        Map<String, Map<String, Object>> summary = report.summarize(options.durationSeconds);
+        LoadReport.print(System.out, summary);
+
+        String runName = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        report.write(options.out.resolve(runName), options.describe(), summary);
+        System.out.printf("%n결과 저장: %s (summary.json 을 다음 실행의 --baseline 으로 사용)%n", options.out.resolve(runName));
+
+        List<String> failures = new ArrayList<>();
+        if (options.baseline != null) {
+            failures.addAll(LoadReport.compare(System.out, options.baseline, summary, options.maxRegressionPercent));
+        }
+        failures.addAll(LoadReport.checkBudgets(options.budgets, summary));
+        return failures;
+    }
+
+    private Operation pickOperation(SplittableRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private CalendarModel popular(ThreadLocalRandom random) {
+        return seeded.get(idPopularity.sample(random));
+    }
+
+    private static String author(int rank) {
+        return String.format("author-%03d", rank);
+    }
+
+    private static String body(String author, String todolist) {
+        return "{\"author\":\"" + author + "\",\"todolist\":\"" + todolist + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static HttpRequest json(URI uri, String method, String body) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. 열린 모델(open model) 과 닫힌 모델(closed model)
+닫힌 모델은 정해진 사용자 수가 응답을 받은 뒤에 다음 요청을 보내서, 서버가 느려지면 보내는 속도도 같이 줄어든다
+열린 모델은 실제 서비스처럼 응답과 관계없이 정해진 속도로 요청이 도착하므로 서버가 밀릴 때의 지연시간을 그대로 보여준다
+
+2. coordinated omission 보정
+응답 시간을 실제로 보낸 시각이 아니라 보내기로 한 시각부터 재서, 밀려서 늦게 나간 시간도 지연시간에 포함한다
+그렇지 않으면 서버가 멈춘 동안의 요청이 측정에서 빠져서 p99 가 실제보다 좋게 나온다
+
+3. HdrHistogram
+값의 범위가 넓어도 정해진 유효숫자로 모든 요청을 기록하는 히스토그램 (샘플링 없이 p999 까지 정확)
+.hgrm 파일은 HdrHistogram plotter 로 여러 실행을 겹쳐서 비교할 수 있다
+
+4. Zipf 분포
+일부 일정 / 작성자에 요청이 몰리는 실제 접근 패턴을 흉내내서 캐시 적중률과 같은 행 경합이 현실적으로 나오게 한다
+ */
@@ -0,0 +1,114 @@
+package com.sparta.calendarproject.loadtest;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 부하 테스트 설정 (--이름=값 형식의 실행 인자)
+final class LoadTestOptions {
+
+    // 초당 도착하는 요청 수 (열린 모델: 응답을 기다리지 않고 이 속도로 계속 보냄)
+    final double rate;
+
+    final int warmupSeconds;
+    final int durationSeconds;
+
+    // 요청 종류별 비율 (예: create:10,list:40,get:35,update:10,delete:5)
+    final Map<Operation, Integer> mix;
+
+    // 시작 전에 넣어둘 일정 수와 작성자 수
+    final int seedRows;
+    final int authors;
+
+    // 일정 ID / 작성자 인기도의 치우침 (Zipf 지수, 0 이면 균등, 클수록 소수에게 몰림)
+    final double idSkew;
+    final double authorSkew;
+
+    // 동시에 처리 중인 요청 수 상한 (넘으면 보내지 않고 dropped 로 셈)
+    final int maxInFlight;
+
+    // BCrypt 작업 강도 (기본은 계산 비용이 결과를 가리지 않도록 최소값)
+    final int bcryptStrength;
+
+    // 난수 시드 (같은 시드면 같은 요청 순서)
+    final long seed;
+
+    // 결과를 남길 디렉터리
+    final Path out;
+
+    // 비교할 이전 실행의 summary.json (없으면 null) 과 허용하는 p99 악화 비율(%)
+    final Path baseline;
+    final double maxRegressionPercent;
+
+    // 엔드포인트별 지연시간 예산 (예: get.p99=20 → 단건 조회 p99 가 20ms 를 넘으면 실패)
+    final Map<String, Double> budgets;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.rate = Double.parseDouble(values.getOrDefault("rate", "200"));
+        this.warmupSeconds = Integer.parseInt(values.getOrDefault("warmup-seconds", "10"));
+        this.durationSeconds = Integer.parseInt(values.getOrDefault("duration-seconds", "60"));
+        this.mix = parseMix(values.getOrDefault("mix", "create:10,list:40,get:35,update:10,delete:5"));
+        this.seedRows = Integer.parseInt(values.getOrDefault("seed-rows", "10000"));
+        this.authors = Integer.parseInt(values.getOrDefault("authors", "100"));
+        this.idSkew = Double.parseDouble(values.getOrDefault("id-skew", "1.1"));
+        this.authorSkew = Double.parseDouble(values.getOrDefault("author-skew", "1.0"));
+        this.maxInFlight = Integer.parseInt(values.getOrDefault("max-in-flight", "5000"));
+        this.bcryptStrength = Integer.parseInt(values.getOrDefault("bcrypt-strength", "4"));
+        this.seed = Long.parseLong(values.getOrDefault("seed", "42"));
+        this.out = Path.of(values.getOrDefault("out", "build/load-test"));
+        this.baseline = values.containsKey("baseline") ? Path.of(values.get("baseline")) : null;
+        this.maxRegressionPercent = Double.parseDouble(values.getOrDefault("max-regression", "20"));
+        this.budgets = parseBudgets(values.getOrDefault("budget", ""));
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("--이름=값 형식이어야 합니다: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    // 실행 설정을 결과 파일에 함께 남기기 위한 값들
+    Map<String, Object> describe() {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("rate", rate);
+        config.put("durationSeconds", durationSeconds);
+        config.put("mix", mix.toString());
+        config.put("seedRows", seedRows);
+        config.put("authors", authors);
+        config.put("idSkew", idSkew);
+        config.put("authorSkew", authorSkew);
+        config.put("bcryptStrength", bcryptStrength);
+        config.put("seed", seed);
+        return config;
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            mix.put(Operation.of(pair[0]), Integer.parseInt(pair[1]));
+        }
+        return mix;
+    }
+
+    // "get.p99=20,list.p999=100" → {"get.p99": 20.0, "list.p999": 100.0}
+    private static Map<String, Double> parseBudgets(String value) {
+        Map<String, Double> budgets = new LinkedHashMap<>();
+        if (value.isBlank()) {
+            return budgets;
+        }
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            budgets.put(pair[0], Double.parseDouble(pair[1]));
+        }
+        return budgets;
+    }
+}
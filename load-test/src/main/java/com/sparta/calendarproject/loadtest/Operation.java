@@ -0,0 +1,21 @@
+package com.sparta.calendarproject.loadtest;
+
+import java.util.Locale;
+
+// 부하 테스트가 보내는 요청 종류 (CalendarController 의 엔드포인트)
+enum Operation {
+    CREATE,   // POST /api/calendar
+    LIST,     // GET /api/lists?author=...
+    GET,      // GET /api/lists/{id}
+    UPDATE,   // PUT /api/{id}
+    DELETE;   // DELETE /api/{id}
+
+    // 결과 표와 파일 이름에 쓰는 이름
+    String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static Operation of(String label) {
+        return valueOf(label.trim().toUpperCase(Locale.ROOT));
+    }
+}
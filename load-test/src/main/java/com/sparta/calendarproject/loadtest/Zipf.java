@@ -0,0 +1,30 @@
+package com.sparta.calendarproject.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// 0 ~ n-1 순위 중 하나를 Zipf 분포로 뽑는 샘플러 (순위 k 의 확률은 1 / (k+1)^s 에 비례)
+// s 가 0 이면 균등 분포, 1 근처면 상위 몇 개에 요청이 몰리는 실제 서비스와 비슷한 분포가 된다
+final class Zipf {
+
+    // 누적 확률 (cumulative[k] = 순위 0 ~ k 의 확률 합)
+    private final double[] cumulative;
+
+    Zipf(int n, double exponent) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    // 순위 하나를 뽑음 (이진 탐색)
+    int sample(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
@@ -14,6 +14,9 @@ create table calendar (
                           updateDate timestamp default current_timestamp on update current_timestamp
 );
 
+-- 인덱스와 이후 스키마 변경은 src/main/resources/db/migration 의 버전별 스크립트로 관리한다
+-- 애플리케이션을 실행하면 Flyway 가 이 테이블을 V1 으로 기록하고 V2 부터 자동으로 적용한다
+
 -- 공부한 내용 정리
 
 -- 데이터베이스 생성 명령어
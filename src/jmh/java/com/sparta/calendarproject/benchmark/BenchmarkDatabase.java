@@ -0,0 +1,62 @@
+package com.sparta.calendarproject.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// 벤치마크용 임베디드 데이터베이스를 준비하는 도우미 클래스
+// MySQL 호환 모드의 H2 메모리 DB 에 실제 마이그레이션 스크립트를 적용하고 테스트 데이터를 채운다
+public final class BenchmarkDatabase {
+
+    // 한 번의 배치 INSERT 로 넣을 행 수
+    private static final int SEED_CHUNK_SIZE = 1_000;
+
+    // 시드 데이터의 작성자 종류 수 (작성자 필터 조회에 쓰임)
+    public static final int AUTHORS = 100;
+
+    // 시드 데이터의 첫 수정 시간 (행마다 1초씩 증가)
+    public static final LocalDateTime SEED_BASE_TIME = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private BenchmarkDatabase() {
+    }
+
+    // 이름별로 독립된 데이터베이스를 만들고 스키마를 적용
+    public static DataSource create(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        return dataSource;
+    }
+
+    // rowCount 개의 일정을 채운다 (id 는 1 부터 rowCount 까지)
+    public static void seed(JdbcTemplate jdbcTemplate, int rowCount) {
+        List<Object[]> chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+        for (int i = 0; i < rowCount; i++) {
+            Timestamp time = Timestamp.valueOf(SEED_BASE_TIME.plusSeconds(i));
+            chunk.add(new Object[]{author(i), "할 일 " + i, "1234", time, time});
+            if (chunk.size() == SEED_CHUNK_SIZE) {
+                insert(jdbcTemplate, chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insert(jdbcTemplate, chunk);
+        }
+    }
+
+    // i 번째 시드 행의 작성자 이름
+    public static String author(int i) {
+        return "author" + (i % AUTHORS);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO calendar (author, todolist, password, createDate, updateDate) VALUES (?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,133 @@
+package com.sparta.calendarproject.benchmark;
+
+import com.sparta.calendarproject.CalendarProjectApplication;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// 일정 생성(POST /api/calendar)의 처리량을 기존 방식(요청마다 커밋)과 그룹 커밋 방식으로 비교하는 부하 측정 프로그램
+// 동시 작성자 수(기본 1, 10, 100, 1000)마다 같은 시간 동안 생성 요청을 보내고 처리량과 p50 / p99 지연시간을 출력한다
+// 메모리 DB 는 커밋 비용이 거의 없으므로 커밋마다 commitLatencyMillis 만큼 기다리게 해서 디스크 fsync 를 흉내낸다
+//
+// 실행: ./gradlew groupCommitCompare -Pwriters=1,10,100,1000 -PdurationSeconds=20 -PcommitLatencyMillis=2
+public final class GroupCommitLoadComparison {
+
+    private static final String BODY = "{\"author\":\"bench\",\"todolist\":\"그룹 커밋 벤치마크\",\"password\":\"1234\"}";
+
+    private GroupCommitLoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] writers = System.getProperty("writers", "1,10,100,1000").split(",");
+        int warmupSeconds = Integer.getInteger("warmupSeconds", 5);
+        int durationSeconds = Integer.getInteger("durationSeconds", 20);
+        long dbLatencyMillis = Long.getLong("dbLatencyMillis", 1);
+        long commitLatencyMillis = Long.getLong("commitLatencyMillis", 2);
+
+        Map<String, LoadSamples> results = new LinkedHashMap<>();
+        for (boolean groupCommit : new boolean[]{false, true}) {
+            String mode = groupCommit ? "group" : "direct";
+            ConfigurableApplicationContext context = start(groupCommit, dbLatencyMillis, commitLatencyMillis);
+            try {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                for (String writer : writers) {
+                    int concurrency = Integer.parseInt(writer.trim());
+                    drive(port, concurrency, warmupSeconds);
+                    results.put(mode + " x" + concurrency, drive(port, concurrency, durationSeconds));
+                }
+            } finally {
+                context.close();
+            }
+        }
+
+        System.out.printf("%n측정 %d초, 쿼리당 지연 %dms, 커밋당 지연 %dms%n", durationSeconds, dbLatencyMillis, commitLatencyMillis);
+        LoadSamples.printHeader("mode x writers");
+        results.forEach((label, samples) -> samples.print(label, durationSeconds));
+    }
+
+    // 그룹 커밋을 켜거나 끈 상태로 애플리케이션을 띄움
+    // BCrypt 계산이 비교 결과를 가리지 않도록 작업 강도를 최소로 낮추고, 동시 요청을 모두 받도록 가상 스레드를 사용
+    private static ConfigurableApplicationContext start(boolean groupCommit, long dbLatencyMillis, long commitLatencyMillis) {
+        String mode = groupCommit ? "group" : "direct";
+        return new SpringApplicationBuilder(CalendarProjectApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(latencyInjector(dbLatencyMillis, commitLatencyMillis)))
+                .run("--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:group-commit-" + mode + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.threads.virtual.enabled=true",
+                        "--calendar.password.bcrypt-strength=4",
+                        "--calendar.group-commit.enabled=" + groupCommit);
+    }
+
+    // 애플리케이션의 DataSource 를 쿼리와 커밋마다 지연이 생기는 래퍼로 바꿔치기
+    private static BeanPostProcessor latencyInjector(long dbLatencyMillis, long commitLatencyMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LatencyInjectingDataSource)) {
+                    return new LatencyInjectingDataSource(dataSource, dbLatencyMillis, commitLatencyMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // concurrency 명의 작성자가 seconds 초 동안 쉬지 않고 일정 생성 요청을 보냄 (닫힌 모델)
+    private static LoadSamples drive(int port, int concurrency, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/calendar"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(BODY))
+                .build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        List<Future<LoadSamples>> futures = new ArrayList<>();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(users.submit(() -> {
+                    LoadSamples samples = new LoadSamples();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 201) {
+                                samples.add(System.nanoTime() - start);
+                            } else {
+                                samples.error();
+                            }
+                        } catch (Exception e) {
+                            samples.error();
+                        }
+                    }
+                    return samples;
+                }));
+            }
+        }
+
+        LoadSamples total = new LoadSamples();
+        for (Future<LoadSamples> future : futures) {
+            total.merge(future.get());
+        }
+        return total;
+    }
+}
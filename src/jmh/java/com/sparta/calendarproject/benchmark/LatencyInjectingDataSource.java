@@ -0,0 +1,89 @@
+package com.sparta.calendarproject.benchmark;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+// 쿼리를 실행할 때마다 일정 시간 기다리게 만드는 DataSource 래퍼
+// 메모리 DB(H2)는 네트워크 왕복이 없어서 스레드가 I/O 를 기다리는 상황을 재현할 수 없으므로
+// 실제 MySQL 처럼 쿼리마다 지연이 생기도록 흉내낸다
+// commitLatencyMillis 를 주면 트랜잭션 커밋(디스크 fsync)에도 지연을 넣는다
+public class LatencyInjectingDataSource extends DelegatingDataSource {
+
+    // 지연을 넣을 Statement 실행 메서드들
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    // 쿼리 한 번에 추가할 지연 시간 (밀리초)
+    private final long latencyMillis;
+
+    // 커밋 한 번에 추가할 지연 시간 (밀리초)
+    // 자동 커밋(autocommit) 문장은 실행할 때 함께 커밋되므로 실행 지연에 더해준다
+    private final long commitLatencyMillis;
+
+    public LatencyInjectingDataSource(DataSource target, long latencyMillis) {
+        this(target, latencyMillis, 0);
+    }
+
+    public LatencyInjectingDataSource(DataSource target, long latencyMillis, long commitLatencyMillis) {
+        super(target);
+        this.latencyMillis = latencyMillis;
+        this.commitLatencyMillis = commitLatencyMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    // 커넥션이 만든 Statement 들을 지연을 넣는 프록시로 감싼다
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("commit")) {
+                        Thread.sleep(commitLatencyMillis);
+                    }
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement
+                            && (method.getName().equals("prepareStatement") || method.getName().equals("createStatement"))) {
+                        return wrapStatement(connection, statement, method.getReturnType());
+                    }
+                    return result;
+                });
+    }
+
+    private Object wrapStatement(Connection connection, Statement statement, Class<?> statementType) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                // 드라이버 내부 락을 잡기 전에 기다려서 가상 스레드가 고정(pinning)되지 않게 한다
+                Thread.sleep(connection.getAutoCommit() ? latencyMillis + commitLatencyMillis : latencyMillis);
+            }
+            return invoke(statement, method, args);
+        };
+        return Proxy.newProxyInstance(statementType.getClassLoader(), new Class<?>[]{statementType}, handler);
+    }
+
+    // 프록시 대상 메서드를 호출하고, 원래 예외를 그대로 전달
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
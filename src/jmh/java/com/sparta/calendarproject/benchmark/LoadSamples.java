@@ -0,0 +1,56 @@
+package com.sparta.calendarproject.benchmark;
+
+import java.util.Arrays;
+
+// 부하 측정 프로그램에서 사용자 한 명(또는 전체)이 기록한 응답 시간(나노초)과 실패 횟수
+final class LoadSamples {
+
+    private long[] values = new long[1024];
+    private int size;
+    private long errors;
+
+    // 성공한 요청의 응답 시간 기록
+    void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    // 실패한 요청 기록
+    void error() {
+        errors++;
+    }
+
+    // 다른 사용자의 기록을 합침
+    void merge(LoadSamples other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.values[i]);
+        }
+        errors += other.errors;
+    }
+
+    // 처리량(req/s), p50 / p99 (ms), 실패 수를 한 줄로 출력
+    void print(String label, int seconds) {
+        long[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        System.out.printf("%-16s %12.1f %10.2f %10.2f %10d%n", label,
+                (double) sorted.length / seconds,
+                percentile(sorted, 0.50) / 1_000_000.0,
+                percentile(sorted, 0.99) / 1_000_000.0,
+                errors);
+    }
+
+    // 결과 표의 머리글
+    static void printHeader(String label) {
+        System.out.printf("%-16s %12s %10s %10s %10s%n", label, "req/s", "p50(ms)", "p99(ms)", "errors");
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+}
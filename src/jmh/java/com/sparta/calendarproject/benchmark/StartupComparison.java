@@ -0,0 +1,178 @@
+package com.sparta.calendarproject.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 애플리케이션의 시작 시간과 메모리 사용량을 실행 방식별로 비교하는 측정 프로그램
+// 모드마다 별도 프로세스로 애플리케이션을 띄우고, 프로세스를 만든 시각부터 첫 목록 조회가 200 으로 응답할 때까지의 시간과
+// 그 시점의 RSS(실제 사용 중인 물리 메모리) 를 잰다
+// - normal  : bootJar 를 그대로 실행 (java -jar 와 같음)
+// - cds     : 풀어둔 jar 를 AppCDS 아카이브와 함께 실행
+// - aot-cds : 위에 더해 빌드할 때 만든 AOT 빈 정의를 사용 (-Dspring.aot.enabled=true)
+// cds / aot-cds 는 같은 클래스 경로로 먼저 학습 실행을 해서 모드별 아카이브를 만든다
+//
+// 실행: ./gradlew startupCompare -Pruns=5
+public final class StartupComparison {
+
+    private static final String MAIN_CLASS = "com.sparta.calendarproject.CalendarProjectApplication";
+
+    private static final String JAR_LAUNCHER = "org.springframework.boot.loader.launch.JarLauncher";
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private StartupComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path bootJar = Path.of(System.getProperty("bootJar"));
+        Path extractedJar = Path.of(System.getProperty("extractedJar"));
+        Path h2Jar = Path.of(System.getProperty("h2Jar"));
+        Path workDir = Path.of(System.getProperty("workDir", "build/startup-compare"));
+        int runs = Integer.getInteger("runs", 5);
+        Files.createDirectories(workDir);
+
+        // H2 는 애플리케이션 jar 에 들어있지 않으므로 클래스 경로 끝에 붙인다
+        // (CDS 는 학습할 때의 클래스 경로가 실행할 때의 앞부분과 같아야 하므로 학습 실행도 같은 클래스 경로를 씀)
+        String bootClasspath = bootJar + File.pathSeparator + h2Jar;
+        String extractedClasspath = extractedJar + File.pathSeparator + h2Jar;
+
+        Path cdsArchive = train(workDir.resolve("cds.jsa"), extractedClasspath, false);
+        Path aotCdsArchive = train(workDir.resolve("aot-cds.jsa"), extractedClasspath, true);
+
+        List<String> modes = List.of("normal", "cds", "aot-cds");
+        List<List<String>> commands = List.of(
+                List.of("-cp", bootClasspath, JAR_LAUNCHER),
+                List.of("-XX:SharedArchiveFile=" + cdsArchive, "-cp", extractedClasspath, MAIN_CLASS),
+                List.of("-XX:SharedArchiveFile=" + aotCdsArchive, "-Dspring.aot.enabled=true",
+                        "-cp", extractedClasspath, MAIN_CLASS));
+
+        long[][] startupMillis = new long[modes.size()][runs];
+        long[][] rssKilobytes = new long[modes.size()][runs];
+        for (int run = 0; run < runs; run++) {
+            // 모드를 번갈아 실행해서 디스크 캐시 같은 순서 효과가 한쪽에 몰리지 않게 함
+            for (int mode = 0; mode < modes.size(); mode++) {
+                long[] result = measure(commands.get(mode));
+                startupMillis[mode][run] = result[0];
+                rssKilobytes[mode][run] = result[1];
+                System.out.printf("%-8s run %d: %d ms, RSS %d MB%n", modes.get(mode), run + 1, result[0], result[1] / 1024);
+            }
+        }
+
+        System.out.printf("%n실행 %d회 중앙값 (프로세스 시작 → 첫 요청 성공)%n", runs);
+        System.out.printf("%-10s %14s %10s%n", "mode", "startup(ms)", "RSS(MB)");
+        for (int mode = 0; mode < modes.size(); mode++) {
+            System.out.printf("%-10s %14d %10d%n", modes.get(mode),
+                    median(startupMillis[mode]), median(rssKilobytes[mode]) / 1024);
+        }
+    }
+
+    // 컨텍스트가 준비되면 바로 종료하는 학습 실행으로 CDS 아카이브를 만든다
+    private static Path train(Path archive, String classpath, boolean aot) throws Exception {
+        Files.deleteIfExists(archive);
+        List<String> jvmArgs = new ArrayList<>(List.of(
+                "-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh"));
+        if (aot) {
+            jvmArgs.add("-Dspring.aot.enabled=true");
+        }
+        jvmArgs.addAll(List.of("-cp", classpath, MAIN_CLASS));
+
+        Process process = start(jvmArgs, freePort());
+        if (!process.waitFor(STARTUP_TIMEOUT.toSeconds(), TimeUnit.SECONDS) || !Files.exists(archive)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("CDS 아카이브를 만들지 못했습니다: " + archive);
+        }
+        return archive;
+    }
+
+    // 애플리케이션을 띄우고 첫 요청이 성공할 때까지의 시간(ms) 과 그때의 RSS(KB) 를 반환
+    private static long[] measure(List<String> jvmArgs) throws Exception {
+        int port = freePort();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/lists?limit=1")).build();
+
+        long start = System.nanoTime();
+        Process process = start(jvmArgs, port);
+        try {
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("애플리케이션이 시작 중에 종료되었습니다 (exit " + process.exitValue() + ")");
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                        return new long[]{elapsedMillis, rssKilobytes(process.pid())};
+                    }
+                } catch (IOException e) {
+                    // 아직 포트가 열리지 않음
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("애플리케이션이 " + STARTUP_TIMEOUT.toSeconds() + "초 안에 응답하지 않았습니다");
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    // 지금 실행 중인 것과 같은 java 로 메모리 DB(H2) 를 쓰는 애플리케이션 프로세스를 띄움
+    private static Process start(List<String> jvmArgs, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmArgs);
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password="));
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    // 프로세스의 RSS (KB), Linux 는 /proc, 그 외에는 ps 로 읽음
+    private static long rssKilobytes(long pid) throws Exception {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (Files.exists(status)) {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        }
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", Long.toString(pid)).start();
+        String output = new String(ps.getInputStream().readAllBytes()).trim();
+        ps.waitFor();
+        return output.isEmpty() ? 0 : Long.parseLong(output);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
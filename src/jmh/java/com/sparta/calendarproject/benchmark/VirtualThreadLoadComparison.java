@@ -0,0 +1,124 @@
+package com.sparta.calendarproject.benchmark;
+
+import com.sparta.calendarproject.CalendarProjectApplication;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 플랫폼 스레드 모드와 가상 스레드 모드를 같은 동시 사용자 수로 비교하는 부하 측정 프로그램
+// 각 모드로 애플리케이션을 띄우고 같은 시간 동안 목록 조회를 보낸 뒤 처리량과 p99 지연시간을 출력한다
+//
+// 실행: ./gradlew loadCompare -Pconcurrency=1000 -PdurationSeconds=30 -PdbLatencyMillis=5
+public final class VirtualThreadLoadComparison {
+
+    private VirtualThreadLoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("concurrency", 500);
+        int warmupSeconds = Integer.getInteger("warmupSeconds", 5);
+        int durationSeconds = Integer.getInteger("durationSeconds", 20);
+        long dbLatencyMillis = Long.getLong("dbLatencyMillis", 5);
+        int rowCount = Integer.getInteger("rowCount", 10_000);
+
+        LoadSamples platform = run(false, concurrency, warmupSeconds, durationSeconds, dbLatencyMillis, rowCount);
+        LoadSamples virtual = run(true, concurrency, warmupSeconds, durationSeconds, dbLatencyMillis, rowCount);
+
+        System.out.printf("%n동시 사용자 %d명, 측정 %d초, 쿼리당 지연 %dms%n", concurrency, durationSeconds, dbLatencyMillis);
+        LoadSamples.printHeader("mode");
+        platform.print("platform", durationSeconds);
+        virtual.print("virtual", durationSeconds);
+    }
+
+    // 한 가지 모드로 애플리케이션을 띄워서 부하를 주고 결과를 반환
+    private static LoadSamples run(boolean virtualThreads, int concurrency, int warmupSeconds, int durationSeconds,
+                                   long dbLatencyMillis, int rowCount) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CalendarProjectApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(latencyInjector(dbLatencyMillis)))
+                .run("--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.threads.virtual.enabled=" + virtualThreads);
+        try {
+            BenchmarkDatabase.seed(context.getBean(JdbcTemplate.class), rowCount);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+            drive(port, concurrency, warmupSeconds);
+            return drive(port, concurrency, durationSeconds);
+        } finally {
+            context.close();
+        }
+    }
+
+    // 애플리케이션의 DataSource 를 쿼리마다 지연이 생기는 래퍼로 바꿔치기
+    private static BeanPostProcessor latencyInjector(long dbLatencyMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LatencyInjectingDataSource)) {
+                    return new LatencyInjectingDataSource(dataSource, dbLatencyMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // concurrency 명의 사용자가 seconds 초 동안 쉬지 않고 목록 조회를 보냄 (닫힌 모델)
+    private static LoadSamples drive(int port, int concurrency, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        List<Future<LoadSamples>> futures = new ArrayList<>();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(users.submit(() -> {
+                    LoadSamples samples = new LoadSamples();
+                    while (System.nanoTime() < deadline) {
+                        String author = BenchmarkDatabase.author(ThreadLocalRandom.current().nextInt(BenchmarkDatabase.AUTHORS));
+                        HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/api/lists?limit=20&author=" + author)).build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                samples.add(System.nanoTime() - start);
+                            } else {
+                                samples.error();
+                            }
+                        } catch (Exception e) {
+                            samples.error();
+                        }
+                    }
+                    return samples;
+                }));
+            }
+        }
+
+        LoadSamples total = new LoadSamples();
+        for (Future<LoadSamples> future : futures) {
+            total.merge(future.get());
+        }
+        return total;
+    }
+}
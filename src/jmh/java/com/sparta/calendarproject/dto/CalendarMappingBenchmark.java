@@ -0,0 +1,97 @@
+package com.sparta.calendarproject.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sparta.calendarproject.model.CalendarModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 데이터베이스 없이 변환 경로만 측정하는 벤치마크
+// RequestDto -> Model (CalendarModel.from), Model -> ResponseDto (fromModel), ResponseDto -> JSON (Jackson)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarMappingBenchmark {
+
+    // 목록 조회 한 페이지 크기
+    private static final int PAGE_SIZE = 20;
+
+    private CalendarRequestDto requestDto;
+
+    private CalendarModel model;
+
+    private CalendarResponseDto responseDto;
+
+    private CalendarPageResponseDto page;
+
+    private ObjectWriter responseWriter;
+
+    private ObjectWriter pageWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        requestDto = new CalendarRequestDto();
+        requestDto.setAuthor("조유석");
+        requestDto.setTodolist("내일배움캠프 스프링 기초 과제하기");
+        requestDto.setPassword("1234");
+
+        LocalDateTime now = LocalDateTime.of(2025, 3, 1, 12, 30, 15);
+        model = new CalendarModel(1L, "조유석", "내일배움캠프 스프링 기초 과제하기", null, now, now, 0L);
+        responseDto = CalendarResponseDto.fromModel(model);
+
+        List<CalendarResponseDto> items = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            items.add(CalendarResponseDto.fromModel(model));
+        }
+        page = CalendarPageResponseDto.of(items, new CalendarCursor(now, 1L).encode());
+
+        // 스프링 부트가 사용하는 것과 같은 기본 설정의 ObjectMapper
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        responseWriter = objectMapper.writerFor(CalendarResponseDto.class);
+        pageWriter = objectMapper.writerFor(CalendarPageResponseDto.class);
+    }
+
+    @Benchmark
+    public CalendarModel modelFromRequest() {
+        return CalendarModel.from(requestDto);
+    }
+
+    @Benchmark
+    public CalendarResponseDto responseFromModel() {
+        return CalendarResponseDto.fromModel(model);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return responseWriter.writeValueAsBytes(responseDto);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    // 요청 한 건이 거치는 변환 전체 (요청 -> 모델 -> 응답 -> JSON)
+    @Benchmark
+    public byte[] requestToJson() throws Exception {
+        return responseWriter.writeValueAsBytes(CalendarResponseDto.fromModel(CalendarModel.from(requestDto)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.sparta.calendarproject.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sparta.calendarproject.controller.CborConfig;
+import com.sparta.calendarproject.model.CalendarModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// 일정 10,000건 응답을 JSON / CBOR 로, 압축 없이 / gzip 으로 만들 때의 변환 시간과 응답 크기를 비교하는 벤치마크
+// 응답 크기는 측정 시작 전에 한 번 출력한다
+//
+// 실행: ./gradlew jmh -PjmhInclude=CalendarSerializationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarSerializationBenchmark {
+
+    // 한 번에 변환할 일정 수
+    private static final int ROWS = 10_000;
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"none", "gzip"})
+    public String compression;
+
+    private CalendarPageResponseDto page;
+
+    private ObjectWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 12, 30, 15);
+        List<CalendarResponseDto> items = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            LocalDateTime time = base.plusMinutes(i);
+            items.add(CalendarResponseDto.fromModel(new CalendarModel((long) i + 1, "작성자" + (i % 50),
+                    "내일배움캠프 스프링 과제 " + i, null, time, time, (long) (i % 3))));
+        }
+        page = CalendarPageResponseDto.of(items, new CalendarCursor(base, 1L).encode());
+
+        // 애플리케이션이 응답에 사용하는 것과 같은 설정
+        ObjectMapper mapper = format.equals("cbor") ? CborConfig.cborMapper() : Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writerFor(CalendarPageResponseDto.class);
+
+        System.out.printf("%n%s / %s : %,d bytes (%d건)%n", format, compression, serialize().length, ROWS);
+    }
+
+    // 일정 10,000건을 한 번 응답 본문으로 만드는 시간
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        byte[] body = writer.writeValueAsBytes(page);
+        if (compression.equals("none")) {
+            return body;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
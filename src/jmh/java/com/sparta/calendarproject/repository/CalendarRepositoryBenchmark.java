@@ -0,0 +1,118 @@
+package com.sparta.calendarproject.repository;
+
+import com.sparta.calendarproject.benchmark.BenchmarkDatabase;
+import com.sparta.calendarproject.dto.CalendarCursor;
+import com.sparta.calendarproject.model.CalendarModel;
+import com.sparta.calendarproject.store.InMemoryCalendarRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// CalendarRepository 의 주요 경로(생성 / 단건 조회 / 목록 조회)를 측정하는 벤치마크
+// 임베디드 H2(MySQL 호환 모드)에 rowCount 개의 일정을 채운 뒤 실행한다
+// 행 수는 ./gradlew jmh -PjmhRowCount=1000000 처럼 바꿀 수 있다
+// engine=memory 는 같은 데이터를 메모리 저장소(파일 기록 없음)에 채워서 JDBC 구현과 비교한다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarRepositoryBenchmark {
+
+    // 미리 채워둘 일정 개수
+    @Param({"10000", "100000"})
+    public int rowCount;
+
+    // 측정할 저장소 구현
+    @Param({"jdbc", "memory"})
+    public String engine;
+
+    // 목록 조회 한 페이지 크기 (서비스가 다음 페이지 확인용으로 1개 더 조회하는 것까지 포함)
+    private static final int PAGE_LIMIT = 21;
+
+    private CalendarRepository calendarRepository;
+
+    // 테이블 중간쯤을 가리키는 커서 (깊은 페이지 조회 비용 측정용)
+    private CalendarCursor deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (engine.equals("memory")) {
+            calendarRepository = seedMemory(rowCount);
+        } else {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(BenchmarkDatabase.create("repository-" + rowCount));
+            BenchmarkDatabase.seed(jdbcTemplate, rowCount);
+            calendarRepository = new JdbcCalendarRepository(
+                    jdbcTemplate, new JdbcBulkhead(64, Duration.ofSeconds(1)), new SimpleMeterRegistry(), 500);
+        }
+
+        long middle = rowCount / 2;
+        deepCursor = new CalendarCursor(BenchmarkDatabase.SEED_BASE_TIME.plusSeconds(middle), middle + 1);
+    }
+
+    @Benchmark
+    public CalendarModel createCalendar() {
+        LocalDateTime now = LocalDateTime.now();
+        CalendarModel model = new CalendarModel(null, "bench", "벤치마크 일정", "1234", now, now, 0L);
+        return calendarRepository.createCalendar(model);
+    }
+
+    @Benchmark
+    public CalendarModel getCalendarById() {
+        long id = ThreadLocalRandom.current().nextLong(1, rowCount + 1);
+        return calendarRepository.getCalendarById(id);
+    }
+
+    @Benchmark
+    public List<CalendarModel> getAllCalendarsFirstPage() {
+        return calendarRepository.getAllCalendars(null, null, null, PAGE_LIMIT);
+    }
+
+    @Benchmark
+    public List<CalendarModel> getAllCalendarsByAuthor() {
+        String author = BenchmarkDatabase.author(ThreadLocalRandom.current().nextInt(BenchmarkDatabase.AUTHORS));
+        return calendarRepository.getAllCalendars(author, null, null, PAGE_LIMIT);
+    }
+
+    @Benchmark
+    public List<CalendarModel> getAllCalendarsByUpdateDate() {
+        return calendarRepository.getAllCalendars(null, BenchmarkDatabase.SEED_BASE_TIME.toLocalDate().toString(), null, PAGE_LIMIT);
+    }
+
+    @Benchmark
+    public List<CalendarModel> getAllCalendarsDeepPage() {
+        return calendarRepository.getAllCalendars(null, null, deepCursor, PAGE_LIMIT);
+    }
+
+    // BenchmarkDatabase.seed 와 같은 행(id 1 ~ rowCount, 같은 작성자 / 시간)을 메모리 저장소에 채움
+    private static CalendarRepository seedMemory(int rowCount) {
+        InMemoryCalendarRepository repository = new InMemoryCalendarRepository((Path) null, false, Long.MAX_VALUE);
+        List<CalendarModel> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            LocalDateTime time = BenchmarkDatabase.SEED_BASE_TIME.plusSeconds(i);
+            rows.add(new CalendarModel(null, BenchmarkDatabase.author(i), "할 일 " + i, "1234", time, time, 0L));
+        }
+        repository.createCalendars(rows, rowCount);
+        return repository;
+    }
+}
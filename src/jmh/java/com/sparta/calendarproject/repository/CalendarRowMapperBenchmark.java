@@ -0,0 +1,65 @@
+package com.sparta.calendarproject.repository;
+
+import com.sparta.calendarproject.benchmark.BenchmarkDatabase;
+import com.sparta.calendarproject.model.CalendarModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 큰 결과 집합을 객체로 변환할 때의 초당 처리 행 수를 비교하는 벤치마크
+// 기존 방식(SELECT * + BeanPropertyRowMapper)과 컬럼 인덱스 기반 CalendarRowMapper 를 비교한다
+// 결과의 ops/s 가 곧 초당 변환한 행 수(rows/s)다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(CalendarRowMapperBenchmark.ROWS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarRowMapperBenchmark {
+
+    // 한 번의 조회에서 읽어오는 행 수
+    static final int ROWS = 100_000;
+
+    private JdbcTemplate jdbcTemplate;
+
+    // 기존 방식: 전체 컬럼 조회
+    private String beanSql;
+
+    // 변경 방식: 응답에 필요한 컬럼만 조회
+    private String columnSql;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jdbcTemplate = new JdbcTemplate(BenchmarkDatabase.create("row-mapper"));
+        BenchmarkDatabase.seed(jdbcTemplate, ROWS);
+
+        beanSql = "SELECT * FROM calendar ORDER BY updateDate DESC, id DESC";
+        columnSql = "SELECT " + CalendarRowMapper.COLUMNS + " FROM calendar ORDER BY updateDate DESC, id DESC";
+    }
+
+    // 기존 코드와 같은 조건을 위해 매 조회마다 BeanPropertyRowMapper 를 새로 생성
+    @Benchmark
+    public List<CalendarModel> beanPropertyRowMapper() {
+        return jdbcTemplate.query(beanSql, new BeanPropertyRowMapper<>(CalendarModel.class));
+    }
+
+    @Benchmark
+    public List<CalendarModel> columnIndexRowMapper() {
+        return jdbcTemplate.query(columnSql, CalendarRowMapper.INSTANCE);
+    }
+}
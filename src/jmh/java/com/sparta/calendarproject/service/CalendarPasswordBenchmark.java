@@ -0,0 +1,93 @@
+package com.sparta.calendarproject.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.calendarproject.benchmark.BenchmarkDatabase;
+import com.sparta.calendarproject.cache.CalendarCache;
+import com.sparta.calendarproject.dto.CalendarRequestDto;
+import com.sparta.calendarproject.dto.CalendarResponseDto;
+import com.sparta.calendarproject.feed.CalendarChangeFeed;
+import com.sparta.calendarproject.repository.CalendarGroupCommitter;
+import com.sparta.calendarproject.repository.CalendarRepository;
+import com.sparta.calendarproject.repository.JdbcBulkhead;
+import com.sparta.calendarproject.repository.JdbcCalendarRepository;
+import com.sparta.calendarproject.search.CalendarSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 일정 수정(PUT) 경로의 지연시간 분포를 비밀번호 확인 캐시를 켠 경우와 끈 경우로 비교하는 벤치마크
+// SampleTime 모드라서 결과에 p50 / p99 / p99.9 가 함께 출력된다
+// 실행: ./gradlew jmh -PjmhInclude=CalendarPasswordBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class CalendarPasswordBenchmark {
+
+    // 미리 채워둘 일정 개수
+    private static final int ROW_COUNT = 10_000;
+
+    // 반복해서 수정할 일정 수 (같은 사용자가 자기 일정을 여러 번 고치는 상황)
+    private static final int WORKING_SET = 1_000;
+
+    private static final String PASSWORD = "1234";
+
+    // 비밀번호 확인 캐시 사용 여부
+    @Param({"true", "false"})
+    public boolean verificationCache;
+
+    private CalendarService calendarService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(BenchmarkDatabase.create("password-" + verificationCache));
+        BenchmarkDatabase.seed(jdbcTemplate, ROW_COUNT);
+
+        CalendarPasswordService passwordService =
+                new CalendarPasswordService(10, verificationCache, 10_000, Duration.ofSeconds(60), 0);
+        // 시드 데이터는 평문이라 실제 운영처럼 해시로 바꿔둔다 (첫 확인의 재해시 비용이 측정에 섞이지 않게)
+        jdbcTemplate.update("UPDATE calendar SET password = ?", passwordService.hash(PASSWORD));
+
+        CalendarRepository calendarRepository = new JdbcCalendarRepository(
+                jdbcTemplate, new JdbcBulkhead(64, Duration.ofSeconds(1)), new SimpleMeterRegistry(), 500);
+        CalendarCache calendarCache = new CalendarCache(calendarRepository, 10_000, Duration.ofSeconds(30), Duration.ofSeconds(10));
+        CalendarGroupCommitter groupCommitter =
+                new CalendarGroupCommitter(calendarRepository, false, 200, Duration.ofMillis(2), 10_000,
+                        Duration.ofSeconds(10));
+        calendarService = new CalendarService(calendarRepository, calendarCache, passwordService,
+                new CalendarSearchIndex(calendarRepository), groupCommitter,
+                new CalendarChangeFeed(10_000, 256, Duration.ofMinutes(30), Duration.ofSeconds(30)),
+                new ObjectMapper(), 500, 10_000);
+    }
+
+    @Benchmark
+    public CalendarResponseDto updateCalendar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = random.nextLong(1, WORKING_SET + 1);
+
+        CalendarRequestDto requestDto = new CalendarRequestDto();
+        requestDto.setAuthor(BenchmarkDatabase.author((int) id - 1));
+        requestDto.setTodolist("수정된 할 일 " + random.nextInt());
+        requestDto.setPassword(PASSWORD);
+        return calendarService.updateCalendar(id, requestDto, null);
+    }
+}
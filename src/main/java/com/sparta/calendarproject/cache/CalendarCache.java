@@ -0,0 +1,179 @@
+package com.sparta.calendarproject.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sparta.calendarproject.datasource.DataSourceRouting;
+import com.sparta.calendarproject.model.CalendarModel;
+import com.sparta.calendarproject.repository.CalendarRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// ID로 조회한 일정을 메모리에 잠시 보관하는 읽기 캐시
+// 자주 조회되는 일정은 데이터베이스를 거치지 않고 바로 응답할 수 있다
+@Component  // Spring이 빈으로 등록하게 하는 어노테이션
+public class CalendarCache implements MeterBinder {
+
+    // ID -> 일정 캐시 (없으면 리포지토리에서 읽어와서 채움)
+    private final LoadingCache<Long, CalendarModel> cache;
+
+    // 최근에 수정 / 삭제된 ID -> 삭제되었는지 (recent-write-window 동안만 보관)
+    // replica 는 복제 지연 동안 이전 버전이나 이미 삭제된 일정을 돌려줄 수 있으므로, 이 ID 들은 캐시에 없을 때 primary 에서 읽는다
+    private final Cache<Long, Boolean> recentWrites;
+
+    // 생성자를 통한 의존성 주입
+    // 최대 보관 개수와 보관 시간(TTL), 수정 / 삭제 뒤 primary 에서 읽을 시간은 설정으로 조절
+    public CalendarCache(CalendarRepository calendarRepository,
+                         @Value("${calendar.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${calendar.cache.ttl:30s}") Duration ttl,
+                         @Value("${calendar.cache.recent-write-window:10s}") Duration recentWriteWindow) {
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(recentWriteWindow)
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)   // 개수를 넘으면 덜 사용된 일정부터 제거
+                .expireAfterWrite(ttl)      // 채워진 뒤 일정 시간이 지나면 제거
+                .recordStats()              // 적중 / 실패 / 제거 횟수 기록
+                .build(new CacheLoader<>() {
+                    @Override
+                    public CalendarModel load(Long id) {
+                        if (recentlyWritten(id)) {
+                            return DataSourceRouting.primary(() -> calendarRepository.getCalendarById(id));
+                        }
+                        return calendarRepository.getCalendarById(id);
+                    }
+
+                    // 캐시에 없는 ID 여러 개를 한 번의 쿼리로 읽어옴 (getAll)
+                    // 최근에 수정 / 삭제된 ID 만 따로 primary 에서 읽는다
+                    @Override
+                    public Map<Long, CalendarModel> loadAll(Set<? extends Long> ids) {
+                        List<Long> written = new ArrayList<>();
+                        List<Long> others = new ArrayList<>();
+                        for (Long id : ids) {
+                            (recentlyWritten(id) ? written : others).add(id);
+                        }
+                        Map<Long, CalendarModel> result = new HashMap<>();
+                        if (!others.isEmpty()) {
+                            result.putAll(calendarRepository.getCalendarsByIds(others));
+                        }
+                        if (!written.isEmpty()) {
+                            result.putAll(DataSourceRouting.primary(() -> calendarRepository.getCalendarsByIds(written)));
+                        }
+                        return result;
+                    }
+                });
+    }
+
+    // 캐시에서 일정을 조회 (없으면 데이터베이스에서 읽어서 채움)
+    // 같은 ID에 대한 동시 요청은 하나의 조회만 실행하고 나머지는 그 결과를 기다린다
+    // 존재하지 않는 ID는 리포지토리의 예외가 그대로 전달되고 캐시에 저장되지 않는다
+    // 반환된 모델은 여러 요청이 공유하므로 수정하지 않고 읽기만 해야 한다
+    public CalendarModel get(Long id) {
+        return cache.get(id);
+    }
+
+    // 여러 일정을 한 번에 조회 (캐시에 없는 것만 모아서 한 번의 쿼리로 채움)
+    // 존재하지 않는 ID는 결과에서 빠진다
+    public Map<Long, CalendarModel> getAll(Iterable<Long> ids) {
+        return cache.getAll(ids);
+    }
+
+    // 방금 수정해서 primary 에서 다시 읽은 일정으로 캐시를 채움
+    // 같은 일정을 동시에 수정하면 put 이 도착하는 순서가 뒤바뀔 수 있으므로 버전이 더 높은 쪽을 남긴다
+    // 그 사이에 삭제된 일정이면 넣지 않는다 (삭제된 일정이 캐시에서 다시 살아나지 않게)
+    // 삭제 표시 확인과 버전 비교, 넣기가 같은 키의 compute 안에서 실행되므로 동시에 실행된 invalidateDeleted 와 섞이지 않고,
+    // 같은 ID를 읽어오는 중이면 그 조회가 끝난 뒤에 비교한다
+    public void put(CalendarModel model) {
+        cache.asMap().compute(model.getId(), (id, current) -> {
+            if (isDeleted(id)) {
+                return current;
+            }
+            if (current != null && model.getVersion() < current.getVersion()) {
+                return current;
+            }
+            return model;
+        });
+    }
+
+    // 수정된 일정을 캐시에서 제거하고, recent-write-window 동안은 캐시에 없을 때 primary 에서 읽도록 표시
+    // 같은 ID를 읽어오는 중이면 그 조회가 끝난 뒤에 제거되므로 이전 값이 남지 않는다
+    public void invalidate(Long id) {
+        cache.asMap().compute(id, (key, current) -> {
+            recentWrites.asMap().compute(key, (ignored, deleted) -> Boolean.TRUE.equals(deleted));
+            return null;
+        });
+    }
+
+    // 삭제된 일정을 캐시에서 제거하고 삭제 표시를 남김
+    // 표시가 남아있는 동안에는 늦게 도착한 put 이 삭제된 일정을 다시 넣지 않고,
+    // 캐시에 없을 때 primary 에서 읽으므로 아직 복제되지 않은 replica 의 일정이 다시 채워지지 않는다
+    public void invalidateDeleted(Long id) {
+        cache.asMap().compute(id, (key, current) -> {
+            recentWrites.put(key, Boolean.TRUE);
+            return null;
+        });
+    }
+
+    // 최근에 수정 / 삭제되어서 primary 에서 읽어야 하는 ID 인지
+    private boolean recentlyWritten(Long id) {
+        return recentWrites.getIfPresent(id) != null;
+    }
+
+    // 최근에 삭제된 ID 인지
+    private boolean isDeleted(Long id) {
+        return Boolean.TRUE.equals(recentWrites.getIfPresent(id));
+    }
+
+    // 적중 / 실패 / 제거 횟수 등 누적 통계
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // 현재 캐시에 들어있는 일정 수 (근사값)
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // 적중 / 실패 / 제거 횟수를 cache.* 메트릭으로 노출 (cache="calendar" 태그)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache, "calendar", Tags.empty()).bindTo(registry);
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. 읽기 캐시(read-through cache)
+조회 요청이 오면 먼저 캐시를 확인하고, 없을 때만 데이터베이스에서 읽어와 캐시에 넣는다
+일부 일정에 조회가 몰리는 경우 데이터베이스 부하를 크게 줄일 수 있다
+
+2. Caffeine
+크기 제한(maximumSize)과 만료 시간(expireAfterWrite)으로 메모리 사용량을 제한
+같은 키를 동시에 조회하면 한 번만 읽어오고 나머지는 결과를 기다림 (요청 병합)
+recordStats() 로 적중률 등 통계를 기록
+
+3. 무효화(invalidate)
+일정이 수정되거나 삭제되면 서비스에서 해당 ID를 캐시에서 제거한다
+그래야 수정 이후의 조회가 이전 데이터를 보지 않는다
+
+4. 버전 비교와 삭제 표시
+수정 후 put 은 버전이 더 높을 때만 캐시 값을 바꾼다 (늦게 도착한 이전 버전이 최신 값을 덮어쓰지 않음)
+삭제하면 recent-write-window 동안 삭제 표시를 남겨서 늦게 도착한 put 이 삭제된 일정을 다시 넣지 않는다
+수정 / 삭제 직후에는 replica 가 아직 이전 값을 가지고 있을 수 있으므로, 그 ID 는 캐시에 없을 때 primary 에서 읽는다
+ */
@@ -0,0 +1,57 @@
+package com.sparta.calendarproject.controller;
+
+import com.sparta.calendarproject.repository.BulkheadFullException;
+import com.sparta.calendarproject.repository.GroupCommitQueueFullException;
+import com.sparta.calendarproject.service.CalendarConflictException;
+import com.sparta.calendarproject.service.CalendarPreconditionFailedException;
+import com.sparta.calendarproject.service.CalendarRestoreDisabledException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// 여러 컨트롤러 메서드에 공통으로 적용되는 예외 처리
+// 각 메서드에서 처리하지 않은 예외를 알맞은 HTTP 상태 코드로 바꿔준다
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // 데이터베이스 요청이 몰려서 벌크헤드가 가득 찬 경우
+    // 503 Service Unavailable 과 함께 잠시 후 다시 시도하라는 Retry-After 헤더 반환
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<String> handleBulkheadFull(BulkheadFullException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+
+    // 그룹 커밋 대기열이 가득 차서 일정 생성 요청을 받을 수 없는 경우
+    // 429 Too Many Requests 와 함께 잠시 후 다시 시도하라는 Retry-After 헤더 반환
+    @ExceptionHandler(GroupCommitQueueFullException.class)
+    public ResponseEntity<String> handleGroupCommitQueueFull(GroupCommitQueueFullException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+
+    // 수정 요청의 If-Match 버전이 저장된 일정의 버전과 다른 경우 (다른 요청이 먼저 수정함)
+    // 409 Conflict 반환 (클라이언트는 일정을 다시 조회해서 최신 내용에 다시 수정해야 한다)
+    @ExceptionHandler(CalendarConflictException.class)
+    public ResponseEntity<String> handleConflict(CalendarConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    // If-Match 에 이 일정과 강한 비교로 일치할 수 있는 ETag 가 없는 경우 (약한 ETag, 다른 일정의 ETag 등)
+    // 412 Precondition Failed 반환
+    @ExceptionHandler(CalendarPreconditionFailedException.class)
+    public ResponseEntity<String> handlePreconditionFailed(CalendarPreconditionFailedException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+    }
+
+    // 백업 내보내기 / 복원이 설정으로 꺼져 있는 경우
+    // 403 Forbidden 반환 (비밀번호 해시가 담긴 파일을 주고받으므로 켜둔 서버에서만 허용)
+    @ExceptionHandler(CalendarRestoreDisabledException.class)
+    public ResponseEntity<String> handleRestoreDisabled(CalendarRestoreDisabledException e) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+    }
+}
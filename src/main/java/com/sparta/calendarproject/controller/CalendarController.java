@@ -1,12 +1,23 @@
 package com.sparta.calendarproject.controller;
 
+import com.sparta.calendarproject.dto.CacheStatsResponseDto;
+import com.sparta.calendarproject.dto.CalendarDailyStatsDto;
 import com.sparta.calendarproject.dto.CalendarRequestDto;
 import com.sparta.calendarproject.dto.CalendarResponseDto;
+import com.sparta.calendarproject.service.CalendarCsvService;
 import com.sparta.calendarproject.service.CalendarService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 // 컨트롤러 클래스: 웹 요청을 처리하고 서비스 계층과 상호작용하는 역할
@@ -17,49 +28,274 @@ public class CalendarController {
     // 캘린더 서비스를 다루는 비즈니스 로직을 호출하기 위한 서비스 객체
     private final CalendarService calendarService;
 
-    // 생성자: CalendarService 객체를 주입받아 초기화
+    // CSV 내보내기 / 가져오기 서비스
+    private final CalendarCsvService calendarCsvService;
+
+    // 생성자: CalendarService, CalendarCsvService 객체를 주입받아 초기화
     // 의존성 주입(Dependency Injection)을 통해 서비스 객체를 받음
-    public CalendarController(CalendarService calendarService) {
+    public CalendarController(CalendarService calendarService, CalendarCsvService calendarCsvService) {
         this.calendarService = calendarService;
+        this.calendarCsvService = calendarCsvService;
     }
 
     // 새로운 일정을 생성하는 메서드
     @PostMapping("/calendar") // HTTP POST 요청을 처리하는 엔드포인트
-    public ResponseEntity<CalendarResponseDto> createCalendar(@RequestBody CalendarRequestDto requestDto) {
-        // 클라이언트로부터 받은 일정 데이터(requestDto)로 새 일정 생성
-        // HTTP 상태 코드 201(Created)과 함께 생성된 일정 반환
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(calendarService.createCalendar(requestDto));
+    public ResponseEntity<?> createCalendar(@RequestBody CalendarRequestDto requestDto) {
+        try {
+            // 클라이언트로부터 받은 일정 데이터(requestDto)로 새 일정 생성
+            // HTTP 상태 코드 201(Created)과 함께 생성된 일정 반환
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(calendarService.createCalendar(requestDto));
+        } catch (IllegalArgumentException e) {
+            // 필수 값이 없거나 비밀번호가 너무 긴 경우 400 Bad Request 반환
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 여러 일정을 한 번에 생성하는 메서드
+    @PostMapping("/calendar/batch") // HTTP POST 요청을 처리하는 엔드포인트
+    public ResponseEntity<?> createCalendars(@RequestBody List<CalendarRequestDto> requestDtos) {
+        try {
+            // 검증을 통과한 일정만 생성하고, 요청 순서대로 생성된 ID와 실패한 항목 정보를 반환
+            // HTTP 상태 코드 201(Created)과 함께 결과 반환
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(calendarService.createCalendars(requestDtos));
+        } catch (IllegalArgumentException e) {
+            // 요청 개수 제한을 넘은 경우 400 Bad Request 반환
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
-    // 모든 일정을 조회하는 메서드
+    // 일정 목록을 페이지 단위로 조회하는 메서드
     @GetMapping("/lists") // HTTP GET 요청을 처리하는 엔드포인트
-    public ResponseEntity<List<CalendarResponseDto>> getAllCalendars(
+    public ResponseEntity<?> getAllCalendars(
             @RequestParam(required = false) String author, // 작성자로 필터링 (옵션)
-            @RequestParam(required = false) String updateDate) { // 업데이트 날짜로 필터링 (옵션)
-        // 전체 일정 목록을 조회 (필요에 따라 작성자나 업데이트 날짜로 필터링)
-        // HTTP 상태 코드 200(OK)과 함께 일정 목록 반환
-        return ResponseEntity.ok(calendarService.getAllCalendars(author, updateDate));
+            @RequestParam(required = false) String updateDate, // 업데이트 날짜로 필터링 (옵션)
+            @RequestParam(required = false) String cursor, // 이전 응답의 nextCursor (첫 페이지면 생략)
+            @RequestParam(defaultValue = "20") int limit, // 한 페이지에 담을 일정 개수
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept, // 응답 형식
+            WebRequest webRequest, // If-None-Match 확인용
+            HttpServletResponse response) throws IOException {
+        try {
+            // Accept: application/x-ndjson 이면 페이지 없이 조건에 맞는 전체 일정을 스트리밍으로 응답
+            // 같은 URL 에 produces 로 메서드를 나누면 Accept: */* 요청이 스트리밍 쪽으로 가버리므로 여기서 분기
+            if (acceptsNdjson(accept)) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                calendarService.streamCalendars(author, updateDate, response.getOutputStream());
+                // 응답은 이미 직접 기록했으므로 스프링이 추가로 쓸 내용이 없음
+                return null;
+            }
+
+            // 목록이 바뀌지 않았으면 (If-None-Match 와 ETag 가 같으면) 목록을 조회하지 않고 304 Not Modified 반환
+            // JSON 과 CBOR 응답은 바이트가 다르므로 응답 형식마다 다른 강한 ETag
+            String eTag = calendarService.getListETag(author, updateDate, cursor, limit, responseFormat(accept));
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+
+            // 일정 목록의 한 페이지를 조회 (필요에 따라 작성자나 업데이트 날짜로 필터링)
+            // HTTP 상태 코드 200(OK)과 함께 일정 목록과 다음 페이지 커서 반환
+            // Accept 에 따라 JSON / CBOR 로 응답이 달라지므로 캐시가 구분할 수 있도록 Vary 추가
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(calendarService.getAllCalendars(author, updateDate, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            // 잘못된 날짜 형식이나 커서 값이 들어온 경우 400 Bad Request 반환
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Accept 헤더로 정해질 응답 형식 (일정 ETag 를 JSON / CBOR 마다 다르게 만들기 위함)
+    // 스프링과 같은 순서로 고른다 : 품질(q)이 높은 쪽, 같으면 더 구체적으로 적은 쪽, 그래도 같으면 먼저 등록된 JSON
+    private static String responseFormat(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return CalendarService.JSON_FORMAT;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        return preference(accepted, MediaType.APPLICATION_CBOR) > preference(accepted, MediaType.APPLICATION_JSON)
+                ? CalendarService.CBOR_FORMAT : CalendarService.JSON_FORMAT;
+    }
+
+    // Accept 에서 type 을 가장 우선하는 항목의 점수 (품질 x 100 + 구체성, 받지 않으면 0)
+    private static double preference(List<MediaType> accepted, MediaType type) {
+        double best = 0;
+        for (MediaType candidate : accepted) {
+            if (candidate.getQualityValue() > 0 && candidate.includes(type)) {
+                int specificity = candidate.isWildcardType() ? 0 : candidate.isWildcardSubtype() ? 1 : 2;
+                best = Math.max(best, candidate.getQualityValue() * 100 + specificity);
+            }
+        }
+        return best;
+    }
+
+    // Accept 헤더에 NDJSON 형식이 명시되어 있는지 확인하는 메서드
+    private boolean acceptsNdjson(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return false;
+        }
+        return MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+
+    // 할 일과 작성자에서 검색어로 일정을 찾는 메서드 (관련도 순, 페이지 단위)
+    @GetMapping("/search") // HTTP GET 요청을 처리하는 엔드포인트
+    public ResponseEntity<?> searchCalendars(
+            @RequestParam String q, // 검색어
+            @RequestParam(required = false) String cursor, // 이전 응답의 nextCursor (첫 페이지면 생략)
+            @RequestParam(defaultValue = "20") int limit) { // 한 페이지에 담을 일정 개수
+        try {
+            // HTTP 상태 코드 200(OK)과 함께 검색 결과와 다음 페이지 커서 반환
+            return ResponseEntity.ok(calendarService.searchCalendars(q, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            // 검색어가 비어있거나 커서 값이 잘못된 경우 400 Bad Request 반환
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // 특정 ID의 일정을 조회하는 메서드
     @GetMapping("/lists/{id}") // URL 경로에서 ID를 받는 GET 요청 엔드포인트
-    public ResponseEntity<CalendarResponseDto> getCalendarById(@PathVariable Long id) {
-        // 주어진 ID로 특정 일정 조회
-        // HTTP 상태 코드 200(OK)과 함께 해당 일정 반환
-        return ResponseEntity.ok(calendarService.getCalendarById(id));
+    public ResponseEntity<CalendarResponseDto> getCalendarById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept, // 응답 형식
+            WebRequest webRequest) {
+        // 주어진 ID로 특정 일정을 한 번만 조회하고, ETag 와 응답 본문을 모두 그 일정으로 만든다
+        // (따로 조회하면 그 사이에 수정된 경우 이전 버전의 ETag 에 새 본문이 붙을 수 있음)
+        CalendarResponseDto calendar = calendarService.getCalendarById(id);
+        String eTag = CalendarService.calendarETag(calendar.getId(), calendar.getVersion(), responseFormat(accept));
+
+        // 일정이 바뀌지 않았으면 (If-None-Match 와 ETag 가 같으면) 응답 본문 없이 304 Not Modified 반환
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        // HTTP 상태 코드 200(OK)과 함께 해당 일정과 ETag 반환
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(calendar);
+    }
+
+    // 작성자별 / 날짜별 일정 수를 조회하는 메서드
+    @GetMapping("/stats") // HTTP GET 요청을 처리하는 엔드포인트
+    public ResponseEntity<?> getDailyStats(
+            @RequestParam(required = false) String from, // 시작 날짜 (옵션, yyyy-MM-dd)
+            @RequestParam(required = false) String to, // 끝 날짜 (옵션, yyyy-MM-dd)
+            @RequestParam(required = false) String author) { // 작성자 (옵션)
+        try {
+            // HTTP 상태 코드 200(OK)과 함께 (작성자, 날짜, 일정 수) 목록 반환
+            List<CalendarDailyStatsDto> stats = calendarService.getDailyStats(from, to, author);
+            return ResponseEntity.ok(stats);
+        } catch (IllegalArgumentException e) {
+            // 날짜 형식이 잘못되었거나 기간이 너무 긴 경우 400 Bad Request 반환
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 일정 생성 / 수정 / 삭제를 실시간으로 받는 메서드 (Server-Sent Events)
+    // 목록을 주기적으로 다시 조회하는 대신 연결을 열어두고 바뀐 일정만 받는다
+    // 연결이 끊기면 EventSource 가 마지막 이벤트 번호를 Last-Event-ID 헤더로 보내서 이어 받는다
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeChanges(
+            @RequestParam(required = false) String author, // 작성자로 필터링 (옵션)
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) { // 마지막으로 받은 이벤트 번호 (옵션)
+        return calendarService.subscribeChanges(author, lastEventId);
+    }
+
+    // 조건에 맞는 모든 일정을 CSV 파일로 내려받는 메서드 (보고 / 다른 서버로 옮기기용, 비밀번호 해시는 담지 않음)
+    // 가져오면 새 ID 로 저장되므로 ID 를 유지하는 백업은 /backup 을 사용
+    // 한 행씩 읽어서 바로 쓰기 때문에 테이블이 아무리 커도 메모리 사용량이 일정하다
+    @GetMapping("/export") // HTTP GET 요청을 처리하는 엔드포인트
+    public ResponseEntity<?> exportCalendars(
+            @RequestParam(required = false) String author, // 작성자로 필터링 (옵션)
+            @RequestParam(required = false) String updateDate, // 업데이트 날짜로 필터링 (옵션)
+            HttpServletResponse response) throws IOException {
+        try {
+            response.setContentType("text/csv");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"calendar.csv\"");
+            calendarCsvService.exportCsv(author, updateDate, response.getOutputStream());
+            // 응답은 이미 직접 기록했으므로 스프링이 추가로 쓸 내용이 없음
+            return null;
+        } catch (IllegalArgumentException e) {
+            // 잘못된 날짜 형식이 들어온 경우 400 Bad Request 반환
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 조건에 맞는 모든 일정을 ID / 버전 / 비밀번호 해시까지 CSV 파일로 내려받는 메서드 (백업 / 마이그레이션용)
+    // /restore 로 올리면 같은 ID 와 비밀번호로 복원된다
+    // 비밀번호 해시가 담기므로 calendar.csv.restore-enabled=true 인 서버에서만 허용 (꺼져 있으면 403 Forbidden)
+    @GetMapping("/backup") // HTTP GET 요청을 처리하는 엔드포인트
+    public ResponseEntity<?> backupCalendars(
+            @RequestParam(required = false) String author, // 작성자로 필터링 (옵션)
+            @RequestParam(required = false) String updateDate, // 업데이트 날짜로 필터링 (옵션)
+            HttpServletResponse response) throws IOException {
+        // 꺼져 있으면 CSV 응답 헤더를 쓰기 전에 403 이 되도록 먼저 확인
+        calendarCsvService.checkRestoreEnabled();
+        try {
+            response.setContentType("text/csv");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"calendar-backup.csv\"");
+            calendarCsvService.exportBackup(author, updateDate, response.getOutputStream());
+            return null;
+        } catch (IllegalArgumentException e) {
+            // 잘못된 날짜 형식이 들어온 경우 400 Bad Request 반환
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // CSV 파일(요청 본문)을 읽어서 일정으로 저장하는 메서드
+    // 요청 본문을 한 행씩 읽어서 정해진 개수마다 한 트랜잭션으로 저장하므로 파일이 커도 메모리 사용량이 일정하다
+    // 예: curl -X POST -H 'Content-Type: text/csv' --data-binary @calendar.csv http://localhost:8080/api/import
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE}) // HTTP POST 요청을 처리하는 엔드포인트
+    public ResponseEntity<?> importCalendars(HttpServletRequest request) throws IOException {
+        try {
+            // 저장된 행 수, 건너뛴 행과 이유, 초당 처리량을 반환
+            return ResponseEntity.ok(calendarCsvService.importCsv(request.getInputStream()));
+        } catch (IllegalArgumentException e) {
+            // 빈 파일이거나 필수 열이 없는 경우 400 Bad Request 반환
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // /backup 으로 내려받은 CSV 파일(요청 본문)을 ID / 버전 / 비밀번호 해시 그대로 저장하는 메서드 (백업 복원)
+    // 이미 있는 ID 가 들어있는 묶음은 건너뛰고 이유를 알려준다 (calendar.csv.restore-enabled=true 인 서버에서만 허용)
+    // 예: curl -X POST -H 'Content-Type: text/csv' --data-binary @calendar-backup.csv http://localhost:8080/api/restore
+    @PostMapping(value = "/restore", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE}) // HTTP POST 요청을 처리하는 엔드포인트
+    public ResponseEntity<?> restoreCalendars(HttpServletRequest request) throws IOException {
+        try {
+            // 복원된 행 수, 건너뛴 행과 이유, 초당 처리량을 반환
+            return ResponseEntity.ok(calendarCsvService.restoreCsv(request.getInputStream()));
+        } catch (IllegalArgumentException e) {
+            // 빈 파일이거나 필수 열이 없는 경우 400 Bad Request 반환
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 일정 캐시의 적중 / 실패 / 제거 통계를 조회하는 메서드
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsResponseDto> getCacheStats() {
+        return ResponseEntity.ok(calendarService.getCacheStats());
     }
 
     // 기존 일정을 수정하는 메서드
     @PutMapping("/{id}") // HTTP PUT 요청을 처리하는 엔드포인트
     public ResponseEntity<?> updateCalendar(
             @PathVariable Long id, // URL에서 수정할 일정의 ID
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, // 조회할 때 받은 ETag (옵션)
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept, // 응답 형식
             @RequestBody CalendarRequestDto requestDto) { // 수정할 데이터
         try {
-            // 일정 수정 시도
-            CalendarResponseDto updatedCalendar = calendarService.updateCalendar(id, requestDto);
-            // 성공 시 수정된 일정과 함께 HTTP 200(OK) 상태 반환
-            return ResponseEntity.ok().body(updatedCalendar);
+            // 일정 수정 시도 (If-Match 버전이 저장된 버전과 다르면 409 Conflict, 약한 ETag 만 있으면 412 Precondition Failed)
+            CalendarResponseDto updatedCalendar = calendarService.updateCalendar(id, requestDto, ifMatch);
+            // 성공 시 수정된 일정과 응답 형식에 맞는 새 ETag 와 함께 HTTP 200(OK) 상태 반환
+            return ResponseEntity.ok()
+                    .eTag(CalendarService.calendarETag(updatedCalendar.getId(), updatedCalendar.getVersion(),
+                            responseFormat(accept)))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(updatedCalendar);
         } catch (IllegalArgumentException e) {
             // 수정 중 오류 발생 시 (예: 잘못된 비밀번호) 400 Bad Request 반환
             return ResponseEntity.badRequest().body(e.getMessage());
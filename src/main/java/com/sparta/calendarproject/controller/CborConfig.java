@@ -0,0 +1,50 @@
+package com.sparta.calendarproject.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Accept: application/cbor 로 요청하면 JSON 대신 CBOR(바이너리 JSON) 로 응답하도록 하는 설정
+// Accept 가 없거나 */* 이면 기존처럼 JSON 으로 응답한다 (JSON 변환기가 목록에서 먼저 온다)
+@Configuration
+public class CborConfig {
+
+    // 기본 CBOR 변환기를 대신하는 변환기 (스프링 부트가 기본 목록의 같은 위치에 넣어준다)
+    // 날짜/시간은 ISO 문자열 대신 epoch 밀리초 숫자로 써서 일정 한 건마다 두 개의 긴 문자열을 줄인다
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor()
+                .modules(new SimpleModule("epoch-millis").addSerializer(LocalDateTime.class, new EpochMillisSerializer()))
+                .build();
+        return new MappingJackson2CborHttpMessageConverter(cborMapper);
+    }
+
+    // CBOR 응답과 같은 설정의 ObjectMapper (벤치마크에서 응답 크기와 변환 시간을 비교할 때 사용)
+    public static ObjectMapper cborMapper() {
+        return new CborConfig().cborHttpMessageConverter().getObjectMapper();
+    }
+
+    // LocalDateTime 을 서버 시간대 기준 epoch 밀리초로 쓰는 직렬화기
+    // 데이터베이스의 createDate / updateDate 는 서버 시간대로 저장되어 있다
+    static final class EpochMillisSerializer extends StdSerializer<LocalDateTime> {
+
+        EpochMillisSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.sparta.calendarproject.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// CSV(RFC 4180) 를 한 행씩 읽는 리더
+// 파일 전체를 메모리에 올리지 않고 버퍼 크기만큼씩 읽으므로 파일 크기와 관계없이 메모리 사용량이 일정하다
+// 따옴표로 감싼 필드 안의 쉼표 / 줄바꿈 / 두 번 쓴 따옴표("") 를 처리한다
+public final class CsvReader {
+
+    private final Reader in;
+
+    // 한 행의 최대 글자 수 (닫히지 않은 따옴표 때문에 나머지 파일 전체를 한 필드로 읽는 것을 막음)
+    private final int maxRecordLength;
+
+    private final char[] buffer = new char[8192];
+
+    private int position;
+
+    private int length;
+
+    // 다시 읽을 문자 (\r 다음 문자 확인용, 없으면 NONE)
+    private int pushedBack = NONE;
+
+    private static final int NONE = -2;
+
+    // 지금 읽고 있는 줄 번호 (1부터)
+    private long line = 1;
+
+    // 마지막으로 읽은 행이 시작된 줄 번호
+    private long recordLine;
+
+    private boolean started;
+
+    public CsvReader(Reader in, int maxRecordLength) {
+        this.in = in;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    // 다음 행의 필드 목록 (파일 끝이면 null)
+    // 형식이 잘못되었거나 행이 너무 길면 IllegalArgumentException
+    public List<String> next() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            // 엑셀 등이 붙이는 UTF-8 BOM 은 건너뜀
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int recordLength = 0;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException(recordLine + "번째 줄: 닫히지 않은 따옴표가 있습니다.");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next != '"') {
+                        // 필드를 감싼 따옴표가 닫힘
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                    field.append('"');
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    pushedBack = next;
+                }
+                break;
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+
+            if (++recordLength > maxRecordLength) {
+                throw new IllegalArgumentException(recordLine + "번째 줄: 한 행이 " + maxRecordLength + "자를 넘습니다.");
+            }
+            c = read();
+        }
+        if (c != -1) {
+            line++;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // 마지막으로 읽은 행이 시작된 줄 번호 (오류 위치 안내용)
+    public long recordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != NONE) {
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+        if (position == length) {
+            length = in.read(buffer);
+            position = 0;
+            if (length <= 0) {
+                length = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
@@ -0,0 +1,49 @@
+package com.sparta.calendarproject.csv;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// CSV(RFC 4180) 를 한 행씩 쓰는 라이터
+// 쉼표, 따옴표, 줄바꿈이 들어간 필드는 따옴표로 감싸고 안의 따옴표는 두 번 쓴다
+public final class CsvWriter {
+
+    private final Writer out;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    // 한 행을 씀 (null 필드는 빈 값)
+    public void writeRow(String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(fields[i]);
+        }
+        out.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package com.sparta.calendarproject.datasource;
+
+import java.util.function.Supplier;
+
+// 지금 실행 중인 데이터베이스 작업을 어느 데이터베이스(primary / replica)로 보낼지 정하는 범위(scope)
+// 리포지토리는 읽기 전용 조회를 replica(...) 로 감싸고,
+// 방금 쓴 데이터를 바로 다시 읽어야 하는 곳(read-your-writes)은 서비스에서 primary(...) 로 감싼다
+// 아무 범위도 없으면 항상 primary 로 간다
+public final class DataSourceRouting {
+
+    // 현재 스레드의 라우팅 대상 (null 이면 primary)
+    private static final ThreadLocal<Target> CURRENT = new ThreadLocal<>();
+
+    private enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private DataSourceRouting() {
+    }
+
+    // 읽기 전용 작업을 replica 로 보냄
+    // 바깥에서 primary(...) 로 감싼 경우에는 primary 가 우선한다
+    public static <T> T replica(Supplier<T> action) {
+        if (CURRENT.get() == Target.PRIMARY) {
+            return action.get();
+        }
+        return runWith(Target.REPLICA, action);
+    }
+
+    // 반환값이 없는 읽기 전용 작업을 replica 로 보냄
+    public static void replica(Runnable action) {
+        replica(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // 안쪽의 모든 작업을 primary 로 보냄 (쓰기 직후 다시 읽기, 버전 확인 등)
+    public static <T> T primary(Supplier<T> action) {
+        return runWith(Target.PRIMARY, action);
+    }
+
+    // 현재 작업이 replica 로 가도 되는지 확인
+    static boolean replicaRequested() {
+        return CURRENT.get() == Target.REPLICA;
+    }
+
+    // 대상을 바꿔서 실행하고, 끝나면 이전 대상으로 되돌림
+    private static <T> T runWith(Target target, Supplier<T> action) {
+        Target previous = CURRENT.get();
+        CURRENT.set(target);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
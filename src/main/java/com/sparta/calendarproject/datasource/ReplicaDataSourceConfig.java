@@ -0,0 +1,66 @@
+package com.sparta.calendarproject.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// replica 가 하나 이상 설정된 경우에만 DataSource 를 읽기/쓰기 분리 DataSource 로 바꾸는 설정
+// replica 설정이 없으면 이 설정은 적용되지 않고 Spring Boot 기본 DataSource(HikariCP) 를 그대로 사용한다
+@Configuration
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+@ConditionalOnProperty(prefix = "calendar.datasource", name = "replicas[0].url")
+public class ReplicaDataSourceConfig {
+
+    // primary 커넥션 풀 (spring.datasource.* / spring.datasource.hikari.* 설정 사용)
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // JdbcTemplate / 트랜잭션 / Flyway 가 사용하는 DataSource
+    // 종료될 때 close() 로 상태 확인과 replica 커넥션 풀도 함께 정리된다
+    @Bean
+    @Primary
+    public ReplicaRoutingDataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSourceProperties properties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaDataSourceProperties.Replica> configured = properties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaDataSourceProperties.Replica replica = configured.get(i);
+            String name = replica.getName() != null ? replica.getName() : "replica-" + i;
+            replicas.put(name, replicaDataSource(name, replica));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                properties.getSelection(), properties.getHealthCheckInterval());
+    }
+
+    // replica 하나의 커넥션 풀 (읽기 전용 커넥션)
+    private static HikariDataSource replicaDataSource(String name, ReplicaDataSourceProperties.Replica replica) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replica.getUrl())
+                .username(replica.getUsername())
+                .password(replica.getPassword())
+                .driverClassName(replica.getDriverClassName())
+                .build();
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        // 시작할 때 replica 가 꺼져 있어도 애플리케이션은 뜨고, 상태 확인에서 빠지도록 한다
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+}
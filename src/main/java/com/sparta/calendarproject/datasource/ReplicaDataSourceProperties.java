@@ -0,0 +1,40 @@
+package com.sparta.calendarproject.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// 읽기 전용 replica 데이터베이스 설정 (calendar.datasource.*)
+// primary 는 기존 spring.datasource.* 설정을 그대로 사용한다
+@Getter
+@Setter
+@ConfigurationProperties("calendar.datasource")
+public class ReplicaDataSourceProperties {
+
+    // 읽기 전용 조회를 나누어 받을 replica 목록 (비어 있으면 모든 요청이 primary 로 감)
+    private List<Replica> replicas = new ArrayList<>();
+
+    // replica 선택 방식 (round-robin / least-busy)
+    private ReplicaRoutingDataSource.Selection selection = ReplicaRoutingDataSource.Selection.ROUND_ROBIN;
+
+    // replica 상태 확인 주기
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    // replica 하나의 접속 정보
+    @Getter
+    @Setter
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+
+        // replica 별 커넥션 풀 크기
+        private int maximumPoolSize = 10;
+    }
+}
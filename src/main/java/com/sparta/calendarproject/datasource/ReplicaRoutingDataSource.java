@@ -0,0 +1,196 @@
+package com.sparta.calendarproject.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 쓰기는 primary 로, 읽기 전용 조회는 replica 들로 나누어 보내는 DataSource
+// 어떤 replica 를 쓸지는 순서대로 돌아가며(round-robin) 또는 지금 사용 중인 커넥션이 가장 적은 곳(least-busy)으로 고른다
+// 주기적으로 replica 상태를 확인해서 응답하지 않는 replica 는 돌아올 때까지 선택에서 뺀다
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    // replica 선택 방식
+    public enum Selection {
+        ROUND_ROBIN, LEAST_BUSY
+    }
+
+    // 모든 쓰기와 트랜잭션 안의 작업을 처리하는 데이터베이스
+    private final DataSource primary;
+
+    // 읽기 전용 조회를 나누어 받는 데이터베이스들
+    private final List<ReplicaNode> replicas;
+
+    private final Selection selection;
+
+    // round-robin 선택 위치
+    private final AtomicInteger next = new AtomicInteger();
+
+    // 상태 확인 작업 실행기
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    Selection selection, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.selection = selection;
+        this.replicas = new ArrayList<>();
+        replicas.forEach((name, dataSource) -> this.replicas.add(new ReplicaNode(name, dataSource)));
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        // 읽기 전용 범위가 아니거나 트랜잭션 안이면 primary
+        if (!DataSourceRouting.replicaRequested() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return primary.getConnection();
+        }
+
+        ReplicaNode node = select();
+        if (node == null) {
+            // 사용할 수 있는 replica 가 없으면 primary 에서 읽는다
+            return primary.getConnection();
+        }
+        try {
+            return node.borrow();
+        } catch (SQLException e) {
+            // 커넥션을 얻지 못한 replica 는 다음 상태 확인까지 빼고 primary 로 처리
+            node.healthy = false;
+            return primary.getConnection();
+        }
+    }
+
+    // 사용자를 지정한 커넥션은 replica 계정과 맞는지 알 수 없으므로 항상 primary 에서 얻는다
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // 모든 replica 의 상태를 확인 (커넥션을 얻고 isValid 로 응답 확인)
+    public void checkReplicas() {
+        for (ReplicaNode node : replicas) {
+            try (Connection connection = node.dataSource.getConnection()) {
+                node.healthy = connection.isValid(2);
+            } catch (SQLException e) {
+                node.healthy = false;
+            }
+        }
+    }
+
+    // 이름별 replica 상태 (true 면 선택 대상)
+    public Map<String, Boolean> replicaHealth() {
+        Map<String, Boolean> health = new LinkedHashMap<>();
+        for (ReplicaNode node : replicas) {
+            health.put(node.name, node.healthy);
+        }
+        return health;
+    }
+
+    // 메트릭 / 헬스 확인 도구가 커넥션 풀을 찾을 수 있도록 primary 를 감싼 것으로 보이게 한다
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    // 상태 확인을 멈추고 replica / primary 커넥션 풀을 닫음
+    @Override
+    public void close() throws Exception {
+        healthChecker.shutdownNow();
+        for (ReplicaNode node : replicas) {
+            if (node.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    // 정상인 replica 중에서 설정한 방식으로 하나를 고름 (없으면 null)
+    private ReplicaNode select() {
+        List<ReplicaNode> healthy = new ArrayList<>(replicas.size());
+        for (ReplicaNode node : replicas) {
+            if (node.healthy) {
+                healthy.add(node);
+            }
+        }
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        if (selection == Selection.LEAST_BUSY) {
+            ReplicaNode least = healthy.get(0);
+            for (ReplicaNode node : healthy) {
+                if (node.active.get() < least.active.get()) {
+                    least = node;
+                }
+            }
+            return least;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    // replica 하나와 그 상태
+    private static final class ReplicaNode {
+        private final String name;
+        private final DataSource dataSource;
+
+        // 지금 빌려준 커넥션 수 (least-busy 선택용)
+        private final AtomicInteger active = new AtomicInteger();
+
+        private volatile boolean healthy = true;
+
+        private ReplicaNode(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        // 커넥션을 빌려주고, close() 될 때 사용 중 개수를 줄이도록 감싼다
+        private Connection borrow() throws SQLException {
+            Connection connection = dataSource.getConnection();
+            active.incrementAndGet();
+            boolean[] closed = {false};
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close") && !closed[0]) {
+                            closed[0] = true;
+                            active.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
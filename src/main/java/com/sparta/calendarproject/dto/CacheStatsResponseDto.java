@@ -0,0 +1,35 @@
+package com.sparta.calendarproject.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Getter;
+import lombok.Setter;
+
+// 일정 캐시의 누적 통계를 클라이언트에게 보낼 응답 객체
+@Getter   // Lombok 어노테이션: 모든 필드의 getter 메서드 자동 생성
+@Setter   // Lombok 어노테이션: 모든 필드의 setter 메서드 자동 생성
+public class CacheStatsResponseDto {
+    // 캐시에서 바로 응답한 횟수
+    private long hitCount;
+
+    // 캐시에 없어서 데이터베이스를 조회한 횟수
+    private long missCount;
+
+    // 크기 제한이나 만료 때문에 캐시에서 제거된 횟수
+    private long evictionCount;
+
+    // 전체 조회 중 캐시 적중 비율 (0.0 ~ 1.0)
+    private double hitRate;
+
+    // 현재 캐시에 들어있는 일정 수
+    private long size;
+
+    public static CacheStatsResponseDto from(CacheStats stats, long size) {
+        CacheStatsResponseDto dto = new CacheStatsResponseDto();
+        dto.setHitCount(stats.hitCount());
+        dto.setMissCount(stats.missCount());
+        dto.setEvictionCount(stats.evictionCount());
+        dto.setHitRate(stats.hitRate());
+        dto.setSize(size);
+        return dto;
+    }
+}
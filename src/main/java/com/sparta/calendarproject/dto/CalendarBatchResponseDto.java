@@ -0,0 +1,42 @@
+package com.sparta.calendarproject.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 일정 일괄 생성 결과를 클라이언트에게 보낼 응답 객체
+@Getter   // Lombok 어노테이션: 모든 필드의 getter 메서드 자동 생성
+@Setter   // Lombok 어노테이션: 모든 필드의 setter 메서드 자동 생성
+public class CalendarBatchResponseDto {
+    // 요청 순서와 같은 순서의 생성된 일정 ID 목록
+    // 검증에 실패해서 생성되지 않은 항목은 null
+    private List<Long> ids;
+
+    // 생성되지 않은 항목들의 위치와 실패 이유
+    private List<ItemError> errors = new ArrayList<>();
+
+    public static CalendarBatchResponseDto of(Long[] ids, List<ItemError> errors) {
+        CalendarBatchResponseDto dto = new CalendarBatchResponseDto();
+        dto.setIds(Arrays.asList(ids));
+        dto.setErrors(errors);
+        return dto;
+    }
+
+    // 일괄 생성 중 한 항목의 검증 실패 정보
+    @Getter
+    public static class ItemError {
+        // 요청 배열에서의 위치 (0부터 시작)
+        private final int index;
+
+        // 실패 이유
+        private final String message;
+
+        public ItemError(int index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.sparta.calendarproject.dto;
+
+import lombok.Getter;
+
+// 변경 알림(GET /api/changes) 으로 보내는 일정 생성 / 수정 / 삭제 이벤트
+// 클라이언트는 목록을 다시 조회하지 않고 이 이벤트로 화면을 갱신할 수 있다
+@Getter   // Lombok 어노테이션: 모든 필드의 getter 메서드 자동 생성
+public class CalendarChangeEventDto {
+    // 이벤트 번호 (발생 순서대로 1씩 증가, 재연결할 때 Last-Event-ID 로 보냄)
+    private final long id;
+
+    // 이벤트 종류 (created / updated / deleted)
+    private final String type;
+
+    // 바뀐 일정의 ID
+    private final Long calendarId;
+
+    // 바뀐 일정의 작성자 (author 필터링용)
+    private final String author;
+
+    // 생성 / 수정된 일정의 내용 (삭제 이벤트는 null)
+    private final CalendarResponseDto calendar;
+
+    public CalendarChangeEventDto(long id, String type, Long calendarId, String author, CalendarResponseDto calendar) {
+        this.id = id;
+        this.type = type;
+        this.calendarId = calendarId;
+        this.author = author;
+        this.calendar = calendar;
+    }
+}
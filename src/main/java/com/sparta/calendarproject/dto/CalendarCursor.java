@@ -0,0 +1,75 @@
+package com.sparta.calendarproject.dto;
+
+import com.sparta.calendarproject.model.CalendarModel;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// 키셋(커서) 페이지네이션의 현재 위치를 나타내는 객체
+// 이전 페이지의 마지막 일정이 가진 (updateDate, id) 값을 담아 다음 페이지의 시작점으로 사용
+@Getter  // Lombok 어노테이션: 모든 필드의 getter 메서드 자동 생성
+public class CalendarCursor {
+    // 이전 페이지 마지막 일정의 수정 시간
+    private final LocalDateTime updateDate;
+
+    // 이전 페이지 마지막 일정의 ID (수정 시간이 같은 일정들 사이의 순서를 정함)
+    private final Long id;
+
+    public CalendarCursor(LocalDateTime updateDate, Long id) {
+        this.updateDate = updateDate;
+        this.id = id;
+    }
+
+    // 페이지의 마지막 일정으로부터 다음 페이지용 커서를 만드는 정적 팩토리 메서드
+    public static CalendarCursor from(CalendarModel model) {
+        return new CalendarCursor(model.getUpdateDate(), model.getId());
+    }
+
+    // 클라이언트에게 내려줄 불투명(opaque) 문자열로 인코딩
+    // 내부 구조가 노출되지 않도록 URL-safe Base64 로 감싼다
+    public String encode() {
+        String raw = updateDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 클라이언트가 보낸 커서 문자열을 다시 객체로 복원
+    // 형식이 잘못된 경우 IllegalArgumentException 을 발생시켜 400 Bad Request 로 응답되게 한다
+    public static CalendarCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("잘못된 커서 값입니다: " + cursor);
+            }
+            LocalDateTime updateDate = LocalDateTime.parse(raw.substring(0, separator));
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return new CalendarCursor(updateDate, id);
+        } catch (DateTimeParseException e) {
+            // Base64 디코딩 실패와 숫자 변환 실패(NumberFormatException)는
+            // 이미 IllegalArgumentException 이므로 날짜 파싱 실패만 변환해준다
+            throw new IllegalArgumentException("잘못된 커서 값입니다: " + cursor);
+        }
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. 키셋(커서) 페이지네이션이란?
+OFFSET 방식은 앞의 행들을 모두 읽고 버린 뒤에 원하는 페이지를 반환하기 때문에
+페이지가 깊어질수록 느려진다
+키셋 방식은 "마지막으로 본 행 다음부터" 라는 조건(WHERE)을 사용하므로
+몇 번째 페이지든 인덱스에서 바로 시작 위치를 찾아 일정한 비용으로 조회할 수 있다
+
+2. 왜 (updateDate, id) 두 개를 사용하는가?
+updateDate 만으로는 같은 시간에 수정된 일정들 사이의 순서가 정해지지 않는다
+id 를 함께 사용하면 정렬 순서가 유일해져서 누락이나 중복 없이 페이지를 넘길 수 있다
+
+3. 불투명(opaque) 커서
+클라이언트는 커서의 내용을 해석하지 않고 그대로 다음 요청에 돌려보내기만 하면 된다
+서버는 나중에 커서 형식을 바꾸더라도 API 를 유지할 수 있다
+ */
@@ -0,0 +1,24 @@
+package com.sparta.calendarproject.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// 작성자별 / 날짜별 일정 수 응답 DTO
+@Getter  // Lombok 어노테이션: 모든 필드의 getter 메서드 자동 생성
+public class CalendarDailyStatsDto {
+    // 작성자 이름
+    private final String author;
+
+    // 날짜 (일정의 마지막 수정일 기준)
+    private final LocalDate day;
+
+    // 해당 작성자가 그 날짜에 가진 일정 수
+    private final long entries;
+
+    public CalendarDailyStatsDto(String author, LocalDate day, long entries) {
+        this.author = author;
+        this.day = day;
+        this.entries = entries;
+    }
+}
@@ -0,0 +1,45 @@
+package com.sparta.calendarproject.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// CSV 가져오기(POST /api/import) 결과를 클라이언트에게 보낼 응답 객체
+@Getter   // Lombok 어노테이션: 모든 필드의 getter 메서드 자동 생성
+@Setter   // Lombok 어노테이션: 모든 필드의 setter 메서드 자동 생성
+public class CalendarImportResponseDto {
+    // 저장된 일정 수
+    private long imported;
+
+    // 검증 또는 저장에 실패해서 건너뛴 행 수
+    private long rejected;
+
+    // 건너뛴 행의 줄 번호와 이유 (앞에서부터 최대 개수까지만, 전체 개수는 rejected)
+    // 저장에 실패한 묶음은 그 묶음의 첫 줄 번호로 한 번만 기록된다
+    private List<RowError> rejectedRows = new ArrayList<>();
+
+    // 파일 형식 오류로 중간에 멈춘 경우 그 이유 (끝까지 읽었으면 null)
+    // 멈추기 전에 저장된 묶음은 그대로 남는다
+    private String error;
+
+    // 걸린 시간과 초당 처리한 행 수
+    private long elapsedMillis;
+    private long rowsPerSecond;
+
+    // 가져오기 중 한 행의 검증 실패 정보
+    @Getter
+    public static class RowError {
+        // CSV 파일에서의 줄 번호 (헤더가 1번째 줄)
+        private final long line;
+
+        // 실패 이유
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+    }
+}
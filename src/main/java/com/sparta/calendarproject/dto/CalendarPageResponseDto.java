@@ -0,0 +1,26 @@
+package com.sparta.calendarproject.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+// 일정 목록 조회의 한 페이지를 담는 응답 객체
+// 현재 페이지의 일정들과 다음 페이지를 요청할 때 사용할 커서를 함께 내려준다
+@Getter   // Lombok 어노테이션: 모든 필드의 getter 메서드 자동 생성
+@Setter   // Lombok 어노테이션: 모든 필드의 setter 메서드 자동 생성
+public class CalendarPageResponseDto {
+    // 현재 페이지에 포함된 일정 목록
+    private List<CalendarResponseDto> items;
+
+    // 다음 페이지를 조회할 때 cursor 파라미터로 보낼 값
+    // 더 이상 조회할 일정이 없으면 null
+    private String nextCursor;
+
+    public static CalendarPageResponseDto of(List<CalendarResponseDto> items, String nextCursor) {
+        CalendarPageResponseDto dto = new CalendarPageResponseDto();
+        dto.setItems(items);
+        dto.setNextCursor(nextCursor);
+        return dto;
+    }
+}
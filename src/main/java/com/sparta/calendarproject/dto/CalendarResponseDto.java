@@ -31,6 +31,10 @@ public class CalendarResponseDto {
     // 최근 업데이트 시점을 기록
     private LocalDateTime updateDate;
 
+    // 일정 버전 (수정할 때마다 1씩 증가)
+    // 수정 요청의 If-Match 헤더로 보낼 ETag 와 같은 값을 나타낸다
+    private Long version;
+
     // 데이터베이스 모델(엔티티)을 응답 DTO로 변환하는 정적 메서드
     // 데이터베이스에서 가져온 모델 객체를 클라이언트에 보낼 수 있는 형태로 변환
     public static CalendarResponseDto fromModel(CalendarModel model) {
@@ -43,6 +47,7 @@ public class CalendarResponseDto {
         dto.setAuthor(model.getAuthor());   // 작성자 설정
         dto.setCreateDate(model.getCreateDate());  // 생성 날짜 설정
         dto.setUpdateDate(model.getUpdateDate());  // 수정 날짜 설정
+        dto.setVersion(model.getVersion());        // 버전 설정
 
         // 변환된 DTO 객체 반환
         return dto;
@@ -0,0 +1,41 @@
+package com.sparta.calendarproject.dto;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// 검색 결과 페이지네이션의 현재 위치를 나타내는 객체
+// 이전 페이지 마지막 결과의 (점수, id) 를 담아 다음 페이지의 시작점으로 사용
+@Getter  // Lombok 어노테이션: 모든 필드의 getter 메서드 자동 생성
+public class CalendarSearchCursor {
+    // 이전 페이지 마지막 결과의 관련도 점수
+    private final double score;
+
+    // 이전 페이지 마지막 결과의 ID (점수가 같은 결과들 사이의 순서를 정함)
+    private final Long id;
+
+    public CalendarSearchCursor(double score, Long id) {
+        this.score = score;
+        this.id = id;
+    }
+
+    // 클라이언트에게 내려줄 불투명(opaque) 문자열로 인코딩
+    public String encode() {
+        String raw = score + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 클라이언트가 보낸 커서 문자열을 다시 객체로 복원
+    // Base64 디코딩 실패와 숫자 변환 실패는 모두 IllegalArgumentException 이라 400 Bad Request 로 응답된다
+    public static CalendarSearchCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = raw.lastIndexOf('|');
+        if (separator < 0) {
+            throw new IllegalArgumentException("잘못된 커서 값입니다: " + cursor);
+        }
+        double score = Double.parseDouble(raw.substring(0, separator));
+        Long id = Long.valueOf(raw.substring(separator + 1));
+        return new CalendarSearchCursor(score, id);
+    }
+}
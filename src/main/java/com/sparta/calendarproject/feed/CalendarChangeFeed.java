@@ -0,0 +1,356 @@
+package com.sparta.calendarproject.feed;
+
+import com.sparta.calendarproject.dto.CalendarChangeEventDto;
+import com.sparta.calendarproject.dto.CalendarResponseDto;
+import com.sparta.calendarproject.model.CalendarModel;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 일정 생성 / 수정 / 삭제를 구독자들에게 Server-Sent Events 로 알려주는 변경 알림
+// 최근 이벤트를 정해진 개수만큼 메모리에 보관해서, 연결이 끊겼던 구독자가 Last-Event-ID 로 이어서 받을 수 있다
+// 구독자마다 크기가 정해진 대기열을 두고, 대기열이 넘치는 느린 구독자는 연결을 끊는다 (다시 연결해서 이어 받음)
+@Component  // Spring이 빈으로 등록하게 하는 어노테이션
+public class CalendarChangeFeed implements MeterBinder {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+
+    // 이어 받을 수 없을 때(보관 범위를 벗어남)나 한 번에 많은 일정이 바뀌었을 때 목록을 다시 조회하라고 알리는 이벤트
+    public static final String RESET = "reset";
+
+    // 최근 이벤트 보관 개수
+    private final int logSize;
+
+    // 구독자 한 명이 쌓아둘 수 있는 전송 대기 이벤트 수
+    private final int queueSize;
+
+    // 한 번에 바뀐 일정이 이 개수를 넘으면 한 건씩 보내지 않고 reset 이벤트 하나로 알림 (대기열의 1/4)
+    private final int bulkThreshold;
+
+    // 구독 연결 유지 시간 (지나면 연결을 닫고, 브라우저 EventSource 는 Last-Event-ID 로 자동 재연결)
+    private final long timeoutMillis;
+
+    // 최근 이벤트 (오래된 것부터, 이 객체로 동기화)
+    private final ArrayDeque<CalendarChangeEventDto> log = new ArrayDeque<>();
+
+    // 마지막으로 발행한 이벤트 번호 (log 로 동기화)
+    private long lastId;
+
+    // 현재 구독자들
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // 구독자에게 이벤트를 보내는 실행기 (보낼 이벤트가 있을 때만 가상 스레드를 사용)
+    private final Executor deliveryExecutor;
+
+    // 연결 확인(heartbeat) 실행기
+    private final ScheduledExecutorService heartbeat;
+
+    // 대기열이 넘쳐서 연결을 끊은 구독자 수
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Autowired
+    public CalendarChangeFeed(@Value("${calendar.changes.log-size:10000}") int logSize,
+                              @Value("${calendar.changes.subscriber-queue-size:256}") int queueSize,
+                              @Value("${calendar.changes.timeout:30m}") Duration timeout,
+                              @Value("${calendar.changes.heartbeat-interval:30s}") Duration heartbeatInterval) {
+        this(logSize, queueSize, timeout, heartbeatInterval, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    CalendarChangeFeed(int logSize, int queueSize, Duration timeout, Duration heartbeatInterval, Executor deliveryExecutor) {
+        this.logSize = logSize;
+        this.queueSize = queueSize;
+        this.bulkThreshold = Math.max(1, queueSize / 4);
+        this.timeoutMillis = timeout.toMillis();
+        this.deliveryExecutor = deliveryExecutor;
+
+        // 아무 이벤트가 없어도 주기적으로 주석을 보내서 끊어진 연결을 찾아내고 프록시가 연결을 닫지 않게 한다
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "calendar-changes-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = heartbeatInterval.toMillis();
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // 새 구독 연결을 만든다
+    // author 가 있으면 그 작성자의 일정 이벤트만, lastEventId 가 있으면 그 다음 이벤트부터 보낸다
+    public SseEmitter subscribe(String author, String lastEventId) {
+        return register(new SseEmitter(timeoutMillis), author, lastEventId);
+    }
+
+    // 커밋이 끝난 일정 변경을 발행 (삭제 이벤트는 삭제 전의 일정 정보로 발행)
+    public void publish(String type, CalendarModel model) {
+        synchronized (log) {
+            append(new CalendarChangeEventDto(++lastId, type, model.getId(), model.getAuthor(),
+                    DELETED.equals(type) ? null : CalendarResponseDto.fromModel(model)));
+        }
+    }
+
+    // 한 번에 커밋된 여러 일정 변경을 발행 (일괄 생성 / CSV 가져오기)
+    // 많으면 한 건씩 보내서 모든 구독자의 대기열을 채우는 대신(넘치면 멀쩡한 구독자까지 끊김)
+    // 모든 구독자에게 reset 이벤트 하나를 보내서 목록을 다시 조회하게 한다
+    public void publishAll(String type, List<CalendarModel> models) {
+        if (models.size() <= bulkThreshold) {
+            models.forEach(model -> publish(type, model));
+            return;
+        }
+        synchronized (log) {
+            append(new CalendarChangeEventDto(++lastId, RESET, null, null, null));
+        }
+    }
+
+    // 현재 구독자 수
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // 구독자 수와 연결을 끊은 느린 구독자 수를 메트릭으로 노출
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("calendar.changes.subscribers", this, CalendarChangeFeed::subscriberCount)
+                .description("변경 알림(SSE) 구독자 수")
+                .register(registry);
+        FunctionCounter.builder("calendar.changes.dropped", dropped, AtomicLong::get)
+                .description("대기열이 넘쳐서 연결을 끊은 구독자 수")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void close() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+        if (deliveryExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    // 이벤트를 보관하고 받을 구독자들의 대기열에 넣음 (log 잠금 안에서 호출)
+    // 대기열에 넣기만 하고 전송은 구독자별 실행기에서 하므로 느린 구독자가 발행을 막지 않는다
+    private void append(CalendarChangeEventDto event) {
+        log.addLast(event);
+        if (log.size() > logSize) {
+            log.removeFirst();
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(event)) {
+                subscriber.enqueue(toSse(event));
+            }
+        }
+    }
+
+    // 구독자를 등록 (테스트에서는 보낸 내용을 기록하는 SseEmitter 를 넘겨서 사용)
+    SseEmitter register(SseEmitter emitter, String author, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, author);
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::remove);
+        emitter.onError(e -> subscriber.remove());
+
+        // 이어 보낼 이벤트를 대기열에 넣는 것과 구독자 등록을 같은 잠금 안에서 해서
+        // 그 사이에 발행된 이벤트가 빠지거나 두 번 가지 않게 한다
+        synchronized (log) {
+            // 연결 직후 응답 헤더가 바로 나가도록 주석을 하나 보냄
+            subscriber.offer(SseEmitter.event().comment("connected"));
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, lastEventId.trim());
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+        return emitter;
+    }
+
+    // Last-Event-ID 다음의 이벤트를 대기열에 넣음
+    // 보관 범위를 벗어났거나 대기열에 다 들어가지 않으면 reset 이벤트로 목록을 다시 조회하게 한다
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long after;
+        try {
+            after = Long.parseLong(lastEventId);
+        } catch (NumberFormatException e) {
+            after = -1;
+        }
+        long oldest = log.isEmpty() ? lastId + 1 : log.peekFirst().getId();
+        // 서버가 다시 시작해서 번호가 처음부터 시작한 경우도 범위를 벗어난 것으로 처리
+        if (after < oldest - 1 || after > lastId) {
+            subscriber.offer(reset());
+            return;
+        }
+        for (CalendarChangeEventDto event : log) {
+            if (event.getId() > after && subscriber.accepts(event) && !subscriber.offer(toSse(event))) {
+                subscriber.queue.clear();
+                subscriber.offer(reset());
+                return;
+            }
+        }
+    }
+
+    // 모든 구독자에게 heartbeat 주석을 보냄 (대기열이 가득 찬 구독자는 연결을 끊음)
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    private SseEmitter.SseEventBuilder reset() {
+        return reset(lastId);
+    }
+
+    // 다시 조회한 뒤에는 이 번호부터 이어 받으면 된다
+    private static SseEmitter.SseEventBuilder reset(long id) {
+        return SseEmitter.event().id(String.valueOf(id)).name(RESET).data("목록을 다시 조회해주세요.");
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(CalendarChangeEventDto event) {
+        if (RESET.equals(event.getType())) {
+            return reset(event.getId());
+        }
+        return SseEmitter.event()
+                .id(String.valueOf(event.getId()))
+                .name(event.getType())
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    // 구독자 한 명의 연결과 전송 대기열
+    private final class Subscriber {
+        private final SseEmitter emitter;
+
+        // 이 작성자의 이벤트만 받음 (null 이면 전체)
+        private final String author;
+
+        // 보낼 이벤트 (필요할 때만 노드를 만들어서 대기 중인 구독자는 메모리를 거의 쓰지 않는다)
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+
+        // 지금 전송 작업이 실행 중인지 (구독자마다 전송 작업은 하나만 실행)
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, String author) {
+            this.emitter = emitter;
+            this.author = author == null || author.isEmpty() ? null : author;
+            this.queue = new LinkedBlockingQueue<>(queueSize);
+        }
+
+        // 작성자가 없는 이벤트(일괄 변경의 reset)는 모든 구독자가 받음
+        private boolean accepts(CalendarChangeEventDto event) {
+            return author == null || event.getAuthor() == null || author.equals(event.getAuthor());
+        }
+
+        private boolean offer(SseEmitter.SseEventBuilder event) {
+            return queue.offer(event);
+        }
+
+        // 대기열에 넣고 전송을 예약, 대기열이 가득 찼으면 따라오지 못하는 구독자로 보고 연결을 끊음
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                dropped.incrementAndGet();
+                close();
+                return;
+            }
+            schedule();
+        }
+
+        // 전송 작업이 실행 중이 아니면 하나 시작
+        private void schedule() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        // 대기열이 빌 때까지 전송 (쓰기가 막힌 느린 구독자는 이 작업만 기다리고 다른 구독자에게는 영향이 없다)
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // 클라이언트가 연결을 끊었거나 이미 완료된 연결
+                remove();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // 마지막 확인과 draining 해제 사이에 들어온 이벤트가 있으면 다시 시작
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        // 구독 목록에서 빼고 연결을 닫음
+        // complete() 는 막혀 있는 send 가 끝날 때까지 기다리므로, log 잠금을 잡고 있을 수 있는
+        // 발행 / heartbeat 스레드에서 바로 부르지 않고 전송 실행기에서 닫는다 (느린 구독자 하나가 모든 쓰기 요청을 막지 않도록)
+        private void close() {
+            remove();
+            try {
+                deliveryExecutor.execute(emitter::complete);
+            } catch (RejectedExecutionException e) {
+                // 종료 중이라 실행기가 닫혔으면 연결은 서버 종료와 함께 닫힌다
+            }
+        }
+
+        private void remove() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. Server-Sent Events (SSE)
+서버에서 클라이언트로 한 방향으로 이벤트를 계속 보내는 HTTP 응답 (Content-Type: text/event-stream)
+브라우저의 EventSource 는 연결이 끊기면 마지막으로 받은 id 를 Last-Event-ID 헤더에 담아 자동으로 다시 연결한다
+여러 탭이 주기적으로 목록을 다시 조회(polling) 하는 대신 바뀐 것만 받으므로 읽기 부하가 크게 줄어든다
+
+2. 적은 비용으로 많은 구독자 유지
+SseEmitter 는 서블릿 비동기 요청이라 연결을 유지하는 동안 스레드를 붙잡지 않는다
+전송할 이벤트가 있을 때만 가상 스레드에서 보내고, 대기열은 노드를 필요할 때만 만드는 LinkedBlockingQueue 를 사용한다
+
+3. 느린 구독자 처리
+구독자마다 크기가 정해진 대기열을 두고, 가득 차면 더 쌓지 않고 연결을 끊는다
+끊긴 구독자는 Last-Event-ID 로 다시 연결해서 보관 중인 이벤트를 이어 받거나, 너무 뒤처졌으면 reset 이벤트를 받고 목록을 다시 조회한다
+그래서 한 구독자 때문에 서버 메모리가 끝없이 늘어나지 않는다
+연결을 닫는 complete() 는 그 연결에 막혀 있는 쓰기가 끝날 때까지 기다리므로 잠금 밖(전송 실행기)에서 호출한다
+잠금 안에서 부르면 멈춘 클라이언트 하나 때문에 발행하는 모든 쓰기 요청과 heartbeat 가 함께 멈춘다
+
+4. 일괄 변경은 reset 하나로
+일괄 생성 / CSV 가져오기처럼 한 번에 많은 일정이 바뀌면 한 건씩 보내는 이벤트만으로 대기열이 넘친다
+그러면 잘 따라오던 구독자까지 끊기므로, 대기열의 1/4 을 넘는 변경은 reset 이벤트 하나로 목록을 다시 조회하게 한다
+
+5. 커밋 이후 발행
+서비스는 리포지토리의 트랜잭션이 끝난(커밋된) 뒤에 publish 를 호출하므로
+롤백된 변경이 알림으로 나가는 일이 없다
+ */
@@ -0,0 +1,217 @@
+package com.sparta.calendarproject.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// 측정한 응답 시간으로 동시 처리 한도(limit)를 스스로 조절하는 제한기 (gradient 방식)
+// 오래 지켜본 응답 시간 기준(rttNoLoad, 장기 평균) 과 최근 응답 시간(rtt) 을 비교해서
+// - 응답 시간이 그대로면 한도를 조금씩 늘리고 (+ sqrt(limit))
+// - 요청이 어딘가에서 줄을 서기 시작해 응답 시간이 늘어나면 그 비율만큼 한도를 바로 줄인다 (limit * rttNoLoad * tolerance / rtt)
+// 한도를 넘는 요청은 기다리게 하지 않고 바로 거절해서, 받아들인 요청의 응답 시간이 무너지지 않게 한다
+//
+// 뒤쪽(데이터베이스)이 과부하를 직접 알려온 경우(벌크헤드 거절 등)는 응답 시간과 관계없이 한도를 곱으로 줄인다 (AIMD 의 MD)
+public final class AdaptiveConcurrencyLimiter {
+
+    // 한 번에 한도를 다시 계산할 표본 구간 (너무 짧으면 표본 하나하나에 흔들림)
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final int WINDOW_MIN_SAMPLES = 5;
+
+    // 응답 시간이 기준의 tolerance 배까지는 줄이지 않음 (가벼운 흔들림은 과부하로 보지 않음)
+    private static final double TOLERANCE = 1.5;
+
+    // 늘린 한도를 얼마나 반영할지 (0.2 면 20% 씩 다가감)
+    // 줄일 때는 그대로 반영한다 - 줄이 생긴 뒤로 천천히 줄이면 그동안 받아들인 요청이 모두 늦어진다
+    private static final double SMOOTHING = 0.2;
+
+    // 기준 응답 시간(장기 평균)에 구간 평균을 얼마나 반영할지 (0.05 면 약 20 구간 = 1초에 걸쳐 따라감)
+    private static final double BASELINE_SMOOTHING = 0.05;
+
+    // 뒤쪽이 과부하를 알려왔을 때 곱할 값
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+
+    // 부하가 없을 때의 응답 시간을 다시 재는 주기
+    // 데이터베이스가 정말로 느려졌으면 기준도 따라가야 하므로, 주기마다 한도를 절반으로 낮춰 줄을 비우고 다시 잰다
+    private final long probeIntervalNanos;
+
+    // 현재 시각 (나노초, 테스트에서는 직접 움직이는 시계를 넣음)
+    private final LongSupplier nanoTime;
+
+    // 지금 처리 중인 요청 수
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // 거절한 요청 수 (메트릭용)
+    private final AtomicLong rejected = new AtomicLong();
+
+    // 아래 값들은 sample / onDropped 에서 synchronized 로만 바꾸고, limit 은 잠금 없이 읽을 수 있게 volatile
+    private volatile double limit;
+    private volatile long rttNoLoadNanos;
+    private volatile long lastRttNanos;
+
+    private long windowStart;
+    private long windowSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+    private long nextProbe;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, long probeIntervalNanos) {
+        this(name, initialLimit, minLimit, maxLimit, probeIntervalNanos, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, long probeIntervalNanos,
+                               LongSupplier nanoTime) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("한도는 1 <= min <= initial <= max 이어야 합니다: " + name);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeIntervalNanos = probeIntervalNanos;
+        this.nanoTime = nanoTime;
+        this.limit = initialLimit;
+        this.windowStart = nanoTime.getAsLong();
+        this.nextProbe = windowStart + probeIntervalNanos;
+    }
+
+    // 한도 안이면 처리 중 수를 1 늘리고 true, 한도를 넘으면 바로 false (기다리지 않음)
+    // true 를 받은 호출자는 끝날 때 onSuccess / onDropped / onIgnore 중 하나를 반드시 호출해야 한다
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // 정상 처리된 요청(2xx)의 응답 시간을 반영
+    public void onSuccess(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        sample(rttNanos, current);
+    }
+
+    // 뒤쪽이 과부하로 거절한 요청 (한도를 바로 줄임)
+    public synchronized void onDropped() {
+        inFlight.decrementAndGet();
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+    }
+
+    // 응답 시간을 판단에 쓰지 않을 요청 (예외, 304, 4xx 처럼 처리 시간이 보통 요청과 다른 응답 등)
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    // 응답 시간 기준 - 줄이 없던 구간들의 장기 평균 (초, 아직 모르면 0)
+    public double getRttNoLoadSeconds() {
+        return rttNoLoadNanos / 1e9;
+    }
+
+    // 마지막 표본 구간의 평균 응답 시간 (초)
+    public double getRttSeconds() {
+        return lastRttNanos / 1e9;
+    }
+
+    // 표본을 구간에 모으고, 구간이 끝나면 한도를 다시 계산
+    private synchronized void sample(long rttNanos, int inFlightAtCompletion) {
+        windowSum += rttNanos;
+        windowCount++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtCompletion);
+
+        long now = nanoTime.getAsLong();
+        if (now - windowStart < WINDOW_NANOS || windowCount < WINDOW_MIN_SAMPLES) {
+            return;
+        }
+        long rtt = windowSum / windowCount;
+        int maxInFlight = windowMaxInFlight;
+        windowStart = now;
+        windowSum = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+        lastRttNanos = rtt;
+
+        if (now - nextProbe >= 0) {
+            // 기준을 다시 재기 위해 한도를 낮추고 다음 구간의 응답 시간을 새 기준으로 삼음
+            nextProbe = now + probeIntervalNanos;
+            rttNoLoadNanos = 0;
+            limit = Math.max(minLimit, limit / 2);
+            return;
+        }
+        if (rttNoLoadNanos == 0) {
+            rttNoLoadNanos = rtt;
+        } else if (rtt <= rttNoLoadNanos * TOLERANCE) {
+            // 줄이 없는 구간만 기준에 섞는다 (과부하가 이어지는 동안 기준이 따라 올라가서 한도를 못 줄이는 일을 막음)
+            rttNoLoadNanos = Math.round(rttNoLoadNanos * (1 - BASELINE_SMOOTHING) + rtt * BASELINE_SMOOTHING);
+        }
+
+        // 한도의 절반도 쓰지 않고 있으면 이 구간의 응답 시간은 한도와 관계가 없다 (늘리지도 줄이지도 않음)
+        // 요청이 적을 때 다른 이유로 느려진 구간 때문에 한도가 줄어들어 있으면, 요청이 몰릴 때 바로 거절하게 된다
+        if (maxInFlight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * rttNoLoadNanos / rtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        if (newLimit > limit) {
+            newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. 왜 동시 처리 수를 제한하는가? (Little 의 법칙)
+동시 처리 수 = 처리량 x 응답 시간
+데이터베이스가 초당 처리할 수 있는 양은 정해져 있으므로, 그 이상 받은 요청은 어딘가에서 줄을 서고 응답 시간만 늘어난다
+줄이 길어지면 모든 요청이 함께 느려져서 결국 클라이언트 타임아웃으로 처리한 일까지 헛수고가 된다 (goodput 붕괴)
+한도를 넘는 요청을 바로 거절하면 받아들인 요청은 원래 속도로 끝나고, 거절된 요청은 빠르게 다시 시도할 수 있다
+
+2. 고정 한도 대신 적응형 한도
+적당한 한도는 데이터베이스 상태, 쿼리 종류, 장비에 따라 계속 바뀐다
+응답 시간이 늘어나기 시작하는 지점(줄이 생기는 지점)을 측정해서 한도를 그 근처로 맞춘다
+
+3. Gradient 방식
+gradient = rttNoLoad * tolerance / rtt (0.5 ~ 1.0)
+새 한도 = 한도 x gradient + sqrt(한도)
+응답 시간이 기준 근처면 sqrt(한도) 만큼 늘리고, 기준보다 커지면 그 비율만큼 줄인다
+늘릴 때는 한 번에 크게 바뀌지 않도록 이전 값과 섞어서(smoothing) 반영하고, 줄일 때는 바로 반영한다
+한도의 절반도 쓰지 않은 구간은 한도를 시험한 것이 아니므로 늘리지도 줄이지도 않는다
+
+기준 응답 시간(rttNoLoad)
+구간 평균의 장기 지수 이동 평균 (EWMA) : 기준 = 기준 x 0.95 + 구간 평균 x 0.05
+최소값을 기준으로 삼으면 운 좋게 빨랐던 한 구간(캐시 적중, GC 직후 등)에 고정되어 한도를 계속 과하게 줄인다
+줄이 생긴 구간(기준의 tolerance 배를 넘는 구간)은 섞지 않아서, 과부하가 길게 이어져도 기준이 따라 올라가지 않는다
+
+4. AIMD (Additive Increase, Multiplicative Decrease)
+TCP 혼잡 제어처럼 천천히 늘리고, 과부하 신호(벌크헤드 거절 등)를 받으면 곱으로 빠르게 줄인다
+
+주의할 점
+줄이 생긴 구간을 기준에 섞지 않으므로, 데이터베이스가 tolerance 배 넘게 한꺼번에 느려지면 기준이 따라가지 못한다
+그래서 probe 주기마다 한도를 절반으로 낮춰 줄을 비운 뒤 그 구간의 응답 시간을 새 기준으로 삼는다
+ */
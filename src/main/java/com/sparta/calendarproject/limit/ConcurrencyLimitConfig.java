@@ -0,0 +1,19 @@
+package com.sparta.calendarproject.limit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// calendar.concurrency-limit.enabled=true (기본값) 이면 /api 요청 앞에 동시 처리 한도 필터를 등록
+// Filter 빈은 Spring Boot 가 서블릿 컨테이너에 자동으로 등록하고, MeterBinder 라서 한도 메트릭도 자동으로 노출된다
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(name = "calendar.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(ConcurrencyLimitProperties properties) {
+        return new ConcurrencyLimitFilter(properties);
+    }
+}
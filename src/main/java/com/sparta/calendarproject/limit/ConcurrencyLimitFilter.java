@@ -0,0 +1,192 @@
+package com.sparta.calendarproject.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// 컨트롤러 앞에서 /api 요청의 동시 처리 수를 적응형 한도로 제한하는 필터 (load shedding)
+// 데이터베이스가 느려지면 요청이 스레드와 커넥션 풀에 쌓여서 모두가 느려지는 대신,
+// 한도를 넘는 요청만 바로 503 + Retry-After 로 거절하고 받아들인 요청은 원래 속도로 처리한다
+//
+// - 조회 : GET / HEAD /api/lists, /api/lists/{id} (Accept: application/x-ndjson 의 전체 스트리밍은 제외)
+// - 쓰기 : /api 아래의 POST / PUT / DELETE (CSV 가져오기 / 복원과 일괄 생성 /api/calendar/batch 는 제외)
+// 처리 시간이 요청 크기에 따라 달라지는 요청(스트리밍, 가져오기, 일괄 생성)은 응답 시간 기준을 흐리므로 제한하지 않고,
+// 검색 / 통계 / 내보내기 / 변경 알림(SSE) 처럼 데이터베이스 목록 조회와 성격이 다른 요청도 제한하지 않는다
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String REJECTED_MESSAGE = "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.";
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties) {
+        long probeIntervalNanos = properties.getProbeInterval().toNanos();
+        this.readLimiter = limiter("read", properties.getRead(), probeIntervalNanos);
+        this.writeLimiter = limiter("write", properties.getWrite(), probeIntervalNanos);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limiterFor(request);
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (!completed || request.isAsyncStarted()) {
+                // 예외로 끝났거나 비동기로 넘어가서 응답 시간을 알 수 없음
+                limiter.onIgnore();
+            } else if (isOverloadResponse(response.getStatus())) {
+                // 벌크헤드 / 그룹 커밋 대기열이 가득 차서 거절됨 (뒤쪽이 이미 과부하)
+                limiter.onDropped();
+            } else if (isSuccessful(response.getStatus())) {
+                limiter.onSuccess(System.nanoTime() - start);
+            } else {
+                // 304(ETag 일치, 본문 없음) / 4xx(검증 실패) 처럼 데이터베이스 일을 다 하지 않은 응답은
+                // 보통 요청보다 훨씬 빨라서 기준 응답 시간을 낮추므로 표본에 넣지 않는다
+                limiter.onIgnore();
+            }
+        }
+    }
+
+    // 요청 종류에 맞는 제한기 (제한하지 않는 요청이면 null)
+    private AdaptiveConcurrencyLimiter limiterFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith("/api/")) {
+            return null;
+        }
+        String method = request.getMethod();
+        if (method.equals("GET") || method.equals("HEAD")) {
+            if (path.equals("/api/lists")) {
+                return acceptsNdjson(request.getHeader(HttpHeaders.ACCEPT)) ? null : readLimiter;
+            }
+            return path.startsWith("/api/lists/") ? readLimiter : null;
+        }
+        if (method.equals("POST") || method.equals("PUT") || method.equals("DELETE")) {
+            return path.equals("/api/import") || path.equals("/api/restore") || path.equals("/api/calendar/batch")
+                    ? null : writeLimiter;
+        }
+        return null;
+    }
+
+    // 목록 요청이 NDJSON 스트리밍인지 (CalendarController 와 같은 기준, 형식이 잘못된 Accept 는 일반 목록으로 봄)
+    private static boolean acceptsNdjson(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    // 제한기별 한도 / 처리 중 수 / 거절 수 / 응답 시간 기준을 메트릭으로 노출 (limiter=read|write 태그)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (AdaptiveConcurrencyLimiter limiter : List.of(readLimiter, writeLimiter)) {
+            Gauge.builder("calendar.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("지금의 동시 처리 한도")
+                    .tag("limiter", limiter.getName())
+                    .register(registry);
+            Gauge.builder("calendar.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("지금 처리 중인 요청 수")
+                    .tag("limiter", limiter.getName())
+                    .register(registry);
+            FunctionCounter.builder("calendar.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .description("한도를 넘어서 503 으로 거절한 요청 수")
+                    .tag("limiter", limiter.getName())
+                    .register(registry);
+            Gauge.builder("calendar.concurrency.rtt", limiter, AdaptiveConcurrencyLimiter::getRttSeconds)
+                    .description("최근 표본 구간의 평균 응답 시간")
+                    .tag("limiter", limiter.getName())
+                    .tag("type", "recent")
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("calendar.concurrency.rtt", limiter, AdaptiveConcurrencyLimiter::getRttNoLoadSeconds)
+                    .description("부하가 없을 때의 응답 시간 기준")
+                    .tag("limiter", limiter.getName())
+                    .tag("type", "no-load")
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+    }
+
+    // 기다리게 하지 않고 바로 503 Service Unavailable 과 Retry-After 헤더 반환
+    private static void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(REJECTED_MESSAGE);
+    }
+
+    // ApiExceptionHandler 가 벌크헤드 거절은 503, 그룹 커밋 대기열 가득 참은 429 로 응답한다
+    private static boolean isOverloadResponse(int status) {
+        return status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    // 응답 시간 표본으로 쓸 응답 (2xx)
+    private static boolean isSuccessful(int status) {
+        return status >= 200 && status < 300;
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(String name, ConcurrencyLimitProperties.Limit limit,
+                                                      long probeIntervalNanos) {
+        return new AdaptiveConcurrencyLimiter(name, limit.getInitialLimit(), limit.getMinLimit(), limit.getMaxLimit(),
+                probeIntervalNanos);
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. 부하 차단(load shedding)
+처리할 수 있는 양보다 많은 요청이 들어오면 일부를 빠르게 거절해서 나머지를 정상 속도로 처리하는 방법
+거절된 요청은 503 과 Retry-After 를 받아서 클라이언트가 잠시 뒤 다시 시도할 수 있다
+모두 받아서 줄을 세우면 응답 시간이 끝없이 늘어나서 결국 아무 요청도 제때 끝나지 않는다
+
+2. 조회 / 쓰기 한도 분리
+조회와 쓰기는 데이터베이스에서 쓰는 자원(잠금, 트랜잭션 로그)과 응답 시간이 다르다
+한도를 하나로 두면 조회가 몰릴 때 쓰기까지 거절되므로 제한기를 따로 둔다
+
+3. OncePerRequestFilter
+요청 하나에 한 번만 실행되는 서블릿 필터 (forward / error 디스패치에서 다시 실행되지 않음)
+컨트롤러와 예외 처리(ApiExceptionHandler)가 끝난 뒤의 응답 상태로 결과를 판단한다
+ - 2xx : 응답 시간을 표본으로 반영
+ - 503 / 429 : 뒤쪽 과부하 신호, 한도를 곱으로 줄임
+ - 그 밖의 상태(304, 4xx, 500 등) : 처리 시간이 보통 요청과 달라서 표본에서 뺌
+
+4. 메트릭
+calendar.concurrency.limit / inflight : 지금의 한도와 처리 중인 요청 수
+calendar.concurrency.rejected : 거절한 요청 수 (rate 로 초당 거절 수 확인)
+calendar.concurrency.rtt : 최근 응답 시간과 부하가 없을 때의 기준 (둘의 비율이 한도를 줄이는 정도)
+ */
@@ -0,0 +1,40 @@
+package com.sparta.calendarproject.limit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// /api 요청의 적응형 동시 처리 한도 설정 (calendar.concurrency-limit.*)
+// 조회(/api/lists) 와 쓰기(POST / PUT / DELETE) 는 한도를 따로 두어서 한쪽이 몰려도 다른 쪽이 막히지 않게 한다
+@Getter
+@Setter
+@ConfigurationProperties("calendar.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    // 사용 여부 (false 면 필터를 등록하지 않음)
+    private boolean enabled = true;
+
+    // 부하가 없을 때의 응답 시간 기준을 다시 재는 주기
+    private Duration probeInterval = Duration.ofSeconds(30);
+
+    // 조회 요청 한도
+    private Limit read = new Limit(20, 4, 400);
+
+    // 쓰기 요청 한도 (쓰기는 트랜잭션과 잠금을 잡으므로 조회보다 작게 시작)
+    private Limit write = new Limit(10, 2, 100);
+
+    // 한도의 시작값과 조절 범위
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+    }
+}
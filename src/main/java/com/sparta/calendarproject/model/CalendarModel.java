@@ -39,6 +39,10 @@ public class CalendarModel {
     // 가장 최근에 수정된 시간 기록
     private LocalDateTime updateDate;
 
+    // 일정 버전 (낙관적 동시성 제어)
+    // 수정될 때마다 1씩 증가하며, 수정 요청이 읽었던 버전과 같을 때만 반영된다
+    private Long version;
+
     // RequestDto로부터 모델 객체를 생성하는 정적 팩토리 메서드
     // 클라이언트 요청 데이터를 데이터베이스 모델로 변환
     public static CalendarModel from(CalendarRequestDto requestDto) {
@@ -58,6 +62,9 @@ public class CalendarModel {
         model.setCreateDate(now);
         model.setUpdateDate(now);
 
+        // 새 일정의 버전은 0부터 시작
+        model.setVersion(0L);
+
         // 생성된 모델 객체 반환
         return model;
     }
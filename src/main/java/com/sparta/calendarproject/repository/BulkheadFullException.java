@@ -0,0 +1,10 @@
+package com.sparta.calendarproject.repository;
+
+// 벌크헤드의 허가를 제한 시간 안에 얻지 못했을 때 발생하는 예외
+// 컨트롤러에서 503 Service Unavailable 로 응답한다
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,314 @@
+package com.sparta.calendarproject.repository;
+
+import com.sparta.calendarproject.model.CalendarModel;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 일정 생성 요청을 모아서 한 번의 트랜잭션으로 저장하는 그룹 커밋(group commit) 처리기
+// 요청마다 INSERT 하고 커밋(디스크 fsync)하는 대신, 대기열에 모인 요청을 여러 행 배치로 묶어 한 번만 커밋한다
+// 각 요청은 자신이 들어간 배치가 커밋된 뒤에 생성된 ID를 받으므로 응답 시점의 저장 보장은 그대로다
+// calendar.group-commit.enabled=true 일 때만 동작 (기본은 요청마다 바로 저장)
+@Component  // Spring이 빈으로 등록하게 하는 어노테이션
+public class CalendarGroupCommitter implements SmartLifecycle, MeterBinder {
+
+    // 웹 서버(기본 단계 - 2048)보다 낮은 단계 : 먼저 시작하고, 웹 서버가 graceful shutdown 으로
+    // 처리 중인 요청을 모두 끝내고 멈춘 뒤에 멈춘다 (종료 중에 들어온 생성 요청이 거절되지 않도록)
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final String QUEUE_FULL_MESSAGE = "일정 생성 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.";
+
+    // 배치를 실제로 저장할 리포지토리 (createCalendars 가 하나의 트랜잭션으로 실행됨)
+    private final CalendarRepository calendarRepository;
+
+    // 그룹 커밋 사용 여부
+    private final boolean enabled;
+
+    // 한 번에 커밋할 최대 일정 수
+    private final int maxBatchSize;
+
+    // 첫 요청이 들어온 뒤 배치를 더 채우기 위해 기다리는 최대 시간
+    // 0 이면 기다리지 않고, 이전 배치를 저장하는 동안 쌓인 요청만 묶는다
+    private final long maxDelayNanos;
+
+    // 요청이 자신의 배치가 커밋되기를 기다리는 최대 시간
+    private final long waitTimeoutNanos;
+
+    // 저장을 기다리는 생성 요청 (가득 차면 새 요청은 바로 거절)
+    private final BlockingQueue<PendingCreate> queue;
+
+    // 배치 크기 분포 (bindTo 에서 등록)
+    private volatile DistributionSummary batchSizes;
+
+    // 대기열을 비우며 배치를 저장하는 스레드
+    private Thread flusher;
+
+    private volatile boolean running;
+
+    // 생성자를 통한 의존성 주입
+    public CalendarGroupCommitter(CalendarRepository calendarRepository,
+                                  @Value("${calendar.group-commit.enabled:false}") boolean enabled,
+                                  @Value("${calendar.group-commit.max-batch-size:200}") int maxBatchSize,
+                                  @Value("${calendar.group-commit.max-delay:2ms}") Duration maxDelay,
+                                  @Value("${calendar.group-commit.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${calendar.group-commit.wait-timeout:10s}") Duration waitTimeout) {
+        this.calendarRepository = calendarRepository;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    // 그룹 커밋 모드로 동작 중인지 확인
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 일정을 대기열에 넣고, 그 일정이 들어간 배치가 커밋될 때까지 기다린 뒤 ID가 채워진 모델을 반환
+    // 대기열이 가득 차 있거나 종료 중이면 기다리지 않고 GroupCommitQueueFullException 발생
+    // wait-timeout 안에 배치에 들어가지 못하면 저장하지 않고 BulkheadFullException (다시 시도해도 중복되지 않음)
+    public CalendarModel create(CalendarModel model) {
+        PendingCreate pending = new PendingCreate(model);
+        if (!running || !queue.offer(pending)) {
+            throw new GroupCommitQueueFullException(QUEUE_FULL_MESSAGE);
+        }
+        // 넣는 사이에 stop() 이 대기열을 비우고 끝났으면 아무도 꺼내가지 않으므로 직접 빼고 거절
+        if (!running && queue.remove(pending)) {
+            throw new GroupCommitQueueFullException(QUEUE_FULL_MESSAGE);
+        }
+        try {
+            try {
+                return pending.result.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // 저장 스레드가 아직 꺼내가지 않았으면 취소하고 거절
+                if (pending.claim()) {
+                    queue.remove(pending);
+                    throw new BulkheadFullException("일정 저장이 밀려 있어 처리할 수 없습니다. 잠시 후 다시 시도해주세요.");
+                }
+            }
+            // 이미 저장 중인 배치에 들어갔으므로 그 결과를 한 번 더 기다림
+            return pending.result.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("일정 저장 결과를 제한 시간 안에 확인하지 못했습니다.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("일정 저장 대기 중 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // 지금 저장을 기다리는 요청 수
+    public int queued() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "calendar-group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // 종료할 때는 새 요청을 받지 않고, 이미 들어온 요청은 모두 저장한 뒤 멈춘다
+    // 제한 시간 안에 저장하지 못하고 남은 요청은 기다리는 쪽이 멈춰 있지 않도록 실패로 끝낸다
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<PendingCreate> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (PendingCreate pending : remaining) {
+            if (pending.claim()) {
+                pending.result.completeExceptionally(new GroupCommitQueueFullException(QUEUE_FULL_MESSAGE));
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // 대기 중인 요청 수와 배치 크기 분포를 메트릭으로 노출
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("calendar.group_commit.queued", this, CalendarGroupCommitter::queued)
+                .description("그룹 커밋을 기다리는 일정 생성 요청 수")
+                .register(registry);
+        batchSizes = DistributionSummary.builder("calendar.group_commit.batch.size")
+                .description("한 번의 트랜잭션으로 커밋한 일정 수")
+                .baseUnit("rows")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    // 첫 요청을 기다렸다가, 최대 maxBatchSize 개 또는 maxDelay 까지 모아서 저장하기를 반복
+    private void flushLoop() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCreate first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - batch.size());
+
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingCreate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // 배치를 하나의 트랜잭션으로 저장하고 기다리는 요청들에게 결과를 전달
+    // 기다리다 포기한(시간 초과) 요청은 저장하지 않는다
+    private void write(List<PendingCreate> claimed) {
+        List<PendingCreate> batch = new ArrayList<>(claimed.size());
+        List<CalendarModel> models = new ArrayList<>(claimed.size());
+        for (PendingCreate pending : claimed) {
+            if (pending.claim()) {
+                batch.add(pending);
+                models.add(pending.model);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            calendarRepository.createCalendars(models, maxBatchSize);
+            for (PendingCreate pending : batch) {
+                pending.result.complete(pending.model);
+            }
+        } catch (RuntimeException e) {
+            // 한 건씩 다시 저장하는 것은 특정 행의 데이터 때문에 실패한 경우(제약 조건 위반, 너무 긴 값 등)만 의미가 있다
+            // 데이터베이스가 멈췄거나 벌크헤드가 가득 찬 경우에는 배치 크기만큼 요청을 더 보내서 부하만 키우므로 모두 실패로 끝냄
+            // 일부만 저장되었을 수 있는 저장소(샤드별 커밋 등)에서 다시 저장하면 같은 일정이 두 번 생기므로 모두 실패로 끝냄
+            if (!(e instanceof DataIntegrityViolationException) || !calendarRepository.isBatchAtomic()) {
+                for (PendingCreate pending : batch) {
+                    pending.result.completeExceptionally(e);
+                }
+                return;
+            }
+            // 배치 전체가 롤백되었으므로, 잘못된 한 건 때문에 다른 요청까지 실패하지 않도록 한 건씩 다시 저장
+            for (PendingCreate pending : batch) {
+                try {
+                    pending.result.complete(calendarRepository.createCalendar(pending.model));
+                } catch (RuntimeException single) {
+                    pending.result.completeExceptionally(single);
+                }
+            }
+        }
+        DistributionSummary summary = batchSizes;
+        if (summary != null) {
+            summary.record(batch.size());
+        }
+    }
+
+    // 저장을 기다리는 생성 요청 한 건과 그 결과
+    private static final class PendingCreate {
+        private final CalendarModel model;
+        private final CompletableFuture<CalendarModel> result = new CompletableFuture<>();
+
+        // 저장 스레드(배치에 넣음)와 기다리는 쪽(시간 초과로 포기) 중 먼저 가져간 쪽만 true
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private PendingCreate(CalendarModel model) {
+            this.model = model;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. 그룹 커밋(group commit)
+트랜잭션을 커밋할 때마다 데이터베이스는 로그를 디스크에 기록(fsync)한다
+요청마다 따로 커밋하면 동시 요청이 많을 때 fsync 횟수가 처리량의 한계가 된다
+여러 요청을 한 트랜잭션으로 묶으면 fsync 한 번으로 여러 건을 저장할 수 있다
+
+2. 저장 보장(durability)은 그대로
+요청은 대기열에 넣은 직후가 아니라 자신이 들어간 배치가 커밋된 뒤에 응답을 받는다
+응답을 받은 일정은 항상 데이터베이스에 저장되어 있다
+
+3. 배치를 만드는 기준
+최대 maxBatchSize 개가 모이거나, 첫 요청 후 maxDelay 가 지나면 저장
+요청이 적을 때는 기다림이 짧아서 지연시간이 거의 늘지 않고, 많을 때는 배치가 커져서 처리량이 늘어난다
+
+4. 배압(backpressure)
+대기열 크기를 제한하고, 가득 차면 기다리지 않고 429 Too Many Requests 로 거절한다
+메모리에 요청이 끝없이 쌓이는 것을 막는다
+
+5. 기다림에도 제한 시간
+데이터베이스가 멈추면 요청 스레드가 끝없이 기다리게 되므로 wait-timeout 까지만 기다린다
+저장 스레드와 기다리는 쪽이 claim 으로 요청을 먼저 가져가므로, 시간 초과로 거절한 요청은 나중에 저장되지 않는다
+
+6. 실패한 배치를 한 건씩 다시 저장하는 조건
+다시 저장하는 것은 잘못된 한 건(DataIntegrityViolationException) 때문에 배치가 실패한 경우뿐이다
+연결 실패나 벌크헤드 초과 같은 오류는 한 건씩 다시 보내도 똑같이 실패하고 부하만 늘어나므로 배치 전체를 실패로 끝낸다
+하나의 트랜잭션이면 실패한 배치는 전부 롤백되었으므로 한 건씩 다시 저장해도 안전하다
+샤드마다 따로 커밋하는 저장소는 일부 샤드만 저장되었을 수 있어서, 다시 저장하면 같은 일정이 중복 생성된다
+그래서 저장소가 isBatchAtomic() 으로 전부 롤백을 보장할 때만 다시 저장한다
+
+7. 종료 순서 (SmartLifecycle 단계)
+단계가 높을수록 늦게 시작하고 먼저 멈춘다
+웹 서버보다 낮은 단계로 두어서, graceful shutdown 이 처리 중인 요청을 끝낸 뒤에 대기열을 비우고 멈춘다
+ */
@@ -0,0 +1,115 @@
+package com.sparta.calendarproject.repository;
+
+import com.sparta.calendarproject.dto.CalendarCursor;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// 일정 목록 조회용 동적 SQL 과 파라미터를 함께 만드는 클래스
+// 리포지토리와 실행 계획(EXPLAIN) 테스트가 같은 쿼리를 사용하도록 한 곳에서 생성한다
+final class CalendarListQuery {
+
+    // 실행할 SQL 문
+    private final String sql;
+
+    // SQL 의 ? 자리에 순서대로 바인딩할 값들
+    private final List<Object> params;
+
+    private CalendarListQuery(String sql, List<Object> params) {
+        this.sql = sql;
+        this.params = params;
+    }
+
+    // 키셋 페이지네이션으로 한 페이지를 조회하는 쿼리
+    static CalendarListQuery page(String author, String updateDate, CalendarCursor cursor, int limit) {
+        return window(CalendarRowMapper.COLUMNS, author, updateDate, cursor, limit);
+    }
+
+    // 조건에 맞는 모든 일정을 스트리밍으로 조회하는 쿼리
+    static CalendarListQuery stream(String author, String updateDate) {
+        StringBuilder sql = new StringBuilder("SELECT " + CalendarRowMapper.COLUMNS + " FROM calendar WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        appendFilters(sql, params, author, updateDate);
+        sql.append(" ORDER BY updateDate DESC, id DESC");
+        return new CalendarListQuery(sql.toString(), params);
+    }
+
+    // 조건에 맞는 모든 일정을 비밀번호 해시까지 조회하는 백업 쿼리
+    // 복원에는 순서가 필요 없으므로 정렬하지 않는다 (정렬을 위한 파일 정렬이나 인덱스 순서 읽기가 없음)
+    static CalendarListQuery backup(String author, String updateDate) {
+        StringBuilder sql = new StringBuilder("SELECT " + CalendarRowMapper.BACKUP_COLUMNS + " FROM calendar WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        appendFilters(sql, params, author, updateDate);
+        return new CalendarListQuery(sql.toString(), params);
+    }
+
+    // 한 페이지에 들어갈 일정들의 (ID, 버전) 을 조회하는 쿼리 (목록 ETag 계산용)
+    // 페이지 조회와 같은 조건 / 커서 / 개수(limit)로 읽으므로 응답할 페이지의 범위만 읽는다
+    // - 생성 / 삭제는 페이지에 들어가는 ID 를, 수정은 그 일정의 version 과 (updateDate 가 바뀌어) 순서를 바꾼다
+    // - 전체 테이블을 집계하지 않으므로 필터가 없는 첫 페이지도 limit 개만 읽는다
+    // 데이터만으로 계산하므로 인스턴스가 여러 개이거나 재시작한 뒤에도 같은 값이면 같은 페이지이다
+    // 필터 컬럼과 updateDate, id, version 이 모두 인덱스에 들어있어서(V5) 테이블 행을 읽지 않고 인덱스만으로 계산된다
+    static CalendarListQuery version(String author, String updateDate, CalendarCursor cursor, int limit) {
+        return window("id, version", author, updateDate, cursor, limit);
+    }
+
+    // 조건에 맞는 일정을 (updateDate DESC, id DESC) 순서로 커서 다음부터 limit 개 조회하는 쿼리
+    // 페이지 조회와 목록 버전 조회가 같은 범위를 읽도록 SELECT 할 컬럼만 다르게 해서 공유한다
+    private static CalendarListQuery window(String columns, String author, String updateDate,
+                                            CalendarCursor cursor, int limit) {
+        // 동적 SQL 쿼리 생성을 위한 StringBuilder
+        StringBuilder sql = new StringBuilder("SELECT " + columns + " FROM calendar WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+
+        // 작성자 / 업데이트 날짜 필터링 조건 추가
+        appendFilters(sql, params, author, updateDate);
+
+        // 커서 이후의 일정만 조회 (updateDate DESC, id DESC 순서 기준)
+        // (updateDate, id) < (커서 시간, 커서 ID) 조건을 인덱스를 탈 수 있는 형태로 풀어서 작성
+        // 앞의 updateDate <= ? 가 범위 조건이 되어 인덱스에서 시작 위치를 바로 찾는다
+        if (cursor != null) {
+            Timestamp cursorTime = Timestamp.valueOf(cursor.getUpdateDate());
+            sql.append(" AND updateDate <= ? AND (updateDate < ? OR id < ?)");
+            params.add(cursorTime);
+            params.add(cursorTime);
+            params.add(cursor.getId());
+        }
+
+        // 최근 업데이트 순으로 정렬 (같은 시간이면 ID 역순) 후 페이지 크기만큼만 조회
+        sql.append(" ORDER BY updateDate DESC, id DESC LIMIT ?");
+        params.add(limit);
+
+        return new CalendarListQuery(sql.toString(), params);
+    }
+
+    // 작성자와 업데이트 날짜 필터 조건을 SQL 과 파라미터 목록에 추가하는 메서드
+    private static void appendFilters(StringBuilder sql, List<Object> params, String author, String updateDate) {
+        // 작성자 필터링
+        if (author != null && !author.isEmpty()) {
+            sql.append(" AND author = ?");
+            params.add(author);
+        }
+
+        // 업데이트 날짜 필터링
+        // DATE(updateDate) = ? 처럼 컬럼을 함수로 감싸면 인덱스를 사용할 수 없으므로
+        // [해당 날짜 00:00, 다음 날짜 00:00) 반열린 구간 조건으로 바꿔서 인덱스 범위 검색이 되게 한다
+        if (updateDate != null && !updateDate.isEmpty()) {
+            // Date.valueOf 는 형식이 잘못되면 IllegalArgumentException 을 발생시킨다
+            LocalDate day = Date.valueOf(updateDate).toLocalDate();
+            sql.append(" AND updateDate >= ? AND updateDate < ?");
+            params.add(Timestamp.valueOf(day.atStartOfDay()));
+            params.add(Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+        }
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    Object[] getParams() {
+        return params.toArray();
+    }
+}
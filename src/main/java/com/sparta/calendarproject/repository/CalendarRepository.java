@@ -1,179 +1,72 @@
 package com.sparta.calendarproject.repository;
 
+import com.sparta.calendarproject.dto.CalendarCursor;
+import com.sparta.calendarproject.dto.CalendarDailyStatsDto;
 import com.sparta.calendarproject.model.CalendarModel;
-import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
-import org.springframework.jdbc.support.KeyHolder;
-import org.springframework.stereotype.Repository;
-
-import java.sql.Date;
-import java.sql.PreparedStatement;
-import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-
-// 데이터베이스와 직접 상호작용하는 리포지토리 클래스
-// 캘린더 관련 데이터베이스 작업을 처리
-@Repository  // Spring이 데이터 접근 컴포넌트로 인식하게 하는 어노테이션
-public class CalendarRepository {
-
-    // 데이터베이스 작업을 쉽게 수행할 수 있게 해주는 Spring JDBC 템플릿
-    private final JdbcTemplate jdbcTemplate;
-
-    // 생성자를 통한 의존성 주입
-    // JdbcTemplate 객체를 외부에서 받아 초기화
-    public CalendarRepository(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
-    }
-
-    // 새로운 일정을 데이터베이스에 생성하는 메서드
-    public CalendarModel createCalendar(CalendarModel calendarModel) {
-        // INSERT SQL 쿼리: calendar 테이블에 새 일정 추가
-        String sql = "INSERT INTO calendar (author, todolist, password, createDate, updateDate) VALUES (?, ?, ?, ?, ?)";
-
-        // 데이터베이스에서 자동 생성된 ID를 받기 위한 키홀더
-        KeyHolder keyHolder = new GeneratedKeyHolder();
-
-        // 데이터베이스에 데이터 삽입 및 자동 생성 키 받기
-        jdbcTemplate.update(connection -> {
-            // PreparedStatement 생성 (SQL 인젝션 방지)
-            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            // 각 파라미터에 값 설정
-            ps.setString(1, calendarModel.getAuthor());
-            ps.setString(2, calendarModel.getTodolist());
-            ps.setString(3, calendarModel.getPassword());
-            ps.setObject(4, calendarModel.getCreateDate());
-            ps.setObject(5, calendarModel.getUpdateDate());
-            return ps;
-        }, keyHolder);
-
-        // 데이터베이스에서 자동 생성된 ID 가져오기
-        Long id = Objects.requireNonNull(keyHolder.getKey()).longValue();
-        calendarModel.setId(id);
-
-        return calendarModel;
-    }
 
-    // 전체 일정을 조회하는 메서드
-    // 작성자와 업데이트 날짜로 필터링 가능
-    public List<CalendarModel> getAllCalendars(String author, String updateDate) {
-        // 동적 SQL 쿼리 생성을 위한 StringBuilder
-        StringBuilder sql = new StringBuilder("SELECT * FROM calendar WHERE 1=1");
-        List<Object> params = new ArrayList<>();
-
-        // 작성자 필터링
-        if (author != null && !author.isEmpty()) {
-            sql.append(" AND author = ?");
-            params.add(author);
-        }
-
-        // 업데이트 날짜 필터링
-        if (updateDate != null && !updateDate.isEmpty()) {
-            sql.append(" AND DATE(updateDate) = ?");
-            params.add(Date.valueOf(updateDate));
-        }
-
-        // 최근 업데이트 순으로 정렬
-        sql.append(" ORDER BY updateDate DESC");
-
-        // 쿼리 실행 및 결과를 CalendarModel 객체 리스트로 반환
-        return jdbcTemplate.query(sql.toString(), params.toArray(), new BeanPropertyRowMapper<>(CalendarModel.class));
-    }
-
-    // 특정 ID의 일정을 조회하는 메서드
-    public CalendarModel getCalendarById(Long id) {
-        try {
-            // ID로 일정 조회 SQL
-            String sql = "SELECT * FROM calendar WHERE id = ?";
-            // 단일 객체 조회 및 반환
-            return jdbcTemplate.queryForObject(sql, new BeanPropertyRowMapper<>(CalendarModel.class), id);
-        } catch (EmptyResultDataAccessException e) {
-            // 해당 ID의 일정이 없을 경우 예외 발생
-            throw new IllegalArgumentException("해당 ID의 일정이 존재하지 않습니다: " + id);
-        }
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// 일정 저장소가 제공해야 하는 작업 목록
+// 서비스 / 캐시 / 검색 색인은 이 인터페이스에만 의존하고, 실제 저장 방식은 calendar.repository.engine 설정으로 고른다
+// - jdbc    : 하나의 데이터베이스 (JdbcCalendarRepository, 기본값)
+// - sharded : 작성자 기준으로 여러 데이터베이스에 나누어 저장 (ShardedCalendarRepository)
+// - memory  : 애플리케이션 메모리에 저장하고 변경 기록 / 스냅샷 파일로 영속화 (store.InMemoryCalendarRepository)
+public interface CalendarRepository {
+
+    // 새 일정을 저장하고 생성된 ID를 채워서 반환
+    CalendarModel createCalendar(CalendarModel calendarModel);
+
+    // 여러 일정을 chunkSize 개씩 배치로 저장하고, 생성된 ID를 입력 순서대로 채워서 반환
+    List<CalendarModel> createCalendars(List<CalendarModel> calendarModels, int chunkSize);
+
+    // createCalendars 가 예외로 끝나면 아무 일정도 저장되지 않았음(전부 롤백)이 보장되는지
+    // 그룹 커밋은 이때만 실패한 배치를 한 건씩 다시 저장한다 (일부만 저장된 배치를 다시 저장하면 중복 생성)
+    default boolean isBatchAtomic() {
+        return false;
     }
 
-    // 일정을 수정하는 메서드
-    public void updateCalendar(CalendarModel calendarModel) {
-        // UPDATE SQL 쿼리
-        String sql = "UPDATE calendar SET todolist = ?, author = ?, updateDate = ? WHERE id = ?";
-
-        // 쿼리 실행 및 영향받은 행 수 확인
-        int affected = jdbcTemplate.update(
-                sql,
-                calendarModel.getTodolist(),
-                calendarModel.getAuthor(),
-                calendarModel.getUpdateDate(),
-                calendarModel.getId()
-        );
-
-        // 수정된 행이 없으면 해당 ID의 일정이 존재하지 않음
-        if (affected == 0) {
-            throw new IllegalArgumentException("해당 ID의 일정이 존재하지 않습니다: " + calendarModel.getId());
-        }
-    }
+    // 백업에서 읽은 일정을 ID / 버전 / 비밀번호 해시 그대로 저장 (백업 복원용)
+    // 이미 있는 ID 가 하나라도 있으면 DuplicateKeyException, 실패했을 때 롤백되는 범위는 createCalendars 와 같다
+    List<CalendarModel> restoreCalendars(List<CalendarModel> calendarModels, int chunkSize);
 
-    // 일정을 삭제하는 메서드
-    public void deleteCalendar(Long id) {
-        // DELETE SQL 쿼리
-        String sql = "DELETE FROM calendar WHERE id = ?";
+    // 작성자 / 수정 날짜 조건에 맞는 일정을 (updateDate DESC, id DESC) 순서로 cursor 다음부터 limit 개 조회
+    List<CalendarModel> getAllCalendars(String author, String updateDate, CalendarCursor cursor, int limit);
 
-        // 쿼리 실행 및 영향받은 행 수 확인
-        int affected = jdbcTemplate.update(sql, id);
+    // getAllCalendars(author, updateDate, cursor, limit) 로 읽을 페이지가 바뀌면 함께 바뀌는 버전 문자열 (목록 ETag 계산용)
+    String getListVersion(String author, String updateDate, CalendarCursor cursor, int limit);
 
-        // 삭제된 행이 없으면 해당 ID의 일정이 존재하지 않음
-        if (affected == 0) {
-            throw new IllegalArgumentException("해당 ID의 일정이 존재하지 않습니다: " + id);
-        }
-    }
+    // 조건에 맞는 모든 일정을 목록과 같은 순서로 한 행씩 consumer 에게 넘김
+    void streamCalendars(String author, String updateDate, Consumer<CalendarModel> consumer);
 
-    // 특정 ID의 일정 비밀번호를 조회하는 메서드
-    public String getPasswordById(Long id) {
-        try {
-            // 비밀번호 조회 SQL
-            String sql = "SELECT password FROM calendar WHERE id = ?";
-            // 단일 비밀번호 문자열 반환
-            return jdbcTemplate.queryForObject(sql, String.class, id);
-        } catch (EmptyResultDataAccessException e) {
-            // 해당 ID의 일정이 없을 경우 예외 발생
-            throw new IllegalArgumentException("해당 ID의 일정이 존재하지 않습니다: " + id);
-        }
-    }
-}
+    // 조건에 맞는 모든 일정을 비밀번호 해시까지 채워서 한 행씩 consumer 에게 넘김 (백업 내보내기용, 순서는 정하지 않음)
+    void streamBackup(String author, String updateDate, Consumer<CalendarModel> consumer);
 
+    // ID로 일정 조회 (없으면 IllegalArgumentException)
+    CalendarModel getCalendarById(Long id);
 
-/*
-주요설명과 공부한 내용정리
+    // 여러 ID의 일정을 한 번에 조회 (없는 ID는 결과에서 빠짐)
+    Map<Long, CalendarModel> getCalendarsByIds(Collection<? extends Long> ids);
 
-1. 리포지토리(Repository)란?
-데이터베이스와 직접 상호작용하는 계층
-데이터의 CRUD(Create,Read,Update,Delete) 작업을 담당
+    // 저장된 비밀번호(와 expectedVersion 이 주어지면 버전)가 같을 때만 수정, 수정되었으면 true
+    // author / todolist 가 null 이면 저장된 값을 그대로 둔다 (PUT 요청은 서비스에서 모든 필드를 검증하므로 내부 재시도 / 테스트용)
+    boolean updateCalendar(CalendarModel calendarModel, String password, Long expectedVersion);
 
-2. 주요 기능
-일정 생성 (createCalendar)
-전체 일정 조회 (getAllCalendars)
-단일 일정 조회 (getCalendarById)
-일정 수정(updateCalendar)
-일정 삭제(deleteCalendar)
-비밀번호 확인(getPasswordById)
+    // 저장된 비밀번호가 같을 때만 삭제, 삭제되었으면 true
+    boolean deleteCalendar(Long id, String password);
 
-3.중요 기술 요소
-JdbcTemplate : Spring에서 제공하는 데이터베이스 작업 간소화 도구
-PreparedStatement : SQL 인젝션 방지를 위한 안전한 쿼리 실행 방식
-BeanPropertyRowMapper : 데이터베이스 결과를 Java 객체로 자동 변환
+    // 작성자별 / 날짜별 일정 수 (from ~ to, 양 끝 포함, 날짜 / 작성자 순)
+    List<CalendarDailyStatsDto> getDailyStats(LocalDate from, LocalDate to, String author);
 
-4. 특별한 기능
-동적 쿼리 생성 (작성자, 날짜로 필터링 가능)
-자동 생성 키(ID) 처리
-상세한 예외 처리
+    // 하루치 요약을 원본 일정에서 다시 계산
+    void rebuildDailyStats(LocalDate day);
 
-주의할 점
-모든 데이터베이스 작업에 대해 예외 처리를 제공
-존재하지 않는 ID에 대해 명확한 오류 메시지 반환
-데이터 보안과 일관성을 고려한 설계
+    // 저장된 비밀번호가 expectedPassword 일 때만 새 값으로 교체, 바뀌었으면 true
+    boolean updatePassword(Long id, String newPassword, String expectedPassword);
 
-리포지토리는 애플리케이션의 데이터 접근 로직을 안전하고 효율적으로 관리합니다
- */
\ No newline at end of file
+    // 저장된 비밀번호(해시) 조회 (없으면 IllegalArgumentException)
+    String getPasswordById(Long id);
+}
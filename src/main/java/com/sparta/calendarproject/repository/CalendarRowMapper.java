@@ -0,0 +1,55 @@
+package com.sparta.calendarproject.repository;
+
+import com.sparta.calendarproject.model.CalendarModel;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// 조회 결과 한 행을 CalendarModel 로 변환하는 행 매퍼
+// BeanPropertyRowMapper 처럼 리플렉션으로 컬럼과 필드를 맞춰보지 않고
+// 미리 정해둔 컬럼 순서(COLUMNS)대로 인덱스로 바로 읽어서 변환 비용을 줄인다
+final class CalendarRowMapper implements RowMapper<CalendarModel> {
+
+    // 읽기 전용 조회에서 SELECT 할 컬럼 목록 (mapRow 의 컬럼 인덱스와 순서가 같아야 함)
+    // 비밀번호는 응답에 필요 없으므로 조회하지 않는다
+    static final String COLUMNS = "id, author, todolist, createDate, updateDate, version";
+
+    // 백업 내보내기에서 SELECT 할 컬럼 목록 (COLUMNS 뒤에 비밀번호 해시)
+    static final String BACKUP_COLUMNS = COLUMNS + ", password";
+
+    // 상태가 없으므로 하나의 인스턴스를 모든 쿼리에서 공유
+    static final CalendarRowMapper INSTANCE = new CalendarRowMapper(false);
+
+    // BACKUP_COLUMNS 로 조회한 행을 비밀번호까지 채워서 변환
+    static final CalendarRowMapper BACKUP = new CalendarRowMapper(true);
+
+    // 7번째 컬럼(password)을 읽을지
+    private final boolean withPassword;
+
+    private CalendarRowMapper(boolean withPassword) {
+        this.withPassword = withPassword;
+    }
+
+    @Override
+    public CalendarModel mapRow(ResultSet rs, int rowNum) throws SQLException {
+        CalendarModel model = new CalendarModel();
+        model.setId(rs.getLong(1));
+        model.setAuthor(rs.getString(2));
+        model.setTodolist(rs.getString(3));
+        model.setCreateDate(toLocalDateTime(rs.getTimestamp(4)));
+        model.setUpdateDate(toLocalDateTime(rs.getTimestamp(5)));
+        model.setVersion(rs.getLong(6));
+        if (withPassword) {
+            model.setPassword(rs.getString(7));
+        }
+        return model;
+    }
+
+    // Timestamp 를 LocalDateTime 으로 변환 (NULL 이면 null 그대로)
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.sparta.calendarproject.repository;
+
+// 그룹 커밋 대기열이 가득 차서 일정 생성 요청을 받을 수 없을 때 발생하는 예외
+// 컨트롤러에서 429 Too Many Requests 로 응답한다
+public class GroupCommitQueueFullException extends RuntimeException {
+
+    public GroupCommitQueueFullException(String message) {
+        super(message);
+    }
+}
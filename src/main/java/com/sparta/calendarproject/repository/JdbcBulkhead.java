@@ -0,0 +1,103 @@
+package com.sparta.calendarproject.repository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// 데이터베이스 작업의 동시 실행 수를 제한하는 벌크헤드(격벽)
+// 가상 스레드는 요청마다 만들어지므로 개수 제한이 없다
+// 그대로 두면 수많은 요청이 한꺼번에 커넥션 풀로 몰리기 때문에 리포지토리 앞에서 동시 실행 수를 제한한다
+@Component  // Spring이 빈으로 등록하게 하는 어노테이션
+public class JdbcBulkhead implements MeterBinder {
+
+    // 동시에 실행할 수 있는 데이터베이스 작업 수만큼의 허가(permit)
+    private final Semaphore permits;
+
+    // 허가를 기다리는 최대 시간 (넘으면 요청을 거절)
+    private final long maxWaitNanos;
+
+    // 생성자를 통한 의존성 주입
+    // 최대 동시 실행 수는 보통 커넥션 풀 크기(HikariCP 기본 10)와 같게 설정
+    public JdbcBulkhead(@Value("${calendar.bulkhead.max-concurrent-calls:10}") int maxConcurrentCalls,
+                        @Value("${calendar.bulkhead.max-wait:1s}") Duration maxWait) {
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    // 허가를 얻은 뒤 데이터베이스 작업을 실행하고 결과를 반환
+    public <T> T call(Supplier<T> action) {
+        acquire();
+        try {
+            return action.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    // 반환값이 없는 데이터베이스 작업 실행
+    public void run(Runnable action) {
+        acquire();
+        try {
+            action.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    // 지금 허가를 기다리고 있는 작업 수 (근사값)
+    public int queueLength() {
+        return permits.getQueueLength();
+    }
+
+    // 지금 사용할 수 있는 허가 수
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    // 남은 허가 수와 대기 중인 작업 수를 메트릭으로 노출
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("calendar.bulkhead.available", this, JdbcBulkhead::availablePermits)
+                .description("지금 사용할 수 있는 데이터베이스 작업 허가 수")
+                .register(registry);
+        Gauge.builder("calendar.bulkhead.queued", this, JdbcBulkhead::queueLength)
+                .description("허가를 기다리고 있는 데이터베이스 작업 수")
+                .register(registry);
+    }
+
+    // 허가를 얻을 때까지 최대 maxWait 만큼 기다림
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                throw new BulkheadFullException("데이터베이스 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException("데이터베이스 요청 대기 중 중단되었습니다.");
+        }
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. 벌크헤드(Bulkhead) 패턴
+배의 격벽처럼 자원을 구역으로 나누어 한 곳의 문제가 전체로 번지지 않게 하는 패턴
+여기서는 Semaphore 로 데이터베이스 작업의 동시 실행 수를 커넥션 풀 크기에 맞춘다
+
+2. 왜 가상 스레드와 함께 필요한가?
+플랫폼 스레드 모드에서는 Tomcat 스레드 풀 크기가 자연스럽게 동시 요청 수를 제한했다
+가상 스레드 모드에서는 요청마다 스레드가 생기므로 제한이 사라진다
+수천 개의 요청이 커넥션을 기다리며 쌓이지 않도록 일정 시간 안에 허가를 못 얻으면 빠르게 거절한다
+
+3. 공정(fair) 세마포어
+먼저 기다린 요청이 먼저 허가를 얻도록 해서 특정 요청만 계속 밀리는 현상을 막는다
+ */
@@ -0,0 +1,612 @@
+package com.sparta.calendarproject.repository;
+
+import com.sparta.calendarproject.datasource.DataSourceRouting;
+import com.sparta.calendarproject.dto.CalendarCursor;
+import com.sparta.calendarproject.dto.CalendarDailyStatsDto;
+import com.sparta.calendarproject.model.CalendarModel;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// 데이터베이스와 직접 상호작용하는 리포지토리 클래스
+// 캘린더 관련 데이터베이스 작업을 처리 (하나의 calendar 테이블, 기본 저장소)
+// calendar.repository.engine=sharded 이면 빈으로 등록되지 않고, ShardedCalendarRepository 가 샤드마다 하나씩 만들어서 사용한다
+@Repository  // Spring이 데이터 접근 컴포넌트로 인식하게 하는 어노테이션
+@ConditionalOnProperty(name = "calendar.repository.engine", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcCalendarRepository implements CalendarRepository {
+
+    // 요약 테이블의 (작성자, 날짜) 행이 없으면 만들고, 있으면 개수를 더하는 SQL
+    private static final String UPSERT_DAILY_STATS = "INSERT INTO calendar_daily_stats (author, day, entries) VALUES (?, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE entries = entries + VALUES(entries)";
+
+    // 데이터베이스 작업을 쉽게 수행할 수 있게 해주는 Spring JDBC 템플릿
+    private final JdbcTemplate jdbcTemplate;
+
+    // 데이터베이스 작업의 동시 실행 수를 제한하는 벌크헤드
+    private final JdbcBulkhead bulkhead;
+
+    // jdbcTemplate 이 커넥션을 얻는 DataSource (트랜잭션이 이미 열려있는지 확인용)
+    private final DataSource dataSource;
+
+    // 여러 문장을 하나의 트랜잭션으로 묶는 템플릿 (생성 / 요약 보정용, 기본 격리 수준)
+    private final TransactionTemplate transactionTemplate;
+
+    // 수정 / 삭제용 트랜잭션 템플릿 (재시도할 때 최신 값을 볼 수 있도록 READ COMMITTED)
+    private final TransactionTemplate readCommittedTemplate;
+
+    // 스트리밍 조회 시 드라이버가 한 번에 가져올 행 수
+    private final int streamFetchSize;
+
+    // 메서드별 지연시간 측정 타이머와 목록 조회 행 수 분포를 등록할 레지스트리
+    private final MeterRegistry meterRegistry;
+
+    // 메서드 이름 -> 지연시간 타이머 (처음 사용할 때 한 번만 생성)
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    // 메서드 이름 -> 조회한 행 수 분포
+    private final Map<String, DistributionSummary> rowSummaries = new ConcurrentHashMap<>();
+
+    // 메트릭에 공통으로 붙일 태그 (샤드로 사용할 때 shard=이름)
+    private final Tags tags;
+
+    // 생성자를 통한 의존성 주입
+    // JdbcTemplate, JdbcBulkhead, MeterRegistry 객체를 외부에서 받아 초기화
+    @Autowired
+    public JdbcCalendarRepository(JdbcTemplate jdbcTemplate,
+                                  JdbcBulkhead bulkhead,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${calendar.stream.fetch-size:500}") int streamFetchSize) {
+        this(jdbcTemplate, bulkhead, meterRegistry, streamFetchSize, Tags.empty());
+    }
+
+    // 메트릭에 태그를 더 붙이는 생성자 (샤드별 리포지토리용)
+    public JdbcCalendarRepository(JdbcTemplate jdbcTemplate,
+                                  JdbcBulkhead bulkhead,
+                                  MeterRegistry meterRegistry,
+                                  int streamFetchSize,
+                                  Tags tags) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bulkhead = bulkhead;
+        this.meterRegistry = meterRegistry;
+
+        // @Transactional 프록시는 메서드에 들어가기 전에 커넥션을 먼저 빌려오므로 벌크헤드보다 앞에서 풀을 잡게 된다
+        // 그래서 트랜잭션은 벌크헤드 허가를 받은 다음에 이 템플릿으로 직접 시작한다 (샤드별 리포지토리도 그 샤드의 DataSource 로 동작)
+        this.dataSource = Objects.requireNonNull(jdbcTemplate.getDataSource());
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readCommittedTemplate = new TransactionTemplate(transactionManager);
+        this.readCommittedTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.streamFetchSize = streamFetchSize;
+        this.tags = tags;
+    }
+
+    // 새로운 일정을 데이터베이스에 생성하는 메서드
+    // 일정 INSERT 와 작성자 / 날짜별 요약 테이블 갱신을 하나의 트랜잭션으로 처리
+    @Override
+    public CalendarModel createCalendar(CalendarModel calendarModel) {
+        return transaction("createCalendar", transactionTemplate, status -> insertCalendar(calendarModel));
+    }
+
+    // 트랜잭션 안에서 일정 한 건을 INSERT 하고 요약 테이블을 갱신
+    private CalendarModel insertCalendar(CalendarModel calendarModel) {
+        // INSERT SQL 쿼리: calendar 테이블에 새 일정 추가
+        String sql = "INSERT INTO calendar (author, todolist, password, createDate, updateDate) VALUES (?, ?, ?, ?, ?)";
+
+        // 데이터베이스에서 자동 생성된 ID를 받기 위한 키홀더
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        // 데이터베이스에 데이터 삽입 및 자동 생성 키 받기
+        jdbcTemplate.update(connection -> {
+            // PreparedStatement 생성 (SQL 인젝션 방지)
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            // 각 파라미터에 값 설정
+            ps.setString(1, calendarModel.getAuthor());
+            ps.setString(2, calendarModel.getTodolist());
+            ps.setString(3, calendarModel.getPassword());
+            ps.setObject(4, calendarModel.getCreateDate());
+            ps.setObject(5, calendarModel.getUpdateDate());
+            return ps;
+        }, keyHolder);
+
+        // 데이터베이스에서 자동 생성된 ID 가져오기
+        Long id = Objects.requireNonNull(keyHolder.getKey()).longValue();
+        calendarModel.setId(id);
+
+        // 작성자 / 날짜별 일정 수 1 증가
+        adjustDailyStats(calendarModel.getAuthor(), calendarModel.getUpdateDate().toLocalDate(), 1);
+
+        return calendarModel;
+    }
+
+    // 여러 일정을 JDBC 배치로 한 번에 생성하는 메서드
+    // chunkSize 개씩 나누어 배치로 실행하고, 생성된 ID를 각 모델에 입력 순서대로 채워준다
+    // MySQL 은 rewriteBatchedStatements=true 설정으로 한 묶음을 여러 행 INSERT 한 문장으로 보낸다
+    // 모든 묶음과 요약 테이블 갱신을 하나의 트랜잭션으로 처리
+    @Override
+    public List<CalendarModel> createCalendars(List<CalendarModel> calendarModels, int chunkSize) {
+        return transaction("createCalendars", transactionTemplate, status -> insertCalendars(calendarModels, chunkSize));
+    }
+
+    // 트랜잭션 안에서 chunkSize 개씩 배치 INSERT 하고 요약 테이블을 갱신
+    private List<CalendarModel> insertCalendars(List<CalendarModel> calendarModels, int chunkSize) {
+        String sql = "INSERT INTO calendar (author, todolist, password, createDate, updateDate) VALUES (?, ?, ?, ?, ?)";
+
+        for (int from = 0; from < calendarModels.size(); from += chunkSize) {
+            List<CalendarModel> chunk = calendarModels.subList(from, Math.min(from + chunkSize, calendarModels.size()));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            CalendarModel model = chunk.get(i);
+                            ps.setString(1, model.getAuthor());
+                            ps.setString(2, model.getTodolist());
+                            ps.setString(3, model.getPassword());
+                            ps.setObject(4, model.getCreateDate());
+                            ps.setObject(5, model.getUpdateDate());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+                    },
+                    keyHolder);
+
+            // 생성된 키는 입력 순서대로 돌아온다 (키 컬럼 이름은 드라이버마다 달라서 첫 번째 값을 사용)
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < chunk.size(); i++) {
+                Number id = (Number) keys.get(i).values().iterator().next();
+                chunk.get(i).setId(id.longValue());
+            }
+        }
+
+        addDailyStats(calendarModels);
+        return calendarModels;
+    }
+
+    // 작성자 / 날짜별로 개수를 모아서 요약 테이블을 배치로 한 번에 갱신
+    private void addDailyStats(List<CalendarModel> calendarModels) {
+        Map<List<Object>, Long> counts = new HashMap<>();
+        for (CalendarModel model : calendarModels) {
+            counts.merge(List.of(model.getAuthor(), model.getUpdateDate().toLocalDate()), 1L, Long::sum);
+        }
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((key, entries) -> rows.add(new Object[]{key.get(0), Date.valueOf((LocalDate) key.get(1)), entries}));
+        jdbcTemplate.batchUpdate(UPSERT_DAILY_STATS, rows);
+    }
+
+    // createCalendars / restoreCalendars 는 하나의 트랜잭션이라 실패하면 모든 묶음이 롤백된다
+    @Override
+    public boolean isBatchAtomic() {
+        return true;
+    }
+
+    // 백업의 ID / 버전 / 비밀번호 해시를 그대로 INSERT 하는 메서드 (백업 복원용)
+    // 이미 있는 ID 가 있으면 기본 키 중복(DuplicateKeyException)으로 모든 묶음과 요약 테이블 갱신이 함께 롤백된다
+    // MySQL 의 AUTO_INCREMENT 는 직접 넣은 ID 보다 크게 올라가므로 이후에 생성되는 일정과 ID 가 겹치지 않는다
+    @Override
+    public List<CalendarModel> restoreCalendars(List<CalendarModel> calendarModels, int chunkSize) {
+        String sql = "INSERT INTO calendar (id, author, todolist, password, createDate, updateDate, version)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+        return transaction("restoreCalendars", transactionTemplate, status -> {
+            jdbcTemplate.batchUpdate(sql, calendarModels, chunkSize, (ps, model) -> {
+                ps.setLong(1, model.getId());
+                ps.setString(2, model.getAuthor());
+                ps.setString(3, model.getTodolist());
+                ps.setString(4, model.getPassword());
+                ps.setObject(5, model.getCreateDate());
+                ps.setObject(6, model.getUpdateDate());
+                ps.setLong(7, model.getVersion());
+            });
+            addDailyStats(calendarModels);
+            return calendarModels;
+        });
+    }
+
+    // 일정 목록을 한 페이지씩 조회하는 메서드 (키셋 페이지네이션)
+    // 작성자와 업데이트 날짜로 필터링 가능
+    // cursor 가 주어지면 그 위치 다음의 일정부터 limit 개까지만 조회
+    @Override
+    public List<CalendarModel> getAllCalendars(String author, String updateDate, CalendarCursor cursor, int limit) {
+        // 필터, 커서, 정렬, LIMIT 이 적용된 쿼리 생성
+        CalendarListQuery query = CalendarListQuery.page(author, updateDate, cursor, limit);
+
+        // 쿼리 실행 및 결과를 CalendarModel 객체 리스트로 반환
+        List<CalendarModel> rows = read("getAllCalendars",
+                () -> jdbcTemplate.query(query.getSql(), CalendarRowMapper.INSTANCE, query.getParams()));
+        recordRows("getAllCalendars", rows.size());
+        return rows;
+    }
+
+    // 한 페이지의 버전을 조회하는 메서드 (조건부 GET 의 ETag 계산용)
+    // 페이지에 들어갈 일정이 생성 / 수정 / 삭제되면 그 범위의 ID 나 버전, 순서 중 하나가 바뀐다
+    // 전체 행을 읽거나 변환하지 않고 인덱스에서 페이지 범위의 (ID, 버전)만 읽어서 "ID.버전,ID.버전,..." 문자열로 반환
+    @Override
+    public String getListVersion(String author, String updateDate, CalendarCursor cursor, int limit) {
+        CalendarListQuery query = CalendarListQuery.version(author, updateDate, cursor, limit);
+        return read("getListVersion", () -> String.join(",", jdbcTemplate.query(query.getSql(),
+                (rs, rowNum) -> rs.getLong(1) + "." + rs.getLong(2),
+                query.getParams())));
+    }
+
+    // 조건에 맞는 일정을 한 행씩 읽어서 consumer 에게 바로 넘겨주는 메서드
+    // 결과를 List 로 모으지 않기 때문에 일치하는 행이 아무리 많아도 메모리 사용량이 일정하다
+    @Override
+    public void streamCalendars(String author, String updateDate, Consumer<CalendarModel> consumer) {
+        stream("streamCalendars", CalendarListQuery.stream(author, updateDate), CalendarRowMapper.INSTANCE, consumer);
+    }
+
+    // 백업 내보내기용 스트리밍 조회 (비밀번호 해시 포함, 정렬하지 않음)
+    @Override
+    public void streamBackup(String author, String updateDate, Consumer<CalendarModel> consumer) {
+        stream("streamBackup", CalendarListQuery.backup(author, updateDate), CalendarRowMapper.BACKUP, consumer);
+    }
+
+    // 쿼리 결과를 앞으로만 이동하는 커서로 한 행씩 읽어서 consumer 에게 넘김
+    private void stream(String method, CalendarListQuery query, CalendarRowMapper mapper,
+                        Consumer<CalendarModel> consumer) {
+        Object[] params = query.getParams();
+
+        // 스트리밍 중에는 커넥션을 계속 사용하므로 끝날 때까지 벌크헤드 허가를 유지
+        long[] rows = {0};
+        read(method, () -> jdbcTemplate.query(connection -> {
+            // 앞으로만 이동하는 읽기 전용 커서로 PreparedStatement 생성
+            PreparedStatement ps = connection.prepareStatement(
+                    query.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // 드라이버가 한 번에 가져올 행 수 (MySQL 은 useCursorFetch=true 와 함께 서버 커서 사용)
+            ps.setFetchSize(streamFetchSize);
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            consumer.accept(mapper.mapRow(rs, 0));
+            rows[0]++;
+        }));
+        recordRows(method, rows[0]);
+    }
+
+    // 특정 ID의 일정을 조회하는 메서드
+    @Override
+    public CalendarModel getCalendarById(Long id) {
+        try {
+            // ID로 일정 조회 SQL (비밀번호 컬럼은 조회하지 않음)
+            String sql = "SELECT " + CalendarRowMapper.COLUMNS + " FROM calendar WHERE id = ?";
+            // 단일 객체 조회 및 반환
+            return read("getCalendarById", () -> jdbcTemplate.queryForObject(sql, CalendarRowMapper.INSTANCE, id));
+        } catch (EmptyResultDataAccessException e) {
+            // 해당 ID의 일정이 없을 경우 예외 발생
+            throw new IllegalArgumentException("해당 ID의 일정이 존재하지 않습니다: " + id);
+        }
+    }
+
+    // 여러 ID의 일정을 한 번의 쿼리로 조회하는 메서드
+    // 존재하지 않는 ID는 결과에서 빠진다 (ID -> 일정)
+    @Override
+    public Map<Long, CalendarModel> getCalendarsByIds(Collection<? extends Long> ids) {
+        Map<Long, CalendarModel> result = new HashMap<>();
+        if (ids.isEmpty()) {
+            return result;
+        }
+
+        // IN 절의 자리표시자를 ID 개수만큼 생성
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        String sql = "SELECT " + CalendarRowMapper.COLUMNS + " FROM calendar WHERE id IN (" + placeholders + ")";
+
+        List<CalendarModel> rows = read("getCalendarsByIds",
+                () -> jdbcTemplate.query(sql, CalendarRowMapper.INSTANCE, ids.toArray()));
+        for (CalendarModel row : rows) {
+            result.put(row.getId(), row);
+        }
+        recordRows("getCalendarsByIds", rows.size());
+        return result;
+    }
+
+    // 저장된 비밀번호가 password 와 같을 때만 일정을 수정하는 메서드
+    // expectedVersion 이 주어지면 저장된 버전이 같을 때만 수정한다 (compare-and-set)
+    // 값이 없는(null) 필드는 저장된 값을 그대로 두고, 수정될 때마다 버전을 1 올린다
+    // 작성자나 날짜가 바뀌면 요약 테이블도 같은 트랜잭션에서 옮겨준다
+    // 수정되었으면 true, ID 가 없거나 저장된 비밀번호 / 버전이 다르면 false 반환
+    //
+    // 요약 테이블을 옮기려면 수정 전의 작성자 / 날짜를 알아야 하므로 먼저 읽고, 읽은 버전 조건으로 UPDATE 한다
+    // 행을 잠그지(SELECT ... FOR UPDATE) 않고, 그 사이 다른 요청이 먼저 수정했으면 다시 읽어서 재시도
+    // 재시도할 때 최신 값을 볼 수 있도록 READ COMMITTED 로 실행
+    @Override
+    public boolean updateCalendar(CalendarModel calendarModel, String password, Long expectedVersion) {
+        return transaction("updateCalendar", readCommittedTemplate,
+                status -> compareAndUpdate(calendarModel, password, expectedVersion));
+    }
+
+    // 트랜잭션 안에서 읽은 버전 조건으로 UPDATE 하고, 다른 요청이 먼저 수정했으면 다시 읽어서 재시도
+    private boolean compareAndUpdate(CalendarModel calendarModel, String password, Long expectedVersion) {
+        // 조건부 UPDATE SQL 쿼리
+        // 읽은 값을 애플리케이션에서 고쳐 통째로 다시 쓰지 않고, 데이터베이스가 한 문장 안에서 원자적으로 반영
+        String sql = "UPDATE calendar SET todolist = COALESCE(?, todolist), author = COALESCE(?, author),"
+                + " updateDate = ?, version = version + 1 WHERE id = ? AND password = ? AND version = ?";
+
+        CalendarModel before = findCalendar(calendarModel.getId());
+        while (before != null) {
+            long version = expectedVersion != null ? expectedVersion : before.getVersion();
+
+            // 쿼리 실행 및 영향받은 행 수 확인
+            int affected = jdbcTemplate.update(sql,
+                    calendarModel.getTodolist(), calendarModel.getAuthor(), calendarModel.getUpdateDate(),
+                    calendarModel.getId(), password, version);
+            if (affected > 0) {
+                // 읽은 버전 그대로였으므로 before 가 정확한 수정 전 값이다
+                String author = calendarModel.getAuthor() != null ? calendarModel.getAuthor() : before.getAuthor();
+                moveDailyStats(before.getAuthor(), before.getUpdateDate().toLocalDate(),
+                        author, calendarModel.getUpdateDate().toLocalDate());
+                return true;
+            }
+            // 클라이언트가 기대한 버전이 다르면 재시도하지 않음
+            if (expectedVersion != null) {
+                return false;
+            }
+
+            // 버전이 그대로인데 실패했다면 비밀번호가 다른 것, 버전이 바뀌었으면 다른 요청이 먼저 수정한 것이므로 재시도
+            CalendarModel current = findCalendar(calendarModel.getId());
+            if (current == null || current.getVersion().equals(before.getVersion())) {
+                return false;
+            }
+            before = current;
+        }
+        return false;
+    }
+
+    // 저장된 비밀번호가 password 와 같을 때만 일정을 삭제하는 메서드
+    // 비밀번호 확인 이후에 다른 요청이 비밀번호를 바꾸거나 삭제한 경우에는 삭제하지 않는다
+    // 요약 테이블의 개수도 같은 트랜잭션에서 줄인다 (수정과 같은 방식으로 읽은 버전 조건으로 삭제)
+    // 삭제되었으면 true, ID 가 없거나 저장된 비밀번호가 다르면 false 반환
+    @Override
+    public boolean deleteCalendar(Long id, String password) {
+        return transaction("deleteCalendar", readCommittedTemplate, status -> compareAndDelete(id, password));
+    }
+
+    // 트랜잭션 안에서 읽은 버전 조건으로 DELETE 하고, 다른 요청이 먼저 수정했으면 다시 읽어서 재시도
+    private boolean compareAndDelete(Long id, String password) {
+        // 조건부 DELETE SQL 쿼리
+        String sql = "DELETE FROM calendar WHERE id = ? AND password = ? AND version = ?";
+
+        CalendarModel before = findCalendar(id);
+        while (before != null) {
+            long version = before.getVersion();
+
+            // 쿼리 실행 및 영향받은 행 수 확인
+            int affected = jdbcTemplate.update(sql, id, password, version);
+            if (affected > 0) {
+                adjustDailyStats(before.getAuthor(), before.getUpdateDate().toLocalDate(), -1);
+                return true;
+            }
+
+            // 버전이 그대로인데 실패했다면 비밀번호가 다른 것
+            CalendarModel current = findCalendar(id);
+            if (current == null || current.getVersion().equals(before.getVersion())) {
+                return false;
+            }
+            before = current;
+        }
+        return false;
+    }
+
+    // 작성자별 / 날짜별 일정 수를 조회하는 메서드 (from ~ to, 양 끝 포함)
+    // 요약 테이블만 읽으므로 원본 일정이 아무리 많아도 결과 행 수에 비례하는 비용으로 끝난다
+    @Override
+    public List<CalendarDailyStatsDto> getDailyStats(LocalDate from, LocalDate to, String author) {
+        StringBuilder sql = new StringBuilder("SELECT author, day, entries FROM calendar_daily_stats WHERE day >= ? AND day <= ?");
+        List<Object> params = new ArrayList<>(List.of(Date.valueOf(from), Date.valueOf(to)));
+        if (author != null && !author.isEmpty()) {
+            sql.append(" AND author = ?");
+            params.add(author);
+        }
+        sql.append(" ORDER BY day, author");
+
+        return read("getDailyStats", () -> jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new CalendarDailyStatsDto(rs.getString(1), rs.getDate(2).toLocalDate(), rs.getLong(3)),
+                params.toArray()));
+    }
+
+    // 하루치 요약을 원본 테이블에서 다시 계산해서 덮어쓰는 메서드 (어긋난 값 보정용)
+    // 하루 단위 트랜잭션이라 (author, updateDate) 인덱스 범위만 읽고 짧게 끝난다
+    @Override
+    public void rebuildDailyStats(LocalDate day) {
+        transaction("rebuildDailyStats", transactionTemplate, status -> {
+            jdbcTemplate.update("DELETE FROM calendar_daily_stats WHERE day = ?", Date.valueOf(day));
+            return jdbcTemplate.update("INSERT INTO calendar_daily_stats (author, day, entries)"
+                            + " SELECT author, CAST(? AS DATE), COUNT(*) FROM calendar WHERE updateDate >= ? AND updateDate < ? GROUP BY author",
+                    Date.valueOf(day),
+                    Timestamp.valueOf(day.atStartOfDay()),
+                    Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+        });
+    }
+
+    // 저장된 비밀번호를 새 값(해시)으로 바꾸는 메서드
+    // 저장된 값이 확인할 때 읽은 값(expectedPassword)과 같을 때만 바꿔서 동시에 바뀐 값을 덮어쓰지 않는다
+    @Override
+    public boolean updatePassword(Long id, String newPassword, String expectedPassword) {
+        String sql = "UPDATE calendar SET password = ? WHERE id = ? AND password = ?";
+        int affected = execute("updatePassword", () -> jdbcTemplate.update(sql, newPassword, id, expectedPassword));
+        return affected > 0;
+    }
+
+    // 특정 ID의 일정 비밀번호를 조회하는 메서드
+    @Override
+    public String getPasswordById(Long id) {
+        try {
+            // 비밀번호 조회 SQL
+            String sql = "SELECT password FROM calendar WHERE id = ?";
+            // 단일 비밀번호 문자열 반환
+            return read("getPasswordById", () -> jdbcTemplate.queryForObject(sql, String.class, id));
+        } catch (EmptyResultDataAccessException e) {
+            // 해당 ID의 일정이 없을 경우 예외 발생
+            throw new IllegalArgumentException("해당 ID의 일정이 존재하지 않습니다: " + id);
+        }
+    }
+
+    // 수정 / 삭제 전의 작성자, 수정 시간, 버전을 읽는 메서드 (없으면 null, 트랜잭션 안에서만 호출)
+    private CalendarModel findCalendar(Long id) {
+        String sql = "SELECT " + CalendarRowMapper.COLUMNS + " FROM calendar WHERE id = ?";
+        List<CalendarModel> rows = jdbcTemplate.query(sql, CalendarRowMapper.INSTANCE, id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // 수정으로 작성자나 날짜가 바뀐 경우 요약 테이블에서 한 건을 옮긴다 (같으면 아무것도 하지 않음)
+    private void moveDailyStats(String fromAuthor, LocalDate fromDay, String toAuthor, LocalDate toDay) {
+        if (fromAuthor.equals(toAuthor) && fromDay.equals(toDay)) {
+            return;
+        }
+        adjustDailyStats(fromAuthor, fromDay, -1);
+        adjustDailyStats(toAuthor, toDay, 1);
+    }
+
+    // 요약 테이블의 (작성자, 날짜) 개수를 delta 만큼 바꾸고, 0 이 되면 행을 지운다 (트랜잭션 안에서만 호출)
+    private void adjustDailyStats(String author, LocalDate day, long delta) {
+        jdbcTemplate.update(UPSERT_DAILY_STATS, author, Date.valueOf(day), delta);
+        if (delta < 0) {
+            jdbcTemplate.update("DELETE FROM calendar_daily_stats WHERE author = ? AND day = ? AND entries <= 0",
+                    author, Date.valueOf(day));
+        }
+    }
+
+    // 여러 문장을 하나의 트랜잭션으로 실행
+    // 벌크헤드 허가를 먼저 받고 그 안에서 트랜잭션(커넥션)을 시작하므로 허가 -> 커넥션 순서가 항상 지켜진다
+    // 트랜잭션 안의 문장들은 이미 받은 허가와 커넥션을 그대로 쓰므로 jdbcTemplate 을 직접 호출한다
+    private <T> T transaction(String method, TransactionTemplate template, TransactionCallback<T> action) {
+        return execute(method, () -> template.execute(action));
+    }
+
+    // 모든 데이터베이스 작업은 벌크헤드를 거쳐서 실행하고, 대기 시간을 포함한 지연시간을 메서드별로 기록
+    // 이미 이 DataSource 의 트랜잭션 안에서 호출되면 바깥 작업이 허가와 커넥션을 가지고 있으므로 허가를 다시 받지 않는다
+    // (커넥션을 쥔 채로 허가를 기다리면 허가 -> 커넥션 순서가 뒤집혀서 서로를 기다릴 수 있음)
+    private <T> T execute(String method, Supplier<T> action) {
+        if (TransactionSynchronizationManager.hasResource(dataSource)) {
+            return action.get();
+        }
+        return timer(method).record(() -> bulkhead.call(action));
+    }
+
+    // 스트리밍처럼 반환값이 없는 작업 실행
+    private void execute(String method, Runnable action) {
+        if (TransactionSynchronizationManager.hasResource(dataSource)) {
+            action.run();
+            return;
+        }
+        timer(method).record(() -> bulkhead.run(action));
+    }
+
+    // 읽기 전용 조회는 replica 로 보낼 수 있게 표시해서 실행 (replica 설정이 없으면 primary)
+    // 트랜잭션 안에서 호출되거나 서비스가 primary 로 감싼 경우에는 primary 에서 읽는다
+    private <T> T read(String method, Supplier<T> action) {
+        return execute(method, () -> DataSourceRouting.replica(action));
+    }
+
+    // 반환값이 없는 읽기 전용 조회 실행
+    private void read(String method, Runnable action) {
+        execute(method, () -> DataSourceRouting.replica(action));
+    }
+
+    // calendar.repository 타이머 (method 태그로 구분, 백분위 계산용 히스토그램 포함)
+    private Timer timer(String method) {
+        return timers.computeIfAbsent(method, name -> Timer.builder("calendar.repository")
+                .description("CalendarRepository 메서드 실행 시간 (벌크헤드 대기 포함)")
+                .tag("method", name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // 목록 조회 한 번에 돌려준 행 수 기록
+    private void recordRows(String method, long rows) {
+        rowSummaries.computeIfAbsent(method, name -> DistributionSummary.builder("calendar.repository.rows")
+                        .description("목록 조회 한 번에 반환한 행 수")
+                        .baseUnit("rows")
+                        .tag("method", name)
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(rows);
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. 리포지토리(Repository)란?
+데이터베이스와 직접 상호작용하는 계층
+데이터의 CRUD(Create,Read,Update,Delete) 작업을 담당
+
+2. 주요 기능
+일정 생성 (createCalendar)
+일정 일괄 생성 (createCalendars) - JDBC 배치로 묶어서 INSERT, 전체를 하나의 트랜잭션으로 처리
+전체 일정 조회 (getAllCalendars)
+스트리밍 조회 (streamCalendars)
+목록 버전 조회 (getListVersion) - 페이지 범위의 (ID, 버전)만 인덱스에서 읽어서 목록 ETag 생성에 사용
+단일 일정 조회 (getCalendarById)
+여러 일정 한 번에 조회 (getCalendarsByIds) - 검색 결과 페이지를 IN 쿼리 한 번으로 채움
+일정 수정(updateCalendar) - 비밀번호 확인, 버전 비교(compare-and-set), 수정을 한 번의 조건부 UPDATE 로 처리
+일정 삭제(deleteCalendar) - 저장된 비밀번호 조건을 건 조건부 DELETE
+비밀번호 확인(getPasswordById)
+비밀번호 해시로 교체(updatePassword) - 평문 비밀번호의 점진적 마이그레이션
+작성자 / 날짜별 통계(getDailyStats, rebuildDailyStats) - 생성 / 수정 / 삭제와 같은 트랜잭션에서 갱신되는 요약 테이블
+
+3.중요 기술 요소
+JdbcTemplate : Spring에서 제공하는 데이터베이스 작업 간소화 도구
+PreparedStatement : SQL 인젝션 방지를 위한 안전한 쿼리 실행 방식
+CalendarRowMapper : 컬럼 인덱스로 결과를 바로 읽어 Java 객체로 변환 (리플렉션 없이 공유 인스턴스 사용)
+
+JdbcBulkhead : 데이터베이스 작업의 동시 실행 수 제한 (가상 스레드가 커넥션 풀로 몰리지 않게)
+TransactionTemplate : 벌크헤드 허가를 받은 다음에 트랜잭션을 시작 (허가 하나로 트랜잭션 전체를 실행, 허가 -> 커넥션 순서 유지)
+Micrometer Timer : 메서드별 실행 시간 히스토그램 (/actuator/prometheus 로 p99 등 확인)
+
+4. 특별한 기능
+동적 쿼리 생성 (작성자, 날짜로 필터링 가능)
+키셋 페이지네이션 ((updateDate, id) 커서 + LIMIT 으로 깊은 페이지도 일정한 비용)
+자동 생성 키(ID) 처리
+상세한 예외 처리
+
+주의할 점
+모든 데이터베이스 작업에 대해 예외 처리를 제공
+존재하지 않는 ID에 대해 명확한 오류 메시지 반환
+데이터 보안과 일관성을 고려한 설계
+
+리포지토리는 애플리케이션의 데이터 접근 로직을 안전하고 효율적으로 관리합니다
+ */
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.sparta.calendarproject.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 샤드 구성(샤드 이름과 순서)이 처음 시작할 때와 같은지 확인하는 클래스
+// 작성자는 샤드 이름으로 만든 해시 링으로, 일정 ID 는 샤드 번호로 샤드를 찾는다
+// 샤드를 추가 / 삭제하거나 이름 / 순서를 바꾸면 작성자 약 1/N 이 다른 샤드로 배치되는데 기존 일정은 옮겨지지 않으므로,
+// 그 작성자의 목록에서 기존 일정이 빠지고 작성자를 바꾸는 수정이 거절된다
+// 그래서 각 샤드에 구성을 기록해두고 (V6 calendar_shard_layout), 바뀌었으면 시작하지 않는다
+final class ShardLayoutGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardLayoutGuard.class);
+
+    private ShardLayoutGuard() {
+    }
+
+    // 각 샤드(shards, 샤드 번호 순서)에 기록된 구성을 지금 구성(names)과 비교
+    // - 기록이 없는 샤드(처음 시작)는 지금 구성을 기록
+    // - 기록이 다른 샤드가 있으면 IllegalStateException 으로 시작을 멈춤
+    // - acceptChange 이면 (작성자별 일정을 새 구성에 맞게 옮긴 뒤) 지금 구성으로 덮어씀
+    // 모든 샤드를 먼저 확인한 뒤에 기록하므로, 시작을 멈출 때는 어느 샤드의 기록도 바꾸지 않는다
+    static void verify(List<String> names, List<JdbcTemplate> shards, boolean acceptChange) {
+        String layout = String.join(",", names);
+        List<Integer> missing = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            List<String> stored = shards.get(shard).query(
+                    "SELECT shard_index, layout FROM calendar_shard_layout WHERE id = 1",
+                    (rs, rowNum) -> rs.getInt(1) + ":" + rs.getString(2));
+            if (stored.isEmpty()) {
+                missing.add(shard);
+            } else if (!stored.get(0).equals(shard + ":" + layout)) {
+                changed.add(names.get(shard) + " 에 기록된 구성 " + stored.get(0));
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            if (!acceptChange) {
+                throw new IllegalStateException("샤드 구성이 바뀌었습니다. 지금 구성 " + layout + ", " + String.join(", ", changed)
+                        + " (작성자가 다른 샤드로 배치되어 기존 일정을 찾지 못하게 됩니다."
+                        + " 작성자별 일정을 새 구성에 맞게 옮긴 뒤 calendar.repository.accept-shard-change=true 로 한 번 시작하세요)");
+            }
+            log.warn("샤드 구성 변경을 받아들입니다: {} -> {}", changed, layout);
+        }
+        for (int shard = 0; shard < shards.size(); shard++) {
+            if (missing.contains(shard)) {
+                shards.get(shard).update("INSERT INTO calendar_shard_layout (id, shard_index, layout) VALUES (1, ?, ?)",
+                        shard, layout);
+            } else if (acceptChange) {
+                shards.get(shard).update("UPDATE calendar_shard_layout SET shard_index = ?, layout = ? WHERE id = 1",
+                        shard, layout);
+            }
+        }
+    }
+}
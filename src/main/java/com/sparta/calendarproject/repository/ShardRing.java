@@ -0,0 +1,49 @@
+package com.sparta.calendarproject.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// 작성자를 샤드에 배치하는 일관된 해시(consistent hash) 링
+// 샤드마다 이름으로 만든 가상 노드 여러 개를 링 위에 올려두고, 작성자 해시값에서 시계 방향으로 처음 만나는 노드의 샤드를 고른다
+// 샤드를 하나 추가해도 전체 작성자 중 약 1/N 만 새 샤드로 옮겨지고 나머지는 그대로 남는다
+// 다만 옮겨지는 작성자의 기존 일정은 자동으로 옮겨지지 않으므로, 구성이 바뀌면 ShardLayoutGuard 가 시작을 멈춘다
+final class ShardRing {
+
+    // 샤드 하나당 링에 올릴 가상 노드 수 (많을수록 샤드별 작성자 수가 고르게 나뉨)
+    private static final int VIRTUAL_NODES = 160;
+
+    // 해시값 -> 샤드 번호
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+
+    ShardRing(List<String> shardNames) {
+        for (int shard = 0; shard < shardNames.size(); shard++) {
+            for (int node = 0; node < VIRTUAL_NODES; node++) {
+                ring.put(hash(shardNames.get(shard) + "#" + node), shard);
+            }
+        }
+    }
+
+    // 작성자가 저장될 샤드 번호
+    int shardFor(String author) {
+        Map.Entry<Long, Integer> entry = ring.ceilingEntry(hash(author));
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    // 64비트 FNV-1a 해시에 MurmurHash3 의 마무리 섞기(fmix64) 를 더해 비슷한 문자열도 링 위에 고르게 흩어지게 한다
+    // String.hashCode 와 달리 JVM / 버전이 바뀌어도 같은 값이 나와야 하므로 직접 계산한다
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
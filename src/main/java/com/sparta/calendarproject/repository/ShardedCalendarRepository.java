@@ -0,0 +1,449 @@
+package com.sparta.calendarproject.repository;
+
+import com.sparta.calendarproject.dto.CalendarCursor;
+import com.sparta.calendarproject.dto.CalendarDailyStatsDto;
+import com.sparta.calendarproject.model.CalendarModel;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+// 일정을 작성자 기준으로 여러 데이터베이스(샤드)에 나누어 저장하는 리포지토리 (calendar.repository.engine=sharded)
+// - 작성자는 일관된 해시 링(ShardRing) 으로 샤드에 배치되므로 같은 작성자의 일정은 항상 같은 샤드에 있다
+// - 일정 ID 의 상위 비트에 샤드 번호를 넣어서 ID 만으로 샤드를 바로 찾는다 (단건 조회 / 수정 / 삭제 / 비밀번호 조회)
+// - 작성자 조건이 있는 목록은 그 작성자의 샤드 하나에서만 읽고,
+//   조건이 없으면 모든 샤드에 동시에 조회한 뒤 (updateDate DESC, id DESC) 순서로 k-way 병합한다
+// 샤드마다 트랜잭션이 따로라서 여러 작성자를 한 번에 저장하는 일괄 생성은 샤드 단위로만 원자적이다
+public class ShardedCalendarRepository implements CalendarRepository, AutoCloseable {
+
+    // ID 에서 샤드 번호가 시작하는 비트 위치 (아래 48비트는 샤드 안의 AUTO_INCREMENT ID)
+    // 샤드 번호는 5비트(최대 32개)까지만 써서 ID 가 2^53 을 넘지 않게 한다 (JavaScript 숫자로 정확히 표현되는 범위)
+    static final int SHARD_SHIFT = 48;
+
+    static final int MAX_SHARDS = 32;
+
+    private static final long LOCAL_ID_MASK = (1L << SHARD_SHIFT) - 1;
+
+    // 목록 순서: 최근 수정 순, 같은 시간이면 ID 역순
+    private static final Comparator<CalendarModel> LIST_ORDER =
+            Comparator.comparing(CalendarModel::getUpdateDate).thenComparing(CalendarModel::getId).reversed();
+
+    // 샤드 번호 순서의 리포지토리 (번호는 ID 에 들어가므로 샤드를 추가할 때는 목록 끝에만 붙여야 한다)
+    private final List<CalendarRepository> shards;
+
+    // 작성자 -> 샤드 번호
+    private final ShardRing ring;
+
+    // 작성자 조건 없는 스트리밍 조회에서 한 번에 병합할 행 수
+    private final int streamPageSize;
+
+    // 여러 샤드에 동시에 조회하기 위한 실행기 (샤드 조회는 I/O 대기가 대부분이라 가상 스레드 사용)
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardedCalendarRepository(List<String> shardNames, List<CalendarRepository> shards, int streamPageSize) {
+        if (shards.isEmpty() || shards.size() > MAX_SHARDS || shards.size() != shardNames.size()) {
+            throw new IllegalArgumentException("샤드는 1 ~ " + MAX_SHARDS + "개까지 이름과 함께 설정해야 합니다.");
+        }
+        this.shards = List.copyOf(shards);
+        this.ring = new ShardRing(shardNames);
+        this.streamPageSize = streamPageSize;
+    }
+
+    // 샤드 번호와 샤드 안의 ID 로 전체 ID 를 만듦 (샤드 0 은 원래 ID 그대로)
+    static long globalId(int shard, long localId) {
+        return ((long) shard << SHARD_SHIFT) | localId;
+    }
+
+    // ID 에 들어있는 샤드 번호
+    static int shardOf(long id) {
+        return (int) (id >>> SHARD_SHIFT);
+    }
+
+    // 샤드 안의 ID
+    static long localIdOf(long id) {
+        return id & LOCAL_ID_MASK;
+    }
+
+    // 작성자가 저장되는 샤드 번호
+    int shardFor(String author) {
+        return ring.shardFor(author);
+    }
+
+    @Override
+    public CalendarModel createCalendar(CalendarModel calendarModel) {
+        int shard = shardFor(calendarModel.getAuthor());
+        shards.get(shard).createCalendar(calendarModel);
+        calendarModel.setId(globalId(shard, calendarModel.getId()));
+        return calendarModel;
+    }
+
+    // 작성자의 샤드별로 나누어 각 샤드에서 배치로 저장 (샤드끼리는 동시에 실행)
+    @Override
+    public List<CalendarModel> createCalendars(List<CalendarModel> calendarModels, int chunkSize) {
+        Map<Integer, List<CalendarModel>> groups = new TreeMap<>();
+        for (CalendarModel model : calendarModels) {
+            groups.computeIfAbsent(shardFor(model.getAuthor()), shard -> new ArrayList<>()).add(model);
+        }
+        scatter(groups.keySet(), shard -> {
+            List<CalendarModel> group = groups.get(shard);
+            shards.get(shard).createCalendars(group, chunkSize);
+            group.forEach(model -> model.setId(globalId(shard, model.getId())));
+            return null;
+        });
+        return calendarModels;
+    }
+
+    // 백업의 전역 ID 에 들어있는 샤드가 지금 작성자가 배치되는 샤드와 같아야 ID 를 그대로 복원할 수 있다
+    // 샤드 구성이 바뀌어서 다른 샤드로 가야 하는 일정이 하나라도 있으면 아무것도 저장하지 않고 거절한다
+    @Override
+    public List<CalendarModel> restoreCalendars(List<CalendarModel> calendarModels, int chunkSize) {
+        Map<Integer, List<CalendarModel>> groups = new TreeMap<>();
+        for (CalendarModel model : calendarModels) {
+            int shard = shardFor(model.getAuthor());
+            if (shardOf(model.getId()) != shard) {
+                throw new IllegalArgumentException("ID " + model.getId() + " 는 작성자 " + model.getAuthor()
+                        + " 가 배치되는 샤드(" + shard + ")의 ID 가 아니라서 복원할 수 없습니다.");
+            }
+            groups.computeIfAbsent(shard, key -> new ArrayList<>()).add(model);
+        }
+        scatter(groups.keySet(), shard -> {
+            List<CalendarModel> group = groups.get(shard);
+            group.forEach(model -> model.setId(localIdOf(model.getId())));
+            try {
+                shards.get(shard).restoreCalendars(group, chunkSize);
+            } finally {
+                group.forEach(model -> model.setId(globalId(shard, model.getId())));
+            }
+            return null;
+        });
+        return calendarModels;
+    }
+
+    @Override
+    public List<CalendarModel> getAllCalendars(String author, String updateDate, CalendarCursor cursor, int limit) {
+        if (author != null && !author.isEmpty()) {
+            int shard = shardFor(author);
+            return toGlobal(shard, shards.get(shard).getAllCalendars(author, updateDate, localCursor(shard, cursor), limit));
+        }
+        return mergePage(updateDate, cursor, limit);
+    }
+
+    // 작성자 조건이 없으면 샤드별로 커서 다음 limit 개의 버전을 이어 붙인 값
+    // 합친 페이지는 각 샤드의 앞쪽 limit 개 안에서만 나오므로 페이지가 바뀌면 어느 한 샤드의 버전이 달라진다
+    @Override
+    public String getListVersion(String author, String updateDate, CalendarCursor cursor, int limit) {
+        if (author != null && !author.isEmpty()) {
+            int shard = shardFor(author);
+            return shards.get(shard).getListVersion(author, updateDate, localCursor(shard, cursor), limit);
+        }
+        return String.join(";", scatter(allShards(),
+                shard -> shards.get(shard).getListVersion(null, updateDate, localCursor(shard, cursor), limit)));
+    }
+
+    // 작성자 조건이 없으면 병합한 페이지를 streamPageSize 개씩 이어서 넘겨서 전체 순서를 지키면서도 메모리 사용량을 제한한다
+    @Override
+    public void streamCalendars(String author, String updateDate, Consumer<CalendarModel> consumer) {
+        if (author != null && !author.isEmpty()) {
+            int shard = shardFor(author);
+            shards.get(shard).streamCalendars(author, updateDate, model -> {
+                model.setId(globalId(shard, model.getId()));
+                consumer.accept(model);
+            });
+            return;
+        }
+
+        CalendarCursor cursor = null;
+        while (true) {
+            List<CalendarModel> page = mergePage(updateDate, cursor, streamPageSize);
+            page.forEach(consumer);
+            if (page.size() < streamPageSize) {
+                return;
+            }
+            cursor = CalendarCursor.from(page.get(page.size() - 1));
+        }
+    }
+
+    // 백업은 순서가 필요 없으므로 병합하지 않고 샤드를 하나씩 차례로 읽는다
+    @Override
+    public void streamBackup(String author, String updateDate, Consumer<CalendarModel> consumer) {
+        List<Integer> targets = author != null && !author.isEmpty() ? List.of(shardFor(author)) : allShards();
+        for (int shard : targets) {
+            shards.get(shard).streamBackup(author, updateDate, model -> {
+                model.setId(globalId(shard, model.getId()));
+                consumer.accept(model);
+            });
+        }
+    }
+
+    @Override
+    public CalendarModel getCalendarById(Long id) {
+        int shard = shardOf(id);
+        if (shard >= shards.size()) {
+            throw new IllegalArgumentException("해당 ID의 일정이 존재하지 않습니다: " + id);
+        }
+        CalendarModel model = shards.get(shard).getCalendarById(localIdOf(id));
+        model.setId(id);
+        return model;
+    }
+
+    // ID 를 샤드별로 나누어 샤드마다 한 번의 IN 쿼리로 조회
+    @Override
+    public Map<Long, CalendarModel> getCalendarsByIds(Collection<? extends Long> ids) {
+        Map<Integer, List<Long>> groups = new TreeMap<>();
+        for (Long id : ids) {
+            if (shardOf(id) < shards.size()) {
+                groups.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(localIdOf(id));
+            }
+        }
+
+        Map<Long, CalendarModel> result = new HashMap<>();
+        for (List<CalendarModel> rows : scatter(groups.keySet(),
+                shard -> toGlobal(shard, List.copyOf(shards.get(shard).getCalendarsByIds(groups.get(shard)).values())))) {
+            for (CalendarModel row : rows) {
+                result.put(row.getId(), row);
+            }
+        }
+        return result;
+    }
+
+    // 작성자를 다른 샤드에 배치되는 이름으로 바꾸는 수정은 거절한다
+    // 행을 옮기면 ID 의 샤드 번호가 바뀌어서 클라이언트가 가진 ID 로 더 이상 찾을 수 없기 때문
+    @Override
+    public boolean updateCalendar(CalendarModel calendarModel, String password, Long expectedVersion) {
+        int shard = shardOf(calendarModel.getId());
+        if (shard >= shards.size()) {
+            return false;
+        }
+        long localId = localIdOf(calendarModel.getId());
+        String author = calendarModel.getAuthor();
+        if (author != null && shardFor(author) != shard) {
+            List<CalendarModel> current = List.copyOf(shards.get(shard).getCalendarsByIds(List.of(localId)).values());
+            if (current.isEmpty()) {
+                return false;
+            }
+            if (!current.get(0).getAuthor().equals(author)) {
+                throw new IllegalArgumentException("다른 샤드에 저장되는 작성자로는 변경할 수 없습니다: " + author);
+            }
+        }
+
+        CalendarModel local = new CalendarModel(localId, author, calendarModel.getTodolist(), calendarModel.getPassword(),
+                calendarModel.getCreateDate(), calendarModel.getUpdateDate(), calendarModel.getVersion());
+        return shards.get(shard).updateCalendar(local, password, expectedVersion);
+    }
+
+    @Override
+    public boolean deleteCalendar(Long id, String password) {
+        int shard = shardOf(id);
+        return shard < shards.size() && shards.get(shard).deleteCalendar(localIdOf(id), password);
+    }
+
+    // 작성자는 한 샤드에만 있으므로 샤드별 결과를 합치기만 하면 된다 (같은 (작성자, 날짜) 가 두 샤드에 나오지 않음)
+    @Override
+    public List<CalendarDailyStatsDto> getDailyStats(LocalDate from, LocalDate to, String author) {
+        if (author != null && !author.isEmpty()) {
+            return shards.get(shardFor(author)).getDailyStats(from, to, author);
+        }
+        List<CalendarDailyStatsDto> result = new ArrayList<>();
+        scatter(allShards(), shard -> shards.get(shard).getDailyStats(from, to, null)).forEach(result::addAll);
+        result.sort(Comparator.comparing(CalendarDailyStatsDto::getDay).thenComparing(CalendarDailyStatsDto::getAuthor));
+        return result;
+    }
+
+    @Override
+    public void rebuildDailyStats(LocalDate day) {
+        scatter(allShards(), shard -> {
+            shards.get(shard).rebuildDailyStats(day);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean updatePassword(Long id, String newPassword, String expectedPassword) {
+        int shard = shardOf(id);
+        return shard < shards.size() && shards.get(shard).updatePassword(localIdOf(id), newPassword, expectedPassword);
+    }
+
+    @Override
+    public String getPasswordById(Long id) {
+        int shard = shardOf(id);
+        if (shard >= shards.size()) {
+            throw new IllegalArgumentException("해당 ID의 일정이 존재하지 않습니다: " + id);
+        }
+        return shards.get(shard).getPasswordById(localIdOf(id));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    // 모든 샤드에서 cursor 다음의 일정을 동시에 읽고, 샤드별로 이미 정렬된 결과를 우선순위 큐로 k-way 병합
+    // 처음에는 샤드마다 limit 을 샤드 수로 나눈 몫의 두 배 정도만 읽고,
+    // 어떤 샤드의 결과를 다 쓴 뒤에도 페이지가 덜 찼을 때만 그 샤드에서 남은 개수만큼 더 읽는다
+    // 페이지가 다 차면 바로 멈추므로 샤드 수가 늘어나도 읽는 행 수는 limit + 샤드 수 x 첫 배치 크기를 넘지 않는다
+    private List<CalendarModel> mergePage(String updateDate, CalendarCursor cursor, int limit) {
+        int firstBatch = Math.min(limit, Math.max(1, (limit + shards.size() - 1) / shards.size() * 2));
+        List<ShardPage> pages = scatter(allShards(), shard -> {
+            ShardPage page = new ShardPage(shard, updateDate);
+            page.fetch(localCursor(shard, cursor), firstBatch);
+            return page;
+        });
+
+        PriorityQueue<ShardPage> heap = new PriorityQueue<>(Comparator.comparing(ShardPage::peek, LIST_ORDER));
+        for (ShardPage page : pages) {
+            if (page.hasNext()) {
+                heap.add(page);
+            }
+        }
+
+        List<CalendarModel> result = new ArrayList<>(limit);
+        while (result.size() < limit && !heap.isEmpty()) {
+            ShardPage page = heap.poll();
+            result.add(page.next());
+            if (!page.hasNext() && result.size() < limit) {
+                page.fetchMore(limit - result.size());
+            }
+            if (page.hasNext()) {
+                heap.add(page);
+            }
+        }
+        return result;
+    }
+
+    // 전체 ID 로 된 커서를 샤드 안의 ID 로 된 커서로 바꿈
+    // 전체 순서에서 (updateDate, 전체 ID) 다음이 되려면, 수정 시간이 같을 때
+    // 커서보다 앞 번호 샤드는 모든 행이 (ID 상위 비트가 작음), 뒷 번호 샤드는 어떤 행도 해당하지 않는다
+    private static CalendarCursor localCursor(int shard, CalendarCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        int cursorShard = shardOf(cursor.getId());
+        long localId = shard == cursorShard ? localIdOf(cursor.getId())
+                : shard < cursorShard ? Long.MAX_VALUE : 0L;
+        return new CalendarCursor(cursor.getUpdateDate(), localId);
+    }
+
+    // 샤드에서 읽은 일정의 ID 를 전체 ID 로 바꿈
+    private static List<CalendarModel> toGlobal(int shard, List<CalendarModel> rows) {
+        rows.forEach(row -> row.setId(globalId(shard, row.getId())));
+        return rows;
+    }
+
+    private List<Integer> allShards() {
+        return IntStream.range(0, shards.size()).boxed().toList();
+    }
+
+    // 여러 샤드에 같은 작업을 동시에 실행하고 샤드 번호 순서로 결과를 모음 (샤드가 하나면 호출한 스레드에서 바로 실행)
+    // 한 샤드라도 실패하면 그 예외를 그대로 던진다
+    private <T> List<T> scatter(Collection<Integer> targets, IntFunction<T> action) {
+        if (targets.size() == 1) {
+            return Collections.singletonList(action.apply(targets.iterator().next()));
+        }
+        List<Future<T>> futures = new ArrayList<>(targets.size());
+        for (int shard : targets) {
+            futures.add(executor.submit(() -> action.apply(shard)));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("샤드 조회 중 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    // 병합 중인 샤드 하나의 결과 (이미 목록 순서로 정렬되어 있음)
+    private final class ShardPage {
+
+        private final int shard;
+        private final String updateDate;
+
+        private List<CalendarModel> rows = List.of();
+        private int position;
+
+        // 마지막으로 읽은 배치가 요청한 개수보다 적었으면 이 샤드에는 더 읽을 행이 없다
+        private boolean exhausted;
+
+        private ShardPage(int shard, String updateDate) {
+            this.shard = shard;
+            this.updateDate = updateDate;
+        }
+
+        private void fetch(CalendarCursor cursor, int count) {
+            rows = toGlobal(shard, shards.get(shard).getAllCalendars(null, updateDate, cursor, count));
+            position = 0;
+            exhausted = rows.size() < count;
+        }
+
+        // 이 샤드에서 마지막으로 읽은 행 다음부터 count 개를 더 읽음
+        private void fetchMore(int count) {
+            if (exhausted || rows.isEmpty()) {
+                return;
+            }
+            CalendarModel last = rows.get(rows.size() - 1);
+            fetch(new CalendarCursor(last.getUpdateDate(), localIdOf(last.getId())), count);
+        }
+
+        private boolean hasNext() {
+            return position < rows.size();
+        }
+
+        private CalendarModel peek() {
+            return rows.get(position);
+        }
+
+        private CalendarModel next() {
+            return rows.get(position++);
+        }
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. 샤딩(sharding)
+한 테이블을 여러 데이터베이스에 나누어 저장해서 저장 용량과 쓰기 처리량을 데이터베이스 수만큼 늘리는 방법
+무엇을 기준으로 나누는지(샤드 키) 가 중요한데, 목록 조회가 대부분 작성자 조건이라 작성자를 샤드 키로 사용한다
+
+2. 일관된 해시(consistent hashing)
+hash(author) % N 으로 나누면 샤드 수가 바뀔 때 거의 모든 작성자의 위치가 바뀐다
+링 위에 샤드별 가상 노드를 올려두면 샤드를 추가해도 새 샤드의 구간에 들어간 작성자만 옮겨진다
+
+3. ID 에 샤드 번호 넣기
+ID 만 가지고 오는 요청(단건 조회 / 수정 / 삭제) 을 모든 샤드에 물어보지 않고 바로 해당 샤드로 보낼 수 있다
+샤드 0 은 ID 가 그대로라서 기존 데이터베이스를 첫 번째 샤드로 쓰면 기존 ID 가 바뀌지 않는다
+
+4. scatter-gather 와 k-way 병합
+작성자 조건이 없는 목록은 모든 샤드에 동시에 보내고(scatter), 각 샤드가 정렬해서 준 결과를 모아서(gather) 합친다
+각 샤드 결과는 이미 정렬되어 있으므로 우선순위 큐에서 가장 앞선 행을 하나씩 꺼내면 전체가 정렬된다 (O(limit x log N))
+페이지가 다 차면 멈추고, 부족한 샤드에서만 더 읽어서 샤드마다 limit 개씩 모두 읽는 낭비를 줄인다
+ */
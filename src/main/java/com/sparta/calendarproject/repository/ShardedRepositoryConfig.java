@@ -0,0 +1,111 @@
+package com.sparta.calendarproject.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// calendar.repository.engine=sharded 일 때 샤드별 리포지토리를 만들어서 ShardedCalendarRepository 로 묶는 설정
+// 샤드 0 은 기존 DataSource(Flyway 가 마이그레이션하는 데이터베이스) 를 그대로 쓰고,
+// 추가 샤드는 커넥션 풀을 따로 만들고 시작할 때 같은 마이그레이션 스크립트를 적용한다
+// 기존 데이터를 새 샤드로 옮기는 작업은 하지 않으므로 빈 데이터베이스로 시작하거나 작성자별로 직접 옮겨야 한다
+// 샤드 구성은 고정이다 : 처음 시작할 때의 구성과 다르면 시작하지 않는다 (ShardLayoutGuard)
+@Configuration
+@EnableConfigurationProperties(ShardedRepositoryProperties.class)
+@ConditionalOnProperty(name = "calendar.repository.engine", havingValue = "sharded")
+public class ShardedRepositoryConfig {
+
+    // 추가 샤드의 커넥션 풀 (종료될 때 Spring 이 close() 로 모두 닫음)
+    @Bean
+    public ShardPools shardPools(ShardedRepositoryProperties properties) {
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        List<ShardedRepositoryProperties.Shard> configured = properties.getShards();
+        for (int i = 0; i < configured.size(); i++) {
+            ShardedRepositoryProperties.Shard shard = configured.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .driverClassName(shard.getDriverClassName())
+                    .build();
+            dataSource.setPoolName(shardName(shard, i + 1));
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            Flyway.configure().dataSource(dataSource).load().migrate();
+            dataSources.add(dataSource);
+        }
+        return new ShardPools(dataSources);
+    }
+
+    // 서비스 / 캐시 / 검색 색인이 사용하는 리포지토리
+    @Bean
+    public ShardedCalendarRepository calendarRepository(DataSource dataSource,
+                                                        ShardPools shardPools,
+                                                        ShardedRepositoryProperties properties,
+                                                        JdbcBulkhead bulkhead,
+                                                        MeterRegistry meterRegistry,
+                                                        @Value("${calendar.stream.fetch-size:500}") int streamFetchSize,
+                                                        @Value("${calendar.bulkhead.max-wait:1s}") Duration maxWait) {
+        List<String> names = new ArrayList<>();
+        List<CalendarRepository> shards = new ArrayList<>();
+        List<JdbcTemplate> templates = new ArrayList<>();
+
+        names.add(properties.getPrimaryShardName());
+        shards.add(shard(dataSource, bulkhead, meterRegistry, streamFetchSize, properties.getPrimaryShardName()));
+        templates.add(new JdbcTemplate(dataSource));
+
+        List<ShardedRepositoryProperties.Shard> configured = properties.getShards();
+        for (int i = 0; i < configured.size(); i++) {
+            ShardedRepositoryProperties.Shard shard = configured.get(i);
+            String name = shardName(shard, i + 1);
+            names.add(name);
+            shards.add(shard(shardPools.dataSources.get(i), new JdbcBulkhead(shard.getMaximumPoolSize(), maxWait),
+                    meterRegistry, streamFetchSize, name));
+            templates.add(new JdbcTemplate(shardPools.dataSources.get(i)));
+        }
+
+        // 작성자 배치가 바뀌는 구성 변경이면 요청을 받기 전에 시작을 멈춤
+        ShardLayoutGuard.verify(names, templates, properties.isAcceptShardChange());
+        return new ShardedCalendarRepository(names, shards, properties.getStreamPageSize());
+    }
+
+    // 샤드 하나의 리포지토리
+    // 리포지토리가 그 샤드의 벌크헤드 허가를 받은 뒤 그 샤드의 DataSource 로 직접 트랜잭션을 열기 때문에 프록시가 필요 없다
+    static CalendarRepository shard(DataSource dataSource, JdbcBulkhead bulkhead, MeterRegistry meterRegistry,
+                                    int streamFetchSize, String name) {
+        return new JdbcCalendarRepository(new JdbcTemplate(dataSource), bulkhead,
+                meterRegistry, streamFetchSize, Tags.of("shard", name));
+    }
+
+    private static String shardName(ShardedRepositoryProperties.Shard shard, int index) {
+        return shard.getName() != null ? shard.getName() : "shard-" + index;
+    }
+
+    // 추가 샤드 커넥션 풀 목록 (샤드 1 부터 순서대로)
+    // HikariDataSource 를 각각 빈으로 등록하면 기본 DataSource 자리를 두고 충돌하므로 하나로 묶어서 등록한다
+    public static final class ShardPools implements AutoCloseable {
+
+        private final List<HikariDataSource> dataSources;
+
+        private ShardPools(List<HikariDataSource> dataSources) {
+            this.dataSources = List.copyOf(dataSources);
+        }
+
+        @Override
+        public void close() {
+            dataSources.forEach(HikariDataSource::close);
+        }
+    }
+}
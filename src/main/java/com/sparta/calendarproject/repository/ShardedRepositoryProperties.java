@@ -0,0 +1,43 @@
+package com.sparta.calendarproject.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 작성자 기준 샤딩 설정 (calendar.repository.*)
+// 샤드 0 은 기존 spring.datasource.* 데이터베이스이고, shards 에 적은 데이터베이스가 순서대로 샤드 1, 2, ... 가 된다
+@Getter
+@Setter
+@ConfigurationProperties("calendar.repository")
+public class ShardedRepositoryProperties {
+
+    // 기존 데이터베이스(샤드 0) 의 이름 (해시 링에서 샤드를 구분하는 값이라 한 번 정하면 바꾸지 않아야 한다)
+    private String primaryShardName = "shard-0";
+
+    // 추가 샤드 목록 (ID 에 샤드 번호가 들어가므로 새 샤드는 목록 끝에만 추가)
+    private List<Shard> shards = new ArrayList<>();
+
+    // 샤드 구성(이름 / 순서 / 개수)이 기록과 달라도 시작할지
+    // 작성자별 일정을 새 구성에 맞게 옮긴 뒤 한 번만 켜서 새 구성을 기록하고 다시 끈다
+    private boolean acceptShardChange = false;
+
+    // 작성자 조건 없는 스트리밍 조회에서 샤드 결과를 한 번에 병합할 행 수
+    private int streamPageSize = 500;
+
+    // 샤드 하나의 접속 정보
+    @Getter
+    @Setter
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+
+        // 샤드별 커넥션 풀 크기 (벌크헤드 동시 실행 수도 같은 값 사용)
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,250 @@
+package com.sparta.calendarproject.search;
+
+import com.sparta.calendarproject.dto.CalendarSearchCursor;
+import com.sparta.calendarproject.model.CalendarModel;
+import com.sparta.calendarproject.repository.CalendarRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 일정의 할 일(todolist)과 작성자(author)를 대상으로 하는 메모리 역색인(inverted index)
+// 토큰 -> (일정 ID -> 등장 횟수) 목록을 유지해서, 검색할 때 테이블 전체가 아니라
+// 검색어 토큰이 들어있는 일정만 살펴본다 (검색 비용이 테이블 크기가 아니라 일치하는 일정 수에 비례)
+//
+// 서비스 스레드가 색인을 갱신하는 순서는 커밋 순서와 다를 수 있으므로 일정마다 색인한 버전을 기억하고
+// 그보다 오래된(같은) 버전은 버리며, 삭제된 ID 는 묘비(tombstone)로 남겨서 늦게 온 색인 요청이 되살리지 못하게 한다
+@Component  // Spring이 빈으로 등록하게 하는 어노테이션
+public class CalendarSearchIndex implements MeterBinder {
+
+    // BM25 의 등장 횟수 포화 계수 (같은 토큰이 여러 번 나와도 점수가 끝없이 커지지 않게)
+    private static final double K1 = 1.2;
+
+    // 시작할 때 테이블 전체를 읽어서 색인을 만들기 위한 리포지토리
+    private final CalendarRepository calendarRepository;
+
+    // 토큰 -> (일정 ID -> 해당 일정에서 토큰이 나온 횟수)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+
+    // 일정 ID -> 색인된 버전과 토큰 / 횟수 (수정 / 삭제 시 이전 토큰을 빼기 위해 보관)
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+
+    // 삭제된 일정 ID (ID 는 백업 복원 말고는 다시 쓰이지 않으므로 다음 rebuild 까지 보관)
+    private final Set<Long> tombstones = new HashSet<>();
+
+    // 검색은 동시에 여러 개, 색인 변경은 한 번에 하나씩
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 생성자를 통한 의존성 주입
+    public CalendarSearchIndex(CalendarRepository calendarRepository) {
+        this.calendarRepository = calendarRepository;
+    }
+
+    // 애플리케이션이 요청을 받기 전에 테이블 전체를 한 행씩 읽어서 색인을 만든다
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            tombstones.clear();
+            calendarRepository.streamCalendars(null, null, this::addLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 새로 만들어지거나 수정된 일정을 색인에 반영 (이전 내용은 빼고 새 내용으로 교체)
+    // 이미 삭제되었거나, 색인된 버전과 같거나 오래된 내용이면 무시한다 (늦게 도착한 이전 수정)
+    public void index(CalendarModel model) {
+        lock.writeLock().lock();
+        try {
+            if (tombstones.contains(model.getId())) {
+                return;
+            }
+            IndexedDocument current = documents.get(model.getId());
+            if (current != null && current.version >= versionOf(model)) {
+                return;
+            }
+            removeLocked(model.getId());
+            addLocked(model);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 백업에서 복원한 일정을 색인에 추가
+    // 삭제된 일정이 같은 ID 로 복원될 수 있으므로 묘비를 지우고, 버전이 더 낮아도 복원한 내용으로 교체한다
+    public void restore(CalendarModel model) {
+        lock.writeLock().lock();
+        try {
+            tombstones.remove(model.getId());
+            removeLocked(model.getId());
+            addLocked(model);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 삭제된 일정을 색인에서 제거하고 묘비를 남김
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            tombstones.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 검색어와 관련된 일정을 점수 내림차순(같으면 ID 내림차순)으로 최대 limit 개 반환
+    // after 가 주어지면 그 위치 다음 결과부터 반환한다
+    // 검색어에서 토큰을 하나도 만들 수 없으면 IllegalArgumentException 발생
+    public List<SearchHit> search(String query, CalendarSearchCursor after, int limit) {
+        Set<String> terms = CalendarTokenizer.queryTerms(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("검색어를 입력해주세요.");
+        }
+
+        // 1. 검색어 토큰의 목록만 따라가며 일정별 점수를 더한다 (BM25 의 idf * 포화된 tf)
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    int tf = entry.getValue();
+                    scores.merge(entry.getKey(), idf * tf * (K1 + 1) / (tf + K1), Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // 2. 커서 다음에 오는 결과 중 상위 limit 개만 크기가 제한된 힙으로 고른다 (전체 정렬 없이)
+        Comparator<SearchHit> worstFirst = Comparator.comparingDouble(SearchHit::getScore)
+                .thenComparing(SearchHit::getId);
+        PriorityQueue<SearchHit> top = new PriorityQueue<>(limit + 1, worstFirst);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            SearchHit hit = new SearchHit(entry.getKey(), entry.getValue());
+            if (after != null && !hit.ranksAfter(after.getScore(), after.getId())) {
+                continue;
+            }
+            top.offer(hit);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        // 3. 가장 관련 높은 결과가 앞에 오도록 정렬
+        List<SearchHit> hits = new ArrayList<>(top);
+        hits.sort(worstFirst.reversed());
+        return hits;
+    }
+
+    // 색인된 일정 수
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 색인된 일정 수를 메트릭으로 노출
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("calendar.search.documents", this, CalendarSearchIndex::size)
+                .description("검색 색인에 들어있는 일정 수")
+                .register(registry);
+    }
+
+    // 쓰기 락을 잡은 상태에서 일정 하나를 색인에 추가
+    private void addLocked(CalendarModel model) {
+        Map<String, Integer> terms = CalendarTokenizer.documentTerms(model.getTodolist(), model.getAuthor());
+        documents.put(model.getId(), new IndexedDocument(versionOf(model), terms));
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(model.getId(), term.getValue());
+        }
+    }
+
+    // 쓰기 락을 잡은 상태에서 일정 하나를 색인에서 제거 (빈 토큰 목록도 함께 정리해서 메모리가 남지 않게)
+    private void removeLocked(Long id) {
+        IndexedDocument removed = documents.remove(id);
+        if (removed == null) {
+            return;
+        }
+        for (String term : removed.terms.keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static long versionOf(CalendarModel model) {
+        return model.getVersion() == null ? 0 : model.getVersion();
+    }
+
+    // 색인된 일정 하나 (버전과 토큰 -> 등장 횟수)
+    private static final class IndexedDocument {
+        private final long version;
+        private final Map<String, Integer> terms;
+
+        private IndexedDocument(long version, Map<String, Integer> terms) {
+            this.version = version;
+            this.terms = terms;
+        }
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. 역색인(inverted index)
+문서 -> 단어 가 아니라 단어 -> 문서 목록 으로 저장하는 구조
+검색어의 단어가 들어있는 문서 목록만 읽으면 되므로 테이블 전체를 LIKE '%...%' 로 훑는 것보다 훨씬 빠르다
+비용은 테이블 크기가 아니라 일치하는 문서 수(목록 길이의 합)에 비례한다
+
+2. 한국어와 n-gram
+"회의를 준비" 처럼 조사가 붙으면 공백 기준 단어로는 "회의" 를 찾을 수 없다
+글자 2개씩 자른 bigram("회의", "의를", ...) 으로 색인하면 형태소 분석 없이도 부분 문자열 검색이 된다
+한 글자 검색어를 위해 unigram 도 함께 색인한다
+
+3. 점수(BM25)
+idf : 드물게 나오는 토큰일수록 높은 점수 (흔한 글자보다 특정 단어가 더 중요)
+tf 포화 : 같은 토큰이 여러 번 나올수록 점수가 오르지만 일정 수준 이상 커지지 않음
+
+4. 점진적 갱신
+일정이 생성 / 수정 / 삭제될 때마다 서비스가 해당 일정만 색인에서 빼고 다시 넣는다
+애플리케이션 시작 시에는 테이블 전체를 스트리밍으로 읽어 색인을 새로 만든다
+갱신은 요청 스레드가 도착한 순서로 들어오므로, 버전이 더 큰 내용만 받아들이고 삭제는 묘비로 기억한다
+ - 느린 수정 요청이 이전 버전을 늦게 넣어도 새 내용을 덮지 못함
+ - 삭제 뒤에 늦게 온 색인 요청이 삭제된 일정을 되살리지 못함 (색인은 시작할 때만 다시 만들므로 한 번 틀리면 계속 남음)
+묘비는 삭제된 ID 하나당 한 칸이라 다음 rebuild 에서 비운다
+
+5. 상위 k 개 선택과 커서
+크기가 limit 인 힙으로 상위 결과만 골라서 전체 정렬 비용을 피한다
+(점수, id) 커서로 다음 페이지를 이어서 조회한다 (색인이 바뀌면 점수가 조금 달라질 수 있다)
+ */
@@ -0,0 +1,78 @@
+package com.sparta.calendarproject.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// 검색용 토큰(n-gram)을 만드는 클래스
+// 한국어는 조사와 어미가 단어에 붙어서("회의를", "회의가") 공백 단위로 자르면 검색이 되지 않으므로
+// 글자 단위의 n-gram 으로 나누어 형태소 분석기 없이도 부분 문자열 검색이 되게 한다
+final class CalendarTokenizer {
+
+    private CalendarTokenizer() {
+    }
+
+    // 저장할 문서의 토큰과 등장 횟수
+    // 단어마다 한 글자(unigram)와 두 글자(bigram) 토큰을 모두 만든다 (한 글자 검색어도 찾을 수 있도록)
+    static Map<String, Integer> documentTerms(String... fields) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (String field : fields) {
+            for (int[] word : words(field)) {
+                for (int i = 0; i < word.length; i++) {
+                    terms.merge(new String(word, i, 1), 1, Integer::sum);
+                    if (i + 1 < word.length) {
+                        terms.merge(new String(word, i, 2), 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        return terms;
+    }
+
+    // 검색어의 토큰 (중복 제거)
+    // 두 글자 이상인 단어는 bigram 만, 한 글자 단어는 그 글자 하나만 사용한다
+    static Set<String> queryTerms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (int[] word : words(query)) {
+            if (word.length == 1) {
+                terms.add(new String(word, 0, 1));
+                continue;
+            }
+            for (int i = 0; i + 1 < word.length; i++) {
+                terms.add(new String(word, i, 2));
+            }
+        }
+        return terms;
+    }
+
+    // 유니코드 정규화(NFKC)와 소문자 변환 후 글자/숫자가 이어진 구간을 단어로 자른다
+    // 전각 / 반각, 조합형 한글 등 같은 글자의 다른 표현을 하나로 맞추기 위해 정규화를 먼저 한다
+    private static List<int[]> words(String text) {
+        List<int[]> words = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return words;
+        }
+        int[] codePoints = Normalizer.normalize(text, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .codePoints()
+                .toArray();
+
+        int start = -1;
+        for (int i = 0; i <= codePoints.length; i++) {
+            boolean letter = i < codePoints.length && Character.isLetterOrDigit(codePoints[i]);
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(Arrays.copyOfRange(codePoints, start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,24 @@
+package com.sparta.calendarproject.search;
+
+import lombok.Getter;
+
+// 검색 결과 한 건 (일정 ID와 관련도 점수)
+@Getter  // Lombok 어노테이션: 모든 필드의 getter 메서드 자동 생성
+public class SearchHit {
+    // 검색된 일정의 ID
+    private final Long id;
+
+    // 관련도 점수 (클수록 검색어와 관련이 높음)
+    private final double score;
+
+    public SearchHit(Long id, double score) {
+        this.id = id;
+        this.score = score;
+    }
+
+    // 결과 순서(점수 내림차순, 같으면 ID 내림차순)에서 주어진 위치보다 뒤에 오는지 확인
+    boolean ranksAfter(double otherScore, long otherId) {
+        int byScore = Double.compare(score, otherScore);
+        return byScore < 0 || (byScore == 0 && id < otherId);
+    }
+}
@@ -0,0 +1,10 @@
+package com.sparta.calendarproject.service;
+
+// 수정 요청이 기대한 버전(If-Match)과 저장된 일정의 버전이 다를 때 발생하는 예외
+// 그 사이에 다른 요청이 일정을 먼저 수정했다는 뜻이며, 컨트롤러에서 409 Conflict 로 응답한다
+public class CalendarConflictException extends RuntimeException {
+
+    public CalendarConflictException(String message) {
+        super(message);
+    }
+}
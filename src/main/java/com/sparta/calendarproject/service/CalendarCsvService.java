@@ -0,0 +1,399 @@
+package com.sparta.calendarproject.service;
+
+import com.sparta.calendarproject.csv.CsvReader;
+import com.sparta.calendarproject.csv.CsvWriter;
+import com.sparta.calendarproject.dto.CalendarImportResponseDto;
+import com.sparta.calendarproject.dto.CalendarRequestDto;
+import com.sparta.calendarproject.model.CalendarModel;
+import com.sparta.calendarproject.repository.CalendarRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// 일정 테이블 전체(또는 조건에 맞는 일부)를 CSV 로 내보내고, CSV 파일을 읽어서 일정으로 가져오는 서비스
+// 내보내기는 앞으로만 이동하는 커서로 한 행씩 읽어서 바로 쓰고,
+// 가져오기는 한 행씩 읽어서 정해진 개수마다 한 트랜잭션으로 저장하므로 파일 크기와 관계없이 메모리 사용량이 일정하다
+// 두 가지 방식이 있다
+// - 내보내기 / 가져오기 : 비밀번호 해시 없이 내보내고, 가져오면 새 ID 로 저장 (보고 / 다른 서버로 옮기기용)
+// - 백업 / 복원         : ID / 버전 / 비밀번호 해시까지 내보내고, 복원하면 그대로 저장 (calendar.csv.restore-enabled 로 켠 서버만)
+@Service // 서비스 계층의 컴포넌트임을 나타냄
+public class CalendarCsvService {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarCsvService.class);
+
+    // 내보내기 CSV 의 열
+    // 비밀번호 해시는 누구나 내려받을 수 있는 파일에 담지 않으므로 내보내지 않고,
+    // 가져오기는 id / version 을 무시하고 새 ID 로 저장한다 (내보낸 파일을 다시 가져오려면 password 열을 추가해야 함)
+    private static final String[] EXPORT_COLUMNS = {"id", "author", "todolist", "createDate", "updateDate", "version"};
+
+    // 백업 CSV 의 열 (복원할 때 모두 필수)
+    private static final String[] BACKUP_COLUMNS =
+            {"id", "author", "todolist", "password", "createDate", "updateDate", "version"};
+
+    // 한 행의 최대 글자 수 (열 길이 제한보다 충분히 크게)
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    // 응답에 담을 실패 행의 최대 개수 (전체 개수는 따로 셈)
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+
+    // 내보내기 쓰기 버퍼 크기
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final CalendarRepository calendarRepository;
+
+    private final CalendarPasswordService passwordService;
+
+    private final CalendarService calendarService;
+
+    // 한 트랜잭션으로 저장할 행 수
+    private final int importBatchSize;
+
+    // 한 번의 배치 INSERT 로 보낼 행 수 (일괄 생성과 같은 설정)
+    private final int chunkSize;
+
+    // 백업 내보내기 / 복원을 허용할지 (비밀번호 해시를 주고받으므로 기본은 꺼짐)
+    private final boolean restoreEnabled;
+
+    // 생성자를 통한 의존성 주입
+    public CalendarCsvService(CalendarRepository calendarRepository,
+                              CalendarPasswordService passwordService,
+                              CalendarService calendarService,
+                              @Value("${calendar.import.batch-size:1000}") int importBatchSize,
+                              @Value("${calendar.batch.chunk-size:500}") int chunkSize,
+                              @Value("${calendar.csv.restore-enabled:false}") boolean restoreEnabled) {
+        this.calendarRepository = calendarRepository;
+        this.passwordService = passwordService;
+        this.calendarService = calendarService;
+        this.importBatchSize = importBatchSize;
+        this.chunkSize = chunkSize;
+        this.restoreEnabled = restoreEnabled;
+    }
+
+    // 조건에 맞는 모든 일정을 CSV 로 out 에 바로 써주는 메서드 (첫 줄은 열 이름)
+    // 버퍼가 찰 때마다 클라이언트로 내보내므로 행 수와 관계없이 메모리 사용량이 일정하다
+    public void exportCsv(String author, String updateDate, OutputStream out) throws IOException {
+        writeCsv("CSV 내보내기", EXPORT_COLUMNS, out,
+                consumer -> calendarRepository.streamCalendars(author, updateDate, consumer),
+                model -> new String[]{String.valueOf(model.getId()), model.getAuthor(), model.getTodolist(),
+                        String.valueOf(model.getCreateDate()), String.valueOf(model.getUpdateDate()),
+                        String.valueOf(model.getVersion())});
+    }
+
+    // 조건에 맞는 모든 일정을 ID / 버전 / 비밀번호 해시까지 CSV 로 써주는 메서드 (restoreCsv 로 그대로 복원할 수 있는 백업)
+    // 행 순서는 정하지 않는다
+    public void exportBackup(String author, String updateDate, OutputStream out) throws IOException {
+        checkRestoreEnabled();
+        writeCsv("CSV 백업", BACKUP_COLUMNS, out,
+                consumer -> calendarRepository.streamBackup(author, updateDate, consumer),
+                model -> new String[]{String.valueOf(model.getId()), model.getAuthor(), model.getTodolist(),
+                        model.getPassword(), String.valueOf(model.getCreateDate()),
+                        String.valueOf(model.getUpdateDate()), String.valueOf(model.getVersion())});
+    }
+
+    // 열 이름을 쓰고, source 가 넘겨주는 일정을 한 행씩 fields 로 바꿔서 바로 씀
+    private void writeCsv(String name, String[] columns, OutputStream out,
+                          Consumer<Consumer<CalendarModel>> source,
+                          Function<CalendarModel, String[]> fields) throws IOException {
+        long start = System.nanoTime();
+        long[] rows = {0};
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRow(columns);
+        source.accept(model -> {
+            try {
+                csv.writeRow(fields.apply(model));
+                rows[0]++;
+            } catch (IOException e) {
+                // 클라이언트 연결이 끊어진 경우 조회를 중단하고 커넥션을 반환하도록 예외를 전파
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("{} 완료: {}행, {}ms, 초당 {}행", name, rows[0], elapsedMillis, rows[0] * 1000 / elapsedMillis);
+    }
+
+    // CSV 를 한 행씩 읽어서 일정으로 저장하는 메서드
+    // 첫 줄은 열 이름이며 author, todolist, password 는 필수, createDate / updateDate 는 선택 (없으면 현재 시간)
+    // id / version 열은 무시하고 새 ID 로 저장한다 (내보낸 파일에 password 열을 추가해서 가져올 수 있음)
+    // password 가 이미 BCrypt 해시면 그대로 저장하고 평문이면 해시로 바꿔서 저장
+    // 검증에 실패한 행은 건너뛰고 줄 번호와 이유를 알려주며, 파일 형식이 잘못되면 그 자리에서 멈춘다
+    // 저장에 실패한 묶음은 그 묶음의 행만 건너뛴 것으로 기록하고 다음 묶음을 계속 저장한다
+    public CalendarImportResponseDto importCsv(InputStream in) throws IOException {
+        return readCsv(in, false);
+    }
+
+    // exportBackup 으로 내보낸 CSV 를 ID / 버전 / 비밀번호 해시 그대로 저장하는 메서드 (백업 복원)
+    // id, author, todolist, password, createDate, updateDate, version 열이 모두 필수이며 비밀번호는 해시로 바꾸지 않는다
+    // 이미 있는 ID 가 들어있는 묶음은 저장하지 않고 건너뛰므로, 같은 파일을 다시 복원해도 일정이 두 번 생기지 않는다
+    public CalendarImportResponseDto restoreCsv(InputStream in) throws IOException {
+        checkRestoreEnabled();
+        return readCsv(in, true);
+    }
+
+    // CSV 를 한 행씩 읽어서 검증하고 importBatchSize 개마다 저장 (restore 이면 백업 복원)
+    private CalendarImportResponseDto readCsv(InputStream in, boolean restore) throws IOException {
+        long start = System.nanoTime();
+        CalendarImportResponseDto report = new CalendarImportResponseDto();
+        CsvReader reader = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8), MAX_RECORD_LENGTH);
+
+        // 1. 열 이름으로 위치 확인
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("빈 파일입니다.");
+        }
+        Columns columns = new Columns(header, restore);
+
+        // 2. 한 행씩 검증해서 모으고, importBatchSize 개마다 한 트랜잭션으로 저장
+        List<CalendarModel> batch = new ArrayList<>(importBatchSize);
+        long batchFirstLine = 0;
+        while (true) {
+            List<String> record;
+            try {
+                record = reader.next();
+            } catch (IllegalArgumentException e) {
+                // 닫히지 않은 따옴표처럼 다음 행을 찾을 수 없는 형식 오류
+                report.setError(e.getMessage());
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue; // 빈 줄
+            }
+            try {
+                CalendarModel model = columns.toModel(record);
+                if (batch.isEmpty()) {
+                    batchFirstLine = reader.recordLine();
+                }
+                batch.add(model);
+            } catch (IllegalArgumentException e) {
+                reject(report, reader.recordLine(), 1, e.getMessage());
+                continue;
+            } catch (DateTimeParseException e) {
+                reject(report, reader.recordLine(), 1, "날짜 형식이 잘못되었습니다: " + e.getParsedString());
+                continue;
+            }
+            if (batch.size() >= importBatchSize) {
+                save(batch, restore, batchFirstLine, report, start);
+                batch = new ArrayList<>(importBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            save(batch, restore, batchFirstLine, report, start);
+        }
+
+        // 3. 걸린 시간과 초당 처리량 기록
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        report.setElapsedMillis(elapsedMillis);
+        report.setRowsPerSecond((report.getImported() + report.getRejected()) * 1000 / elapsedMillis);
+        log.info("CSV {} 완료: 저장 {}행, 건너뜀 {}행, {}ms, 초당 {}행", restore ? "복원" : "가져오기",
+                report.getImported(), report.getRejected(), elapsedMillis, report.getRowsPerSecond());
+        return report;
+    }
+
+    // 한 묶음을 저장 (비밀번호 해시는 전용 스레드 풀에서 나누어 계산, 저장은 한 트랜잭션)
+    // 복원은 백업의 비밀번호 해시와 ID / 버전을 그대로 저장한다
+    // 저장에 실패하면 묶음의 첫 줄 번호와 이유를 기록하고 그 행 수만큼 건너뛴 것으로 센다
+    private void save(List<CalendarModel> batch, boolean restore, long firstLine,
+                      CalendarImportResponseDto report, long start) {
+        try {
+            if (restore) {
+                calendarRepository.restoreCalendars(batch, chunkSize);
+            } else {
+                List<String> passwords = passwordService.hashAllIfPlain(
+                        batch.stream().map(CalendarModel::getPassword).toList());
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).setPassword(passwords.get(i));
+                }
+                calendarRepository.createCalendars(batch, chunkSize);
+            }
+        } catch (RuntimeException e) {
+            log.warn("CSV 가져오기 묶음 저장 실패: {}번째 줄부터 {}행", firstLine, batch.size(), e);
+            // 한 트랜잭션이 아닌 저장소(샤드별 커밋 등)는 일부가 저장되었을 수 있음
+            String partial = calendarRepository.isBatchAtomic() ? "" : " (일부는 저장되었을 수 있습니다)";
+            reject(report, firstLine, batch.size(),
+                    "이 줄부터 " + batch.size() + "행을 저장하지 못했습니다" + partial + ": " + e.getMessage());
+            return;
+        }
+        if (restore) {
+            calendarService.afterRestored(batch);
+        } else {
+            calendarService.afterCreated(batch);
+        }
+
+        report.setImported(report.getImported() + batch.size());
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("CSV 가져오기 진행: 저장 {}행, 건너뜀 {}행, 초당 {}행",
+                report.getImported(), report.getRejected(), report.getImported() * 1000 / elapsedMillis);
+    }
+
+    // 백업 내보내기 / 복원이 꺼져 있으면 CalendarRestoreDisabledException (403)
+    // 컨트롤러는 백업 응답 헤더를 쓰기 전에 이 메서드로 먼저 확인한다
+    public void checkRestoreEnabled() {
+        if (!restoreEnabled) {
+            throw new CalendarRestoreDisabledException(
+                    "백업 내보내기 / 복원이 꺼져 있습니다. (calendar.csv.restore-enabled=true 로 켜야 합니다)");
+        }
+    }
+
+    // line 부터 rows 개의 실패한 행을 기록 (응답에는 앞에서부터 정해진 개수까지만 담음)
+    private static void reject(CalendarImportResponseDto report, long line, long rows, String message) {
+        report.setRejected(report.getRejected() + rows);
+        if (report.getRejectedRows().size() < MAX_REPORTED_REJECTIONS) {
+            report.getRejectedRows().add(new CalendarImportResponseDto.RowError(line, message));
+        }
+    }
+
+    // 헤더에서 찾은 열 위치와 한 행을 일정으로 바꾸는 방법
+    // 복원(restore)이면 BACKUP_COLUMNS 가 모두 필수이고 id / version 도 읽는다
+    private static final class Columns {
+        private final boolean restore;
+        private final int id;
+        private final int author;
+        private final int todolist;
+        private final int password;
+        private final int createDate;
+        private final int updateDate;
+        private final int version;
+
+        private Columns(List<String> header, boolean restore) {
+            List<String> names = header.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+            if (restore) {
+                for (String column : BACKUP_COLUMNS) {
+                    required(names, column);
+                }
+            }
+            this.restore = restore;
+            this.id = names.indexOf("id");
+            this.author = required(names, "author");
+            this.todolist = required(names, "todolist");
+            this.password = names.indexOf("password");
+            if (password < 0) {
+                throw new IllegalArgumentException("필수 열이 없습니다: password"
+                        + " (내보낸 파일에는 비밀번호가 없으므로 password 열을 추가해야 가져올 수 있습니다)");
+            }
+            this.createDate = names.indexOf("createdate");
+            this.updateDate = names.indexOf("updatedate");
+            this.version = names.indexOf("version");
+        }
+
+        private static int required(List<String> names, String name) {
+            int index = names.indexOf(name.toLowerCase(Locale.ROOT));
+            if (index < 0) {
+                throw new IllegalArgumentException("필수 열이 없습니다: " + name);
+            }
+            return index;
+        }
+
+        // 한 행을 검증하고 일정 모델로 변환 (문제가 있으면 IllegalArgumentException / DateTimeParseException)
+        private CalendarModel toModel(List<String> record) {
+            CalendarRequestDto requestDto = new CalendarRequestDto();
+            requestDto.setAuthor(field(record, author));
+            requestDto.setTodolist(field(record, todolist));
+            requestDto.setPassword(field(record, password));
+            String error = CalendarService.validate(requestDto);
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+
+            CalendarModel model = CalendarModel.from(requestDto);
+            LocalDateTime created = dateTime(record, createDate);
+            LocalDateTime updated = dateTime(record, updateDate);
+            if (restore) {
+                // 백업의 값을 그대로 저장하므로 비어 있는 값을 채우지 않는다
+                if (created == null || updated == null) {
+                    throw new IllegalArgumentException("복원할 일정은 createDate / updateDate 가 필수입니다.");
+                }
+                model.setId(number(record, id, "id", 1));
+                model.setVersion(number(record, version, "version", 0));
+                model.setCreateDate(created);
+                model.setUpdateDate(updated);
+                return model;
+            }
+            if (created != null) {
+                model.setCreateDate(created);
+            }
+            if (updated != null) {
+                model.setUpdateDate(updated);
+            } else if (created != null) {
+                model.setUpdateDate(created);
+            }
+            return model;
+        }
+
+        // min 이상의 정수 (열이 비어 있거나 숫자가 아니면 IllegalArgumentException)
+        private static long number(List<String> record, int index, String name, long min) {
+            String value = field(record, index);
+            try {
+                long number = Long.parseLong(value == null ? "" : value.trim());
+                if (number >= min) {
+                    return number;
+                }
+            } catch (NumberFormatException ignored) {
+                // 아래에서 같은 메시지로 처리
+            }
+            throw new IllegalArgumentException(name + " 는 " + min + " 이상의 정수여야 합니다: " + value);
+        }
+
+        private static String field(List<String> record, int index) {
+            return index >= 0 && index < record.size() ? record.get(index) : null;
+        }
+
+        // ISO 형식 날짜/시간 (예: 2025-03-01T12:30:15), 열이 없거나 비어 있으면 null
+        private static LocalDateTime dateTime(List<String> record, int index) {
+            String value = field(record, index);
+            return value == null || value.isBlank() || value.equals("null") ? null : LocalDateTime.parse(value.trim());
+        }
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. 스트리밍 내보내기
+앞으로만 이동하는 커서(streamCalendars)로 한 행씩 읽어서 바로 CSV 로 쓴다
+목록을 만들지 않으므로 테이블이 아무리 커도 메모리 사용량은 쓰기 버퍼 크기 정도로 일정하다
+
+2. 묶음(batch) 단위 가져오기
+요청 본문을 한 행씩 읽어서 importBatchSize 개가 모이면 한 트랜잭션으로 저장하고 묶음을 비운다
+행마다 커밋하면 커밋 비용이 너무 크고, 전체를 한 트랜잭션으로 하면 실패했을 때 모두 되돌아가고 잠금이 오래 유지된다
+실패한 행은 건너뛰고 줄 번호만 기억하며, 응답에 담는 실패 행 수도 제한해서 메모리가 늘어나지 않게 한다
+
+3. 오류 처리
+파일 형식 오류(reader.next)는 더 읽을 수 없으므로 멈추고, 행 검증 실패는 그 행만, 저장 실패는 그 묶음만 건너뛴다
+저장 실패를 형식 오류와 같은 catch 로 잡으면 같은 묶음을 다시 저장하거나 보고서가 형식 오류로 잘못 표시된다
+
+4. 내보내기 / 가져오기와 백업 / 복원
+내보내기는 비밀번호 해시를 담지 않고 가져오기는 새 ID 를 만든다 (보고 / 다른 서버로 옮기기용, 같은 파일로 왕복할 수 없음)
+백업 / 복원은 ID / 버전 / 비밀번호 해시를 그대로 옮기므로 복원한 일정은 원래 비밀번호로 수정 / 삭제할 수 있다
+ - 해시가 담긴 파일은 오프라인 대입 공격의 재료가 되므로 calendar.csv.restore-enabled 로 켠 서버에서만 허용한다 (꺼져 있으면 403)
+ - 이미 있는 ID 가 들어있는 묶음은 기본 키 중복으로 저장하지 않으므로 같은 파일을 다시 복원해도 일정이 두 번 생기지 않는다
+ - 샤드 저장소에서는 ID 에 샤드 번호가 들어있으므로, 지금의 샤드 구성에서 작성자가 다른 샤드로 가는 일정은 복원하지 않는다
+
+5. 처리량 보고
+가져오기는 응답에 걸린 시간과 초당 행 수를 담고, 묶음마다 진행 상황을 로그로 남긴다
+내보내기는 응답을 이미 보내고 있으므로 끝난 뒤 로그로 남긴다
+ */
@@ -0,0 +1,249 @@
+package com.sparta.calendarproject.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+// 일정 비밀번호의 해시 생성과 확인을 담당하는 클래스
+// 비밀번호는 BCrypt(솔트 + 반복 횟수 조절 가능)로 저장하고,
+// 최근에 확인에 성공한 결과를 잠시 기억해서 같은 비밀번호로 반복되는 수정/삭제 요청의 CPU 비용을 줄인다
+@Component  // Spring이 빈으로 등록하게 하는 어노테이션
+public class CalendarPasswordService {
+
+    // 확인 캐시에 저장할 지문(fingerprint)을 만드는 알고리즘
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
+    // BCrypt 가 사용하는 비밀번호 최대 길이 (UTF-8 바이트 수, 넘으면 encode 가 IllegalArgumentException 발생)
+    // 한글은 한 글자가 3바이트라서 24자 정도면 넘는다
+    public static final int MAX_PASSWORD_BYTES = 72;
+
+    // BCrypt 해시 생성 / 확인기
+    private final BCryptPasswordEncoder encoder;
+
+    // 일정 ID -> 최근 확인에 성공한 (저장된 해시, 입력 비밀번호 지문)
+    // 확인 캐시를 끄면 null
+    private final Cache<Long, Verification> verifications;
+
+    // 지문 생성용 비밀 키 (프로세스마다 새로 만들어서 메모리 밖으로 나가지 않음)
+    private final SecretKeySpec fingerprintKey;
+
+    // 여러 비밀번호를 한 번에 해시할 때 쓰는 전용 스레드 풀 (일괄 생성 / CSV 가져오기)
+    // 공용 ForkJoin 풀(parallelStream)을 쓰면 큰 요청 하나가 모든 코어를 차지해서 다른 요청까지 느려지므로 스레드 수를 제한한다
+    private final ExecutorService hashExecutor;
+
+    private final int hashThreads;
+
+    // 생성자를 통한 의존성 주입
+    // 작업 강도(work factor)와 확인 캐시 크기 / 보관 시간, 일괄 해시 스레드 수는 설정으로 조절 (0 이하면 코어 수의 절반)
+    public CalendarPasswordService(@Value("${calendar.password.bcrypt-strength:10}") int strength,
+                                   @Value("${calendar.password.verification-cache.enabled:true}") boolean cacheEnabled,
+                                   @Value("${calendar.password.verification-cache.maximum-size:10000}") long maximumSize,
+                                   @Value("${calendar.password.verification-cache.ttl:60s}") Duration ttl,
+                                   @Value("${calendar.password.hash-threads:0}") int hashThreads) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.hashThreads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashExecutor = Executors.newFixedThreadPool(this.hashThreads, runnable -> {
+            Thread thread = new Thread(runnable, "calendar-password-hash-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.verifications = cacheEnabled
+                ? Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build()
+                : null;
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.fingerprintKey = new SecretKeySpec(key, FINGERPRINT_ALGORITHM);
+    }
+
+    // 새 비밀번호를 저장용 해시로 변환
+    public String hash(String rawPassword) {
+        return encoder.encode(rawPassword);
+    }
+
+    // BCrypt 로 해시할 수 있는 길이인지 확인 (UTF-8 로 72바이트 이하)
+    public static boolean fitsBcrypt(String rawPassword) {
+        return rawPassword.getBytes(StandardCharsets.UTF_8).length <= MAX_PASSWORD_BYTES;
+    }
+
+    // 여러 비밀번호를 해시로 변환 (입력 순서대로)
+    // 전용 스레드 풀에서 최대 hashThreads 개로 나누어 계산하므로 동시에 여러 요청이 와도 해시에 쓰는 코어 수가 제한된다
+    public List<String> hashAll(List<String> rawPasswords) {
+        return mapAll(rawPasswords, this::hash);
+    }
+
+    // 최근에 같은 일정, 같은 비밀번호로 확인에 성공했다면 그때의 저장된 해시를 반환 (없으면 null)
+    // 데이터베이스 조회와 BCrypt 계산 없이 바로 조건부 수정/삭제를 시도할 수 있다
+    // 그 사이에 저장된 값이 바뀌었다면 조건부 쿼리가 실패하므로 잘못 허용될 일은 없다
+    public String cachedStoredValue(Long id, String rawPassword) {
+        if (verifications == null || rawPassword == null) {
+            return null;
+        }
+        Verification verification = verifications.getIfPresent(id);
+        if (verification == null || !MessageDigest.isEqual(verification.fingerprint, fingerprint(rawPassword))) {
+            return null;
+        }
+        return verification.storedValue;
+    }
+
+    // 가져오기(CSV) 용: 이미 BCrypt 해시인 값은 그대로, 평문은 해시로 변환
+    // 다른 서버에서 옮겨오는 일정은 원래 비밀번호를 알 수 없으므로 저장된 해시를 그대로 받는다
+    public String hashIfPlain(String value) {
+        return isHashed(value) ? value : encoder.encode(value);
+    }
+
+    // 여러 값에 hashIfPlain 을 적용 (입력 순서대로, hashAll 과 같은 전용 스레드 풀 사용)
+    public List<String> hashAllIfPlain(List<String> values) {
+        return mapAll(values, this::hashIfPlain);
+    }
+
+    // 입력 비밀번호가 저장된 값과 일치하는지 확인하고, 성공하면 결과를 기억
+    // 예전 평문으로 저장된 값도 지문끼리 상수 시간으로 비교해서 확인
+    public boolean matches(Long id, String rawPassword, String storedValue) {
+        if (rawPassword == null || storedValue == null) {
+            return false;
+        }
+        // 72바이트를 넘는 비밀번호로는 해시를 만들 수 없으므로 BCrypt 해시와 일치할 수 없음 (예외 대신 불일치)
+        boolean matched = isHashed(storedValue)
+                ? fitsBcrypt(rawPassword) && encoder.matches(rawPassword, storedValue)
+                : MessageDigest.isEqual(fingerprint(storedValue), fingerprint(rawPassword));
+        if (matched) {
+            remember(id, rawPassword, storedValue);
+        }
+        return matched;
+    }
+
+    // 평문으로 저장되어 있거나 현재 설정보다 약한 강도의 해시라서 다시 해시해야 하는지 확인
+    public boolean needsRehash(String storedValue) {
+        return !isHashed(storedValue) || encoder.upgradeEncoding(storedValue);
+    }
+
+    // 확인에 성공한 결과를 캐시에 저장 (입력 비밀번호 자체가 아니라 지문만 저장)
+    public void remember(Long id, String rawPassword, String storedValue) {
+        if (verifications != null) {
+            verifications.put(id, new Verification(storedValue, fingerprint(rawPassword)));
+        }
+    }
+
+    // 일정이 삭제되거나 저장된 비밀번호가 바뀐 경우 캐시에서 제거
+    public void invalidate(Long id) {
+        if (verifications != null) {
+            verifications.invalidate(id);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        hashExecutor.shutdownNow();
+    }
+
+    // values 를 hashThreads 개 이하의 묶음으로 나누어 전용 스레드 풀에서 변환하고 끝날 때까지 기다림
+    private List<String> mapAll(List<String> values, UnaryOperator<String> function) {
+        if (values.size() <= 1) {
+            return values.stream().map(function).toList();
+        }
+        int parts = Math.min(hashThreads, values.size());
+        List<Future<List<String>>> futures = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            List<String> part = values.subList(values.size() * i / parts, values.size() * (i + 1) / parts);
+            futures.add(hashExecutor.submit(() -> part.stream().map(function).toList()));
+        }
+
+        List<String> results = new ArrayList<>(values.size());
+        try {
+            for (Future<List<String>> future : futures) {
+                results.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("비밀번호 해시 계산이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("비밀번호 해시 계산에 실패했습니다.", e.getCause());
+        }
+        return results;
+    }
+
+    // BCrypt 해시 형식($2a$, $2b$, $2y$)인지 확인
+    private static boolean isHashed(String storedValue) {
+        return storedValue.startsWith("$2a$") || storedValue.startsWith("$2b$") || storedValue.startsWith("$2y$");
+    }
+
+    // 프로세스 전용 비밀 키로 만든 HMAC 지문 (길이가 항상 같아서 상수 시간 비교가 가능)
+    private byte[] fingerprint(String value) {
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(fingerprintKey);
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("비밀번호 지문을 만들 수 없습니다.", e);
+        }
+    }
+
+    // 확인에 성공했을 때의 저장된 값과 입력 비밀번호 지문
+    private static final class Verification {
+        private final String storedValue;
+        private final byte[] fingerprint;
+
+        private Verification(String storedValue, byte[] fingerprint) {
+            this.storedValue = storedValue;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. 왜 평문 대신 해시로 저장하는가?
+데이터베이스가 유출되더라도 원래 비밀번호를 알 수 없도록 하기 위해서
+BCrypt 는 비밀번호마다 다른 솔트(salt)를 붙이고, 강도(strength)만큼 계산을 반복해서
+무차별 대입 공격을 느리게 만든다
+
+2. 점진적(lazy) 마이그레이션
+기존에 평문으로 저장된 일정은 그대로 두고, 처음으로 비밀번호 확인에 성공할 때 해시로 바꿔 저장한다
+한 번에 전체 테이블을 바꾸지 않아도 되고, 서비스 중단도 필요 없다
+
+3. 확인 캐시
+BCrypt 확인은 일부러 느리게 만든 계산이라 수정/삭제 요청이 많으면 CPU 가 병목이 된다
+최근 성공한 확인 결과를 잠시 기억해서 같은 비밀번호가 다시 오면 계산을 건너뛴다
+캐시에는 비밀번호가 아니라 프로세스 전용 키로 만든 HMAC 지문만 저장한다
+크기 제한과 짧은 보관 시간으로 메모리 사용량을 제한한다
+
+4. 상수 시간 비교
+MessageDigest.isEqual 은 값이 어디서 달라지든 같은 시간이 걸려서
+응답 시간으로 비밀번호를 추측하는 타이밍 공격을 막는다
+
+5. 일괄 해시용 전용 스레드 풀
+parallelStream 은 JVM 전체가 함께 쓰는 ForkJoin 공용 풀에서 실행되어 큰 일괄 요청 하나가 모든 코어를 차지한다
+크기가 정해진 전용 풀에 나누어 맡기면 해시에 쓰는 코어 수가 제한되고, 나머지 요청은 남은 코어에서 처리된다
+
+6. BCrypt 72바이트 제한
+BCrypt 는 비밀번호의 앞 72바이트만 사용하고, Spring Security 6.4 부터는 더 긴 값을 encode 하면 예외가 발생한다
+글자 수가 아니라 UTF-8 바이트 수로 검사해야 한글 비밀번호도 올바르게 걸러낸다
+ */
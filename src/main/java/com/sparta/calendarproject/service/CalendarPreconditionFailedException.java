@@ -0,0 +1,10 @@
+package com.sparta.calendarproject.service;
+
+// 수정 요청의 If-Match 에 이 일정과 맞을 수 있는 강한(strong) ETag 가 하나도 없을 때 발생하는 예외
+// 약한(W/) ETag 나 다른 일정 / 형식의 ETag 는 강한 비교에서 일치하지 않으므로, 컨트롤러에서 412 Precondition Failed 로 응답한다
+public class CalendarPreconditionFailedException extends RuntimeException {
+
+    public CalendarPreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.sparta.calendarproject.service;
+
+// 백업 내보내기 / 복원이 설정(calendar.csv.restore-enabled)으로 꺼져 있는데 요청했을 때 발생하는 예외
+// 백업 파일에는 비밀번호 해시가 들어있으므로 켜지 않은 서버에서는 받지 않으며, 컨트롤러에서 403 Forbidden 으로 응답한다
+public class CalendarRestoreDisabledException extends RuntimeException {
+
+    public CalendarRestoreDisabledException(String message) {
+        super(message);
+    }
+}
@@ -1,12 +1,41 @@
 package com.sparta.calendarproject.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sparta.calendarproject.cache.CalendarCache;
+import com.sparta.calendarproject.datasource.DataSourceRouting;
+import com.sparta.calendarproject.dto.CacheStatsResponseDto;
+import com.sparta.calendarproject.dto.CalendarBatchResponseDto;
+import com.sparta.calendarproject.dto.CalendarCursor;
+import com.sparta.calendarproject.dto.CalendarDailyStatsDto;
+import com.sparta.calendarproject.dto.CalendarPageResponseDto;
 import com.sparta.calendarproject.dto.CalendarRequestDto;
 import com.sparta.calendarproject.dto.CalendarResponseDto;
+import com.sparta.calendarproject.dto.CalendarSearchCursor;
+import com.sparta.calendarproject.feed.CalendarChangeFeed;
 import com.sparta.calendarproject.model.CalendarModel;
+import com.sparta.calendarproject.repository.CalendarGroupCommitter;
 import com.sparta.calendarproject.repository.CalendarRepository;
+import com.sparta.calendarproject.search.CalendarSearchIndex;
+import com.sparta.calendarproject.search.SearchHit;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 // 비즈니스 로직을 처리하는 서비스 계층
@@ -14,79 +43,496 @@ import java.util.stream.Collectors;
 @Service  // Spring이 서비스 컴포넌트로 인식하게 하는 어노테이션
 public class CalendarService {
 
+    // 한 번에 조회할 수 있는 최대 일정 개수
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // 통계 조회 기간을 지정하지 않았을 때 기본 일 수 (오늘 포함)
+    private static final int DEFAULT_STATS_DAYS = 30;
+
+    // 통계 한 번에 조회할 수 있는 최대 일 수
+    private static final int MAX_STATS_DAYS = 366;
+
+    // 스트리밍 응답에서 몇 행마다 클라이언트로 내보낼지(flush) 정하는 간격
+    private static final int STREAM_FLUSH_INTERVAL = 256;
+
+    // 일정 ETag 에 붙이는 응답 형식 이름
+    public static final String JSON_FORMAT = "json";
+    public static final String CBOR_FORMAT = "cbor";
+
     // 데이터베이스 접근을 위한 레포지토리 객체
     private final CalendarRepository calendarRepository;
 
+    // ID로 조회한 일정을 보관하는 읽기 캐시
+    private final CalendarCache calendarCache;
+
+    // 비밀번호 해시 생성과 확인
+    private final CalendarPasswordService passwordService;
+
+    // 할 일 / 작성자 검색용 역색인
+    private final CalendarSearchIndex searchIndex;
+
+    // 일정 생성 요청을 모아서 한 트랜잭션으로 저장하는 그룹 커밋 처리기 (설정으로 켰을 때만 사용)
+    private final CalendarGroupCommitter groupCommitter;
+
+    // 일정 변경을 구독자들에게 알려주는 변경 알림 (SSE)
+    private final CalendarChangeFeed changeFeed;
+
+    // 스트리밍 응답에서 일정을 한 건씩 JSON 으로 변환하기 위한 ObjectMapper
+    private final ObjectMapper objectMapper;
+
+    // 일괄 생성 시 한 번의 JDBC 배치로 보낼 일정 개수
+    private final int batchChunkSize;
+
+    // 일괄 생성 요청 한 번에 받을 수 있는 최대 일정 개수
+    private final int batchMaxItems;
+
     // 생성자를 통한 의존성 주입
-    // CalendarRepository 객체를 외부에서 받아 초기화
-    public CalendarService(CalendarRepository calendarRepository) {
+    // CalendarRepository, CalendarCache, CalendarPasswordService, CalendarSearchIndex, CalendarGroupCommitter,
+    // CalendarChangeFeed, ObjectMapper 객체와 일괄 생성 설정을 외부에서 받아 초기화
+    public CalendarService(CalendarRepository calendarRepository,
+                           CalendarCache calendarCache,
+                           CalendarPasswordService passwordService,
+                           CalendarSearchIndex searchIndex,
+                           CalendarGroupCommitter groupCommitter,
+                           CalendarChangeFeed changeFeed,
+                           ObjectMapper objectMapper,
+                           @Value("${calendar.batch.chunk-size:500}") int batchChunkSize,
+                           @Value("${calendar.batch.max-items:10000}") int batchMaxItems) {
         this.calendarRepository = calendarRepository;
+        this.calendarCache = calendarCache;
+        this.passwordService = passwordService;
+        this.searchIndex = searchIndex;
+        this.groupCommitter = groupCommitter;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
+        this.batchChunkSize = batchChunkSize;
+        this.batchMaxItems = batchMaxItems;
     }
 
     // 새로운 일정을 생성하는 메서드
     public CalendarResponseDto createCalendar(CalendarRequestDto requestDto) {
-        // 1. RequestDto를 Model로 변환
+        // 1. 요청 검증 (문제가 있으면 IllegalArgumentException 으로 400 Bad Request)
+        String error = validate(requestDto);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+
+        // 2. RequestDto를 Model로 변환하고 비밀번호는 해시로 바꿔서 저장
         CalendarModel model = CalendarModel.from(requestDto);
+        model.setPassword(passwordService.hash(requestDto.getPassword()));
+
+        // 3. 레포지토리를 통해 데이터베이스에 저장
+        // 그룹 커밋 모드에서는 다른 요청들과 한 트랜잭션으로 묶여 저장되고, 커밋된 뒤에 반환된다
+        CalendarModel savedModel = groupCommitter.isEnabled()
+                ? groupCommitter.create(model)
+                : calendarRepository.createCalendar(model);
 
-        // 2. 레포지토리를 통해 데이터베이스에 저장
-        CalendarModel savedModel = calendarRepository.createCalendar(model);
+        // 4. 검색 색인에 추가하고 커밋된 생성을 구독자들에게 알림
+        searchIndex.index(savedModel);
+        changeFeed.publish(CalendarChangeFeed.CREATED, savedModel);
 
-        // 3. 저장된 Model을 ResponseDto로 변환하여 반환
+        // 5. 저장된 Model을 ResponseDto로 변환하여 반환
         return CalendarResponseDto.fromModel(savedModel);
     }
 
-    // 모든 일정을 조회하는 메서드
+    // 여러 일정을 한 번에 생성하는 메서드
+    // 검증에 실패한 항목은 건너뛰고 나머지만 배치로 저장하며, 실패한 항목은 위치와 이유를 알려준다
+    public CalendarBatchResponseDto createCalendars(List<CalendarRequestDto> requestDtos) {
+        // 1. 요청 개수 제한 확인
+        if (requestDtos.size() > batchMaxItems) {
+            throw new IllegalArgumentException("한 번에 생성할 수 있는 일정은 최대 " + batchMaxItems + "개입니다.");
+        }
+
+        // 2. 항목별 검증 후 통과한 항목만 Model로 변환
+        Long[] ids = new Long[requestDtos.size()];
+        List<CalendarBatchResponseDto.ItemError> errors = new ArrayList<>();
+        List<CalendarModel> models = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < requestDtos.size(); i++) {
+            String error = validate(requestDtos.get(i));
+            if (error != null) {
+                errors.add(new CalendarBatchResponseDto.ItemError(i, error));
+                continue;
+            }
+            models.add(CalendarModel.from(requestDtos.get(i)));
+            positions.add(i);
+        }
+
+        // 3. 비밀번호를 해시로 바꾼 뒤 레포지토리를 통해 배치로 저장
+        // BCrypt 는 일부러 느린 계산이라 항목이 많으면 크기가 제한된 전용 스레드 풀에서 나누어 계산
+        List<String> hashes = passwordService.hashAll(models.stream().map(CalendarModel::getPassword).toList());
+        for (int i = 0; i < models.size(); i++) {
+            models.get(i).setPassword(hashes.get(i));
+        }
+        calendarRepository.createCalendars(models, batchChunkSize);
+
+        // 4. 생성된 ID를 요청 순서의 위치에 채우고 검색 색인 / 변경 알림에 반영
+        for (int i = 0; i < models.size(); i++) {
+            ids[positions.get(i)] = models.get(i).getId();
+        }
+        afterCreated(models);
+        return CalendarBatchResponseDto.of(ids, errors);
+    }
+
+    // 저장(커밋)이 끝난 일정들을 검색 색인에 추가하고 구독자들에게 알리는 메서드
+    // 일괄 생성과 CSV 가져오기가 함께 사용 (많으면 구독자에게는 reset 이벤트 하나로 알림)
+    public void afterCreated(List<CalendarModel> models) {
+        for (CalendarModel model : models) {
+            searchIndex.index(model);
+        }
+        changeFeed.publishAll(CalendarChangeFeed.CREATED, models);
+    }
+
+    // 백업에서 복원한 일정들을 검색 색인에 추가하고 구독자들에게 알리는 메서드 (CSV 복원용)
+    // 구독자에게는 생성과 같은 이벤트로 알린다 (구독자 입장에서는 새로 생긴 일정)
+    public void afterRestored(List<CalendarModel> models) {
+        for (CalendarModel model : models) {
+            searchIndex.restore(model);
+        }
+        changeFeed.publishAll(CalendarChangeFeed.CREATED, models);
+    }
+
+    // 일정 생성 요청 한 건을 검증하는 메서드
+    // 문제가 없으면 null, 있으면 실패 이유를 반환 (컬럼 길이 제한은 테이블 정의와 같음)
+    static String validate(CalendarRequestDto requestDto) {
+        if (requestDto == null) {
+            return "빈 요청입니다.";
+        }
+        if (requestDto.getAuthor() == null || requestDto.getAuthor().isBlank()) {
+            return "작성자는 필수입니다.";
+        }
+        if (requestDto.getAuthor().length() > 100) {
+            return "작성자는 100자 이하여야 합니다.";
+        }
+        if (requestDto.getTodolist() == null || requestDto.getTodolist().isBlank()) {
+            return "할 일은 필수입니다.";
+        }
+        if (requestDto.getTodolist().length() > 255) {
+            return "할 일은 255자 이하여야 합니다.";
+        }
+        if (requestDto.getPassword() == null || requestDto.getPassword().isEmpty()) {
+            return "비밀번호는 필수입니다.";
+        }
+        if (!CalendarPasswordService.fitsBcrypt(requestDto.getPassword())) {
+            return "비밀번호는 UTF-8 기준 " + CalendarPasswordService.MAX_PASSWORD_BYTES
+                    + "바이트 이하여야 합니다. (영문 / 숫자 72자, 한글 24자)";
+        }
+        return null;
+    }
+
+    // 일정 목록을 한 페이지씩 조회하는 메서드
     // 작성자와 업데이트 날짜로 필터링 가능
-    public List<CalendarResponseDto> getAllCalendars(String author, String updateDate) {
-        // 1. 레포지토리에서 일정 목록 조회
-        // 2. 각 Model을 ResponseDto로 변환
-        // 3. 변환된 목록을 List로 수집
-        return calendarRepository.getAllCalendars(author, updateDate)
-                .stream()
+    public CalendarPageResponseDto getAllCalendars(String author, String updateDate, String cursor, int limit) {
+        // 1. 페이지 크기를 허용 범위(1 ~ MAX_PAGE_SIZE)로 보정
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        // 2. 클라이언트가 보낸 커서를 해석 (첫 페이지면 커서 없음)
+        CalendarCursor after = (cursor == null || cursor.isEmpty()) ? null : CalendarCursor.decode(cursor);
+
+        // 3. 다음 페이지 존재 여부를 알기 위해 한 개를 더 조회
+        List<CalendarModel> rows = calendarRepository.getAllCalendars(author, updateDate, after, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<CalendarModel> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        // 4. 각 Model을 ResponseDto로 변환하고, 다음 페이지가 있으면 마지막 일정으로 커서 생성
+        List<CalendarResponseDto> items = page.stream()
+                .map(CalendarResponseDto::fromModel)
+                .collect(Collectors.toList());
+        String nextCursor = hasNext ? CalendarCursor.from(page.get(page.size() - 1)).encode() : null;
+
+        return CalendarPageResponseDto.of(items, nextCursor);
+    }
+
+    // 작성자별 / 날짜별 일정 수를 조회하는 메서드
+    // from / to 는 yyyy-MM-dd 형식 (생략하면 오늘까지 최근 30일), author 를 주면 해당 작성자만
+    public List<CalendarDailyStatsDto> getDailyStats(String from, String to, String author) {
+        // 1. 기간 해석 (Date.valueOf 는 형식이 잘못되면 IllegalArgumentException 발생)
+        LocalDate toDay = (to == null || to.isEmpty()) ? LocalDate.now() : Date.valueOf(to).toLocalDate();
+        LocalDate fromDay = (from == null || from.isEmpty())
+                ? toDay.minusDays(DEFAULT_STATS_DAYS - 1)
+                : Date.valueOf(from).toLocalDate();
+
+        // 2. 기간 검증
+        if (fromDay.isAfter(toDay)) {
+            throw new IllegalArgumentException("시작 날짜가 끝 날짜보다 늦습니다.");
+        }
+        if (fromDay.plusDays(MAX_STATS_DAYS).isBefore(toDay.plusDays(1))) {
+            throw new IllegalArgumentException("통계는 한 번에 최대 " + MAX_STATS_DAYS + "일까지 조회할 수 있습니다.");
+        }
+
+        // 3. 요약 테이블에서 조회
+        return calendarRepository.getDailyStats(fromDay, toDay, author);
+    }
+
+    // 목록 조회 결과의 ETag 를 계산하는 메서드 (format 은 응답 형식, JSON_FORMAT / CBOR_FORMAT)
+    // 응답할 페이지 범위(getAllCalendars 와 같은 커서 다음 pageSize + 1 개)의 (ID, 버전)만 인덱스에서 읽어서 만들기 때문에
+    // If-None-Match 가 일치하면 목록 조회와 JSON 변환 없이 304 Not Modified 로 응답할 수 있다
+    // 버전은 데이터에서 계산하므로 여러 인스턴스가 같은 ETag 를 내고, 재시작해도 바뀐 목록과 섞이지 않는다
+    // 단건 ETag 와 같이 JSON 과 CBOR 응답은 바이트가 다르므로 형식마다 다른 강한(strong) ETag 로 내려준다
+    public String getListETag(String author, String updateDate, String cursor, int limit, String format) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        CalendarCursor after = (cursor == null || cursor.isEmpty()) ? null : CalendarCursor.decode(cursor);
+        String version = calendarRepository.getListVersion(author, updateDate, after, pageSize + 1);
+        String hash = eTag("list", author, updateDate, cursor, String.valueOf(pageSize), version);
+        // "해시.형식" (eTag 가 붙인 따옴표 안에 형식을 덧붙임)
+        return hash.substring(0, hash.length() - 1) + "." + format + "\"";
+    }
+
+    // 일정 한 건의 강한(strong) ETag ("ID.버전.형식")
+    // 버전은 수정될 때마다 1씩 증가하므로 같은 초 안에 여러 번 수정된 경우도 구분되고,
+    // 수정 요청의 If-Match 로 돌아오면 그대로 기대 버전으로 사용할 수 있다
+    // 같은 버전이라도 JSON 과 CBOR 응답은 바이트가 다르므로 강한 ETag 도 형식마다 달라야 한다
+    public static String calendarETag(Long id, Long version, String format) {
+        return "\"" + id + "." + version + "." + format + "\"";
+    }
+
+    // If-Match 헤더에서 수정 요청이 기대하는 버전을 꺼내는 메서드
+    // 헤더가 없거나 "*" 이면 null (버전 확인 없이 수정)
+    // If-Match 는 강한 비교를 하므로 약한(W/) ETag 나 다른 일정 / 형식의 ETag 는 일치하지 않는 값으로 본다
+    // 여러 ETag 를 쉼표로 나열하면 그중 하나라도 저장된 버전과 같으면 일치
+    // - 일치할 수 있는 ETag 가 하나도 없으면 CalendarPreconditionFailedException (412)
+    // - 따옴표로 감싸지 않은 값처럼 ETag 형식이 아니면 IllegalArgumentException (400)
+    private Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String entry : ifMatch.split(",")) {
+            String value = entry.trim();
+            boolean weak = value.startsWith("W/");
+            String tag = weak ? value.substring(2) : value;
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                throw new IllegalArgumentException("잘못된 If-Match 값입니다: " + ifMatch);
+            }
+            Long version = weak ? null : taggedVersion(id, tag.substring(1, tag.length() - 1));
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new CalendarPreconditionFailedException("If-Match 에 이 일정의 강한 ETag 가 없습니다: " + ifMatch);
+        }
+        if (versions.size() == 1) {
+            return versions.get(0);
+        }
+        // 여러 버전 중 하나라도 맞으면 되므로 저장된 버전을 primary 에서 읽어서 그 버전을 기대 버전으로 사용
+        Long current = DataSourceRouting.primary(() -> calendarRepository.getCalendarById(id)).getVersion();
+        return versions.contains(current) ? current : versions.get(0);
+    }
+
+    // ETag 값("ID.버전.형식", 따옴표 제외)이 이 일정의 것이면 버전, 아니면 null
+    private static Long taggedVersion(Long id, String opaqueTag) {
+        String prefix = id + ".";
+        if (!opaqueTag.startsWith(prefix)) {
+            return null;
+        }
+        String rest = opaqueTag.substring(prefix.length());
+        int dot = rest.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String format = rest.substring(dot + 1);
+        if (!format.equals(JSON_FORMAT) && !format.equals(CBOR_FORMAT)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(rest.substring(0, dot));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // 주어진 값들로 강한(strong) ETag 문자열을 만드는 메서드 (SHA-256 앞 16바이트)
+    private static String eTag(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                // 값 사이 구분자 (("ab", "c") 와 ("a", "bc") 가 같은 ETag 가 되지 않게)
+                digest.update((byte) 0);
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 할 일과 작성자에서 검색어와 관련된 일정을 관련도 순으로 한 페이지씩 조회하는 메서드
+    public CalendarPageResponseDto searchCalendars(String query, String cursor, int limit) {
+        // 1. 페이지 크기를 허용 범위(1 ~ MAX_PAGE_SIZE)로 보정하고 커서 해석
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        CalendarSearchCursor after = (cursor == null || cursor.isEmpty()) ? null : CalendarSearchCursor.decode(cursor);
+
+        // 2. 색인에서 관련도 순으로 한 개를 더 조회 (다음 페이지 확인용)
+        List<SearchHit> hits = searchIndex.search(query, after, pageSize + 1);
+        boolean hasNext = hits.size() > pageSize;
+        List<SearchHit> page = hasNext ? hits.subList(0, pageSize) : hits;
+
+        // 3. 페이지의 일정을 캐시에서 한 번에 조회 (캐시에 없는 것만 IN 쿼리 한 번으로 읽음)
+        // 검색 직후 삭제된 일정은 결과에서 빠진다
+        Map<Long, CalendarModel> models = calendarCache.getAll(page.stream().map(SearchHit::getId).toList());
+        List<CalendarResponseDto> items = page.stream()
+                .map(hit -> models.get(hit.getId()))
+                .filter(Objects::nonNull)
                 .map(CalendarResponseDto::fromModel)
                 .collect(Collectors.toList());
+
+        // 4. 다음 페이지가 있으면 마지막 결과로 커서 생성
+        String nextCursor = null;
+        if (hasNext) {
+            SearchHit last = page.get(page.size() - 1);
+            nextCursor = new CalendarSearchCursor(last.getScore(), last.getId()).encode();
+        }
+        return CalendarPageResponseDto.of(items, nextCursor);
+    }
+
+    // 조건에 맞는 모든 일정을 NDJSON(한 줄에 JSON 하나) 형식으로 out 에 바로 써주는 메서드
+    // 목록을 만들지 않고 한 행씩 읽고 쓰기 때문에 행 수와 관계없이 메모리 사용량이 일정하다
+    public void streamCalendars(String author, String updateDate, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(CalendarResponseDto.class);
+        AtomicLong written = new AtomicLong();
+
+        calendarRepository.streamCalendars(author, updateDate, model -> {
+            try {
+                // 1. Model을 ResponseDto로 변환하여 한 줄로 기록
+                out.write(writer.writeValueAsBytes(CalendarResponseDto.fromModel(model)));
+                out.write('\n');
+
+                // 2. 첫 행은 즉시, 이후에는 일정 간격마다 클라이언트로 내보냄
+                if (written.getAndIncrement() % STREAM_FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // 클라이언트 연결이 끊어진 경우 조회를 중단하고 커넥션을 반환하도록 예외를 전파
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        // 남아있는 데이터를 모두 내보냄
+        out.flush();
+    }
+
+    // 일정 생성 / 수정 / 삭제 알림을 구독하는 메서드 (Server-Sent Events)
+    // author 가 있으면 그 작성자의 일정만, lastEventId 가 있으면 그 다음 이벤트부터 받는다
+    public SseEmitter subscribeChanges(String author, String lastEventId) {
+        return changeFeed.subscribe(author, lastEventId);
     }
 
     // 특정 ID의 일정을 조회하는 메서드
     public CalendarResponseDto getCalendarById(Long id) {
-        // 1. 레포지토리에서 일정 조회
+        // 1. 캐시에서 일정 조회 (없으면 레포지토리에서 읽어서 캐시에 채움)
         // 2. Model을 ResponseDto로 변환하여 반환
-        return CalendarResponseDto.fromModel(calendarRepository.getCalendarById(id));
+        return CalendarResponseDto.fromModel(calendarCache.get(id));
     }
 
     // 일정을 수정하는 메서드
-    public CalendarResponseDto updateCalendar(Long id, CalendarRequestDto requestDto) {
-        // 1. 저장된 비밀번호와 입력된 비밀번호 비교
-        String storedPassword = calendarRepository.getPasswordById(id);
-        if (!storedPassword.equals(requestDto.getPassword())) {
-            // 비밀번호가 일치하지 않으면 예외 발생
-            throw new IllegalArgumentException("비밀번호가 일치하지 않습니다.");
+    // ifMatch 에 조회할 때 받은 ETag 를 주면 그 사이에 다른 요청이 먼저 수정한 경우 CalendarConflictException 발생
+    // 이 일정의 강한 ETag 가 아닌 값(약한 ETag 등)만 있으면 CalendarPreconditionFailedException 발생
+    public CalendarResponseDto updateCalendar(Long id, CalendarRequestDto requestDto, String ifMatch) {
+        // 1. PUT 은 일정 전체를 바꾸는 요청이므로 생성과 같이 모든 필드를 검증 (빠진 필드를 이전 값으로 채우지 않음)
+        // 수정할 내용을 담은 모델 생성 (수정 시간은 현재 시간으로 갱신) 과 기대 버전 확인
+        String error = validate(requestDto);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
         }
+        CalendarModel changes = new CalendarModel();
+        changes.setId(id);
+        changes.update(requestDto);
+        Long expectedVersion = expectedVersion(id, ifMatch);
 
-        // 2. 수정할 일정 조회
-        CalendarModel model = calendarRepository.getCalendarById(id);
+        // 2. 비밀번호 확인 후, 확인한 저장값(과 기대 버전)이 그대로일 때만 수정 (조건부 UPDATE)
+        // 최근 확인에 성공한 비밀번호라면 조회와 해시 계산 없이 바로 UPDATE 한 번으로 끝난다
+        // 행을 잠그지 않으므로 같은 일정에 대한 동시 수정이 서로를 기다리지 않는다
+        // 쓰기 전에 읽는 값이므로 primary 에서 읽음 (방금 만든 일정을 replica 가 아직 모르면 "없는 일정" 으로 거절됨)
+        String storedPassword = DataSourceRouting.primary(() -> verifyPassword(id, requestDto.getPassword()));
+        if (!calendarRepository.updateCalendar(changes, storedPassword, expectedVersion)) {
+            // 다른 요청이 먼저 수정해서 버전이 바뀐 경우 (없는 일정이면 getCalendarById 가 예외 발생)
+            // 복제 지연으로 이전 버전을 보지 않도록 primary 에서 확인
+            if (expectedVersion != null && !expectedVersion.equals(
+                    DataSourceRouting.primary(() -> calendarRepository.getCalendarById(id)).getVersion())) {
+                throw new CalendarConflictException("다른 요청이 먼저 일정을 수정했습니다. 다시 조회한 뒤 수정해주세요.");
+            }
+            // 기억해둔 확인 결과가 오래된 경우(비밀번호 변경 / 삭제) 저장된 값을 primary 에서 다시 읽어 한 번 더 시도
+            passwordService.invalidate(id);
+            storedPassword = DataSourceRouting.primary(() -> verifyPassword(id, requestDto.getPassword()));
+            if (!calendarRepository.updateCalendar(changes, storedPassword, expectedVersion)) {
+                if (expectedVersion != null) {
+                    throw new CalendarConflictException("다른 요청이 먼저 일정을 수정했습니다. 다시 조회한 뒤 수정해주세요.");
+                }
+                throw new IllegalArgumentException("비밀번호가 일치하지 않습니다.");
+            }
+        }
 
-        // 3. 일정 내용 업데이트
-        model.update(requestDto);
+        // 3. 캐시에 남아있는 이전 내용 제거 (한동안은 캐시에 없을 때 replica 대신 primary 에서 읽음)
+        calendarCache.invalidate(id);
 
-        // 4. 업데이트된 일정 저장
-        calendarRepository.updateCalendar(model);
+        // 4. 생성 시간 등 저장된 값을 포함하도록 수정된 일정을 primary 에서 다시 읽고 (방금 쓴 값을 replica 가 아직 모를 수 있음)
+        // 캐시와 검색 색인을 갱신 (이후 조회가 복제 지연 중인 replica 에서 이전 내용을 다시 채우지 않도록 캐시에 바로 넣음)
+        // 캐시와 색인은 버전이 더 높을 때만 바꾸므로 동시 수정의 put 이 늦게 도착해도 최신 값이 남고, 그 사이 삭제되었으면 넣지 않는다
+        CalendarModel updated = DataSourceRouting.primary(() -> calendarRepository.getCalendarById(id));
+        calendarCache.put(updated);
+        searchIndex.index(updated);
+        changeFeed.publish(CalendarChangeFeed.UPDATED, updated);
 
-        // 5. 업데이트된 일정을 ResponseDto로 변환하여 반환
-        return CalendarResponseDto.fromModel(model);
+        // 5. ResponseDto로 변환하여 반환
+        return CalendarResponseDto.fromModel(updated);
     }
 
-    // 일정을 삭제하는 메서드
-    public void deleteCalendar(Long id, String password) {
-        // 1. 저장된 비밀번호와 입력된 비밀번호 비교
+    // 입력된 비밀번호를 확인하고, 조건부 수정/삭제에 사용할 저장된 비밀번호 값을 반환하는 메서드
+    // 해당 ID가 없거나 비밀번호가 일치하지 않으면 IllegalArgumentException 발생
+    private String verifyPassword(Long id, String rawPassword) {
+        // 1. 최근에 확인에 성공한 비밀번호면 바로 반환
+        String cached = passwordService.cachedStoredValue(id, rawPassword);
+        if (cached != null) {
+            return cached;
+        }
+
+        // 2. 저장된 비밀번호 조회 (없는 ID면 예외) 후 비교
         String storedPassword = calendarRepository.getPasswordById(id);
-        if (!storedPassword.equals(password)) {
-            // 비밀번호가 일치하지 않으면 예외 발생
+        if (!passwordService.matches(id, rawPassword, storedPassword)) {
             throw new IllegalArgumentException("비밀번호가 일치하지 않습니다.");
         }
 
-        // 2. 일정 삭제
-        calendarRepository.deleteCalendar(id);
+        // 3. 평문이나 약한 강도로 저장된 비밀번호는 확인에 성공한 지금 해시로 바꿔서 저장
+        // (예전 평문 비밀번호가 BCrypt 길이 제한을 넘으면 해시할 수 없으므로 그대로 둠)
+        if (passwordService.needsRehash(storedPassword) && CalendarPasswordService.fitsBcrypt(rawPassword)) {
+            String rehashed = passwordService.hash(rawPassword);
+            if (calendarRepository.updatePassword(id, rehashed, storedPassword)) {
+                passwordService.remember(id, rawPassword, rehashed);
+                return rehashed;
+            }
+        }
+        return storedPassword;
+    }
+
+    // 일정 캐시의 적중 / 실패 / 제거 통계를 조회하는 메서드
+    public CacheStatsResponseDto getCacheStats() {
+        return CacheStatsResponseDto.from(calendarCache.stats(), calendarCache.size());
+    }
+
+    // 일정을 삭제하는 메서드
+    public void deleteCalendar(Long id, String password) {
+        // 1. 삭제 알림에 담을 작성자를 위해 삭제 전의 일정을 조회 (없는 ID면 예외)
+        // 수정과 같이 쓰기 전의 조회는 캐시 / replica 를 거치지 않고 primary 에서 읽음
+        CalendarModel deleted = DataSourceRouting.primary(() -> calendarRepository.getCalendarById(id));
+
+        // 2. 비밀번호 확인 후, 확인한 저장값과 같을 때만 삭제 (조건부 DELETE)
+        String storedPassword = DataSourceRouting.primary(() -> verifyPassword(id, password));
+        if (!calendarRepository.deleteCalendar(id, storedPassword)) {
+            // 기억해둔 확인 결과가 오래된 경우 저장된 값을 primary 에서 다시 읽어 한 번 더 시도
+            passwordService.invalidate(id);
+            storedPassword = DataSourceRouting.primary(() -> verifyPassword(id, password));
+            if (!calendarRepository.deleteCalendar(id, storedPassword)) {
+                throw new IllegalArgumentException("비밀번호가 일치하지 않습니다.");
+            }
+        }
+
+        // 3. 캐시에 남아있는 삭제된 일정과 비밀번호 확인 결과, 검색 색인에서 제거하고 구독자들에게 알림
+        // 캐시에는 삭제 표시를 남겨서 늦게 도착한 수정 결과나 replica 의 이전 값이 다시 채워지지 않게 한다
+        calendarCache.invalidateDeleted(id);
+        passwordService.invalidate(id);
+        searchIndex.remove(id);
+        changeFeed.publish(CalendarChangeFeed.DELETED, deleted);
     }
 }
 
@@ -101,23 +547,41 @@ public class CalendarService {
 
 2. 주요 메서드 흐름
 createCalendar :
-요청 데이터 -> 모델변환 -> 데이터베이스 저장 -> 응답 데이터 반환
+요청 데이터 -> 모델변환 -> 데이터베이스 저장 (그룹 커밋 모드면 다른 요청과 묶어서 한 번에 커밋) -> 응답 데이터 반환
+
+createCalendars :
+항목별 검증 -> 통과한 항목만 배치 저장 -> 요청 순서대로 ID 반환 (실패 항목은 이유와 함께)
 
 getAllCalendars :
-데이터베이스 조회 -> 모델을 응답데이터로 변환
+커서 해석 -> 페이지 크기 + 1 개 조회 -> 모델을 응답데이터로 변환 -> 다음 커서 생성
+
+searchCalendars :
+검색어를 n-gram 으로 나눠 역색인 조회 -> 관련도 순 상위 결과 -> 캐시에서 일정 한 번에 조회 -> 다음 커서 생성
+(생성 / 수정 / 삭제 시 해당 일정만 색인에서 갱신)
+
+streamCalendars :
+데이터베이스에서 한 행씩 읽기 -> 응답데이터로 변환 -> 바로 출력 (NDJSON)
+
+getDailyStats :
+기간 검증 -> 요약 테이블(calendar_daily_stats) 조회 (원본 테이블을 읽지 않음)
+
+getListETag / calendarETag :
+목록은 페이지 범위의 (ID, 버전)만, 단건은 캐시된 일정으로 ETag 계산 -> If-None-Match 가 같으면 304 (조회 / 변환 생략)
+둘 다 형식별로 다른 강한 ETag (목록 "해시.형식", 단건 "ID.버전.형식" - 단건은 If-Match 에도 쓰임)
+Tomcat 은 강한 ETag 가 붙은 응답을 gzip 으로 압축하지 않는다 (압축하면 바이트가 달라져 강한 ETag 가 맞지 않게 되므로)
 
 getCalendarById :
-특정 ID의 일정 조회
+특정 ID의 일정 조회 (캐시를 거쳐 조회, 수정/삭제 시 캐시에서 제거)
 
 updateCalendar :
-비밀번호 검증
-일정 조회
-내용 업데이트
-데이터베이스 저장
+비밀번호 확인 (최근 성공한 확인은 캐시에서, 아니면 BCrypt 비교 + 평문이면 해시로 교체)
+확인한 저장값과 If-Match 버전이 그대로일 때만 수정하는 조건부 UPDATE (버전이 다르면 409 Conflict)
+If-Match 는 강한 비교 : 약한 ETag 나 다른 일정의 ETag 만 있으면 412 Precondition Failed, 여러 개 중 하나만 맞아도 일치
+수정된 일정 조회 후 응답
 
 deleteCalendar :
-비밀번호 검증
-일정 삭제
+비밀번호 확인
+확인한 저장값이 그대로일 때만 삭제하는 조건부 DELETE
 
 3. 주요 기능
 데이터 변환 (RequestDto <-> Model <-> ResponseDto)
@@ -0,0 +1,47 @@
+package com.sparta.calendarproject.service;
+
+import com.sparta.calendarproject.repository.CalendarRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// 작성자 / 날짜별 요약 테이블을 원본 일정 테이블과 다시 맞추는 작업
+// 요약 테이블은 생성 / 수정 / 삭제와 같은 트랜잭션에서 갱신되지만,
+// 데이터베이스를 직접 고치거나 마이그레이션 이전에 남은 어긋남을 주기적으로 보정한다
+@Component  // Spring이 빈으로 등록하게 하는 어노테이션
+public class CalendarStatsReconcileJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarStatsReconcileJob.class);
+
+    private final CalendarRepository calendarRepository;
+
+    // 매번 다시 계산할 최근 날짜 수 (오늘 포함)
+    private final int reconcileDays;
+
+    // 생성자를 통한 의존성 주입
+    public CalendarStatsReconcileJob(CalendarRepository calendarRepository,
+                                     @Value("${calendar.stats.reconcile-days:7}") int reconcileDays) {
+        this.calendarRepository = calendarRepository;
+        this.reconcileDays = reconcileDays;
+    }
+
+    // 설정한 주기(기본 매일 새벽 3시 30분)마다 최근 며칠치를 다시 계산
+    @Scheduled(cron = "${calendar.stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcileRecentDays() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(reconcileDays - 1L), today);
+    }
+
+    // from ~ to (양 끝 포함) 의 요약을 하루씩 다시 계산
+    // 하루 단위로 나누어서 트랜잭션이 짧고, 그동안 다른 날짜의 쓰기를 막지 않는다
+    public void rebuild(LocalDate from, LocalDate to) {
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            calendarRepository.rebuildDailyStats(day);
+        }
+        log.info("일정 통계 재계산 완료: {} ~ {}", from, to);
+    }
+}
@@ -0,0 +1,315 @@
+package com.sparta.calendarproject.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+
+// 메모리 저장소의 변경 기록(append-only log) 과 스냅샷 파일
+// - calendar.log      : 생성 / 수정은 일정 전체(PUT), 삭제는 ID(DELETE) 를 순서대로 덧붙인다
+// - calendar.snapshot : 어느 시점의 전체 일정 (임시 파일에 다 쓴 뒤 이름을 바꿔서 반쯤 쓴 스냅샷이 남지 않음)
+// - calendar.log.1    : 스냅샷을 만드는 동안 잠시 남겨두는 이전 로그 (스냅샷이 완성되면 지움)
+// 다시 시작하면 스냅샷 → calendar.log.1 → calendar.log 순서로 읽어서 메모리 상태를 복구한다
+// PUT 은 일정 전체를 덮어쓰고 DELETE 는 없는 ID 를 지워도 되므로 같은 기록을 두 번 적용해도 결과가 같다
+//
+// 레코드 형식: [길이 int][CRC32 int][내용]
+// 쓰는 도중에 프로세스가 죽어서 끝부분이 잘렸거나 깨진 레코드는 CRC 로 찾아서 그 앞까지만 복구하고 잘라낸다
+final class CalendarLog implements AutoCloseable {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    // 레코드 하나의 최대 크기 (길이 값이 깨졌을 때 엉뚱하게 큰 배열을 만들지 않도록)
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private final Path log;
+    private final Path previousLog;
+    private final Path snapshot;
+
+    // true 면 sync() 에서 디스크에 기록될 때까지 기다림 (fsync)
+    private final boolean syncWrites;
+
+    private FileChannel channel;
+
+    // 지금까지 덧붙인 전체 바이트 수 (로그 파일을 바꿔도 계속 늘어나는 논리적 위치)
+    private volatile long writtenPosition;
+
+    // 디스크 기록이 확인된 논리적 위치
+    private volatile long syncedPosition;
+
+    // 마지막 스냅샷 이후 덧붙인 레코드 수
+    private volatile long recordsSinceSnapshot;
+
+    private final Object syncLock = new Object();
+
+    CalendarLog(Path directory, boolean syncWrites) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("데이터 디렉터리를 만들 수 없습니다: " + directory, e);
+        }
+        this.log = directory.resolve("calendar.log");
+        this.previousLog = directory.resolve("calendar.log.1");
+        this.snapshot = directory.resolve("calendar.snapshot");
+        this.syncWrites = syncWrites;
+    }
+
+    // 스냅샷과 로그를 순서대로 읽어서 put / delete 로 넘기고, 새 기록을 덧붙일 수 있게 로그를 연다
+    // 현재 로그 끝의 깨진 레코드는 잘라낸다
+    void recover(Consumer<StoredCalendar> put, LongConsumer delete) {
+        try {
+            if (Files.exists(snapshot)) {
+                replay(snapshot, put, delete);
+            }
+            if (Files.exists(previousLog)) {
+                replay(previousLog, put, delete);
+            }
+            long validLength = Files.exists(log) ? replay(log, put, delete) : 0;
+            channel = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.truncate(validLength);
+            channel.position(validLength);
+        } catch (IOException e) {
+            throw new UncheckedIOException("저장된 일정을 복구할 수 없습니다", e);
+        }
+    }
+
+    // 생성 / 수정된 일정을 덧붙이고 그 끝의 논리적 위치를 반환 (디스크 기록은 sync 에서)
+    long appendPut(StoredCalendar row) {
+        return append(List.of(encodePut(row)));
+    }
+
+    // 여러 일정을 한 번의 쓰기로 덧붙임 (일괄 생성)
+    long appendPuts(List<StoredCalendar> rows) {
+        return append(rows.stream().map(CalendarLog::encodePut).toList());
+    }
+
+    long appendDelete(long id) {
+        return append(List.of(encodeDelete(id)));
+    }
+
+    // position 까지 디스크에 기록되었음을 보장 (syncWrites=false 면 운영체제에 맡기고 바로 반환)
+    // 동시에 여러 스레드가 기다리면 한 번의 fsync 로 그때까지 쓰인 기록을 함께 확정한다 (그룹 커밋)
+    void sync(long position) {
+        if (!syncWrites || syncedPosition >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedPosition >= position) {
+                return;
+            }
+            long target = writtenPosition;
+            try {
+                currentChannel().force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("일정 변경 기록을 디스크에 쓰지 못했습니다", e);
+            }
+            syncedPosition = Math.max(syncedPosition, target);
+        }
+    }
+
+    long recordsSinceSnapshot() {
+        return recordsSinceSnapshot;
+    }
+
+    // 현재 로그를 calendar.log.1 로 옮기고 빈 로그를 새로 연다 (호출하는 쪽이 그동안 쓰기를 막아야 함)
+    // 이전 스냅샷이 끝나지 못해서 calendar.log.1 이 남아 있으면 그 기록을 잃지 않도록 옮기지 않고 false 반환
+    synchronized boolean rotate() {
+        if (Files.exists(previousLog)) {
+            return false;
+        }
+        try {
+            synchronized (syncLock) {
+                channel.force(false);
+                syncedPosition = writtenPosition;
+                channel.close();
+                Files.move(log, previousLog, StandardCopyOption.ATOMIC_MOVE);
+                channel = FileChannel.open(log, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            }
+            recordsSinceSnapshot = 0;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("일정 변경 기록 파일을 교체하지 못했습니다", e);
+        }
+    }
+
+    // rows 를 스냅샷으로 쓰고, 그 안에 모두 반영된 calendar.log.1 을 지운다
+    void writeSnapshot(Iterable<StoredCalendar> rows) {
+        Path temporary = snapshot.resolveSibling("calendar.snapshot.tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (StoredCalendar row : rows) {
+                write(out, encodePut(row));
+            }
+            out.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷을 쓰지 못했습니다", e);
+        }
+        try {
+            Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(previousLog);
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷을 저장하지 못했습니다", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (channel != null && channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("일정 변경 기록 파일을 닫지 못했습니다", e);
+        }
+    }
+
+    private synchronized long append(List<byte[]> records) {
+        try {
+            for (byte[] record : records) {
+                writtenPosition += write(channel, record);
+            }
+            recordsSinceSnapshot += records.size();
+            return writtenPosition;
+        } catch (IOException e) {
+            throw new UncheckedIOException("일정 변경 기록을 쓰지 못했습니다", e);
+        }
+    }
+
+    private synchronized FileChannel currentChannel() {
+        return channel;
+    }
+
+    // 파일의 레코드를 순서대로 적용하고, 마지막으로 온전한 레코드가 끝나는 위치를 반환
+    private static long replay(Path file, Consumer<StoredCalendar> put, LongConsumer delete) throws IOException {
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    int crc = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        break;
+                    }
+                    payload = in.readNBytes(length);
+                    if (payload.length < length || crc(payload) != crc) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                apply(payload, put, delete);
+                valid += 8 + payload.length;
+            }
+        }
+        return valid;
+    }
+
+    private static void apply(byte[] payload, Consumer<StoredCalendar> put, LongConsumer delete) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        if (type == DELETE) {
+            delete.accept(in.readLong());
+            return;
+        }
+        put.accept(new StoredCalendar(in.readLong(), readString(in), readString(in), readString(in),
+                readTime(in), readTime(in), in.readLong()));
+    }
+
+    private static byte[] encodePut(StoredCalendar row) {
+        return encode(out -> {
+            out.writeByte(PUT);
+            out.writeLong(row.id);
+            writeString(out, row.author);
+            writeString(out, row.todolist);
+            writeString(out, row.password);
+            writeTime(out, row.createDate);
+            writeTime(out, row.updateDate);
+            out.writeLong(row.version);
+        });
+    }
+
+    private static byte[] encodeDelete(long id) {
+        return encode(out -> {
+            out.writeByte(DELETE);
+            out.writeLong(id);
+        });
+    }
+
+    private static byte[] encode(RecordWriter writer) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            writer.write(new DataOutputStream(bytes));
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // [길이][CRC32][내용] 을 한 번에 씀
+    private static int write(FileChannel out, byte[] payload) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+        buffer.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        return 8 + payload.length;
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    // 문자열: 길이(-1 이면 null) + UTF-8 바이트 (writeUTF 는 64KB 제한이 있어서 사용하지 않음)
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    // 시간: null 여부 + (UTC 기준 초, 나노초)
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,732 @@
+package com.sparta.calendarproject.store;
+
+import com.sparta.calendarproject.dto.CalendarCursor;
+import com.sparta.calendarproject.dto.CalendarDailyStatsDto;
+import com.sparta.calendarproject.model.CalendarModel;
+import com.sparta.calendarproject.repository.CalendarRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+// 일정을 애플리케이션 메모리에 저장하는 리포지토리 (calendar.repository.engine=memory)
+// 데이터베이스 왕복 없이 같은 CalendarRepository 작업을 제공하고,
+// calendar.memory.data-dir 을 설정하면 변경 기록(로그)과 스냅샷 파일로 재시작 후에도 일정을 복구한다
+//
+// - 기본 저장소 : ID -> 일정, 박싱 없는 LongObjectMap 을 ID 기준으로 64 개 구역(stripe)에 나누어 저장
+// - 보조 색인   : (updateDate DESC, id DESC) 순서의 정렬 집합 (전체 / 작성자별), 날짜 필터는 이 순서의 범위 검색
+// - 날짜별 통계 : (날짜, 작성자) -> 개수
+//
+// 쓰기는 구역마다 한 번에 하나씩 (구역이 다르면 동시에) 처리하고,
+// 읽기는 잠금을 잡지 않고 StampedLock 의 낙관적 읽기로 읽은 뒤 그 사이 바뀌었으면 다시 읽는다
+@Repository  // Spring이 데이터 접근 컴포넌트로 인식하게 하는 어노테이션
+@ConditionalOnProperty(name = "calendar.repository.engine", havingValue = "memory")
+public class InMemoryCalendarRepository implements CalendarRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryCalendarRepository.class);
+
+    // 구역 수 (2의 거듭제곱)
+    private static final int STRIPES = 64;
+
+    // 목록 순서: 최근 수정 순, 같은 시간이면 ID 역순 (JDBC 의 ORDER BY updateDate DESC, id DESC 와 같음)
+    private static final Comparator<IndexKey> LIST_ORDER = Comparator
+            .comparing((IndexKey key) -> key.updateDate).reversed()
+            .thenComparing(Comparator.comparingLong((IndexKey key) -> key.id).reversed());
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    // 다음에 발급할 ID - 1
+    private final AtomicLong lastId = new AtomicLong();
+
+    // 전체 일정의 목록 순서 색인
+    private final ConcurrentSkipListSet<IndexKey> byUpdateDate = new ConcurrentSkipListSet<>(LIST_ORDER);
+
+    // 작성자 -> 그 작성자 일정의 목록 순서 색인
+    private final Map<String, ConcurrentSkipListSet<IndexKey>> byAuthor = new ConcurrentHashMap<>();
+
+    // (날짜, 작성자) -> 일정 수 (JDBC 의 calendar_daily_stats 요약 테이블 역할)
+    private final ConcurrentSkipListMap<StatsKey, Long> dailyStats = new ConcurrentSkipListMap<>();
+
+    // 목록 ETag 용 변경 횟수 (전체 / 작성자별)
+    private final AtomicLong listVersion = new AtomicLong();
+    private final Map<String, AtomicLong> authorListVersions = new ConcurrentHashMap<>();
+
+    // 재시작하면 변경 횟수가 0 부터 다시 시작하므로, 이전 실행의 ETag 와 겹치지 않도록 실행마다 다른 값을 붙인다
+    private final String listVersionEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // 쓰기는 읽기 잠금(여러 쓰기가 동시에), 스냅샷을 위한 로그 교체는 쓰기 잠금(그동안 쓰기를 멈춤)
+    // 로그에 덧붙인 기록은 교체 전에 반드시 메모리에도 반영되어 있어야 스냅샷에 빠지지 않는다
+    private final ReentrantReadWriteLock gate = new ReentrantReadWriteLock();
+
+    // 변경 기록 (data-dir 이 없으면 null, 메모리에만 저장)
+    private final CalendarLog calendarLog;
+
+    // 마지막 스냅샷 이후 이만큼 기록이 쌓이면 새 스냅샷을 만든다
+    private final long snapshotEvery;
+
+    // 스냅샷을 만드는 배경 스레드 (쓰기 요청이 스냅샷을 기다리지 않도록)
+    private final ExecutorService snapshotter;
+
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    // fsync 가 한 번 실패하면 이후 쓰기를 모두 거절한다 (재시작 전까지)
+    // 실패한 fsync 뒤에는 어디까지 디스크에 남았는지 알 수 없으므로, 그 위에 다음 쓰기를 성공으로 응답하면 안 된다
+    private volatile RuntimeException syncFailure;
+
+    // 생성자를 통한 설정 주입
+    // data-dir 이 비어 있으면 파일에 쓰지 않고, sync-writes=false 면 fsync 를 운영체제에 맡긴다 (빠르지만 장애 시 최근 기록 유실 가능)
+    @Autowired
+    public InMemoryCalendarRepository(@Value("${calendar.memory.data-dir:}") String dataDir,
+                                      @Value("${calendar.memory.sync-writes:true}") boolean syncWrites,
+                                      @Value("${calendar.memory.snapshot-every:100000}") long snapshotEvery) {
+        this(dataDir.isBlank() ? null : Path.of(dataDir), syncWrites, snapshotEvery);
+    }
+
+    // dataDirectory 가 null 이면 메모리에만 저장
+    public InMemoryCalendarRepository(Path dataDirectory, boolean syncWrites, long snapshotEvery) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.snapshotEvery = snapshotEvery;
+        if (dataDirectory == null) {
+            this.calendarLog = null;
+            this.snapshotter = null;
+            return;
+        }
+
+        this.calendarLog = new CalendarLog(dataDirectory, syncWrites);
+        this.snapshotter = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "calendar-memory-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // 스냅샷과 로그를 다시 적용해서 메모리 상태 복구 (색인과 통계도 같은 경로로 다시 만들어짐)
+        calendarLog.recover(this::recoverPut, this::recoverDelete);
+        // 복구한 상태를 새 스냅샷으로 남겨서 다음 재시작 때 다시 읽을 로그를 줄임
+        snapshot();
+        log.info("메모리 저장소 복구 완료: {} 건 ({})", size(), dataDirectory);
+    }
+
+    // 새 일정을 저장하고 생성된 ID를 채워서 반환
+    @Override
+    public CalendarModel createCalendar(CalendarModel calendarModel) {
+        checkWritable();
+        long position = 0;
+        gate.readLock().lock();
+        try {
+            StoredCalendar row = newRow(calendarModel);
+            Stripe stripe = stripe(row.id);
+            stripe.writer.lock();
+            try {
+                if (calendarLog != null) {
+                    position = calendarLog.appendPut(row);
+                }
+                apply(stripe, null, row);
+            } finally {
+                stripe.writer.unlock();
+            }
+        } finally {
+            gate.readLock().unlock();
+        }
+        durable(position);
+        return calendarModel;
+    }
+
+    // 여러 일정을 한 번에 저장 (로그에는 한 번에 덧붙이고 fsync 도 한 번만 함)
+    // 메모리에는 한 번에 반영되므로 chunkSize 로 나눌 필요가 없다
+    @Override
+    public List<CalendarModel> createCalendars(List<CalendarModel> calendarModels, int chunkSize) {
+        checkWritable();
+        long position = 0;
+        gate.readLock().lock();
+        try {
+            List<StoredCalendar> rows = new ArrayList<>(calendarModels.size());
+            for (CalendarModel model : calendarModels) {
+                rows.add(newRow(model));
+            }
+            if (calendarLog != null) {
+                position = calendarLog.appendPuts(rows);
+            }
+            for (StoredCalendar row : rows) {
+                Stripe stripe = stripe(row.id);
+                stripe.writer.lock();
+                try {
+                    apply(stripe, null, row);
+                } finally {
+                    stripe.writer.unlock();
+                }
+            }
+        } finally {
+            gate.readLock().unlock();
+        }
+        durable(position);
+        return calendarModels;
+    }
+
+    // 백업의 ID / 버전 / 비밀번호 해시를 그대로 저장
+    // gate 쓰기 잠금으로 다른 쓰기를 잠깐 멈추고 ID 중복 확인과 반영을 함께 하므로, 이미 있는 ID 가 있으면 아무것도 저장하지 않는다
+    // 저장된 가장 큰 ID 는 apply 에서 lastId 에 반영되므로 이후에 생성되는 일정과 ID 가 겹치지 않는다
+    @Override
+    public List<CalendarModel> restoreCalendars(List<CalendarModel> calendarModels, int chunkSize) {
+        checkWritable();
+        long position = 0;
+        gate.writeLock().lock();
+        try {
+            List<StoredCalendar> rows = new ArrayList<>(calendarModels.size());
+            Set<Long> ids = new HashSet<>();
+            for (CalendarModel model : calendarModels) {
+                if (!ids.add(model.getId()) || find(model.getId()) != null) {
+                    throw new DuplicateKeyException("이미 있는 ID 의 일정입니다: " + model.getId());
+                }
+                rows.add(StoredCalendar.restored(model));
+            }
+            if (calendarLog != null) {
+                position = calendarLog.appendPuts(rows);
+            }
+            for (StoredCalendar row : rows) {
+                Stripe stripe = stripe(row.id);
+                stripe.writer.lock();
+                try {
+                    apply(stripe, null, row);
+                } finally {
+                    stripe.writer.unlock();
+                }
+            }
+        } finally {
+            gate.writeLock().unlock();
+        }
+        durable(position);
+        return calendarModels;
+    }
+
+    // 색인에서 cursor 다음 위치부터 읽어서 limit 개를 모음
+    @Override
+    public List<CalendarModel> getAllCalendars(String author, String updateDate, CalendarCursor cursor, int limit) {
+        List<CalendarModel> rows = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        if (limit <= 0) {
+            return rows;
+        }
+        scan(author, updateDate, cursor, row -> {
+            rows.add(row.toModel());
+            return rows.size() < limit;
+        });
+        return rows;
+    }
+
+    // 날짜 / 커서 / 개수와 관계없이 해당 작성자(없으면 전체)의 변경 횟수를 버전으로 사용
+    // 다른 페이지의 일정이 바뀌어도 버전이 바뀌지만, 페이지가 바뀌었는데 버전이 그대로인 경우는 없다
+    @Override
+    public String getListVersion(String author, String updateDate, CalendarCursor cursor, int limit) {
+        if (updateDate != null && !updateDate.isEmpty()) {
+            // 형식이 잘못된 날짜는 JDBC 구현과 같이 IllegalArgumentException
+            Date.valueOf(updateDate);
+        }
+        AtomicLong version = author != null && !author.isEmpty()
+                ? authorListVersions.computeIfAbsent(author, key -> new AtomicLong())
+                : listVersion;
+        return listVersionEpoch + "|" + version.get();
+    }
+
+    @Override
+    public void streamCalendars(String author, String updateDate, Consumer<CalendarModel> consumer) {
+        scan(author, updateDate, null, row -> {
+            consumer.accept(row.toModel());
+            return true;
+        });
+    }
+
+    // 백업 내보내기용 (비밀번호 해시 포함, 목록 순서로 넘김)
+    @Override
+    public void streamBackup(String author, String updateDate, Consumer<CalendarModel> consumer) {
+        scan(author, updateDate, null, row -> {
+            consumer.accept(row.toBackupModel());
+            return true;
+        });
+    }
+
+    @Override
+    public CalendarModel getCalendarById(Long id) {
+        StoredCalendar row = find(id);
+        if (row == null) {
+            throw new IllegalArgumentException("해당 ID의 일정이 존재하지 않습니다: " + id);
+        }
+        return row.toModel();
+    }
+
+    @Override
+    public Map<Long, CalendarModel> getCalendarsByIds(Collection<? extends Long> ids) {
+        Map<Long, CalendarModel> result = new HashMap<>();
+        for (Long id : ids) {
+            StoredCalendar row = find(id);
+            if (row != null) {
+                result.put(row.id, row.toModel());
+            }
+        }
+        return result;
+    }
+
+    // 비밀번호(와 expectedVersion 이 주어지면 버전)가 같을 때만 수정
+    // 값이 없는(null) 필드는 저장된 값을 그대로 두고 버전을 1 올린다 (JDBC 의 COALESCE 와 같음)
+    // 구역의 쓰기 잠금 안에서 확인과 교체를 함께 하므로 재시도가 필요 없다
+    @Override
+    public boolean updateCalendar(CalendarModel calendarModel, String password, Long expectedVersion) {
+        return write(calendarModel.getId(), before -> {
+            if (password == null || !password.equals(before.password)
+                    || (expectedVersion != null && before.version != expectedVersion)) {
+                return before;
+            }
+            return new StoredCalendar(before.id,
+                    calendarModel.getAuthor() != null ? calendarModel.getAuthor() : before.author,
+                    calendarModel.getTodolist() != null ? calendarModel.getTodolist() : before.todolist,
+                    before.password, before.createDate, calendarModel.getUpdateDate(), before.version + 1);
+        });
+    }
+
+    @Override
+    public boolean deleteCalendar(Long id, String password) {
+        return write(id, before -> password != null && password.equals(before.password) ? null : before);
+    }
+
+    @Override
+    public List<CalendarDailyStatsDto> getDailyStats(LocalDate from, LocalDate to, String author) {
+        List<CalendarDailyStatsDto> result = new ArrayList<>();
+        dailyStats.subMap(new StatsKey(from, ""), true, new StatsKey(to.plusDays(1), ""), false)
+                .forEach((key, entries) -> {
+                    if (author == null || author.isEmpty() || author.equals(key.author)) {
+                        result.add(new CalendarDailyStatsDto(key.author, key.day, entries));
+                    }
+                });
+        return result;
+    }
+
+    // 하루치 통계를 색인에서 다시 세어서 덮어씀
+    // 통계는 쓰기와 함께 갱신되므로 보통은 바뀌는 것이 없다 (정기 보정 작업과의 호환용)
+    // 세는 동안 쓰기가 통계를 +1 / -1 하면 덮어쓸 때 그 변경이 사라지거나 두 번 반영되므로,
+    // gate 쓰기 잠금으로 그동안 쓰기를 멈춘다 (쓰기는 모두 gate 읽기 잠금을 잡고 apply 한다)
+    @Override
+    public void rebuildDailyStats(LocalDate day) {
+        gate.writeLock().lock();
+        try {
+            Map<String, Long> counts = new HashMap<>();
+            scan(null, day.toString(), null, row -> {
+                counts.merge(row.author, 1L, Long::sum);
+                return true;
+            });
+            dailyStats.subMap(new StatsKey(day, ""), true, new StatsKey(day.plusDays(1), ""), false).clear();
+            counts.forEach((author, entries) -> dailyStats.put(new StatsKey(day, author), entries));
+        } finally {
+            gate.writeLock().unlock();
+        }
+    }
+
+    // 저장된 비밀번호가 expectedPassword 일 때만 교체 (버전은 그대로)
+    @Override
+    public boolean updatePassword(Long id, String newPassword, String expectedPassword) {
+        return write(id, before -> expectedPassword != null && expectedPassword.equals(before.password)
+                ? new StoredCalendar(before.id, before.author, before.todolist, newPassword,
+                        before.createDate, before.updateDate, before.version)
+                : before);
+    }
+
+    @Override
+    public String getPasswordById(Long id) {
+        StoredCalendar row = find(id);
+        if (row == null) {
+            throw new IllegalArgumentException("해당 ID의 일정이 존재하지 않습니다: " + id);
+        }
+        return row.password;
+    }
+
+    // 저장된 일정 수
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.writer.lock();
+            try {
+                size += stripe.rows.size();
+            } finally {
+                stripe.writer.unlock();
+            }
+        }
+        return size;
+    }
+
+    // 종료할 때 마지막 스냅샷을 남기고 로그를 닫음 (AutoCloseable 빈이라 Spring 이 종료할 때 호출)
+    @Override
+    public void close() {
+        if (calendarLog == null || !closed.compareAndSet(false, true)) {
+            return;
+        }
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshot();
+        calendarLog.close();
+    }
+
+    // ID 의 구역에서 일정을 읽음 (없으면 null)
+    // 낙관적 읽기 도중 쓰기가 있었으면 다시 읽는다. 쓰기 잠금은 맵에 넣고 빼는 순간에만 잡으므로 금방 끝난다
+    private StoredCalendar find(long id) {
+        Stripe stripe = stripe(id);
+        while (true) {
+            long stamp = stripe.lock.tryOptimisticRead();
+            if (stamp != 0) {
+                StoredCalendar row = stripe.rows.get(id);
+                if (stripe.lock.validate(stamp)) {
+                    return row;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // 일정 하나를 확인하고 바꾸는 공통 경로
+    // change 가 before 를 그대로 돌려주면 바꾸지 않고(false), null 을 돌려주면 삭제한다
+    private boolean write(long id, UnaryOperator<StoredCalendar> change) {
+        checkWritable();
+        Stripe stripe = stripe(id);
+        long position = 0;
+        gate.readLock().lock();
+        stripe.writer.lock();
+        try {
+            StoredCalendar before = stripe.rows.get(id);
+            if (before == null) {
+                return false;
+            }
+            StoredCalendar after = change.apply(before);
+            if (after == before) {
+                return false;
+            }
+            if (calendarLog != null) {
+                position = after == null ? calendarLog.appendDelete(id) : calendarLog.appendPut(after);
+            }
+            apply(stripe, before, after);
+        } finally {
+            stripe.writer.unlock();
+            gate.readLock().unlock();
+        }
+        durable(position);
+        return true;
+    }
+
+    // 바뀐 내용을 메모리의 저장소 / 색인 / 통계에 반영 (구역의 writer 잠금을 잡은 상태에서 호출)
+    // 새 색인 키를 먼저 넣고, 일정을 교체하고, 이전 키를 지운다
+    // 그래서 색인을 훑는 쪽은 일정이 바뀌는 도중에도 이전 값이나 새 값 중 하나를 반드시 보게 되고,
+    // 일정과 맞지 않는 키(이미 바뀐 이전 키, 아직 교체 전의 새 키)는 건너뛴다
+    private void apply(Stripe stripe, StoredCalendar before, StoredCalendar after) {
+        IndexKey oldKey = before == null ? null : new IndexKey(before.updateDate, before.id);
+        IndexKey newKey = after == null ? null : new IndexKey(after.updateDate, after.id);
+        boolean sameKey = oldKey != null && newKey != null && LIST_ORDER.compare(oldKey, newKey) == 0;
+        boolean sameAuthor = before != null && after != null && before.author.equals(after.author);
+
+        if (newKey != null) {
+            if (!sameKey) {
+                byUpdateDate.add(newKey);
+            }
+            if (!sameKey || !sameAuthor) {
+                authorIndex(after.author).add(newKey);
+            }
+        }
+
+        long stamp = stripe.lock.writeLock();
+        try {
+            if (after == null) {
+                stripe.rows.remove(before.id);
+            } else {
+                stripe.rows.put(after.id, after);
+            }
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+
+        if (oldKey != null) {
+            if (!sameKey) {
+                byUpdateDate.remove(oldKey);
+            }
+            if (!sameKey || !sameAuthor) {
+                ConcurrentSkipListSet<IndexKey> index = byAuthor.get(before.author);
+                if (index != null) {
+                    index.remove(oldKey);
+                }
+            }
+            adjustDailyStats(before.author, before.updateDate.toLocalDate(), -1);
+            authorListVersion(before.author).incrementAndGet();
+        }
+        if (after != null) {
+            adjustDailyStats(after.author, after.updateDate.toLocalDate(), 1);
+            if (before == null || !sameAuthor) {
+                authorListVersion(after.author).incrementAndGet();
+            }
+            lastId.accumulateAndGet(after.id, Math::max);
+        }
+        listVersion.incrementAndGet();
+    }
+
+    // 색인을 목록 순서로 훑으면서 조건에 맞는 일정을 visitor 에게 넘김 (visitor 가 false 를 돌려주면 멈춤)
+    // 날짜 필터는 [다음 날 00:00, 해당 날 00:00] 구간이 목록 순서로 이어져 있으므로 시작 위치로 건너뛰고 끝에서 멈춘다
+    private void scan(String author, String updateDate, CalendarCursor cursor, Predicate<StoredCalendar> visitor) {
+        boolean authorFilter = author != null && !author.isEmpty();
+        NavigableSet<IndexKey> index = authorFilter ? byAuthor.get(author) : byUpdateDate;
+        LocalDateTime dayStart = null;
+        IndexKey from = null;
+        if (updateDate != null && !updateDate.isEmpty()) {
+            // Date.valueOf 는 형식이 잘못되면 IllegalArgumentException 을 발생시킨다
+            LocalDate day = Date.valueOf(updateDate).toLocalDate();
+            dayStart = day.atStartOfDay();
+            // 같은 시간 안에서는 ID 역순이므로 (다음 날 00:00, Long.MIN_VALUE) 는 다음 날 00:00 의 마지막 키 뒤를 가리킨다
+            from = new IndexKey(day.plusDays(1).atStartOfDay(), Long.MIN_VALUE);
+        }
+        if (cursor != null) {
+            IndexKey after = new IndexKey(cursor.getUpdateDate(), cursor.getId());
+            if (from == null || LIST_ORDER.compare(after, from) > 0) {
+                from = after;
+            }
+        }
+        if (index == null) {
+            return;
+        }
+
+        for (IndexKey key : from == null ? index : index.tailSet(from, false)) {
+            if (dayStart != null && key.updateDate.isBefore(dayStart)) {
+                return;
+            }
+            StoredCalendar row = find(key.id);
+            // 일정이 삭제되었거나, 이 키가 이미 바뀐 이전 값이거나, 작성자가 바뀐 경우는 건너뜀
+            if (row == null || !row.updateDate.equals(key.updateDate) || (authorFilter && !author.equals(row.author))) {
+                continue;
+            }
+            if (!visitor.test(row)) {
+                return;
+            }
+        }
+    }
+
+    // 로그 기록이 디스크에 쓰일 때까지 기다리고, 기록이 많이 쌓였으면 배경에서 스냅샷을 만든다
+    // 기록은 잠금 안에서 덧붙이지만 fsync 는 잠금을 놓은 뒤 기다리므로 그동안 다른 쓰기가 막히지 않는다
+    //
+    // fsync 가 실패해도 메모리에 반영한 변경은 되돌리지 않는다 (로그에는 이미 덧붙였고, 디스크에 남았는지는 알 수 없음)
+    // 그래서 호출자는 오류를 받지만 그 변경은 다른 요청에게 보일 수 있고, 재시작 후에는 남아 있을 수도 없을 수도 있다
+    // (커밋 응답을 받지 못한 데이터베이스 트랜잭션처럼 결과를 알 수 없는 쓰기 - 클라이언트는 다시 읽어서 확인해야 함)
+    // 대신 이후 쓰기는 모두 거절해서, 유실되었을지 모르는 기록 위에 다른 쓰기를 성공으로 응답하지 않는다
+    private void durable(long position) {
+        if (calendarLog == null) {
+            return;
+        }
+        try {
+            calendarLog.sync(position);
+        } catch (RuntimeException e) {
+            if (syncFailure == null) {
+                syncFailure = e;
+                log.error("메모리 저장소 fsync 실패 - 재시작할 때까지 쓰기를 거절합니다", e);
+            }
+            throw e;
+        }
+        if (calendarLog.recordsSinceSnapshot() >= snapshotEvery && snapshotRunning.compareAndSet(false, true)) {
+            try {
+                snapshotter.execute(() -> {
+                    try {
+                        snapshot();
+                    } catch (RuntimeException e) {
+                        log.warn("메모리 저장소 스냅샷 실패 (다음 기회에 다시 시도)", e);
+                    } finally {
+                        snapshotRunning.set(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // 종료 중이라 실행기가 작업을 받지 않음 (close 에서 마지막 스냅샷을 만든다)
+                snapshotRunning.set(false);
+            }
+        }
+    }
+
+    // 이전 fsync 가 실패했으면 쓰기를 거절 (메모리에 반영하기 전에 확인)
+    private void checkWritable() {
+        RuntimeException failure = syncFailure;
+        if (failure != null) {
+            throw new IllegalStateException("변경 기록을 디스크에 쓰지 못해 쓰기를 멈췄습니다. 재시작이 필요합니다", failure);
+        }
+    }
+
+    // 현재 로그를 옮겨두고(그 순간만 쓰기를 멈춤) 모든 일정을 스냅샷으로 저장
+    // 교체 이후의 쓰기는 새 로그에 남으므로, 스냅샷에 그 일부가 함께 들어가도 복구할 때 다시 적용하면 같은 결과가 된다
+    private synchronized void snapshot() {
+        gate.writeLock().lock();
+        try {
+            calendarLog.rotate();
+        } finally {
+            gate.writeLock().unlock();
+        }
+        List<StoredCalendar> rows = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.writer.lock();
+            try {
+                stripe.rows.forEachValue(rows::add);
+            } finally {
+                stripe.writer.unlock();
+            }
+        }
+        calendarLog.writeSnapshot(rows);
+    }
+
+    private void recoverPut(StoredCalendar row) {
+        Stripe stripe = stripe(row.id);
+        stripe.writer.lock();
+        try {
+            apply(stripe, stripe.rows.get(row.id), row);
+        } finally {
+            stripe.writer.unlock();
+        }
+    }
+
+    private void recoverDelete(long id) {
+        Stripe stripe = stripe(id);
+        stripe.writer.lock();
+        try {
+            StoredCalendar before = stripe.rows.get(id);
+            if (before != null) {
+                apply(stripe, before, null);
+            }
+        } finally {
+            stripe.writer.unlock();
+        }
+    }
+
+    // 새 ID 를 발급해서 모델에 채우고 저장할 일정을 만듦 (버전은 데이터베이스 기본값과 같은 0)
+    private StoredCalendar newRow(CalendarModel model) {
+        long id = lastId.incrementAndGet();
+        model.setId(id);
+        return new StoredCalendar(id, model.getAuthor(), model.getTodolist(), model.getPassword(),
+                model.getCreateDate(), model.getUpdateDate(), 0L);
+    }
+
+    private Stripe stripe(long id) {
+        return stripes[(int) (id ^ (id >>> 32)) & (STRIPES - 1)];
+    }
+
+    private ConcurrentSkipListSet<IndexKey> authorIndex(String author) {
+        return byAuthor.computeIfAbsent(author, key -> new ConcurrentSkipListSet<>(LIST_ORDER));
+    }
+
+    private AtomicLong authorListVersion(String author) {
+        return authorListVersions.computeIfAbsent(author, key -> new AtomicLong());
+    }
+
+    // (작성자, 날짜) 개수를 delta 만큼 바꾸고, 0 이 되면 지운다
+    private void adjustDailyStats(String author, LocalDate day, long delta) {
+        dailyStats.merge(new StatsKey(day, author), delta, (current, change) -> {
+            long entries = current + change;
+            return entries == 0 ? null : entries;
+        });
+    }
+
+    // ID 구역: 쓰기끼리 순서를 정하는 writer 잠금과, 맵을 바꾸는 순간만 잡는 StampedLock
+    // 확인 / 로그 기록처럼 오래 걸릴 수 있는 일은 writer 잠금만 잡고 하므로 낙관적 읽기가 다시 읽는 일이 드물다
+    private static final class Stripe {
+        private final ReentrantLock writer = new ReentrantLock();
+        private final StampedLock lock = new StampedLock();
+        private final LongObjectMap<StoredCalendar> rows = new LongObjectMap<>(1024);
+    }
+
+    // 목록 색인의 키 (수정 시간, ID)
+    private static final class IndexKey {
+        private final LocalDateTime updateDate;
+        private final long id;
+
+        private IndexKey(LocalDateTime updateDate, long id) {
+            this.updateDate = updateDate;
+            this.id = id;
+        }
+    }
+
+    // 날짜별 통계의 키 (날짜, 작성자 순으로 정렬 - JDBC 의 ORDER BY day, author 와 같음)
+    private static final class StatsKey implements Comparable<StatsKey> {
+        private final LocalDate day;
+        private final String author;
+
+        private StatsKey(LocalDate day, String author) {
+            this.day = day;
+            this.author = author;
+        }
+
+        @Override
+        public int compareTo(StatsKey other) {
+            int byDay = day.compareTo(other.day);
+            return byDay != 0 ? byDay : author.compareTo(other.author);
+        }
+    }
+}
+
+
+/*
+주요설명과 공부한 내용정리
+
+1. 메모리 저장소란?
+데이터베이스 대신 애플리케이션 메모리(자바 힙)에 일정을 저장하는 CalendarRepository 구현
+네트워크 왕복, SQL 파싱, 커넥션 풀 대기가 없어서 조회 / 수정이 마이크로초 단위로 끝난다
+calendar.repository.engine=memory 로 선택하고, calendar.memory.data-dir 을 주면 파일로 영속화한다
+
+2. 저장 구조
+LongObjectMap : long 키를 박싱 없이 long[] 배열에 저장하는 열린 주소법 해시 맵 (객체 수와 GC 부담 감소)
+구역(stripe) 나누기 : ID 별로 64 개 구역에 나누고 구역마다 잠금을 따로 두어서 서로 다른 일정의 쓰기가 동시에 진행
+보조 색인 : ConcurrentSkipListSet 에 (updateDate DESC, id DESC) 순서로 키를 저장
+ - 목록 조회 / 커서 페이지 / 날짜 필터가 모두 정렬된 순서의 범위 검색이 됨 (JDBC 의 인덱스 범위 검색과 같은 역할)
+ - 작성자별 색인을 따로 두어서 작성자 필터는 그 작성자의 일정만 훑음
+
+3. 잠금 없는 읽기
+StampedLock.tryOptimisticRead() : 잠금을 잡지 않고 읽을 수 있는 표(stamp)를 받음
+validate(stamp) : 그 사이 쓰기가 있었는지 확인, 있었으면 다시 읽음
+저장된 일정(StoredCalendar)은 바꿀 수 없는 객체라서 참조 하나만 읽으면 일정 전체를 일관되게 볼 수 있다
+
+4. 영속화 (WAL + 스냅샷)
+쓰기는 먼저 변경 기록(로그)에 덧붙이고 메모리에 반영한 뒤, fsync 가 끝나면 응답한다
+여러 쓰기가 동시에 fsync 를 기다리면 한 번의 fsync 로 함께 확정한다 (그룹 커밋)
+로그가 길어지면 배경에서 전체 일정을 스냅샷으로 저장하고 이전 로그를 지운다
+재시작 시 스냅샷 → 남은 로그 순서로 다시 적용해서 복구 (끝이 깨진 레코드는 CRC 로 찾아서 버림)
+
+주의할 점
+일정은 fsync 전에 메모리에 반영되므로, 응답받기 전의 쓰기를 다른 요청이 먼저 볼 수 있다 (응답한 쓰기는 디스크에 있음)
+fsync 가 실패한 쓰기는 되돌리지 않는다 : 호출자는 오류를 받지만 그 변경은 보이고, 재시작 후에는 남아 있을 수도 없을 수도 있다
+ - 성공 응답을 받은 쓰기만 디스크에 있음을 보장하고, 오류 응답은 "반영되지 않음" 이 아니라 "결과를 알 수 없음" 이다
+ - 실패한 fsync 뒤의 로그 상태는 믿을 수 없으므로 그 뒤의 쓰기는 재시작할 때까지 모두 거절한다
+   (fsync 를 다시 시도해서 성공해도, 앞서 실패한 기록이 디스크에 남았다는 보장은 없다)
+rebuildDailyStats 는 gate 쓰기 잠금을 잡고 세고 덮어쓰므로, 그동안 쓰기가 잠깐 멈춘다 (하루치 색인 범위만 훑음)
+모든 일정이 힙에 올라가므로 일정 수에 맞게 -Xmx 를 잡아야 한다
+여러 인스턴스가 같은 데이터를 공유할 수 없다 (한 프로세스 전용 저장소)
+ */
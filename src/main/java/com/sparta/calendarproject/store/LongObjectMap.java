@@ -0,0 +1,159 @@
+package com.sparta.calendarproject.store;
+
+import java.util.function.Consumer;
+
+// long 키를 박싱(Long 객체) 없이 그대로 저장하는 해시 맵 (열린 주소법, 선형 탐사)
+// HashMap<Long, V> 는 항목마다 Long 객체와 Node 객체가 생기지만, 여기서는 long[] 과 Object[] 두 배열만 사용한다
+// 키 0 은 빈 칸 표시로 쓰므로 저장할 수 없다 (일정 ID 는 1 부터 시작)
+//
+// 스레드 안전하지 않다. 쓰기는 호출하는 쪽이 잠금으로 한 번에 하나씩만 하고,
+// 읽기는 StampedLock 의 낙관적 읽기로 잠금 없이 하다가 그 사이 쓰기가 있었으면 다시 읽는다
+// 그래서 읽는 도중에 배열이 바뀌어도 예외나 무한 루프가 생기지 않도록 키와 값 배열을 한 객체(Table) 로 묶어서 통째로 바꾼다
+final class LongObjectMap<V> {
+
+    // 배열의 최대 사용 비율 (넘으면 두 배로 늘림)
+    private static final double LOAD_FACTOR = 0.6;
+
+    private Table table;
+
+    private int size;
+
+    LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) * 2 - 1);
+        this.table = new Table(capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        Table current = table;
+        long[] keys = current.keys;
+        int mask = keys.length - 1;
+        int index = slot(key, mask);
+        // 읽는 중에 다른 스레드가 쓰고 있어도 배열 길이만큼만 돌고 끝난다 (결과는 호출하는 쪽이 validate 로 확인)
+        for (int probes = 0; probes <= mask; probes++) {
+            long found = keys[index];
+            if (found == key) {
+                return (V) current.values[index];
+            }
+            if (found == 0) {
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    // 값을 넣고 이전 값을 반환 (없었으면 null)
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("키 0 은 저장할 수 없습니다.");
+        }
+        long[] keys = table.keys;
+        int mask = keys.length - 1;
+        int index = slot(key, mask);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                V previous = (V) table.values[index];
+                table.values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        // 값을 먼저 쓰고 키를 나중에 써서, 낙관적으로 읽는 쪽이 키만 있고 값이 없는 칸을 보는 일을 줄인다
+        table.values[index] = value;
+        keys[index] = key;
+        if (++size > keys.length * LOAD_FACTOR) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    // 키를 지우고 이전 값을 반환 (없었으면 null)
+    // 묘비(tombstone) 를 남기지 않고 뒤에 이어진 항목들을 앞으로 당겨서(backward shift) 탐사 거리가 늘어나지 않게 한다
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        long[] keys = table.keys;
+        Object[] values = table.values;
+        int mask = keys.length - 1;
+        int index = slot(key, mask);
+        while (keys[index] != key) {
+            if (keys[index] == 0) {
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+        V previous = (V) values[index];
+
+        int hole = index;
+        int next = hole;
+        while (true) {
+            next = (next + 1) & mask;
+            if (keys[next] == 0) {
+                break;
+            }
+            int ideal = slot(keys[next], mask);
+            // ideal 이 (hole, next] 구간 밖이면 hole 로 당겨도 탐사로 찾을 수 있다
+            boolean between = hole <= next ? hole < ideal && ideal <= next : hole < ideal || ideal <= next;
+            if (!between) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+        size--;
+        return previous;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // 모든 값을 순서 없이 넘김 (쓰기를 막은 상태에서 호출)
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<V> consumer) {
+        Table current = table;
+        for (int i = 0; i < current.keys.length; i++) {
+            if (current.keys[i] != 0) {
+                consumer.accept((V) current.values[i]);
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        Table old = table;
+        Table resized = new Table(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < old.keys.length; i++) {
+            long key = old.keys[i];
+            if (key != 0) {
+                int index = slot(key, mask);
+                while (resized.keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                resized.keys[index] = key;
+                resized.values[index] = old.values[i];
+            }
+        }
+        table = resized;
+    }
+
+    // 연속된 ID 가 이웃한 칸에 몰리지 않도록 곱셈 해시로 섞음
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    // 같은 길이의 키 / 값 배열 (크기를 늘릴 때 둘을 한 번에 바꾸기 위해 묶음)
+    private static final class Table {
+        private final long[] keys;
+        private final Object[] values;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.sparta.calendarproject.store;
+
+import com.sparta.calendarproject.model.CalendarModel;
+
+import java.time.LocalDateTime;
+
+// 메모리 저장소에 들어있는 일정 한 건 (바꿀 수 없는 값)
+// 수정하면 새 객체로 통째로 교체하므로 잠금 없이 읽는 쪽이 반쯤 바뀐 일정을 보는 일이 없다
+final class StoredCalendar {
+
+    final long id;
+    final String author;
+    final String todolist;
+    final String password;
+    final LocalDateTime createDate;
+    final LocalDateTime updateDate;
+    final long version;
+
+    StoredCalendar(long id, String author, String todolist, String password,
+                   LocalDateTime createDate, LocalDateTime updateDate, long version) {
+        this.id = id;
+        this.author = author;
+        this.todolist = todolist;
+        this.password = password;
+        this.createDate = createDate;
+        this.updateDate = updateDate;
+        this.version = version;
+    }
+
+    // 호출하는 쪽이 마음대로 바꿀 수 있는 새 모델로 변환 (비밀번호는 JDBC 조회처럼 채우지 않음)
+    CalendarModel toModel() {
+        return new CalendarModel(id, author, todolist, null, createDate, updateDate, version);
+    }
+
+    // 비밀번호 해시까지 채운 모델로 변환 (백업 내보내기용)
+    CalendarModel toBackupModel() {
+        return new CalendarModel(id, author, todolist, password, createDate, updateDate, version);
+    }
+
+    // 백업에서 읽은 일정을 ID / 버전 / 비밀번호 해시 그대로 저장할 일정으로 만듦
+    static StoredCalendar restored(CalendarModel model) {
+        return new StoredCalendar(model.getId(), model.getAuthor(), model.getTodolist(), model.getPassword(),
+                model.getCreateDate(), model.getUpdateDate(), model.getVersion());
+    }
+}
@@ -0,0 +1,10 @@
+-- 일정(calendar) 테이블 생성
+-- schedule.sql 로 이미 테이블을 만든 데이터베이스는 baseline(V1) 으로 기록되고 이 스크립트는 건너뛴다
+create table if not exists calendar (
+    id int auto_increment primary key,
+    author varchar(100) not null,
+    todolist varchar(255) not null,
+    password varchar(100) not null,
+    createDate timestamp default current_timestamp,
+    updateDate timestamp default current_timestamp on update current_timestamp
+);
@@ -0,0 +1,8 @@
+-- 실제 조회 경로에 맞춘 복합 인덱스 추가
+
+-- 작성자 필터 + 최근 수정 순 정렬 (GET /api/lists?author=)
+create index idx_calendar_author_update_date on calendar (author, updateDate desc);
+
+-- 전체 / 날짜 범위 조회 + (updateDate, id) 키셋 페이지네이션 (GET /api/lists, ?updateDate=, ?cursor=)
+-- 목록은 항상 updateDate DESC, id DESC 로 정렬하므로 같은 방향으로 인덱스를 만든다
+create index idx_calendar_update_date_id on calendar (updateDate desc, id desc);
@@ -0,0 +1,3 @@
+-- 낙관적 동시성 제어용 버전 컬럼 추가
+-- 일정이 수정될 때마다 1씩 증가하고, 수정 요청은 자신이 읽었던 버전과 같을 때만 반영된다 (compare-and-set)
+alter table calendar add column version bigint not null default 0;
@@ -0,0 +1,17 @@
+-- 작성자별 / 날짜(수정일 기준)별 일정 수 요약 테이블
+-- 일정이 생성 / 수정 / 삭제될 때 같은 트랜잭션 안에서 함께 갱신되어, 통계 조회가 원본 테이블 크기와 상관없이 빠르다
+create table if not exists calendar_daily_stats (
+    author varchar(100) not null,
+    day date not null,
+    entries bigint not null,
+    primary key (author, day)
+);
+
+-- 작성자 조건 없이 기간으로만 조회할 때 사용
+create index idx_calendar_daily_stats_day on calendar_daily_stats (day);
+
+-- 이미 있는 일정으로 요약 테이블 채우기
+insert into calendar_daily_stats (author, day, entries)
+select author, cast(updateDate as date), count(*)
+from calendar
+group by author, cast(updateDate as date);
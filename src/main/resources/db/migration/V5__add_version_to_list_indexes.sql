@@ -0,0 +1,7 @@
+-- 목록 ETag 용 버전 조회(COUNT / MAX / SUM(version)) 가 테이블 행을 읽지 않고 인덱스만으로 계산되도록
+-- 목록 인덱스 끝에 version 컬럼을 추가한다 (수정되면 updateDate 도 바뀌어 어차피 인덱스 항목을 다시 쓰므로 추가 비용이 거의 없음)
+drop index idx_calendar_author_update_date on calendar;
+create index idx_calendar_author_update_date on calendar (author, updateDate desc, version);
+
+drop index idx_calendar_update_date_id on calendar;
+create index idx_calendar_update_date_id on calendar (updateDate desc, id desc, version);
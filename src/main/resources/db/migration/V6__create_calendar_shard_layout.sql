@@ -0,0 +1,8 @@
+-- 샤드 저장소(calendar.repository.engine=sharded)의 구성을 기록하는 테이블 (샤드마다 한 행)
+-- 작성자 배치는 샤드 이름 / 순서로 정해지므로, 시작할 때 지금 구성과 비교해서 바뀌었으면 시작하지 않는다
+-- shard_index : 이 데이터베이스의 샤드 번호, layout : 샤드 0 부터 순서대로 쉼표로 이은 샤드 이름
+create table if not exists calendar_shard_layout (
+    id int primary key,
+    shard_index int not null,
+    layout varchar(2000) not null
+);
@@ -0,0 +1,58 @@
+package com.sparta.calendarproject.cache;
+
+import com.sparta.calendarproject.model.CalendarModel;
+import com.sparta.calendarproject.store.InMemoryCalendarRepository;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 수정 결과가 늦게 도착해도 캐시에 최신 버전이 남고, 삭제된 일정이 다시 채워지지 않는지 검사하는 테스트
+class CalendarCacheTest {
+
+    private static final String PASSWORD = "pw";
+
+    private final InMemoryCalendarRepository repository = new InMemoryCalendarRepository((Path) null, false, 1000);
+
+    private final CalendarCache cache = new CalendarCache(repository, 100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    @Test
+    void olderVersionDoesNotReplaceNewerOne() {
+        CalendarModel created = repository.createCalendar(calendar());
+
+        // 동시에 수정한 두 요청의 put 이 버전 역순으로 도착
+        cache.put(withVersion(created, 2));
+        cache.put(withVersion(created, 1));
+        assertThat(cache.get(created.getId()).getVersion()).isEqualTo(2);
+
+        cache.put(withVersion(created, 3));
+        assertThat(cache.get(created.getId()).getVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void putAfterDeleteDoesNotResurrectCalendar() {
+        CalendarModel created = repository.createCalendar(calendar());
+        CalendarModel loaded = cache.get(created.getId());
+
+        assertThat(repository.deleteCalendar(created.getId(), PASSWORD)).isTrue();
+        cache.invalidateDeleted(created.getId());
+
+        // 삭제 전에 읽어둔 수정 결과가 늦게 도착해도 캐시에 넣지 않고, 다음 조회는 없는 일정이 된다
+        cache.put(withVersion(loaded, loaded.getVersion() + 1));
+        assertThatThrownBy(() -> cache.get(created.getId())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CalendarModel calendar() {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 1, 10, 0);
+        return new CalendarModel(null, "kim", "할 일", PASSWORD, now, now, 0L);
+    }
+
+    private static CalendarModel withVersion(CalendarModel model, long version) {
+        return new CalendarModel(model.getId(), model.getAuthor(), model.getTodolist(), null,
+                model.getCreateDate(), model.getUpdateDate(), version);
+    }
+}
@@ -0,0 +1,63 @@
+package com.sparta.calendarproject.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// CSV 리더 / 라이터가 따옴표, 줄바꿈, BOM 을 올바르게 처리하는지 검사하는 테스트
+class CsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsAcrossLines() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "\uFEFFauthor,todolist\r\n김개발,\"회의, 준비\"\r\n이개발,\"첫 줄\n둘째 줄 \"\"인용\"\"\"\n박개발,\n"), 1024);
+
+        assertThat(reader.next()).containsExactly("author", "todolist");
+        assertThat(reader.next()).containsExactly("김개발", "회의, 준비");
+        assertThat(reader.recordLine()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("이개발", "첫 줄\n둘째 줄 \"인용\"");
+        assertThat(reader.next()).containsExactly("박개발", "");
+        // 따옴표 안의 줄바꿈도 줄 번호에 포함된다
+        assertThat(reader.recordLine()).isEqualTo(5);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void writerOutputReadsBackUnchanged() throws IOException {
+        List<String[]> rows = List.of(
+                new String[]{"1", "a,b", "\"quoted\""},
+                new String[]{"2", "line\r\nbreak", ""});
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        for (String[] row : rows) {
+            writer.writeRow(row);
+        }
+
+        CsvReader reader = new CsvReader(new StringReader(out.toString()), 1024);
+        List<List<String>> read = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            read.add(record);
+        }
+        assertThat(read).hasSize(2);
+        assertThat(read.get(0)).containsExactly(rows.get(0));
+        assertThat(read.get(1)).containsExactly(rows.get(1));
+    }
+
+    @Test
+    void rejectsUnterminatedQuoteWithoutReadingTheRestIntoMemory() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b\n\"열린 따옴표," + "x".repeat(10_000)), 1024);
+
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("2번째 줄");
+    }
+}
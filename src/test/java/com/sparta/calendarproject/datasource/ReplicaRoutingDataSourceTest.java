@@ -0,0 +1,181 @@
+package com.sparta.calendarproject.datasource;
+
+import com.sparta.calendarproject.model.CalendarModel;
+import com.sparta.calendarproject.repository.CalendarRepository;
+import com.sparta.calendarproject.repository.JdbcBulkhead;
+import com.sparta.calendarproject.repository.JdbcCalendarRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 두 개 이상의 메모리 데이터베이스로 읽기/쓰기 분리가 제대로 동작하는지 검사하는 테스트
+// 같은 ID의 일정을 데이터베이스마다 다른 할 일로 넣어두고, 조회 결과로 어느 데이터베이스에서 읽었는지 확인한다
+class ReplicaRoutingDataSourceTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private static final long ID = 1L;
+
+    private DataSource primary;
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        routing.close();
+    }
+
+    @Test
+    void readsRotateAcrossReplicas() {
+        CalendarRepository repository = repository(ReplicaRoutingDataSource.Selection.ROUND_ROBIN,
+                replicas(database("replica-a"), database("replica-b")));
+
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            sources.add(repository.getCalendarById(ID).getTodolist());
+        }
+
+        assertThat(sources).containsExactly("replica-a", "replica-b", "replica-a", "replica-b");
+        assertThat(repository.getPasswordById(ID)).isEqualTo("pw");
+    }
+
+    @Test
+    void writesAndReadYourWritesGoToPrimary() {
+        DataSource replica = database("replica-a");
+        CalendarRepository repository = repository(ReplicaRoutingDataSource.Selection.ROUND_ROBIN, replicas(replica));
+
+        CalendarModel changes = new CalendarModel(ID, null, "updated", null, null, LocalDateTime.now(), null);
+        assertThat(repository.updateCalendar(changes, "pw", null)).isTrue();
+
+        // 쓰기는 primary 에만 반영되고, primary 범위에서 다시 읽으면 방금 쓴 값이 보인다
+        assertThat(todolist(primary)).isEqualTo("updated");
+        assertThat(todolist(replica)).isEqualTo("replica-a");
+        assertThat(DataSourceRouting.primary(() -> repository.getCalendarById(ID)).getTodolist()).isEqualTo("updated");
+        assertThat(repository.getCalendarById(ID).getTodolist()).isEqualTo("replica-a");
+    }
+
+    @Test
+    void readsInsideTransactionUsePrimary() {
+        CalendarRepository repository = repository(ReplicaRoutingDataSource.Selection.ROUND_ROBIN,
+                replicas(database("replica-a")));
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(routing));
+
+        String todolist = transaction.execute(status -> repository.getCalendarById(ID).getTodolist());
+
+        assertThat(todolist).isEqualTo("primary");
+    }
+
+    @Test
+    void unhealthyReplicaIsRemovedFromRotation() {
+        // 존재하지 않는 데이터베이스라서 커넥션을 얻을 수 없는 replica
+        DataSource broken = new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE", "sa", "");
+        CalendarRepository repository = repository(ReplicaRoutingDataSource.Selection.ROUND_ROBIN,
+                replicas(database("replica-a"), broken));
+
+        routing.checkReplicas();
+
+        assertThat(routing.replicaHealth()).containsEntry("replica-0", true).containsEntry("replica-1", false);
+        for (int i = 0; i < 4; i++) {
+            assertThat(repository.getCalendarById(ID).getTodolist()).isEqualTo("replica-a");
+        }
+    }
+
+    @Test
+    void failingReplicaFallsBackToPrimary() {
+        DataSource broken = new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE", "sa", "");
+        CalendarRepository repository = repository(ReplicaRoutingDataSource.Selection.ROUND_ROBIN, replicas(broken));
+
+        // 상태 확인 전이라도 커넥션을 얻지 못하면 primary 에서 읽고 그 replica 는 선택에서 빠진다
+        assertThat(repository.getCalendarById(ID).getTodolist()).isEqualTo("primary");
+        assertThat(routing.replicaHealth()).containsEntry("replica-0", false);
+    }
+
+    @Test
+    void leastBusyPicksReplicaWithFewestConnections() throws Exception {
+        CalendarRepository repository = repository(ReplicaRoutingDataSource.Selection.LEAST_BUSY,
+                replicas(database("replica-a"), database("replica-b")));
+
+        // replica-a 의 커넥션을 하나 빌려둔 동안에는 replica-b 가 선택된다
+        try (Connection held = DataSourceRouting.replica(this::replicaConnection)) {
+            assertThat(held.getMetaData().getURL()).contains("replica-a");
+            assertThat(repository.getCalendarById(ID).getTodolist()).isEqualTo("replica-b");
+        }
+        assertThat(repository.getCalendarById(ID).getTodolist()).isEqualTo("replica-a");
+    }
+
+    @Test
+    void connectionWithCredentialsComesFromPrimary() throws Exception {
+        repository(ReplicaRoutingDataSource.Selection.ROUND_ROBIN, replicas(database("replica-a")));
+
+        // 읽기 전용 범위 안이라도 사용자를 지정한 커넥션은 primary 에서 얻는다
+        try (Connection connection = DataSourceRouting.replica(() -> {
+            try {
+                return routing.getConnection("sa", "");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        })) {
+            assertThat(connection.getMetaData().getURL()).contains("primary");
+        }
+    }
+
+    private Connection replicaConnection() {
+        try {
+            return routing.getConnection();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private CalendarRepository repository(ReplicaRoutingDataSource.Selection selection, Map<String, DataSource> replicas) {
+        // 상태 확인은 테스트에서 직접 호출하도록 주기를 길게 둔다
+        routing = new ReplicaRoutingDataSource(primary, replicas, selection, Duration.ofHours(1));
+        return new JdbcCalendarRepository(new JdbcTemplate(routing),
+                new JdbcBulkhead(10, Duration.ofSeconds(1)), new SimpleMeterRegistry(), 500);
+    }
+
+    private static Map<String, DataSource> replicas(DataSource... dataSources) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < dataSources.length; i++) {
+            replicas.put("replica-" + i, dataSources[i]);
+        }
+        return replicas;
+    }
+
+    // 마이그레이션을 적용한 새 메모리 데이터베이스를 만들고, 이름을 할 일로 가진 일정 하나를 넣음
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + "-"
+                + DATABASES.incrementAndGet() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        new JdbcTemplate(dataSource).update(
+                "INSERT INTO calendar (id, author, todolist, password) VALUES (?, 'author', ?, 'pw')", ID, name);
+        return dataSource;
+    }
+
+    private static String todolist(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT todolist FROM calendar WHERE id = ?", String.class, ID);
+    }
+}
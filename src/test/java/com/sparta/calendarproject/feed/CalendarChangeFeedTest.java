@@ -0,0 +1,246 @@
+package com.sparta.calendarproject.feed;
+
+import com.sparta.calendarproject.model.CalendarModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 변경 알림의 작성자 필터, Last-Event-ID 이어 받기, 느린 구독자 처리, 일괄 변경 알림을 검사하는 테스트
+// 대부분은 전송 실행기를 호출한 스레드에서 바로 실행하도록 바꿔서 보낸 이벤트를 바로 확인하고,
+// 쓰기가 막힌 클라이언트 테스트만 실제 가상 스레드 실행기를 사용한다
+class CalendarChangeFeedTest {
+
+    private CalendarChangeFeed feed;
+
+    @AfterEach
+    void tearDown() {
+        feed.close();
+    }
+
+    @Test
+    void deliversOnlyMatchingAuthor() {
+        feed = feed(10, 10);
+        RecordingEmitter all = new RecordingEmitter();
+        RecordingEmitter kim = new RecordingEmitter();
+        feed.register(all, null, null);
+        feed.register(kim, "kim", null);
+
+        feed.publish(CalendarChangeFeed.CREATED, calendar(1L, "kim"));
+        feed.publish(CalendarChangeFeed.UPDATED, calendar(2L, "lee"));
+        feed.publish(CalendarChangeFeed.DELETED, calendar(1L, "kim"));
+
+        assertThat(all.events()).containsExactly("1:created", "2:updated", "3:deleted");
+        assertThat(kim.events()).containsExactly("1:created", "3:deleted");
+    }
+
+    @Test
+    void resumesAfterLastEventId() {
+        feed = feed(10, 10);
+        for (long i = 1; i <= 5; i++) {
+            feed.publish(CalendarChangeFeed.CREATED, calendar(i, "kim"));
+        }
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.register(emitter, null, "3");
+        feed.publish(CalendarChangeFeed.UPDATED, calendar(1L, "kim"));
+
+        assertThat(emitter.events()).containsExactly("4:created", "5:created", "6:updated");
+    }
+
+    @Test
+    void resetsWhenLastEventIdIsNoLongerKept() {
+        // 최근 3개만 보관하므로 1번 다음부터는 이어 받을 수 없다
+        feed = feed(3, 10);
+        for (long i = 1; i <= 5; i++) {
+            feed.publish(CalendarChangeFeed.CREATED, calendar(i, "kim"));
+        }
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.register(emitter, null, "1");
+
+        assertThat(emitter.events()).containsExactly("5:reset");
+    }
+
+    @Test
+    void disconnectsSubscriberThatFallsBehind() {
+        // 전송 작업을 실행하지 않는 실행기로 쓰기가 막힌 느린 클라이언트를 흉내낸다
+        List<Runnable> pending = new ArrayList<>();
+        feed = new CalendarChangeFeed(10, 3, Duration.ofMinutes(1), Duration.ofHours(1), pending::add);
+        RecordingEmitter slow = new RecordingEmitter();
+        feed.register(slow, null, null);
+
+        // 연결 주석 1개 + 이벤트 2개로 대기열(3개)이 가득 찬 뒤 다음 이벤트에서 연결을 끊는다
+        feed.publish(CalendarChangeFeed.CREATED, calendar(1L, "kim"));
+        feed.publish(CalendarChangeFeed.CREATED, calendar(2L, "kim"));
+        assertThat(feed.subscriberCount()).isOne();
+        feed.publish(CalendarChangeFeed.CREATED, calendar(3L, "kim"));
+        assertThat(feed.subscriberCount()).isZero();
+
+        // 연결은 발행 스레드가 아니라 전송 실행기에서 닫힌다
+        assertThat(slow.completed).isFalse();
+        pending.forEach(Runnable::run);
+        assertThat(slow.completed).isTrue();
+        assertThat(slow.events()).isEmpty();
+    }
+
+    @Test
+    void blockedClientDoesNotStallPublishers() throws Exception {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        feed = new CalendarChangeFeed(100, 4, Duration.ofMinutes(1), Duration.ofHours(1), executor);
+        BlockingEmitter blocked = new BlockingEmitter();
+        RecordingEmitter healthy = new RecordingEmitter();
+        feed.register(blocked, null, null);
+        feed.register(healthy, null, null);
+        // 첫 전송(연결 주석)에서 쓰기가 멈춘 상태
+        assertThat(blocked.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 막힌 구독자의 대기열이 넘쳐서 연결을 끊는 발행도 기다리지 않고 끝나야 한다
+        CompletableFuture<Void> publishing = CompletableFuture.runAsync(() -> {
+            for (long i = 1; i <= 10; i++) {
+                feed.publish(CalendarChangeFeed.CREATED, calendar(i, "kim"));
+                awaitDelivered(healthy, (int) i);
+            }
+        });
+        publishing.get(5, TimeUnit.SECONDS);
+
+        assertThat(feed.subscriberCount()).isOne();
+        assertThat(healthy.events()).hasSize(10);
+
+        // 막혀 있던 쓰기가 풀리면 연결도 닫힌다
+        blocked.release.countDown();
+        assertThat(blocked.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void bulkChangeIsCoalescedIntoOneReset() {
+        // 대기열 8개 : 2개(1/4)까지는 한 건씩, 넘으면 reset 하나
+        List<Runnable> pending = new ArrayList<>();
+        feed = new CalendarChangeFeed(100, 8, Duration.ofMinutes(1), Duration.ofHours(1), pending::add);
+        RecordingEmitter kim = new RecordingEmitter();
+        feed.register(kim, "kim", null);
+
+        feed.publishAll(CalendarChangeFeed.CREATED, List.of(calendar(1L, "kim"), calendar(2L, "kim")));
+        List<CalendarModel> bulk = new ArrayList<>();
+        for (long i = 3; i <= 100; i++) {
+            bulk.add(calendar(i, i % 2 == 0 ? "kim" : "lee"));
+        }
+        feed.publishAll(CalendarChangeFeed.CREATED, bulk);
+        while (!pending.isEmpty()) {
+            pending.remove(0).run();
+        }
+
+        // 대기열보다 훨씬 많은 일정이 생겨도 연결이 유지되고, 작성자 필터와 관계없이 reset 을 받는다
+        assertThat(feed.subscriberCount()).isOne();
+        assertThat(kim.events()).containsExactly("1:created", "2:created", "3:reset");
+
+        // reset 도 보관되므로 이어 받을 때도 전달된다
+        RecordingEmitter resumed = new RecordingEmitter();
+        feed.register(resumed, "lee", "1");
+        while (!pending.isEmpty()) {
+            pending.remove(0).run();
+        }
+        assertThat(resumed.events()).containsExactly("3:reset");
+    }
+
+    private static void awaitDelivered(RecordingEmitter emitter, int count) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitter.events().size() < count && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    // 이벤트 보관 개수와 구독자 대기열 크기만 바꾸고, 전송은 호출한 스레드에서 바로 실행
+    private static CalendarChangeFeed feed(int logSize, int queueSize) {
+        return new CalendarChangeFeed(logSize, queueSize, Duration.ofMinutes(1), Duration.ofHours(1), Runnable::run);
+    }
+
+    private static CalendarModel calendar(Long id, String author) {
+        LocalDateTime now = LocalDateTime.now();
+        return new CalendarModel(id, author, "할 일", null, now, now, 0L);
+    }
+
+    // 보낸 이벤트의 "번호:이름" 을 기록하는 SseEmitter (주석은 제외)
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private static final Pattern EVENT = Pattern.compile("id:(\\d+)\\nevent:(\\w+)\\n");
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder text = new StringBuilder();
+            Set<DataWithMediaType> parts = builder.build();
+            for (DataWithMediaType part : parts) {
+                if (part.getData() instanceof String string) {
+                    text.append(string);
+                }
+            }
+            Matcher matcher = EVENT.matcher(text);
+            if (matcher.find()) {
+                events.add(matcher.group(1) + ":" + matcher.group(2));
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<String> events() {
+            return events;
+        }
+    }
+
+    // 클라이언트가 읽지 않아 쓰기가 막힌 연결을 흉내내는 SseEmitter
+    // 스프링의 SseEmitter 처럼 send 와 complete 가 같은 잠금을 쓰므로, 막힌 send 가 끝나기 전에는 complete 도 끝나지 않는다
+    // (complete 를 바로 끝나게 바꾸면 잠금 안에서 complete 를 부르는 문제를 테스트가 찾지 못한다)
+    private static final class BlockingEmitter extends SseEmitter {
+
+        private final Object writeLock = new Object();
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            synchronized (writeLock) {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            synchronized (writeLock) {
+                completed.countDown();
+            }
+        }
+    }
+}
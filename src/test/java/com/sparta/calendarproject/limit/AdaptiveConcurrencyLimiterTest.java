@@ -0,0 +1,122 @@
+package com.sparta.calendarproject.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// 적응형 제한기가 응답 시간 표본에 따라 한도를 늘리고 줄이는지 검사하는 테스트
+// 시계를 직접 움직이고 응답 시간을 정해서 넣으므로 실행 환경의 속도와 관계없이 같은 결과가 나온다
+class AdaptiveConcurrencyLimiterTest {
+
+    // 제한기의 표본 구간 길이와 구간마다 넣을 표본 수 (AdaptiveConcurrencyLimiter 의 WINDOW_NANOS / WINDOW_MIN_SAMPLES)
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final int SAMPLES = 5;
+
+    private static final long PROBE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void limitDecreasesWhenRttRises() {
+        AdaptiveConcurrencyLimiter limiter = limiter(40);
+        for (int i = 0; i < 3; i++) {
+            window(limiter, 10, 30);
+        }
+        int before = limiter.getLimit();
+
+        // 응답 시간이 기준(10ms)의 4배 - 줄이 생긴 것이므로 바로 크게 줄임
+        window(limiter, 40, 30);
+        assertThat(limiter.getLimit()).isLessThan((int) (before * 0.7));
+        // 줄이 생긴 구간은 기준에 섞지 않음
+        assertThat(limiter.getRttNoLoadSeconds()).isCloseTo(0.010, within(1e-6));
+        assertThat(limiter.getRttSeconds()).isCloseTo(0.040, within(1e-6));
+    }
+
+    @Test
+    void limitGrowsWhileRttIsFlatAndInFlightIsHigh() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        int previous = limiter.getLimit();
+        for (int i = 0; i < 10; i++) {
+            window(limiter, 10, limiter.getLimit());
+            assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(previous);
+            previous = limiter.getLimit();
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(25);
+    }
+
+    @Test
+    void limitStaysWhenInFlightIsFarBelowLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        window(limiter, 10, 5);
+        window(limiter, 10, 5);
+        assertThat(limiter.getLimit()).isEqualTo(20);
+
+        // 요청이 적을 때 느려진 구간은 한도와 관계가 없으므로 줄이지 않음
+        window(limiter, 50, 5);
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void droppedRequestsBackOffMultiplicatively() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.onDropped();
+        assertThat(limiter.getLimit()).isEqualTo(18);
+        assertThat(limiter.getInFlight()).isZero();
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.onDropped();
+        assertThat(limiter.getLimit()).isEqualTo(16);
+
+        // 최소 한도 아래로는 줄이지 않음
+        for (int i = 0; i < 50; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.onDropped();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void probeResetsBaseline() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        window(limiter, 10, 10);
+        assertThat(limiter.getRttNoLoadSeconds()).isCloseTo(0.010, within(1e-6));
+        int before = limiter.getLimit();
+
+        // probe 주기가 지나면 한도를 절반으로 낮추고 기준을 비움
+        clock.addAndGet(PROBE_NANOS);
+        window(limiter, 30, 10);
+        assertThat(limiter.getLimit()).isEqualTo(before / 2);
+        assertThat(limiter.getRttNoLoadSeconds()).isZero();
+
+        // 데이터베이스가 정말 느려졌다면 다음 구간의 응답 시간이 새 기준이 되고, 그 기준에서는 더 줄이지 않음
+        int probed = limiter.getLimit();
+        window(limiter, 30, probed);
+        assertThat(limiter.getRttNoLoadSeconds()).isCloseTo(0.030, within(1e-6));
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(probed);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter("test", initialLimit, 4, 400, PROBE_NANOS, clock::get);
+    }
+
+    // inFlight 건을 받아들이고 구간 길이만큼 시계를 움직인 뒤, 응답 시간이 rttMillis 인 표본으로 구간 하나를 끝냄
+    // 나머지 요청은 표본에 넣지 않고 끝내서 다음 구간에 섞이지 않게 한다
+    private void window(AdaptiveConcurrencyLimiter limiter, long rttMillis, int inFlight) {
+        for (int i = 0; i < inFlight; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        clock.addAndGet(WINDOW_NANOS);
+        for (int i = 0; i < inFlight; i++) {
+            if (i < SAMPLES) {
+                limiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+            } else {
+                limiter.onIgnore();
+            }
+        }
+    }
+}
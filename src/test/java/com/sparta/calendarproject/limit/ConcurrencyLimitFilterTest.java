@@ -0,0 +1,210 @@
+package com.sparta.calendarproject.limit;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 동시 처리 한도 필터의 요청 분류, 503 거절, 과부하에서의 goodput 을 검사하는 테스트
+// 과부하 테스트는 동시에 4건만 처리하고 1건에 10ms 걸리는 가짜 데이터베이스 앞에서
+// 처리 능력만큼(초당 400건)과 그 3배(초당 1200건)의 요청을 일정한 간격으로 보내서
+// 제한 시간(100ms) 안에 성공한 요청 수(goodput)가 3배 부하에서도 거의 그대로인지 확인한다
+// 한도는 처리 능력보다 훨씬 큰 값(200)에서 시작하므로, 응답 시간을 보고 한도를 줄여야만 통과한다
+class ConcurrencyLimitFilterTest {
+
+    // 가짜 데이터베이스의 동시 처리 수와 1건 처리 시간
+    private static final int DATABASE_SLOTS = 4;
+    private static final long SERVICE_MILLIS = 10;
+
+    // 이 시간 안에 끝난 성공 응답만 goodput 으로 셈 (클라이언트 타임아웃)
+    private static final long DEADLINE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // 요청을 보내는 간격 (간격마다 perTick 건)
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Test
+    void rejectsAboveLimitWithRetryAfterAndKeepsReadAndWriteBudgetsSeparate() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setWrite(new ConcurrencyLimitProperties.Limit(1, 1, 1));
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties);
+
+        // 쓰기 한 건이 끝나지 않고 붙잡고 있는 동안
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<MockHttpServletResponse> held = executor.submit(() -> send(filter, "POST", "/api/calendar",
+                    (request, response) -> {
+                        entered.countDown();
+                        await(release);
+                    }));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // 다른 쓰기는 기다리지 않고 바로 503 + Retry-After
+            MockHttpServletResponse rejected = send(filter, "DELETE", "/api/1", (request, response) -> { });
+            assertThat(rejected.getStatus()).isEqualTo(503);
+            assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+            // 조회 한도와 제한하지 않는 요청은 영향 없음
+            assertThat(send(filter, "GET", "/api/lists", (request, response) -> { }).getStatus()).isEqualTo(200);
+            assertThat(send(filter, "POST", "/api/import", (request, response) -> { }).getStatus()).isEqualTo(200);
+            assertThat(send(filter, "GET", "/api/search", (request, response) -> { }).getStatus()).isEqualTo(200);
+
+            release.countDown();
+            assertThat(held.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        }
+        // 붙잡고 있던 쓰기가 끝나면 다시 받아들임
+        assertThat(send(filter, "PUT", "/api/1", (request, response) -> { }).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void streamingAndBatchRequestsAreNotLimited() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setRead(new ConcurrencyLimitProperties.Limit(1, 1, 1));
+        properties.setWrite(new ConcurrencyLimitProperties.Limit(1, 1, 1));
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties);
+
+        // 조회 한 건과 쓰기 한 건이 한도를 모두 쓰고 있는 동안
+        CountDownLatch entered = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain holding = (request, response) -> {
+            entered.countDown();
+            await(release);
+        };
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<MockHttpServletResponse> read = executor.submit(() -> send(filter, "GET", "/api/lists", holding));
+            Future<MockHttpServletResponse> write = executor.submit(() -> send(filter, "POST", "/api/calendar", holding));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // 일반 목록 / 생성은 거절되지만
+            assertThat(send(filter, "GET", "/api/lists", MediaType.APPLICATION_JSON_VALUE, (request, response) -> { })
+                    .getStatus()).isEqualTo(503);
+            assertThat(send(filter, "POST", "/api/calendar", (request, response) -> { }).getStatus()).isEqualTo(503);
+
+            // NDJSON 스트리밍과 일괄 생성은 한도와 관계없이 처리
+            assertThat(send(filter, "GET", "/api/lists", "application/json;q=0.5, application/x-ndjson",
+                    (request, response) -> { }).getStatus()).isEqualTo(200);
+            assertThat(send(filter, "POST", "/api/calendar/batch", (request, response) -> { }).getStatus()).isEqualTo(200);
+
+            release.countDown();
+            assertThat(read.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+            assertThat(write.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void goodputStaysFlatAtThreeTimesCapacity() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setRead(new ConcurrencyLimitProperties.Limit(200, 4, 400));
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties);
+        Semaphore database = new Semaphore(DATABASE_SLOTS, true);
+
+        // 처리 능력: 4 / 10ms = 초당 400건 = 5ms 마다 2건
+        // 처리 능력만큼의 부하에서는 한도의 절반도 쓰지 않으므로 한도가 그대로 200 으로 남는다
+        Load atCapacity = offer(filter, database, 2, Duration.ofSeconds(2));
+
+        // 3배 부하가 시작되면 줄이 생겨 응답 시간이 늘어나고, 그것을 보고 한도를 줄이는 동안의 구간 (결과는 보지 않음)
+        offer(filter, database, 6, Duration.ofSeconds(1));
+        Load overloaded = offer(filter, database, 6, Duration.ofSeconds(2));
+
+        // 3배 부하에서도 goodput 이 처리 능력 근처로 유지되고, 넘치는 요청은 거절됨
+        assertThat(overloaded.good).isGreaterThanOrEqualTo((long) (atCapacity.good * 0.8));
+        assertThat(overloaded.rejected).isGreaterThan(overloaded.good / 2);
+        // 받아들인 요청은 거의 모두 제한 시간 안에 끝남 (줄이 끝없이 길어지지 않음)
+        assertThat(overloaded.late).isLessThan(overloaded.good / 10);
+    }
+
+    // perTick 건씩 TICK 간격으로 duration 동안 요청을 보냄 (응답을 기다리지 않는 열린 모델)
+    private static Load offer(ConcurrencyLimitFilter filter, Semaphore database, int perTick, Duration duration)
+            throws InterruptedException {
+        AtomicLong good = new AtomicLong();
+        AtomicLong late = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        FilterChain slowDatabase = (request, response) -> {
+            database.acquireUninterruptibly();
+            try {
+                Thread.sleep(SERVICE_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                database.release();
+            }
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long next = System.nanoTime();
+            long end = next + duration.toNanos();
+            while (next < end) {
+                for (int i = 0; i < perTick; i++) {
+                    executor.execute(() -> {
+                        long start = System.nanoTime();
+                        MockHttpServletResponse response = send(filter, "GET", "/api/lists", slowDatabase);
+                        long elapsed = System.nanoTime() - start;
+                        if (response.getStatus() == 503) {
+                            rejected.incrementAndGet();
+                        } else if (elapsed <= DEADLINE_NANOS) {
+                            good.incrementAndGet();
+                        } else {
+                            late.incrementAndGet();
+                        }
+                    });
+                }
+                next += TICK_NANOS;
+                TimeUnit.NANOSECONDS.sleep(Math.max(0, next - System.nanoTime()));
+            }
+        }
+        return new Load(good.get(), late.get(), rejected.get());
+    }
+
+    private static MockHttpServletResponse send(ConcurrencyLimitFilter filter, String method, String uri, FilterChain chain) {
+        return send(filter, method, uri, null, chain);
+    }
+
+    private static MockHttpServletResponse send(ConcurrencyLimitFilter filter, String method, String uri, String accept,
+                                                FilterChain chain) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 한 구간의 결과 (제한 시간 안에 성공 / 늦게 성공 / 거절)
+    private static final class Load {
+        private final long good;
+        private final long late;
+        private final long rejected;
+
+        private Load(long good, long late, long rejected) {
+            this.good = good;
+            this.late = late;
+            this.rejected = rejected;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.sparta.calendarproject.repository;
+
+import com.sparta.calendarproject.dto.CalendarDailyStatsDto;
+import com.sparta.calendarproject.model.CalendarModel;
+import com.sparta.calendarproject.service.CalendarStatsReconcileJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 작성자 / 날짜별 요약 테이블(calendar_daily_stats)이 생성 / 수정 / 삭제와 함께 맞게 갱신되는지,
+// 보정 작업이 어긋난 값을 고치는지, 동시 수정으로 재시도할 때도 최신 값 기준으로 옮기는지 검사하는 테스트
+class CalendarDailyStatsTest {
+
+    private static final String PASSWORD = "pw";
+
+    private static final LocalDate DAY_1 = LocalDate.of(2025, 3, 1);
+    private static final LocalDate DAY_2 = LocalDate.of(2025, 3, 2);
+    private static final LocalDate DAY_3 = LocalDate.of(2025, 3, 3);
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private JdbcTemplate jdbcTemplate;
+
+    private CalendarRepository calendarRepository;
+
+    // 다음 일정 UPDATE 바로 앞에서 한 번 실행할 작업 (다른 요청이 먼저 수정한 상황을 만듦)
+    private Runnable beforeNextUpdate;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트마다 새 메모리 데이터베이스를 만들고 실제 마이그레이션 스크립트를 적용
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:daily-stats-"
+                + DATABASES.incrementAndGet() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            public int update(String sql, Object... args) {
+                if (beforeNextUpdate != null && sql.startsWith("UPDATE calendar SET todolist")) {
+                    Runnable action = beforeNextUpdate;
+                    beforeNextUpdate = null;
+                    action.run();
+                }
+                return super.update(sql, args);
+            }
+        };
+        calendarRepository = new JdbcCalendarRepository(jdbcTemplate,
+                new JdbcBulkhead(4, Duration.ofSeconds(10)), new SimpleMeterRegistry(), 500);
+    }
+
+    @Test
+    void createUpdateAndDeleteKeepCountsInStep() {
+        Long first = create("kim", DAY_1).getId();
+        Long second = create("kim", DAY_1).getId();
+        Long third = create("lee", DAY_1).getId();
+        calendarRepository.createCalendars(new ArrayList<>(List.of(calendar("kim", DAY_2), calendar("lee", DAY_2))), 500);
+        assertThat(stats()).containsExactly("kim@2025-03-01=2", "lee@2025-03-01=1", "kim@2025-03-02=1", "lee@2025-03-02=1");
+
+        // 날짜가 바뀌는 수정, 작성자가 바뀌는 수정, 삭제
+        assertThat(calendarRepository.updateCalendar(changes(first, "kim", DAY_2), PASSWORD, null)).isTrue();
+        assertThat(calendarRepository.updateCalendar(changes(second, "park", DAY_1), PASSWORD, null)).isTrue();
+        assertThat(calendarRepository.deleteCalendar(third, PASSWORD)).isTrue();
+
+        // 비밀번호가 틀린 수정 / 삭제는 요약에 영향이 없음
+        assertThat(calendarRepository.updateCalendar(changes(first, "lee", DAY_3), "wrong", null)).isFalse();
+        assertThat(calendarRepository.deleteCalendar(first, "wrong")).isFalse();
+
+        // 개수가 0 이 된 (lee, 3/1) 행은 지워짐
+        assertThat(stats()).containsExactly("park@2025-03-01=1", "kim@2025-03-02=2", "lee@2025-03-02=1");
+        assertThat(stats()).containsExactlyElementsOf(sourceCounts());
+    }
+
+    @Test
+    void rebuildRepairsDrift() {
+        create("kim", DAY_1);
+        create("kim", DAY_1);
+        create("lee", DAY_2);
+        create("lee", DAY_3);
+
+        // 데이터베이스를 직접 고쳐서 요약이 어긋난 상황 (잘못된 개수, 없는 행, 빠진 행)
+        jdbcTemplate.update("UPDATE calendar_daily_stats SET entries = 99 WHERE author = 'kim'");
+        jdbcTemplate.update("INSERT INTO calendar_daily_stats (author, day, entries) VALUES ('ghost', ?, 5)", Date.valueOf(DAY_2));
+        jdbcTemplate.update("DELETE FROM calendar_daily_stats WHERE author = 'lee' AND day = ?", Date.valueOf(DAY_3));
+        assertThat(stats()).isNotEqualTo(sourceCounts());
+
+        new CalendarStatsReconcileJob(calendarRepository, 7).rebuild(DAY_1, DAY_3);
+
+        assertThat(stats()).containsExactly("kim@2025-03-01=2", "lee@2025-03-02=1", "lee@2025-03-03=1");
+        assertThat(stats()).containsExactlyElementsOf(sourceCounts());
+    }
+
+    @Test
+    void retryAfterVersionConflictMovesCountFromLatestState() {
+        Long id = create("kim", DAY_1).getId();
+
+        // 읽은 뒤 UPDATE 하기 전에 다른 요청이 먼저 (lee, 3/2) 로 옮겨서 버전이 바뀜
+        beforeNextUpdate = () -> assertThat(
+                calendarRepository.updateCalendar(changes(id, "lee", DAY_2), PASSWORD, null)).isTrue();
+
+        // 첫 UPDATE 는 버전이 달라 실패하고, 다시 읽은 (lee, 3/2) 에서 (park, 3/3) 으로 옮겨야 한다
+        assertThat(calendarRepository.updateCalendar(changes(id, "park", DAY_3), PASSWORD, null)).isTrue();
+
+        CalendarModel result = calendarRepository.getCalendarById(id);
+        assertThat(result.getAuthor()).isEqualTo("park");
+        assertThat(result.getVersion()).isEqualTo(2);
+        assertThat(stats()).containsExactly("park@2025-03-03=1");
+        assertThat(stats()).containsExactlyElementsOf(sourceCounts());
+    }
+
+    @Test
+    void transactionalWritesHoldOnePermitForTheWholeUnit() {
+        // 허가가 하나뿐이면 트랜잭션 안에서 문장마다 허가를 다시 받으려 할 때 자기 자신을 기다리다 실패한다
+        JdbcBulkhead bulkhead = new JdbcBulkhead(1, Duration.ofMillis(100));
+        calendarRepository = new JdbcCalendarRepository(jdbcTemplate, bulkhead, new SimpleMeterRegistry(), 500);
+
+        Long id = create("kim", DAY_1).getId();
+        calendarRepository.createCalendars(new ArrayList<>(List.of(calendar("lee", DAY_2))), 500);
+
+        // 수정 트랜잭션 안에서 같은 리포지토리로 다시 수정해도 바깥 트랜잭션에 합류하고 허가를 다시 받지 않음
+        beforeNextUpdate = () -> assertThat(
+                calendarRepository.updateCalendar(changes(id, "lee", DAY_2), PASSWORD, null)).isTrue();
+        assertThat(calendarRepository.updateCalendar(changes(id, "park", DAY_3), PASSWORD, null)).isTrue();
+        assertThat(calendarRepository.deleteCalendar(id, PASSWORD)).isTrue();
+        calendarRepository.rebuildDailyStats(DAY_2);
+
+        assertThat(bulkhead.availablePermits()).isEqualTo(1);
+        assertThat(stats()).containsExactly("lee@2025-03-02=1");
+        assertThat(stats()).containsExactlyElementsOf(sourceCounts());
+    }
+
+    @Test
+    void expectedVersionConflictDoesNotRetryOrTouchCounts() {
+        Long id = create("kim", DAY_1).getId();
+        beforeNextUpdate = () -> calendarRepository.updateCalendar(changes(id, "lee", DAY_2), PASSWORD, null);
+
+        // 클라이언트가 기대한 버전(0)이 이미 바뀌었으므로 재시도하지 않고 실패
+        assertThat(calendarRepository.updateCalendar(changes(id, "park", DAY_3), PASSWORD, 0L)).isFalse();
+
+        assertThat(calendarRepository.getCalendarById(id).getAuthor()).isEqualTo("lee");
+        assertThat(stats()).containsExactly("lee@2025-03-02=1");
+    }
+
+    private CalendarModel create(String author, LocalDate day) {
+        return calendarRepository.createCalendar(calendar(author, day));
+    }
+
+    private static CalendarModel calendar(String author, LocalDate day) {
+        LocalDateTime time = day.atTime(10, 0);
+        return new CalendarModel(null, author, "할 일", PASSWORD, time, time, 0L);
+    }
+
+    // 작성자와 수정 시간(날짜)을 바꾸는 수정 내용
+    private static CalendarModel changes(Long id, String author, LocalDate day) {
+        CalendarModel changes = new CalendarModel();
+        changes.setId(id);
+        changes.setAuthor(author);
+        changes.setTodolist("수정");
+        changes.setUpdateDate(day.atTime(12, 0));
+        return changes;
+    }
+
+    // 요약 테이블의 내용 ("작성자@날짜=개수", 날짜 / 작성자 순)
+    private List<String> stats() {
+        return calendarRepository.getDailyStats(DAY_1, DAY_3, null).stream()
+                .map(CalendarDailyStatsTest::format)
+                .toList();
+    }
+
+    // 원본 일정 테이블에서 직접 센 값 (stats() 와 같은 형식과 순서)
+    private List<String> sourceCounts() {
+        return jdbcTemplate.query("SELECT author, CAST(updateDate AS DATE), COUNT(*) FROM calendar"
+                        + " GROUP BY author, CAST(updateDate AS DATE) ORDER BY 2, 1",
+                (rs, rowNum) -> format(new CalendarDailyStatsDto(rs.getString(1), rs.getDate(2).toLocalDate(), rs.getLong(3))));
+    }
+
+    private static String format(CalendarDailyStatsDto stats) {
+        return stats.getAuthor() + "@" + stats.getDay() + "=" + stats.getEntries();
+    }
+}
@@ -0,0 +1,324 @@
+package com.sparta.calendarproject.repository;
+
+import com.sparta.calendarproject.controller.ApiExceptionHandler;
+import com.sparta.calendarproject.dto.CalendarCursor;
+import com.sparta.calendarproject.dto.CalendarDailyStatsDto;
+import com.sparta.calendarproject.model.CalendarModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 그룹 커밋 처리기가 시간 초과 / 종료 / 실패한 배치 / 가득 찬 대기열을 올바르게 처리하는지 검사하는 테스트
+// 배치 저장을 원하는 때까지 멈춰두거나 실패시킬 수 있는 가짜 저장소를 사용해서 실행 순서를 직접 정한다
+class CalendarGroupCommitterTest {
+
+    private static final Duration WAIT_TIMEOUT = Duration.ofSeconds(2);
+
+    private final FakeCalendarRepository repository = new FakeCalendarRepository();
+
+    private final ExecutorService requests = Executors.newCachedThreadPool();
+
+    private CalendarGroupCommitter committer;
+
+    @AfterEach
+    void tearDown() {
+        repository.release();
+        committer.stop();
+        requests.shutdownNow();
+    }
+
+    @Test
+    void requestTimingOutBeforeClaimIsNotSavedButClaimedRequestCompletes() throws Exception {
+        start(10);
+        repository.block();
+        Future<CalendarModel> first = submit("first");
+        // first 는 저장 스레드가 꺼내서 저장하는 중 (멈춰 있음)
+        repository.awaitBatch();
+        Future<CalendarModel> second = submit("second");
+
+        // second 는 저장 스레드가 꺼내가기 전에 wait-timeout 이 지나므로 저장하지 않고 거절
+        assertThatThrownBy(() -> second.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(BulkheadFullException.class);
+        assertThat(committer.queued()).isZero();
+
+        // first 는 이미 배치에 들어갔으므로 제한 시간이 지나도 저장 결과를 받는다
+        repository.release();
+        assertThat(first.get(10, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThat(repository.savedAuthors).containsExactly("first");
+    }
+
+    @Test
+    void stopSavesQueuedRequestsAndRejectsNewOnes() throws Exception {
+        start(10);
+        repository.block();
+        Future<CalendarModel> first = submit("first");
+        repository.awaitBatch();
+        Future<CalendarModel> second = submit("second");
+        Future<CalendarModel> third = submit("third");
+        await(() -> committer.queued() == 2);
+
+        Future<?> stopping = requests.submit(committer::stop);
+        await(() -> !committer.isRunning());
+
+        // 종료가 시작된 뒤에 들어온 요청은 거절
+        assertThatThrownBy(() -> committer.create(calendar("late")))
+                .isInstanceOf(GroupCommitQueueFullException.class);
+
+        // 이미 대기열에 있던 요청은 모두 저장된 뒤에 멈춘다
+        repository.release();
+        stopping.get(10, TimeUnit.SECONDS);
+        assertThat(first.get(10, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThat(second.get(10, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThat(third.get(10, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThat(repository.savedAuthors).containsExactlyInAnyOrder("first", "second", "third");
+    }
+
+    @Test
+    void batchFailingOnBadRowIsRetriedRowByRow() throws Exception {
+        start(10);
+        repository.block();
+        Future<CalendarModel> first = submit("first");
+        repository.awaitBatch();
+        Future<CalendarModel> good = submit("good");
+        Future<CalendarModel> bad = submit(FakeCalendarRepository.INVALID_AUTHOR);
+        await(() -> committer.queued() == 2);
+        repository.release();
+
+        // 잘못된 한 건 때문에 배치가 롤백되어도 나머지 요청은 한 건씩 다시 저장된다
+        assertThat(first.get(10, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThat(good.get(10, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThatThrownBy(() -> bad.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        assertThat(repository.singleCreates).hasValue(2);
+        assertThat(repository.savedAuthors).containsExactlyInAnyOrder("first", "good");
+    }
+
+    @Test
+    void batchFailingOnUnavailableDatabaseIsNotRetried() throws Exception {
+        start(10);
+
+        // 데이터베이스 연결 실패나 벌크헤드 초과는 한 건씩 다시 보내도 똑같이 실패하므로 다시 저장하지 않음
+        repository.failBatchesWith(new DataAccessResourceFailureException("데이터베이스에 연결할 수 없음"));
+        Future<CalendarModel> down = submit("down");
+        assertThatThrownBy(() -> down.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(DataAccessResourceFailureException.class);
+
+        repository.failBatchesWith(new BulkheadFullException("벌크헤드 초과"));
+        Future<CalendarModel> busy = submit("busy");
+        assertThatThrownBy(() -> busy.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(BulkheadFullException.class);
+
+        assertThat(repository.singleCreates).hasValue(0);
+        assertThat(repository.savedAuthors).isEmpty();
+    }
+
+    @Test
+    void fullQueueRejectsWithTooManyRequests() throws Exception {
+        start(1);
+        repository.block();
+        Future<CalendarModel> first = submit("first");
+        repository.awaitBatch();
+        Future<CalendarModel> queued = submit("queued");
+        await(() -> committer.queued() == 1);
+
+        // 대기열이 가득 차면 기다리지 않고 바로 거절하고, 컨트롤러는 429 로 응답한다
+        assertThatThrownBy(() -> committer.create(calendar("rejected")))
+                .isInstanceOfSatisfying(GroupCommitQueueFullException.class, e ->
+                        assertThat(new ApiExceptionHandler().handleGroupCommitQueueFull(e).getStatusCode())
+                                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+
+        repository.release();
+        assertThat(first.get(10, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThat(queued.get(10, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThat(repository.savedAuthors).containsExactly("first", "queued");
+    }
+
+    // 배치를 기다리지 않고(max-delay 0) 대기열에 쌓인 요청만 묶는 그룹 커밋 처리기 시작
+    private void start(int queueCapacity) {
+        committer = new CalendarGroupCommitter(repository, true, 200, Duration.ZERO, queueCapacity, WAIT_TIMEOUT);
+        committer.start();
+    }
+
+    // 다른 스레드에서 생성 요청을 보내고 결과를 기다림
+    private Future<CalendarModel> submit(String author) {
+        return requests.submit(() -> committer.create(calendar(author)));
+    }
+
+    // condition 이 참이 될 때까지 최대 5초 기다림
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("조건을 기다리다 시간 초과").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static CalendarModel calendar(String author) {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 1, 10, 0);
+        return new CalendarModel(null, author, "할 일", "pw", now, now, 0L);
+    }
+
+    // 그룹 커밋이 사용하는 생성 메서드만 구현한 가짜 저장소
+    // block() 하면 release() 할 때까지 배치 저장이 멈추고, 하나의 트랜잭션처럼 배치가 실패하면 아무것도 저장하지 않는다
+    private static final class FakeCalendarRepository implements CalendarRepository {
+
+        // 이 작성자가 들어간 배치와 한 건 저장은 제약 조건 위반으로 실패
+        static final String INVALID_AUTHOR = "invalid";
+
+        private final AtomicLong ids = new AtomicLong();
+
+        private final List<String> savedAuthors = new CopyOnWriteArrayList<>();
+
+        private final AtomicInteger singleCreates = new AtomicInteger();
+
+        // 배치 저장을 시작할 때마다 허가 하나 (저장 스레드가 배치를 꺼내갔는지 확인용)
+        private final Semaphore batchesStarted = new Semaphore(0);
+
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        private volatile RuntimeException batchFailure;
+
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        void failBatchesWith(RuntimeException failure) {
+            batchFailure = failure;
+        }
+
+        void awaitBatch() throws InterruptedException {
+            assertThat(batchesStarted.tryAcquire(5, TimeUnit.SECONDS)).as("배치 저장이 시작되지 않음").isTrue();
+        }
+
+        @Override
+        public CalendarModel createCalendar(CalendarModel calendarModel) {
+            singleCreates.incrementAndGet();
+            return save(List.of(calendarModel)).get(0);
+        }
+
+        @Override
+        public List<CalendarModel> createCalendars(List<CalendarModel> calendarModels, int chunkSize) {
+            batchesStarted.release();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            RuntimeException failure = batchFailure;
+            if (failure != null) {
+                throw failure;
+            }
+            return save(calendarModels);
+        }
+
+        @Override
+        public boolean isBatchAtomic() {
+            return true;
+        }
+
+        // 잘못된 일정이 하나라도 있으면 아무것도 저장하지 않음
+        private List<CalendarModel> save(List<CalendarModel> calendarModels) {
+            if (calendarModels.stream().anyMatch(model -> INVALID_AUTHOR.equals(model.getAuthor()))) {
+                throw new DataIntegrityViolationException("작성자 제약 조건 위반");
+            }
+            for (CalendarModel model : calendarModels) {
+                model.setId(ids.incrementAndGet());
+                savedAuthors.add(model.getAuthor());
+            }
+            return calendarModels;
+        }
+
+        @Override
+        public List<CalendarModel> restoreCalendars(List<CalendarModel> calendarModels, int chunkSize) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<CalendarModel> getAllCalendars(String author, String updateDate, CalendarCursor cursor, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getListVersion(String author, String updateDate, CalendarCursor cursor, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void streamCalendars(String author, String updateDate, Consumer<CalendarModel> consumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void streamBackup(String author, String updateDate, Consumer<CalendarModel> consumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CalendarModel getCalendarById(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<Long, CalendarModel> getCalendarsByIds(Collection<? extends Long> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean updateCalendar(CalendarModel calendarModel, String password, Long expectedVersion) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean deleteCalendar(Long id, String password) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<CalendarDailyStatsDto> getDailyStats(LocalDate from, LocalDate to, String author) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void rebuildDailyStats(LocalDate day) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean updatePassword(Long id, String newPassword, String expectedPassword) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getPasswordById(Long id) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.sparta.calendarproject.repository;
+
+import com.sparta.calendarproject.model.CalendarModel;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 버전 컬럼을 이용한 compare-and-set 수정이 동시 수정에서도 갱신을 잃어버리지 않는지 검사하는 테스트
+// 여러 작성자가 같은 일정의 숫자를 읽고 1 더해서 쓰는 작업을 동시에 반복한다
+class CalendarOptimisticLockTest {
+
+    private static final int WRITERS = 16;
+
+    private static final int INCREMENTS_PER_WRITER = 50;
+
+    private static final String PASSWORD = "pw";
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CalendarRepository calendarRepository;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트마다 새 메모리 데이터베이스를 만들고 실제 마이그레이션 스크립트를 적용
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:optimistic-lock-"
+                + DATABASES.incrementAndGet() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        meterRegistry = new SimpleMeterRegistry();
+        calendarRepository = new JdbcCalendarRepository(new JdbcTemplate(dataSource),
+                new JdbcBulkhead(WRITERS * 2, Duration.ofSeconds(10)), meterRegistry, 500);
+
+        LocalDateTime now = LocalDateTime.now();
+        id = calendarRepository.createCalendar(new CalendarModel(null, "author", "0", PASSWORD, now, now, 0L)).getId();
+    }
+
+    @Test
+    void concurrentWritersLoseNoUpdates() throws Exception {
+        AtomicLong conflicts = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < INCREMENTS_PER_WRITER; i++) {
+                        // 읽은 버전이 그대로일 때만 쓰고, 그 사이 다른 작성자가 먼저 썼으면 다시 읽어서 재시도
+                        while (!increment(calendarRepository.getCalendarById(id))) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // 모든 증가가 한 번씩 정확히 반영되고, 버전도 성공한 수정 횟수만큼 증가해야 한다
+        int expected = WRITERS * INCREMENTS_PER_WRITER;
+        CalendarModel result = calendarRepository.getCalendarById(id);
+        assertThat(result.getTodolist()).isEqualTo(String.valueOf(expected));
+        assertThat(result.getVersion()).isEqualTo(expected);
+
+        // 충돌은 잠금 대기가 아니라 재시도로 해결된다
+        // 읽기와 쓰기 사이에 잠금을 잡지 않으므로 UPDATE 한 번은 다른 작성자의 작업을 기다리지 않고 짧게 끝난다
+        Timer updates = meterRegistry.get("calendar.repository").tag("method", "updateCalendar").timer();
+        assertThat(updates.count()).isEqualTo(expected + conflicts.get());
+        assertThat(updates.max(TimeUnit.MILLISECONDS)).isLessThan(1_000);
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        CalendarModel current = calendarRepository.getCalendarById(id);
+        assertThat(increment(current)).isTrue();
+
+        // 이미 한 번 수정되었으므로 같은 버전으로 다시 쓰면 반영되지 않는다
+        assertThat(increment(current)).isFalse();
+        assertThat(calendarRepository.getCalendarById(id).getTodolist()).isEqualTo("1");
+    }
+
+    // 읽은 일정의 숫자를 1 더해서 읽었던 버전 조건으로 수정
+    private boolean increment(CalendarModel current) {
+        CalendarModel changes = new CalendarModel();
+        changes.setId(id);
+        changes.setTodolist(String.valueOf(Integer.parseInt(current.getTodolist()) + 1));
+        changes.setUpdateDate(LocalDateTime.now());
+        return calendarRepository.updateCalendar(changes, PASSWORD, current.getVersion());
+    }
+}
@@ -0,0 +1,103 @@
+package com.sparta.calendarproject.repository;
+
+import com.sparta.calendarproject.dto.CalendarCursor;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 리포지토리가 만드는 목록 조회 쿼리의 실행 계획(EXPLAIN)을 검사하는 테스트
+// 마이그레이션으로 만든 인덱스를 사용하지 못하고 전체 테이블 스캔으로 빠지면 실패한다
+class CalendarQueryPlanTest {
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUp() {
+        // MySQL 호환 모드의 H2 메모리 데이터베이스에 실제 마이그레이션 스크립트를 적용
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:query-plan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // 옵티마이저가 실제와 비슷한 선택을 하도록 여러 작성자와 날짜에 걸친 데이터를 넣고 통계를 갱신
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Timestamp time = Timestamp.valueOf(base.plusMinutes(i * 17L));
+            rows.add(new Object[]{"author" + (i % 50), "todo " + i, "1234", time, time});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO calendar (author, todolist, password, createDate, updateDate) VALUES (?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void firstPageUsesIndex() {
+        assertUsesIndex(CalendarListQuery.page(null, null, null, 21));
+    }
+
+    @Test
+    void authorFilterUsesIndex() {
+        assertUsesIndex(CalendarListQuery.page("author7", null, null, 21));
+    }
+
+    @Test
+    void updateDateFilterUsesIndex() {
+        assertUsesIndex(CalendarListQuery.page(null, "2025-01-10", null, 21));
+    }
+
+    @Test
+    void authorAndUpdateDateFilterUsesIndex() {
+        assertUsesIndex(CalendarListQuery.page("author7", "2025-01-10", null, 21));
+    }
+
+    @Test
+    void cursorPageUsesIndex() {
+        CalendarCursor cursor = new CalendarCursor(LocalDateTime.of(2025, 1, 20, 12, 0), 2_000L);
+        assertUsesIndex(CalendarListQuery.page(null, null, cursor, 21));
+        assertUsesIndex(CalendarListQuery.page("author7", null, cursor, 21));
+        assertUsesIndex(CalendarListQuery.page(null, "2025-01-20", cursor, 21));
+    }
+
+    @Test
+    void filteredStreamUsesIndex() {
+        assertUsesIndex(CalendarListQuery.stream("author7", null));
+        assertUsesIndex(CalendarListQuery.stream(null, "2025-01-10"));
+    }
+
+    @Test
+    void unfilteredListVersionUsesIndex() {
+        // 필터가 없는 첫 페이지의 ETag 도 전체 테이블이 아니라 페이지 범위만 인덱스로 읽어야 한다
+        assertUsesIndex(CalendarListQuery.version(null, null, null, 21));
+    }
+
+    @Test
+    void filteredListVersionUsesIndex() {
+        assertUsesIndex(CalendarListQuery.version("author7", null, null, 21));
+        assertUsesIndex(CalendarListQuery.version(null, "2025-01-10", null, 21));
+    }
+
+    @Test
+    void cursorListVersionUsesIndex() {
+        CalendarCursor cursor = new CalendarCursor(LocalDateTime.of(2025, 1, 20, 12, 0), 2_000L);
+        assertUsesIndex(CalendarListQuery.version(null, null, cursor, 21));
+        assertUsesIndex(CalendarListQuery.version("author7", null, cursor, 21));
+    }
+
+    // EXPLAIN 결과에 전체 테이블 스캔(tableScan)이 포함되어 있지 않은지 확인
+    private void assertUsesIndex(CalendarListQuery query) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + query.getSql(), String.class, query.getParams());
+        assertThat(plan)
+                .as("실행 계획: %s", plan)
+                .doesNotContainIgnoringCase("tableScan");
+    }
+}
@@ -0,0 +1,213 @@
+package com.sparta.calendarproject.repository;
+
+import com.sparta.calendarproject.dto.CalendarCursor;
+import com.sparta.calendarproject.model.CalendarModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 작성자 기준 샤딩 리포지토리를 메모리 데이터베이스 3개로 검사하는 테스트
+// 작성자별 배치, ID 로 바로 찾아가기, 모든 샤드를 병합한 목록이 한 테이블에서 정렬한 결과와 같은지 확인한다
+class ShardedCalendarRepositoryTest {
+
+    private static final int SHARDS = 3;
+
+    private static final String PASSWORD = "pw";
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final List<JdbcTemplate> databases = new ArrayList<>();
+
+    private ShardedCalendarRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        List<String> names = new ArrayList<>();
+        List<CalendarRepository> shards = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:shard-"
+                    + DATABASES.incrementAndGet() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+            Flyway.configure().dataSource(dataSource).load().migrate();
+            databases.add(new JdbcTemplate(dataSource));
+            names.add("shard-" + i);
+            shards.add(ShardedRepositoryConfig.shard(dataSource, new JdbcBulkhead(10, Duration.ofSeconds(5)),
+                    meterRegistry, 500, "shard-" + i));
+        }
+        // 병합이 여러 번 더 읽어오는 경로도 타도록 스트리밍 페이지를 작게 잡음
+        repository = new ShardedCalendarRepository(names, shards, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    void rowsArePlacedByAuthorAndIdsRouteToTheirShard() {
+        List<CalendarModel> created = createCalendars(60);
+
+        for (CalendarModel model : created) {
+            int shard = repository.shardFor(model.getAuthor());
+            assertThat(ShardedCalendarRepository.shardOf(model.getId())).isEqualTo(shard);
+            assertThat(repository.getCalendarById(model.getId()).getTodolist()).isEqualTo(model.getTodolist());
+            assertThat(databases.get(shard).queryForObject("SELECT COUNT(*) FROM calendar WHERE id = ? AND author = ?",
+                    Long.class, ShardedCalendarRepository.localIdOf(model.getId()), model.getAuthor())).isEqualTo(1L);
+        }
+        // 작성자 10명이 한 샤드에만 몰리지 않음
+        assertThat(created.stream().map(model -> ShardedCalendarRepository.shardOf(model.getId())).distinct().count())
+                .isGreaterThan(1);
+    }
+
+    @Test
+    void mergedPagesMatchSingleTableOrder() {
+        List<CalendarModel> created = createCalendars(60);
+        List<Long> expected = created.stream()
+                .sorted(Comparator.comparing(CalendarModel::getUpdateDate).thenComparing(CalendarModel::getId).reversed())
+                .map(CalendarModel::getId)
+                .toList();
+
+        // 커서로 페이지를 넘기며 모은 결과가 전체를 한 번에 정렬한 결과와 같아야 한다
+        List<Long> paged = new ArrayList<>();
+        CalendarCursor cursor = null;
+        while (true) {
+            List<CalendarModel> page = repository.getAllCalendars(null, null, cursor, 8);
+            page.forEach(model -> paged.add(model.getId()));
+            if (page.size() < 8) {
+                break;
+            }
+            cursor = CalendarCursor.from(page.get(page.size() - 1));
+        }
+        assertThat(paged).containsExactlyElementsOf(expected);
+
+        List<Long> streamed = new ArrayList<>();
+        repository.streamCalendars(null, null, model -> streamed.add(model.getId()));
+        assertThat(streamed).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void authorFilterReadsOneShard() {
+        List<CalendarModel> created = createCalendars(60);
+        List<Long> expected = created.stream()
+                .filter(model -> model.getAuthor().equals("author-3"))
+                .sorted(Comparator.comparing(CalendarModel::getUpdateDate).thenComparing(CalendarModel::getId).reversed())
+                .map(CalendarModel::getId)
+                .toList();
+
+        assertThat(repository.getAllCalendars("author-3", null, null, 100))
+                .extracting(CalendarModel::getId)
+                .containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void updateAndDeleteRouteByIdAndAuthorCannotMoveShards() {
+        CalendarModel model = repository.createCalendar(calendar("author-1", "before", LocalDateTime.now()));
+        String otherShardAuthor = otherShardAuthor(repository.shardFor("author-1"));
+
+        CalendarModel changes = new CalendarModel(model.getId(), null, "after", null, null, LocalDateTime.now(), null);
+        assertThat(repository.updateCalendar(changes, PASSWORD, null)).isTrue();
+        assertThat(repository.getCalendarById(model.getId()).getTodolist()).isEqualTo("after");
+
+        CalendarModel moved = new CalendarModel(model.getId(), otherShardAuthor, null, null, null, LocalDateTime.now(), null);
+        assertThatThrownBy(() -> repository.updateCalendar(moved, PASSWORD, null))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(repository.deleteCalendar(model.getId(), "wrong")).isFalse();
+        assertThat(repository.deleteCalendar(model.getId(), PASSWORD)).isTrue();
+        assertThat(repository.getCalendarsByIds(List.of(model.getId()))).isEmpty();
+    }
+
+    @Test
+    void backupRestoresSameIdsVersionsAndPasswords() {
+        List<CalendarModel> created = createCalendars(30);
+        CalendarModel updated = created.get(4);
+        assertThat(repository.updateCalendar(new CalendarModel(updated.getId(), null, "updated", null, null,
+                updated.getUpdateDate(), null), PASSWORD, null)).isTrue();
+
+        List<CalendarModel> backup = new ArrayList<>();
+        repository.streamBackup(null, null, backup::add);
+        assertThat(backup).hasSize(30).allMatch(model -> PASSWORD.equals(model.getPassword()));
+
+        for (CalendarModel model : created) {
+            assertThat(repository.deleteCalendar(model.getId(), PASSWORD)).isTrue();
+        }
+        repository.restoreCalendars(backup, 500);
+
+        // 같은 ID 로 찾아가고, 버전과 비밀번호도 그대로
+        CalendarModel restored = repository.getCalendarById(updated.getId());
+        assertThat(restored.getTodolist()).isEqualTo("updated");
+        assertThat(restored.getVersion()).isEqualTo(1L);
+        assertThat(repository.getPasswordById(updated.getId())).isEqualTo(PASSWORD);
+        assertThat(repository.getCalendarsByIds(created.stream().map(CalendarModel::getId).toList())).hasSize(30);
+
+        // 같은 백업을 다시 복원하면 기본 키 중복으로 거절
+        CalendarModel again = backup.get(0);
+        assertThatThrownBy(() -> repository.restoreCalendars(List.of(again), 500))
+                .isInstanceOf(DuplicateKeyException.class);
+
+        // 작성자가 지금 배치되는 샤드와 ID 의 샤드가 다르면 거절
+        int shard = ShardedCalendarRepository.shardOf(again.getId());
+        CalendarModel moved = new CalendarModel(again.getId() + 1000, otherShardAuthor(shard), "moved", PASSWORD,
+                again.getCreateDate(), again.getUpdateDate(), 0L);
+        assertThatThrownBy(() -> repository.restoreCalendars(List.of(moved), 500))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shardLayoutChangeStopsStartupUnlessAccepted() {
+        List<String> names = List.of("shard-0", "shard-1", "shard-2");
+        ShardLayoutGuard.verify(names, databases, false);
+        // 같은 구성으로 다시 시작
+        ShardLayoutGuard.verify(names, databases, false);
+
+        // 순서가 바뀌거나 샤드가 빠지면 작성자 배치가 달라지므로 시작하지 않음
+        assertThatThrownBy(() -> ShardLayoutGuard.verify(List.of("shard-0", "shard-2", "shard-1"), databases, false))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ShardLayoutGuard.verify(names.subList(0, 2), databases.subList(0, 2), false))
+                .isInstanceOf(IllegalStateException.class);
+
+        // 일정을 옮긴 뒤 받아들이면 새 구성이 기록되고, 그 뒤로는 새 구성으로 시작
+        List<String> renamed = List.of("shard-0", "shard-1", "shard-2b");
+        ShardLayoutGuard.verify(renamed, databases, true);
+        ShardLayoutGuard.verify(renamed, databases, false);
+        assertThatThrownBy(() -> ShardLayoutGuard.verify(names, databases, false))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    // 작성자 10명의 일정을 count 개 만듦 (같은 수정 시간이 여러 개 생기도록 3개씩 같은 시간)
+    private List<CalendarModel> createCalendars(int count) {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<CalendarModel> models = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            models.add(calendar("author-" + (i % 10), "todo-" + i, base.plusMinutes(i / 3)));
+        }
+        return repository.createCalendars(models, 500);
+    }
+
+    private String otherShardAuthor(int shard) {
+        for (int i = 0; ; i++) {
+            if (repository.shardFor("other-" + i) != shard) {
+                return "other-" + i;
+            }
+        }
+    }
+
+    private static CalendarModel calendar(String author, String todolist, LocalDateTime time) {
+        return new CalendarModel(null, author, todolist, PASSWORD, time, time, 0L);
+    }
+}
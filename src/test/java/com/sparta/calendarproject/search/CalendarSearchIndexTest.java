@@ -0,0 +1,92 @@
+package com.sparta.calendarproject.search;
+
+import com.sparta.calendarproject.dto.CalendarSearchCursor;
+import com.sparta.calendarproject.model.CalendarModel;
+import com.sparta.calendarproject.repository.CalendarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+// 검색 색인의 한국어 n-gram 검색, 점진적 갱신, 커서 페이지네이션을 검사하는 테스트
+class CalendarSearchIndexTest {
+
+    private CalendarSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CalendarSearchIndex(mock(CalendarRepository.class));
+        index.index(calendar(1L, "홍길동", "팀 회의를 준비하기"));
+        index.index(calendar(2L, "김개발", "운동하기"));
+        index.index(calendar(3L, "이회의", "주간 회의 회의록 정리"));
+    }
+
+    @Test
+    void findsKoreanWordWithParticleAttached() {
+        // "회의를" 처럼 조사가 붙어 있어도 "회의" 로 찾을 수 있어야 한다
+        assertThat(ids(index.search("회의", null, 10))).containsExactlyInAnyOrder(1L, 3L);
+        // 한 글자 검색어
+        assertThat(ids(index.search("팀", null, 10))).containsExactly(1L);
+    }
+
+    @Test
+    void ranksDocumentWithMoreMatchesFirst() {
+        // 3번은 "회의" 가 할 일에 두 번, 작성자에 한 번 나온다
+        assertThat(index.search("회의", null, 10).get(0).getId()).isEqualTo(3L);
+    }
+
+    @Test
+    void reflectsUpdatesAndDeletes() {
+        index.index(calendar(2L, "김개발", "회의실 예약", 1L));
+        index.remove(1L);
+
+        assertThat(ids(index.search("회의", null, 10))).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.search("운동", null, 10)).isEmpty();
+    }
+
+    @Test
+    void ignoresStaleUpdatesAndUpdatesAfterDelete() {
+        // 버전 2 가 먼저 반영된 뒤 늦게 도착한 버전 1 은 버림
+        index.index(calendar(2L, "김개발", "회의실 예약", 2L));
+        index.index(calendar(2L, "김개발", "운동 일정", 1L));
+        assertThat(ids(index.search("예약", null, 10))).containsExactly(2L);
+        assertThat(index.search("일정", null, 10)).isEmpty();
+
+        // 삭제 뒤에 늦게 도착한 수정은 삭제된 일정을 되살리지 않음
+        index.remove(1L);
+        index.index(calendar(1L, "홍길동", "팀 회의를 준비하기", 5L));
+        assertThat(ids(index.search("준비", null, 10))).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void pagesWithCursorWithoutDuplicates() {
+        List<SearchHit> first = index.search("하기", null, 1);
+        SearchHit last = first.get(0);
+        List<SearchHit> second = index.search("하기", new CalendarSearchCursor(last.getScore(), last.getId()), 10);
+
+        assertThat(ids(first)).hasSize(1);
+        assertThat(ids(second)).hasSize(1).doesNotContainAnyElementsOf(ids(first));
+    }
+
+    @Test
+    void rejectsQueryWithoutTokens() {
+        assertThatThrownBy(() -> index.search("  !? ", null, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CalendarModel calendar(Long id, String author, String todolist) {
+        return calendar(id, author, todolist, 0L);
+    }
+
+    private static CalendarModel calendar(Long id, String author, String todolist, Long version) {
+        return new CalendarModel(id, author, todolist, null, null, null, version);
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getId).toList();
+    }
+}
@@ -0,0 +1,184 @@
+package com.sparta.calendarproject.store;
+
+import com.sparta.calendarproject.dto.CalendarCursor;
+import com.sparta.calendarproject.dto.CalendarDailyStatsDto;
+import com.sparta.calendarproject.model.CalendarModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 메모리 저장소가 JDBC 구현과 같은 결과를 내는지, 재시작 후 로그 / 스냅샷으로 복구되는지 확인하는 테스트
+class InMemoryCalendarRepositoryTest {
+
+    private static final String PASSWORD = "pw";
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 22, 0);
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void pagesAndFiltersFollowListOrder() {
+        InMemoryCalendarRepository repository = new InMemoryCalendarRepository((Path) null, false, 1000);
+        List<CalendarModel> created = createCalendars(repository, 60);
+
+        // 커서로 페이지를 넘기며 모은 결과가 전체를 한 번에 정렬한 결과와 같아야 한다
+        List<Long> paged = new ArrayList<>();
+        CalendarCursor cursor = null;
+        while (true) {
+            List<CalendarModel> page = repository.getAllCalendars(null, null, cursor, 8);
+            page.forEach(model -> paged.add(model.getId()));
+            if (page.size() < 8) {
+                break;
+            }
+            cursor = CalendarCursor.from(page.get(page.size() - 1));
+        }
+        assertThat(paged).containsExactlyElementsOf(expected(created, null, null));
+
+        // 22:00 부터 10분 간격이라 1월 1일과 1월 2일에 걸쳐 있음
+        assertThat(repository.getAllCalendars("author-3", null, null, 100))
+                .extracting(CalendarModel::getId)
+                .containsExactlyElementsOf(expected(created, "author-3", null));
+        assertThat(repository.getAllCalendars(null, "2025-01-02", null, 100))
+                .extracting(CalendarModel::getId)
+                .containsExactlyElementsOf(expected(created, null, LocalDate.of(2025, 1, 2)));
+        assertThat(repository.getAllCalendars("author-3", "2025-01-01", null, 100))
+                .extracting(CalendarModel::getId)
+                .containsExactlyElementsOf(expected(created, "author-3", LocalDate.of(2025, 1, 1)));
+
+        List<Long> streamed = new ArrayList<>();
+        repository.streamCalendars(null, "2025-01-02", model -> streamed.add(model.getId()));
+        assertThat(streamed).containsExactlyElementsOf(expected(created, null, LocalDate.of(2025, 1, 2)));
+
+        assertThat(repository.getDailyStats(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2), "author-3"))
+                .extracting(CalendarDailyStatsDto::getEntries)
+                .containsExactly(4L, 2L);
+        assertThatThrownBy(() -> repository.getAllCalendars(null, "not-a-date", null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void updatesCheckPasswordAndVersionAndMoveIndexes() {
+        InMemoryCalendarRepository repository = new InMemoryCalendarRepository((Path) null, false, 1000);
+        CalendarModel model = repository.createCalendar(calendar("author-1", "before", BASE));
+        String versionBefore = repository.getListVersion("author-1", null, null, 21);
+
+        LocalDateTime later = BASE.plusDays(3);
+        CalendarModel changes = new CalendarModel(model.getId(), "author-2", "after", null, null, later, null);
+        assertThat(repository.updateCalendar(changes, "wrong", null)).isFalse();
+        assertThat(repository.updateCalendar(changes, PASSWORD, 5L)).isFalse();
+        assertThat(repository.updateCalendar(changes, PASSWORD, 0L)).isTrue();
+
+        CalendarModel updated = repository.getCalendarById(model.getId());
+        assertThat(updated.getTodolist()).isEqualTo("after");
+        assertThat(updated.getVersion()).isEqualTo(1L);
+        assertThat(updated.getPassword()).isNull();
+        assertThat(repository.getListVersion("author-1", null, null, 21)).isNotEqualTo(versionBefore);
+
+        // 작성자와 날짜가 바뀌었으므로 이전 작성자 / 날짜의 목록과 통계에서 빠짐
+        assertThat(repository.getAllCalendars("author-1", null, null, 10)).isEmpty();
+        assertThat(repository.getAllCalendars("author-2", later.toLocalDate().toString(), null, 10))
+                .extracting(CalendarModel::getId)
+                .containsExactly(model.getId());
+        assertThat(repository.getDailyStats(BASE.toLocalDate(), later.toLocalDate(), null))
+                .extracting(CalendarDailyStatsDto::getAuthor)
+                .containsExactly("author-2");
+
+        assertThat(repository.updatePassword(model.getId(), "hash", PASSWORD)).isTrue();
+        assertThat(repository.getPasswordById(model.getId())).isEqualTo("hash");
+        assertThat(repository.deleteCalendar(model.getId(), PASSWORD)).isFalse();
+        assertThat(repository.deleteCalendar(model.getId(), "hash")).isTrue();
+        assertThat(repository.getAllCalendars(null, null, null, 10)).isEmpty();
+        assertThat(repository.getDailyStats(BASE.toLocalDate(), later.toLocalDate(), null)).isEmpty();
+        assertThatThrownBy(() -> repository.getCalendarById(model.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void restartRecoversFromLogAndSnapshot() throws Exception {
+        // 프로세스가 죽은 것처럼 닫지 않고 버림 (스냅샷 없이 로그만 남음)
+        InMemoryCalendarRepository crashed = new InMemoryCalendarRepository(dataDir, true, Long.MAX_VALUE);
+        List<CalendarModel> created = createCalendars(crashed, 40);
+        for (int i = 0; i < 10; i++) {
+            CalendarModel model = created.get(i);
+            crashed.updateCalendar(new CalendarModel(model.getId(), null, "updated-" + i, null, null,
+                    model.getUpdateDate(), null), PASSWORD, null);
+        }
+        CalendarModel deleted = created.get(39);
+        crashed.deleteCalendar(deleted.getId(), PASSWORD);
+        // 쓰다가 죽어서 끝이 잘린 레코드는 버리고 그 앞까지 복구
+        Files.write(dataDir.resolve("calendar.log"), new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        // 로그에서 복구하고, 닫을 때 스냅샷을 남김
+        try (InMemoryCalendarRepository repository = new InMemoryCalendarRepository(dataDir, true, 25)) {
+            assertThat(repository.size()).isEqualTo(39);
+            assertThat(repository.getCalendarById(created.get(3).getId()).getTodolist()).isEqualTo("updated-3");
+            assertThat(repository.getCalendarById(created.get(3).getId()).getVersion()).isEqualTo(1L);
+            assertThat(repository.getCalendarsByIds(List.of(deleted.getId()))).isEmpty();
+
+            // 복구 후에 발급하는 ID 는 이전 ID 와 겹치지 않음
+            CalendarModel next = repository.createCalendar(calendar("author-3", "next", BASE));
+            assertThat(next.getId()).isGreaterThan(deleted.getId());
+        }
+
+        // 스냅샷에서 복구
+        try (InMemoryCalendarRepository repository = new InMemoryCalendarRepository(dataDir, true, 25)) {
+            assertThat(repository.size()).isEqualTo(40);
+            assertThat(repository.getAllCalendars("author-3", null, null, 100)).hasSize(5);
+            assertThat(repository.getCalendarById(created.get(3).getId()).getTodolist()).isEqualTo("updated-3");
+        }
+    }
+
+    @Test
+    void restoreKeepsIdsAndLaterIdsDoNotCollide() {
+        InMemoryCalendarRepository repository = new InMemoryCalendarRepository((Path) null, false, 1000);
+        CalendarModel backup = new CalendarModel(100L, "author-1", "restored", "hash", BASE, BASE, 3L);
+        repository.restoreCalendars(List.of(backup), 500);
+
+        CalendarModel restored = repository.getCalendarById(100L);
+        assertThat(restored.getVersion()).isEqualTo(3L);
+        assertThat(repository.getPasswordById(100L)).isEqualTo("hash");
+        assertThat(repository.getAllCalendars("author-1", null, null, 10)).extracting(CalendarModel::getId)
+                .containsExactly(100L);
+
+        // 복원한 ID 다음부터 발급하고, 이미 있는 ID 는 복원하지 않음
+        assertThat(repository.createCalendar(calendar("author-1", "next", BASE)).getId()).isGreaterThan(100L);
+        assertThatThrownBy(() -> repository.restoreCalendars(List.of(backup), 500))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThat(repository.size()).isEqualTo(2);
+    }
+
+    // 작성자 10명의 일정을 count 개 만듦 (22:00 부터 10분 간격, 같은 시간이 여러 개 생기도록 3개씩 같은 시간)
+    private static List<CalendarModel> createCalendars(InMemoryCalendarRepository repository, int count) {
+        List<CalendarModel> models = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            models.add(calendar("author-" + (i % 10), "todo-" + i, BASE.plusMinutes(i / 3 * 10)));
+        }
+        return repository.createCalendars(models, 500);
+    }
+
+    private static List<Long> expected(List<CalendarModel> created, String author, LocalDate day) {
+        return created.stream()
+                .filter(model -> author == null || model.getAuthor().equals(author))
+                .filter(model -> day == null || model.getUpdateDate().toLocalDate().equals(day))
+                .sorted(Comparator.comparing(CalendarModel::getUpdateDate).thenComparing(CalendarModel::getId).reversed())
+                .map(CalendarModel::getId)
+                .toList();
+    }
+
+    private static CalendarModel calendar(String author, String todolist, LocalDateTime time) {
+        return new CalendarModel(null, author, todolist, PASSWORD, time, time, 0L);
+    }
+}